@@ -27,6 +27,12 @@ import java.lang.annotation.Target;
  * </ol>
  *
  * <p>
+ * Em {@code /options/filter} e {@code /options/by-ids} de recursos JPA, um unico campo persistente
+ * anotado (sem getter anotado) permite selecionar apenas as colunas de id e label, sem carregar as
+ * entidades. Um getter anotado pode derivar o valor em Java, entao mantem a leitura das entidades.
+ * </p>
+ *
+ * <p>
  * A deteccao percorre a cadeia de heranca, entao a anotacao pode ficar em uma superclasse quando
  * isso representar a semantica canonica compartilhada.
  * </p>
@@ -0,0 +1,18 @@
+package org.praxisplatform.uischema.concurrency;
+
+/**
+ * Armazenamento compartilhado das versoes do {@link DatasetVersionTracker}, para que varios nos
+ * publiquem a mesma versao de dataset.
+ */
+public interface DatasetVersionStore {
+
+    /**
+     * Versao atual da chave; {@code 0} quando ainda nao houve escrita.
+     */
+    long current(String key);
+
+    /**
+     * Incrementa atomicamente a chave e devolve a nova versao.
+     */
+    long increment(String key);
+}
@@ -0,0 +1,107 @@
+package org.praxisplatform.uischema.concurrency;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mantem uma versao monotonica por classe de entidade, incrementada a cada escrita confirmada.
+ *
+ * <p>Sem {@link DatasetVersionStore}, os contadores vivem em memoria e a versao publicada carrega
+ * a epoca de inicio do no, para que um reinicio nunca repita um valor ja entregue. Com store, os
+ * contadores sao compartilhados entre nos; cada no le o valor do store no maximo uma vez por
+ * {@code refreshInterval} e enxerga as proprias escritas imediatamente.</p>
+ *
+ * <p>Escritas que nao passam pelos eventos do Hibernate (bulk JPQL, SQL nativo, outros sistemas)
+ * devem chamar {@link #increment(Class)} explicitamente.</p>
+ */
+public class DatasetVersionTracker {
+
+    private final DatasetVersionStore store;
+    private final Duration refreshInterval;
+    private final Clock clock;
+    private final String epoch;
+    private final ConcurrentMap<Class<?>, Counter> counters = new ConcurrentHashMap<>();
+
+    public DatasetVersionTracker() {
+        this(null, Duration.ZERO, Clock.systemUTC());
+    }
+
+    public DatasetVersionTracker(DatasetVersionStore store, Duration refreshInterval, Clock clock) {
+        this.store = store;
+        this.refreshInterval = refreshInterval == null ? Duration.ZERO : refreshInterval;
+        this.clock = clock;
+        this.epoch = Long.toString(clock.millis(), 36);
+    }
+
+    /**
+     * Versao atual de uma classe de entidade.
+     */
+    public String version(Class<?> entityClass) {
+        long value = counter(entityClass).current();
+        return store == null ? epoch + "." + value : Long.toString(value);
+    }
+
+    /**
+     * Versao combinada de varias classes, na ordem informada.
+     */
+    public String version(Collection<? extends Class<?>> entityClasses) {
+        StringJoiner joiner = new StringJoiner("-");
+        for (Class<?> entityClass : entityClasses) {
+            joiner.add(version(entityClass));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Registra uma escrita na classe e em suas superclasses, para que recursos mapeados sobre uma
+     * raiz de heranca tambem mudem de versao.
+     */
+    public void increment(Class<?> entityClass) {
+        for (Class<?> type = entityClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            counter(type).increment();
+        }
+    }
+
+    private Counter counter(Class<?> entityClass) {
+        if (entityClass == null) {
+            throw new IllegalArgumentException("Entity class is required.");
+        }
+        return counters.computeIfAbsent(entityClass, type -> new Counter(type.getName()));
+    }
+
+    private final class Counter {
+
+        private final String key;
+        private final AtomicLong value = new AtomicLong();
+        private volatile long refreshedAt = Long.MIN_VALUE;
+
+        private Counter(String key) {
+            this.key = key;
+        }
+
+        long current() {
+            if (store != null) {
+                long now = clock.millis();
+                if (refreshedAt == Long.MIN_VALUE || now - refreshedAt >= refreshInterval.toMillis()) {
+                    value.accumulateAndGet(store.current(key), Math::max);
+                    refreshedAt = now;
+                }
+            }
+            return value.get();
+        }
+
+        void increment() {
+            if (store == null) {
+                value.incrementAndGet();
+                return;
+            }
+            value.accumulateAndGet(store.increment(key), Math::max);
+            refreshedAt = clock.millis();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.praxisplatform.uischema.concurrency;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Incrementa o {@link DatasetVersionTracker} apos o commit de inserts, updates e deletes de
+ * entidades do Hibernate.
+ *
+ * <p>Os eventos pos-commit garantem que a nova versao so e publicada quando os dados ja estao
+ * visiveis para outras transacoes; commits que falham nao alteram a versao.</p>
+ */
+public final class HibernateDatasetVersionListener implements
+        PostCommitInsertEventListener,
+        PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final DatasetVersionTracker tracker;
+
+    public HibernateDatasetVersionListener(DatasetVersionTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    /**
+     * Registra o listener no {@link EventListenerRegistry} da {@link EntityManagerFactory}.
+     */
+    public static void register(EntityManagerFactory entityManagerFactory, DatasetVersionTracker tracker) {
+        HibernateDatasetVersionListener listener = new HibernateDatasetVersionListener(tracker);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        tracker.increment(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        tracker.increment(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        tracker.increment(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+}
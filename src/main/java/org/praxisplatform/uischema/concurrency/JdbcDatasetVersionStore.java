@@ -0,0 +1,55 @@
+package org.praxisplatform.uischema.concurrency;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * {@link DatasetVersionStore} em uma tabela compartilhada:
+ *
+ * <pre>{@code
+ * CREATE TABLE praxis_dataset_version (
+ *     dataset_key VARCHAR(255) PRIMARY KEY,
+ *     version     BIGINT NOT NULL
+ * );
+ * }</pre>
+ *
+ * <p>O incremento e um {@code UPDATE version = version + 1}, atomico no banco; a primeira escrita
+ * de uma chave insere a linha e, se outro no inseriu antes, repete o update.</p>
+ */
+public class JdbcDatasetVersionStore implements DatasetVersionStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String selectSql;
+    private final String updateSql;
+    private final String insertSql;
+
+    public JdbcDatasetVersionStore(JdbcTemplate jdbcTemplate, String tableName) {
+        if (tableName == null || !tableName.matches("[A-Za-z_][A-Za-z0-9_.]*")) {
+            throw new IllegalArgumentException("Invalid dataset version table name: " + tableName);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.selectSql = "SELECT version FROM " + tableName + " WHERE dataset_key = ?";
+        this.updateSql = "UPDATE " + tableName + " SET version = version + 1 WHERE dataset_key = ?";
+        this.insertSql = "INSERT INTO " + tableName + " (dataset_key, version) VALUES (?, 1)";
+    }
+
+    @Override
+    public long current(String key) {
+        List<Long> versions = jdbcTemplate.queryForList(selectSql, Long.class, key);
+        return versions.isEmpty() || versions.get(0) == null ? 0L : versions.get(0);
+    }
+
+    @Override
+    public long increment(String key) {
+        if (jdbcTemplate.update(updateSql, key) == 0) {
+            try {
+                jdbcTemplate.update(insertSql, key);
+            } catch (DuplicateKeyException ex) {
+                jdbcTemplate.update(updateSql, key);
+            }
+        }
+        return current(key);
+    }
+}
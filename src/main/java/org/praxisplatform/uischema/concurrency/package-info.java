@@ -1,2 +1,2 @@
-/** ETag and precondition support for safe, version-aware resource updates. @since 1.0.0 */
+/** ETag and precondition support for safe, version-aware resource updates, plus dataset version tracking for conditional collection reads. @since 1.0.0 */
 package org.praxisplatform.uischema.concurrency;
@@ -14,6 +14,7 @@ import org.praxisplatform.uischema.capability.ResourceStateSnapshotProvider;
 import org.praxisplatform.uischema.capability.ResourceStructuralCapabilityResolver;
 import org.praxisplatform.uischema.analytics.UiAnalyticsAnnotationMapper;
 import org.praxisplatform.uischema.analytics.UiAnalyticsOpenApiCustomizer;
+import org.praxisplatform.uischema.concurrency.ResourceVersionScopeProvider;
 import org.praxisplatform.uischema.controller.docs.ApiDocsController;
 import org.praxisplatform.uischema.controller.docs.ActionCatalogController;
 import org.praxisplatform.uischema.controller.docs.OpenApiDocsSupport;
@@ -24,18 +25,28 @@ import org.praxisplatform.uischema.determination.DefaultReactiveDeterminationDef
 import org.praxisplatform.uischema.determination.ReactiveDeterminationDefinitionProvider;
 import org.praxisplatform.uischema.determination.ReactiveDeterminationDefinitionRegistry;
 import org.praxisplatform.uischema.determination.ReactiveDeterminationMetadataCompiler;
+import org.praxisplatform.uischema.exporting.CollectionExportCompression;
 import org.praxisplatform.uischema.exporting.CollectionExportEngine;
 import org.praxisplatform.uischema.exporting.CollectionExportExecutor;
+import org.praxisplatform.uischema.exporting.CollectionExportFormat;
+import org.praxisplatform.uischema.exporting.CollectionExportParallelism;
+import org.praxisplatform.uischema.exporting.CompressedCollectionExportEngine;
 import org.praxisplatform.uischema.exporting.CsvCollectionExportEngine;
 import org.praxisplatform.uischema.exporting.DefaultCollectionExportExecutor;
 import org.praxisplatform.uischema.exporting.ExcelCollectionExportEngine;
 import org.praxisplatform.uischema.exporting.JsonCollectionExportEngine;
+import org.praxisplatform.uischema.exporting.NdjsonCollectionExportEngine;
+import org.praxisplatform.uischema.exporting.ParquetCollectionExportEngine;
+import org.praxisplatform.uischema.exporting.job.CollectionExportFileStore;
+import org.praxisplatform.uischema.exporting.job.CollectionExportAdmissionController;
+import org.praxisplatform.uischema.exporting.job.CollectionExportJobScheduler;
 import org.praxisplatform.uischema.extension.CustomOpenApiResolver;
 import org.praxisplatform.uischema.filter.relativeperiod.RelativePeriodPayloadNormalizer;
 import org.praxisplatform.uischema.filter.range.RangePayloadNormalizer;
 import org.praxisplatform.uischema.filter.specification.GenericSpecificationsBuilder;
+import org.praxisplatform.uischema.filter.web.FilterPayloadJacksonModule;
+import org.praxisplatform.uischema.filter.web.FilterPayloadMessageConverterConfigurer;
 import org.praxisplatform.uischema.filter.web.FilterPayloadNormalizer;
-import org.praxisplatform.uischema.filter.web.FilterRequestBodyAdvice;
 import org.praxisplatform.uischema.openapi.CachedOpenApiDocumentService;
 import org.praxisplatform.uischema.openapi.CanonicalOperationResolver;
 import org.praxisplatform.uischema.openapi.OpenApiCanonicalOperationResolver;
@@ -51,7 +62,9 @@ import org.praxisplatform.uischema.options.service.DefaultOptionSourceContextRes
 import org.praxisplatform.uischema.options.service.OptionSourceContextResolver;
 import org.praxisplatform.uischema.options.service.OptionSourceProvider;
 import org.praxisplatform.uischema.options.service.OptionSourceProviderRegistry;
+import org.praxisplatform.uischema.options.service.OptionSourceCascadeResolver;
 import org.praxisplatform.uischema.options.service.OptionSourceQueryExecutor;
+import org.praxisplatform.uischema.options.service.OptionSourceSnapshotService;
 import org.praxisplatform.uischema.options.service.jpa.JpaOptionSourceProvider;
 import org.praxisplatform.uischema.schema.FilteredSchemaReferenceResolver;
 import org.praxisplatform.uischema.schema.SchemaReferenceResolver;
@@ -87,10 +100,13 @@ import org.praxisplatform.uischema.stats.service.jpa.JpaStatsQueryExecutor;
 import org.praxisplatform.uischema.util.OpenApiGroupResolver;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -103,6 +119,7 @@ import org.springdoc.core.customizers.GlobalOpenApiCustomizer;
 import org.springdoc.core.customizers.OpenApiCustomizer;
 
 import java.lang.reflect.Method;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.time.ZoneId;
 import java.util.IdentityHashMap;
@@ -110,6 +127,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Auto-configuracao principal do modulo de OpenAPI e UI Schema.
@@ -139,13 +157,15 @@ public class OpenApiUiSchemaAutoConfiguration {
     }
 
     /**
-     * Publica o {@link ObjectMapper} padrao do starter, com suporte a Java Time.
+     * Publica o {@link ObjectMapper} padrao do starter, com suporte a Java Time e normalizacao de
+     * payloads de filtro.
      */
     @Bean(name = "openApiUiSchemaObjectMapper")
     @ConditionalOnMissingBean
-    public ObjectMapper objectMapper() {
+    public ObjectMapper objectMapper(ObjectProvider<FilterPayloadJacksonModule> filterPayloadJacksonModule) {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
+        filterPayloadJacksonModule.ifAvailable(module -> module.registerIfMissing(objectMapper));
         return objectMapper;
     }
 
@@ -194,13 +214,26 @@ public class OpenApiUiSchemaAutoConfiguration {
         return new RelativePeriodPayloadNormalizer(Clock.system(ZoneId.of(relativePeriodZoneId)));
     }
 
+    /**
+     * Modulo Jackson que aplica os {@link FilterPayloadNormalizer}s na desserializacao dos filtros;
+     * o {@code ObjectMapper} do Spring Boot registra beans de modulo automaticamente.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public FilterPayloadJacksonModule filterPayloadJacksonModule(List<FilterPayloadNormalizer> payloadNormalizers) {
+        return new FilterPayloadJacksonModule(payloadNormalizers);
+    }
+
+    /**
+     * Registra o {@link FilterPayloadJacksonModule} nos conversores JSON do MVC cujo
+     * {@code ObjectMapper} nao o recebeu (mapper da aplicacao construido fora do Spring Boot).
+     */
     @Bean
     @ConditionalOnMissingBean
-    public FilterRequestBodyAdvice filterRequestBodyAdvice(
-            ObjectMapper mapper,
-            List<FilterPayloadNormalizer> payloadNormalizers
+    public FilterPayloadMessageConverterConfigurer filterPayloadMessageConverterConfigurer(
+            FilterPayloadJacksonModule filterPayloadJacksonModule
     ) {
-        return new FilterRequestBodyAdvice(mapper, payloadNormalizers);
+        return new FilterPayloadMessageConverterConfigurer(filterPayloadJacksonModule);
     }
 
     @Bean
@@ -217,8 +250,71 @@ public class OpenApiUiSchemaAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public ExcelCollectionExportEngine excelCollectionExportEngine() {
-        return new ExcelCollectionExportEngine();
+    public NdjsonCollectionExportEngine ndjsonCollectionExportEngine(
+            ObjectMapper objectMapper,
+            @Value("${praxis.export.ndjson.flush-rows:500}") int flushRows
+    ) {
+        return new NdjsonCollectionExportEngine(objectMapper, flushRows);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ExcelCollectionExportEngine excelCollectionExportEngine(
+            @Value("${praxis.export.excel.row-window:100}") int rowWindow,
+            @Value("${praxis.export.excel.compress-temp-files:true}") boolean compressTempFiles,
+            @Value("${praxis.export.excel.width-sample-rows:200}") int widthSampleRows
+    ) {
+        return new ExcelCollectionExportEngine(rowWindow, compressTempFiles, widthSampleRows);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "csvGzipCollectionExportEngine")
+    public CompressedCollectionExportEngine csvGzipCollectionExportEngine(CsvCollectionExportEngine csv) {
+        return new CompressedCollectionExportEngine(CollectionExportFormat.CSV_GZIP, csv, CollectionExportCompression.GZIP);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "jsonGzipCollectionExportEngine")
+    public CompressedCollectionExportEngine jsonGzipCollectionExportEngine(JsonCollectionExportEngine json) {
+        return new CompressedCollectionExportEngine(CollectionExportFormat.JSON_GZIP, json, CollectionExportCompression.GZIP);
+    }
+
+    /**
+     * Variantes zstd de CSV e JSON, registradas quando {@code zstd-jni} esta no classpath.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "com.github.luben.zstd.ZstdOutputStream")
+    static class ZstdCollectionExportConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(name = "csvZstdCollectionExportEngine")
+        public CompressedCollectionExportEngine csvZstdCollectionExportEngine(CsvCollectionExportEngine csv) {
+            return new CompressedCollectionExportEngine(CollectionExportFormat.CSV_ZSTD, csv, CollectionExportCompression.ZSTD);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean(name = "jsonZstdCollectionExportEngine")
+        public CompressedCollectionExportEngine jsonZstdCollectionExportEngine(JsonCollectionExportEngine json) {
+            return new CompressedCollectionExportEngine(CollectionExportFormat.JSON_ZSTD, json, CollectionExportCompression.ZSTD);
+        }
+    }
+
+    /**
+     * Engine Parquet, registrado quando {@code parquet-hadoop} e o cliente Hadoop estao no classpath.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = {"org.apache.parquet.hadoop.ParquetWriter", "org.apache.hadoop.conf.Configuration"})
+    static class ParquetCollectionExportConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ParquetCollectionExportEngine parquetCollectionExportEngine(
+                @Value("${praxis.export.parquet.codec:snappy}") String codec,
+                @Value("${praxis.export.parquet.row-group-bytes:33554432}") long rowGroupBytes,
+                @Value("${praxis.export.parquet.page-bytes:1048576}") int pageBytes
+        ) {
+            return new ParquetCollectionExportEngine(codec, rowGroupBytes, pageBytes);
+        }
     }
 
     @Bean
@@ -227,6 +323,107 @@ public class OpenApiUiSchemaAutoConfiguration {
         return new DefaultCollectionExportExecutor(engines);
     }
 
+    /**
+     * Executor de virtual threads para ler e formatar particoes de exportacao; o numero de
+     * particoes em voo e limitado por {@link CollectionExportParallelism#threads()}.
+     */
+    @Bean(name = "collectionExportPartitionExecutor", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "collectionExportPartitionExecutor")
+    public ExecutorService collectionExportPartitionExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("praxis-export-partition-", 0).factory()
+        );
+    }
+
+    /**
+     * Exportacao particionada e opt-in: cada particao em voo usa uma conexao do pool.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public CollectionExportParallelism collectionExportParallelism(
+            @Qualifier("collectionExportPartitionExecutor") ExecutorService executor,
+            @Value("${praxis.export.parallel.threads:1}") int threads,
+            @Value("${praxis.export.parallel.chunk-rows:10000}") int chunkRows
+    ) {
+        return new CollectionExportParallelism(executor, threads, chunkRows);
+    }
+
+    /**
+     * Executor de virtual threads para jobs de exportacao diferida; a concorrencia efetiva e
+     * limitada pelo {@link CollectionExportJobScheduler}.
+     */
+    @Bean(name = "collectionExportJobExecutor", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "collectionExportJobExecutor")
+    public ExecutorService collectionExportJobExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("praxis-export-job-", 0).factory()
+        );
+    }
+
+    @Bean(name = "collectionExportJobCleanupExecutor", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "collectionExportJobCleanupExecutor")
+    public ScheduledExecutorService collectionExportJobCleanupExecutor() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "praxis-export-job-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CollectionExportFileStore collectionExportFileStore(
+            @Value("${praxis.export.jobs.directory:${java.io.tmpdir}/praxis-exports}") String directory
+    ) {
+        return new CollectionExportFileStore(Path.of(directory));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CollectionExportJobScheduler collectionExportJobScheduler(
+            CollectionExportFileStore store,
+            @Qualifier("collectionExportJobExecutor") ExecutorService executor,
+            @Qualifier("collectionExportJobCleanupExecutor") ScheduledExecutorService cleanupExecutor,
+            ObjectProvider<ResourceVersionScopeProvider> scopeProvider,
+            @Value("${praxis.export.jobs.max-queued:100}") int maxQueued,
+            @Value("${praxis.export.jobs.max-concurrent:4}") int maxConcurrent,
+            @Value("${praxis.export.jobs.max-concurrent-per-tenant:1}") int maxConcurrentPerTenant,
+            @Value("${praxis.export.jobs.ttl:PT1H}") String ttl
+    ) {
+        return new CollectionExportJobScheduler(
+                store,
+                executor,
+                scopeProvider.getIfAvailable(),
+                maxQueued,
+                maxConcurrent,
+                maxConcurrentPerTenant,
+                DurationStyle.detectAndParse(ttl),
+                cleanupExecutor
+        );
+    }
+
+    /**
+     * Orcamento de exportacoes sincronas; services que usam {@code admitExport} adiam para job as
+     * exportacoes acima dele.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public CollectionExportAdmissionController collectionExportAdmissionController(
+            ObjectProvider<ResourceVersionScopeProvider> scopeProvider,
+            @Value("${praxis.export.admission.memory-budget-bytes:0}") long memoryBudgetBytes,
+            @Value("${praxis.export.admission.max-concurrent:0}") int maxConcurrent,
+            @Value("${praxis.export.admission.max-concurrent-per-tenant:2}") int maxConcurrentPerTenant,
+            @Value("${praxis.export.admission.max-sync-cells:5000000}") long maxSyncCells
+    ) {
+        return new CollectionExportAdmissionController(
+                scopeProvider.getIfAvailable(),
+                memoryBudgetBytes,
+                maxConcurrent,
+                maxConcurrentPerTenant,
+                maxSyncCells
+        );
+    }
+
     /**
      * Publica o builder generico de specifications usado pelos fluxos canonicos de filtro.
      */
@@ -255,8 +452,12 @@ public class OpenApiUiSchemaAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public JpaOptionSourceProvider jpaOptionSourceProvider() {
-        return new JpaOptionSourceProvider(new org.praxisplatform.uischema.options.service.jpa.JpaOptionSourceQueryExecutor());
+    public JpaOptionSourceProvider jpaOptionSourceProvider(
+            @Value("${praxis.query.by-ids.max-in-parameters:1000}") int maxInListParameters
+    ) {
+        return new JpaOptionSourceProvider(
+                new org.praxisplatform.uischema.options.service.jpa.JpaOptionSourceQueryExecutor(maxInListParameters)
+        );
     }
 
     @Bean
@@ -312,6 +513,63 @@ public class OpenApiUiSchemaAutoConfiguration {
         );
     }
 
+    /**
+     * Executor isolado para reconstruir snapshots de option-sources sem bloquear a request que
+     * detectou a mudanca de versao.
+     */
+    @Bean(name = "optionSourceSnapshotExecutor", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "optionSourceSnapshotExecutor")
+    public ExecutorService optionSourceSnapshotExecutor() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "praxis-option-source-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OptionSourceSnapshotService optionSourceSnapshotService(
+            ObjectMapper objectMapper,
+            @Qualifier("optionSourceSnapshotExecutor") ExecutorService executor,
+            @Value("${praxis.option-sources.snapshot.max-rows:500}") int maxRows,
+            @Value("${praxis.option-sources.snapshot.max-age:PT1H}") String maxAge,
+            @Value("${praxis.option-sources.snapshot.refresh-interval:PT5M}") String refreshInterval
+    ) {
+        return new OptionSourceSnapshotService(
+                objectMapper,
+                executor,
+                maxRows,
+                DurationStyle.detectAndParse(maxAge),
+                DurationStyle.detectAndParse(refreshInterval)
+        );
+    }
+
+    /**
+     * Executor de virtual threads para ramos independentes de {@code /option-sources/cascade},
+     * usado apenas com {@code praxis.option-sources.cascade.parallel=true}.
+     */
+    @Bean(name = "optionSourceCascadeExecutor", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "optionSourceCascadeExecutor")
+    public ExecutorService optionSourceCascadeExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("praxis-option-source-cascade-", 0).factory()
+        );
+    }
+
+    /**
+     * Resolve a cascata em sequencia por padrao: ramos paralelos rodam fora da transacao, do
+     * contexto de persistencia e do {@code SecurityContext} da chamada.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public OptionSourceCascadeResolver optionSourceCascadeResolver(
+            @Qualifier("optionSourceCascadeExecutor") ExecutorService executor,
+            @Value("${praxis.option-sources.cascade.parallel:false}") boolean parallel
+    ) {
+        return new OptionSourceCascadeResolver(parallel ? executor : null);
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public OptionSourceRegistry optionSourceRegistry(
@@ -8,22 +8,41 @@ import io.swagger.v3.oas.models.media.ComposedSchema;
 import io.swagger.v3.oas.models.media.ObjectSchema;
 import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.media.StringSchema;
+import jakarta.persistence.EntityManagerFactory;
 import org.praxisplatform.uischema.constants.ApiPaths;
+import org.praxisplatform.uischema.concurrency.DatasetVersionStore;
+import org.praxisplatform.uischema.concurrency.DatasetVersionTracker;
+import org.praxisplatform.uischema.concurrency.HibernateDatasetVersionListener;
+import org.praxisplatform.uischema.concurrency.JdbcDatasetVersionStore;
 import org.praxisplatform.uischema.concurrency.ResourceVersionEtagService;
 import org.praxisplatform.uischema.concurrency.ResourceVersionScope;
 import org.praxisplatform.uischema.concurrency.ResourceVersionScopeProvider;
 import org.praxisplatform.uischema.rest.response.RestApiResource;
+import org.praxisplatform.uischema.util.CursorEncoder;
+import org.praxisplatform.uischema.util.SignedCursorEncoder;
 import org.springdoc.core.customizers.GlobalOpenApiCustomizer;
 import org.springdoc.core.customizers.OpenApiCustomizer;
 import org.springdoc.core.models.GroupedOpenApi;
 import org.springdoc.core.utils.SpringDocUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.ConditionContext;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.IdentityHashMap;
@@ -59,12 +78,77 @@ public class PraxisMetadataAutoConfiguration {
         return new ResourceVersionEtagService(secret);
     }
 
+    @Bean
+    @ConditionalOnMissingBean(CursorEncoder.class)
+    @ConditionalOnProperty(prefix = "praxis.query.cursor", name = "secret")
+    public CursorEncoder signedCursorEncoder(
+            @org.springframework.beans.factory.annotation.Value("${praxis.query.cursor.secret}") String secret
+    ) {
+        return new SignedCursorEncoder(secret);
+    }
+
     @Bean
     @ConditionalOnMissingBean(ResourceVersionScopeProvider.class)
     public ResourceVersionScopeProvider resourceVersionScopeProvider() {
         return () -> ResourceVersionScope.GLOBAL;
     }
 
+    /**
+     * Versoes de dataset por entidade, incrementadas pelos eventos pos-commit do Hibernate.
+     *
+     * <p>Sem tracker, {@code getDatasetVersion()} e vazio e as leituras de colecao nao recebem ETag.
+     * O tracker so e ligado por padrao com {@code praxis.dataset-version.jdbc.enabled=true}, em que as
+     * versoes sao compartilhadas entre nos. Contadores em memoria ficam defasados entre instancias e
+     * nao enxergam bulk JPQL nem SQL nativo, entao exigem {@code praxis.dataset-version.enabled=true}
+     * explicito; o mesmo vale para um {@link DatasetVersionStore} proprio da aplicacao.</p>
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.hibernate.event.service.spi.EventListenerRegistry")
+    @Conditional(OnDatasetVersionEnabledCondition.class)
+    static class DatasetVersionConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public DatasetVersionTracker datasetVersionTracker(
+                ObjectProvider<DatasetVersionStore> store,
+                ObjectProvider<EntityManagerFactory> entityManagerFactories,
+                @org.springframework.beans.factory.annotation.Value("${praxis.dataset-version.refresh-interval:PT1S}") Duration refreshInterval
+        ) {
+            DatasetVersionTracker tracker = new DatasetVersionTracker(
+                    store.getIfAvailable(), refreshInterval, Clock.systemUTC());
+            entityManagerFactories.orderedStream()
+                    .forEach(entityManagerFactory -> HibernateDatasetVersionListener.register(entityManagerFactory, tracker));
+            return tracker;
+        }
+
+        @Bean
+        @ConditionalOnMissingBean(DatasetVersionStore.class)
+        @ConditionalOnProperty(prefix = "praxis.dataset-version.jdbc", name = "enabled", havingValue = "true")
+        public DatasetVersionStore jdbcDatasetVersionStore(
+                JdbcTemplate jdbcTemplate,
+                @org.springframework.beans.factory.annotation.Value("${praxis.dataset-version.jdbc.table:praxis_dataset_version}") String table
+        ) {
+            return new JdbcDatasetVersionStore(jdbcTemplate, table);
+        }
+    }
+
+    /**
+     * {@code praxis.dataset-version.enabled}, cujo padrao e o valor de
+     * {@code praxis.dataset-version.jdbc.enabled}.
+     */
+    static class OnDatasetVersionEnabledCondition extends SpringBootCondition {
+
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            Environment environment = context.getEnvironment();
+            boolean shared = environment.getProperty("praxis.dataset-version.jdbc.enabled", Boolean.class, false);
+            boolean enabled = environment.getProperty("praxis.dataset-version.enabled", Boolean.class, shared);
+            return enabled
+                    ? ConditionOutcome.match("dataset versions enabled" + (shared ? " with the shared JDBC store" : ""))
+                    : ConditionOutcome.noMatch("dataset versions not enabled");
+        }
+    }
+
     static {
         // Alinha o schema bruto ao JSON real dos itens de colecao antes da geracao do OpenAPI.
         SpringDocUtils.getConfig().replaceWithClass(EntityModel.class, RestApiResource.class);
@@ -58,7 +58,7 @@ public abstract class AbstractCreateResourceController<
     protected List<Link> buildCollectionActionLinks() {
         List<Link> links = new ArrayList<>();
         if (isCollectionOperationAvailable("create")) {
-            links.add(Link.of(resourcePath(), "create"));
+            links.add(Link.of(collectionPath(), "create"));
         }
         links.addAll(super.buildCollectionActionLinks());
         return links;
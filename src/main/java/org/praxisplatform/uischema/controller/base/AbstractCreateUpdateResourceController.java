@@ -158,10 +158,10 @@ public abstract class AbstractCreateUpdateResourceController<ResponseDTO, ID, FD
     }
 
     protected Link linkToCreate() {
-        return Link.of(resourcePath(), "create");
+        return Link.of(collectionPath(), "create");
     }
 
     protected Link linkToUpdate(ID id) {
-        return Link.of(resourcePath(id), "update");
+        return Link.of(itemPath(id), "update");
     }
 }
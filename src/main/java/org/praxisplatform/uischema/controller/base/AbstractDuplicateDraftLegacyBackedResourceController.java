@@ -98,6 +98,6 @@ public abstract class AbstractDuplicateDraftLegacyBackedResourceController<Respo
     }
 
     protected Link linkToDuplicateDraft(ID id) {
-        return Link.of(resourcePath(id, "duplicate-draft"), "duplicate-draft");
+        return Link.of(itemPath(id, "duplicate-draft"), "duplicate-draft");
     }
 }
@@ -1,16 +1,21 @@
 package org.praxisplatform.uischema.controller.base;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.praxisplatform.uischema.annotation.ApiResource;
 import org.praxisplatform.uischema.capability.AvailabilityDecision;
 import org.praxisplatform.uischema.capability.CapabilityService;
@@ -29,21 +34,37 @@ import org.praxisplatform.uischema.command.ResourceCommandExecutionRequest;
 import org.praxisplatform.uischema.command.ResourceCommandHttpResponseAdapter;
 import org.praxisplatform.uischema.command.ResourceCommandResponsePolicy;
 import org.praxisplatform.uischema.command.ResourceCommandScope;
+import org.praxisplatform.uischema.dto.CollectionSlice;
+import org.praxisplatform.uischema.dto.CountMode;
+import org.praxisplatform.uischema.dto.CountedPage;
 import org.praxisplatform.uischema.dto.CursorPage;
 import org.praxisplatform.uischema.dto.LocateResponse;
 import org.praxisplatform.uischema.dto.OptionDTO;
 import org.praxisplatform.uischema.exporting.CollectionExportRequest;
 import org.praxisplatform.uischema.exporting.CollectionExportResult;
+import org.praxisplatform.uischema.exporting.job.CollectionExportJob;
+import org.praxisplatform.uischema.exporting.job.CollectionExportJobRejectedException;
+import org.praxisplatform.uischema.exporting.job.CollectionExportJobScheduler;
+import org.praxisplatform.uischema.exporting.job.CollectionExportJobStatus;
 import org.praxisplatform.uischema.filter.dto.GenericFilterDTO;
+import org.praxisplatform.uischema.http.ByteBufferResource;
+import org.praxisplatform.uischema.http.IfNoneMatchUtils;
 import org.praxisplatform.uischema.options.EntityLookupDescriptor;
 import org.praxisplatform.uischema.options.LookupFilterRequest;
 import org.praxisplatform.uischema.options.OptionSourceByIdsRequest;
+import org.praxisplatform.uischema.options.OptionSourceCascadeRequest;
+import org.praxisplatform.uischema.options.OptionSourceCascadeResult;
 import org.praxisplatform.uischema.options.OptionSourceDescriptor;
 import org.praxisplatform.uischema.options.OptionSourceExecutionMode;
 import org.praxisplatform.uischema.options.OptionSourceFilterRequest;
 import org.praxisplatform.uischema.options.UnknownOptionSourceException;
+import org.praxisplatform.uischema.options.service.OptionSourceCascadeResolver;
+import org.praxisplatform.uischema.options.service.OptionSourceSnapshot;
+import org.praxisplatform.uischema.options.service.OptionSourceSnapshotService;
+import org.praxisplatform.uischema.options.service.OptionSourceSnapshotTooLargeException;
 import org.praxisplatform.uischema.rest.response.RestApiResource;
 import org.praxisplatform.uischema.rest.response.RestApiResponse;
+import org.praxisplatform.uischema.rest.response.StreamedList;
 import org.praxisplatform.uischema.rest.response.RestApiResponseDistributionStatsResponse;
 import org.praxisplatform.uischema.rest.response.RestApiResponseGroupByStatsResponse;
 import org.praxisplatform.uischema.rest.response.RestApiResponseTimeSeriesStatsResponse;
@@ -72,13 +93,19 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.Links;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -88,22 +115,36 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
 
 import java.lang.reflect.Field;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -219,6 +260,9 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
     @Value("${praxis.pagination.max-size:200}")
     private int paginationMaxSize;
 
+    @Value("${praxis.query.all.max-rows:10000}")
+    private int allMaxRows;
+
     @Autowired
     private Environment environment;
 
@@ -243,8 +287,19 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
     @Autowired(required = false)
     private ResourceVersionScopeProvider resourceVersionScopeProvider;
 
+    @Autowired(required = false)
+    private OptionSourceSnapshotService optionSourceSnapshotService;
+
+    @Autowired(required = false)
+    private OptionSourceCascadeResolver optionSourceCascadeResolver;
+
+    @Autowired(required = false)
+    private CollectionExportJobScheduler exportJobScheduler;
+
     private String detectedBasePath;
 
+    private volatile LinkTemplates linkTemplates;
+
     @PostConstruct
     protected void initializeBasePath() {
         if (detectedBasePath != null) {
@@ -270,6 +325,7 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
                     getClass().getName()
             );
         }
+        linkTemplates = new LinkTemplates(resourcePath());
     }
 
     protected abstract BaseResourceQueryService<ResponseDTO, ID, FD> getService();
@@ -374,7 +430,20 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
         return links;
     }
 
+    /**
+     * Links de descoberta da colecao; nao dependem da requisicao e sao calculados uma unica vez.
+     */
     protected List<Link> buildCollectionDiscoveryLinks() {
+        LinkTemplates templates = linkTemplates();
+        List<Link> cached = templates.collectionDiscoveryLinks;
+        if (cached == null) {
+            cached = List.copyOf(resolveCollectionDiscoveryLinks());
+            templates.collectionDiscoveryLinks = cached;
+        }
+        return cached;
+    }
+
+    private List<Link> resolveCollectionDiscoveryLinks() {
         List<Link> links = new ArrayList<>();
         Link surfacesLink = linkToCollectionSurfacesIfAvailable();
         if (surfacesLink != null) {
@@ -398,6 +467,7 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
             @RequestParam(name = "page", defaultValue = "0") int page,
             @RequestParam(name = "size", defaultValue = "20") int size,
             @RequestParam(name = "includeIds", required = false) List<ID> includeIds,
+            @RequestParam(name = "countMode", required = false) String countMode,
             @RequestParam MultiValueMap<String, String> queryParams
     ) {
         if (size > paginationMaxSize) {
@@ -405,22 +475,30 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
                     "Maximum page size exceeded: " + paginationMaxSize);
         }
 
+        CountMode requestedCountMode;
+        try {
+            requestedCountMode = CountMode.from(countMode);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
         List<String> sort = queryParams.get("sort");
         Pageable pageable = buildPageable(page, size, sort, getService().getDefaultSort());
-        Page<ResponseDTO> result = getService().filter(filterDTO, pageable, includeIds);
-        if (!isHateoasEnabled()) {
-            return successEnvelope(ResponseEntity.ok(), result, null);
-        }
-        Page<RestApiResource<ResponseDTO>> entityModels = result.map(this::toResourceModel);
+        return conditionalCollectionRead(getService().getDatasetVersion(), filterDTO, () -> {
+            Page<ResponseDTO> result = getService().filter(filterDTO, pageable, includeIds, requestedCountMode);
+            if (!isHateoasEnabled()) {
+                return withCountMetadata(successEnvelope(ResponseEntity.ok(), result, null), result);
+            }
+            Page<RestApiResource<ResponseDTO>> entityModels = result.map(this::toResourceModel);
 
-        List<Link> links = new ArrayList<>();
-        addCollectionOperationLink(links, "all", linkToAll());
-        links.add(linkToUiSchema("/filter", "post", "request"));
-        links.add(linkToUiSchema("/filter", "post", "response"));
-        links.addAll(buildCollectionActionLinks());
-        links.addAll(buildCollectionDiscoveryLinks());
+            List<Link> links = new ArrayList<>();
+            addCollectionOperationLink(links, "all", linkToAll());
+            links.add(linkToUiSchema("/filter", "post", "request"));
+            links.add(linkToUiSchema("/filter", "post", "response"));
+            links.addAll(buildCollectionActionLinks());
+            links.addAll(buildCollectionDiscoveryLinks());
 
-        return successEnvelope(ResponseEntity.ok(), entityModels, Links.of(links));
+            return withCountMetadata(successEnvelope(ResponseEntity.ok(), entityModels, Links.of(links)), result);
+        });
     }
 
     @PostMapping("/filter/cursor")
@@ -443,6 +521,8 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
         CursorPage<ResponseDTO> result;
         try {
             result = getService().filterByCursor(filterDTO, sortObj, after, before, size);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
         } catch (UnsupportedOperationException ex) {
             throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, "Not implemented.");
         }
@@ -482,7 +562,12 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
 
         List<String> sort = queryParams.get("sort");
         Sort sortObj = buildSort(sort, getService().getDefaultSort());
-        OptionalLong position = getService().locate(filterDTO, sortObj, id);
+        OptionalLong position;
+        try {
+            position = getService().locate(filterDTO, sortObj, id);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
         if (position.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, "Not implemented.");
         }
@@ -529,12 +614,14 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
             @RequestBody GroupByStatsRequest<FD> request
     ) {
         try {
-            GroupByStatsResponse result = getService().groupByStats(request);
-            List<Link> links = new ArrayList<>();
-            addCollectionOperationLink(links, "filter", linkToFilter());
-            links.add(linkToUiSchema("/stats/group-by", "post", "request"));
-            links.add(linkToUiSchema("/stats/group-by", "post", "response"));
-            return withVersion(ResponseEntity.ok(), RestApiResponse.success(result, hateoasOrNull(Links.of(links))));
+            return conditionalCollectionRead(getService().getDatasetVersion(), request, () -> {
+                GroupByStatsResponse result = getService().groupByStats(request);
+                List<Link> links = new ArrayList<>();
+                addCollectionOperationLink(links, "filter", linkToFilter());
+                links.add(linkToUiSchema("/stats/group-by", "post", "request"));
+                links.add(linkToUiSchema("/stats/group-by", "post", "response"));
+                return withVersion(ResponseEntity.ok(), RestApiResponse.success(result, hateoasOrNull(Links.of(links))));
+            });
         } catch (IllegalArgumentException ex) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
         } catch (UnsupportedOperationException ex) {
@@ -557,12 +644,14 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
             @RequestBody ComparisonStatsRequest<FD> request
     ) {
         try {
-            ComparisonStatsResponse result = getService().comparisonStats(request);
-            List<Link> links = new ArrayList<>();
-            addCollectionOperationLink(links, "filter", linkToFilter());
-            links.add(linkToUiSchema("/stats/comparison", "post", "request"));
-            links.add(linkToUiSchema("/stats/comparison", "post", "response"));
-            return withVersion(ResponseEntity.ok(), RestApiResponse.success(result, hateoasOrNull(Links.of(links))));
+            return conditionalCollectionRead(getService().getDatasetVersion(), request, () -> {
+                ComparisonStatsResponse result = getService().comparisonStats(request);
+                List<Link> links = new ArrayList<>();
+                addCollectionOperationLink(links, "filter", linkToFilter());
+                links.add(linkToUiSchema("/stats/comparison", "post", "request"));
+                links.add(linkToUiSchema("/stats/comparison", "post", "response"));
+                return withVersion(ResponseEntity.ok(), RestApiResponse.success(result, hateoasOrNull(Links.of(links))));
+            });
         } catch (IllegalArgumentException ex) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
         } catch (UnsupportedOperationException ex) {
@@ -607,12 +696,14 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
             @RequestBody TimeSeriesStatsRequest<FD> request
     ) {
         try {
-            TimeSeriesStatsResponse result = getService().timeSeriesStats(request);
-            List<Link> links = new ArrayList<>();
-            addCollectionOperationLink(links, "filter", linkToFilter());
-            links.add(linkToUiSchema("/stats/timeseries", "post", "request"));
-            links.add(linkToUiSchema("/stats/timeseries", "post", "response"));
-            return withVersion(ResponseEntity.ok(), RestApiResponse.success(result, hateoasOrNull(Links.of(links))));
+            return conditionalCollectionRead(getService().getDatasetVersion(), request, () -> {
+                TimeSeriesStatsResponse result = getService().timeSeriesStats(request);
+                List<Link> links = new ArrayList<>();
+                addCollectionOperationLink(links, "filter", linkToFilter());
+                links.add(linkToUiSchema("/stats/timeseries", "post", "request"));
+                links.add(linkToUiSchema("/stats/timeseries", "post", "response"));
+                return withVersion(ResponseEntity.ok(), RestApiResponse.success(result, hateoasOrNull(Links.of(links))));
+            });
         } catch (IllegalArgumentException ex) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
         } catch (UnsupportedOperationException ex) {
@@ -657,12 +748,14 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
             @RequestBody DistributionStatsRequest<FD> request
     ) {
         try {
-            DistributionStatsResponse result = getService().distributionStats(request);
-            List<Link> links = new ArrayList<>();
-            addCollectionOperationLink(links, "all", linkToAll());
-            links.add(linkToUiSchema("/stats/distribution", "post", "request"));
-            links.add(linkToUiSchema("/stats/distribution", "post", "response"));
-            return withVersion(ResponseEntity.ok(), RestApiResponse.success(result, hateoasOrNull(Links.of(links))));
+            return conditionalCollectionRead(getService().getDatasetVersion(), request, () -> {
+                DistributionStatsResponse result = getService().distributionStats(request);
+                List<Link> links = new ArrayList<>();
+                addCollectionOperationLink(links, "all", linkToAll());
+                links.add(linkToUiSchema("/stats/distribution", "post", "request"));
+                links.add(linkToUiSchema("/stats/distribution", "post", "response"));
+                return withVersion(ResponseEntity.ok(), RestApiResponse.success(result, hateoasOrNull(Links.of(links))));
+            });
         } catch (IllegalArgumentException ex) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
         } catch (UnsupportedOperationException ex) {
@@ -671,8 +764,8 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
     }
 
     @PostMapping("/export")
-    @Operation(summary = "Exportar colecao", description = "Exporta dados da colecao preservando escopo, selecao, filtros, ordenacao e campos.")
-    public ResponseEntity<?> exportCollection(@RequestBody CollectionExportRequest<FD> request) {
+    @Operation(summary = "Exportar colecao", description = "Exporta dados da colecao preservando escopo, selecao, filtros, ordenacao e campos. Resultados em streaming sao escritos na resposta a medida que as linhas sao lidas.")
+    public Object exportCollection(@RequestBody CollectionExportRequest<FD> request) {
         try {
             CollectionExportResult result = getService().exportCollection(request);
             if (result == null) {
@@ -680,13 +773,18 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
             }
 
             if (result.deferredStatus()) {
-                return withVersion(
-                        ResponseEntity.accepted().contentType(MediaType.APPLICATION_JSON),
-                        exportResultBody(result)
-                );
+                ResponseEntity.BodyBuilder accepted = ResponseEntity.accepted().contentType(MediaType.APPLICATION_JSON);
+                if (StringUtils.hasText(result.jobId())) {
+                    accepted.location(URI.create(resourcePath("export", "jobs", result.jobId())));
+                    if (!StringUtils.hasText(result.downloadUrl())) {
+                        result = withJobDownloadUrl(result);
+                    }
+                }
+                appendExportMetadataHeaders(accepted, result);
+                return withVersion(accepted, exportResultBody(result));
             }
 
-            if (StringUtils.hasText(result.downloadUrl()) && result.content().length == 0) {
+            if (StringUtils.hasText(result.downloadUrl()) && !result.streaming() && !result.hasContent()) {
                 return withVersion(
                         ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON),
                         exportResultBody(result)
@@ -706,7 +804,13 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
                 builder.header("X-Export-Row-Count", result.rowCount().toString());
             }
             appendExportMetadataHeaders(builder, result);
-            return withVersion(builder, result.content());
+            if (result.streaming()) {
+                StreamingResponseBody body = result::writeTo;
+                return streamingBody(withVersion(builder, body));
+            }
+            return withVersion(builder, exportContentResource(result));
+        } catch (CollectionExportJobRejectedException ex) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), ex);
         } catch (IllegalArgumentException ex) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
         } catch (UnsupportedOperationException ex) {
@@ -714,26 +818,100 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
         }
     }
 
+    @GetMapping("/export/jobs/{jobId}")
+    @Operation(summary = "Status de exportacao diferida", description = "Retorna estado, progresso e URL de download de um job de exportacao deste recurso.")
+    public ResponseEntity<Map<String, Object>> getExportJob(@PathVariable("jobId") String jobId) {
+        CollectionExportJob job = requireExportJob(jobId);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("jobId", job.jobId());
+        body.put("status", job.status().value());
+        body.put("format", job.format().value());
+        body.put("scope", job.scope().value());
+        body.put("fileName", job.fileName() == null ? "" : job.fileName());
+        body.put("rowsWritten", job.rowsWritten());
+        body.put("expectedRows", job.expectedRows());
+        body.put("progress", job.progress());
+        body.put("bytesWritten", job.bytesWritten());
+        body.put("createdAt", job.createdAt());
+        body.put("startedAt", job.startedAt());
+        body.put("finishedAt", job.finishedAt());
+        body.put("expiresAt", job.expiresAt());
+        body.put("downloadUrl", job.status() == CollectionExportJobStatus.COMPLETED
+                ? resourcePath("export", "jobs", job.jobId(), "download")
+                : "");
+        if (job.error() != null) {
+            body.put("error", job.error());
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @GetMapping("/export/jobs/{jobId}/download")
+    @Operation(summary = "Baixar exportacao diferida", description = "Entrega o arquivo de um job concluido; suporta Range para retomar downloads interrompidos.")
+    public ResponseEntity<Resource> downloadExportJob(@PathVariable("jobId") String jobId) {
+        CollectionExportJob job = requireExportJob(jobId);
+        if (job.status() != CollectionExportJobStatus.COMPLETED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Export job is " + job.status().value() + ".");
+        }
+        FileSystemResource file = exportJobScheduler.resultFile(jobId)
+                .map(FileSystemResource::new)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.GONE, "Export job result expired."));
+        String fileName = StringUtils.hasText(job.fileName()) ? job.fileName().trim() : "export";
+        return ResponseEntity.ok()
+                .contentType(StringUtils.hasText(job.contentType())
+                        ? MediaType.parseMediaType(job.contentType())
+                        : MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .eTag("\"" + job.jobId() + "-" + job.bytesWritten() + "\"")
+                .body(file);
+    }
+
+    /**
+     * Lista os itens em streaming: as linhas saem do cursor direto para o serializer JSON da
+     * resposta, com no maximo {@code praxis.query.all.max-rows} itens por pagina. Quando ha mais
+     * linhas, a proxima pagina e anunciada no header {@code Link} com {@code rel="next"}, levando a
+     * continuacao opaca no parametro {@code after}, lido da requisicao para manter a assinatura do
+     * handler.
+     */
     @GetMapping("/all")
-    @Operation(summary = "Listar itens")
+    @Operation(summary = "Listar itens", description = "Lista ate praxis.query.all.max-rows itens por pagina; a continuacao vem no header Link (rel=next).")
+    @Parameter(name = "after", in = ParameterIn.QUERY, description = "Continuacao recebida no header Link da pagina anterior.")
     public ResponseEntity<RestApiResponse<List<EntityModel<ResponseDTO>>>> getAll() {
-        List<ResponseDTO> dtos = getService().findAll();
-        if (!isHateoasEnabled()) {
-            return successEnvelope(ResponseEntity.ok(), dtos, null);
-        }
-
-        List<RestApiResource<ResponseDTO>> entityModels = dtos.stream()
-                .map(this::toResourceModel)
-                .toList();
+        HttpServletRequest request = currentRequest();
+        String after = request == null ? null : request.getParameter("after");
+        return conditionalCollectionRead(getService().getDatasetVersion(), null, () -> {
+            int limit = allMaxRows > 0 ? allMaxRows : Integer.MAX_VALUE;
+            CollectionSlice<ResponseDTO> slice;
+            try {
+                slice = getService().findAllSlice(after, limit);
+            } catch (IllegalArgumentException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+            }
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+            if (slice.next() != null) {
+                String next = UriComponentsBuilder.fromUriString(linkToAll().getHref())
+                        .replaceQueryParam("after", slice.next())
+                        .toUriString();
+                builder.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+            if (!isHateoasEnabled()) {
+                return successEnvelope(builder, StreamedList.of(slice.rows(), Function.identity()), null);
+            }
+            return successEnvelope(builder, StreamedList.of(slice.rows(), this::toResourceModel), allCollectionLinks());
+        });
+    }
 
+    private Links allCollectionLinks() {
         List<Link> links = new ArrayList<>();
         addCollectionOperationLink(links, "filter", linkToFilter());
         addCollectionOperationLink(links, "cursor", linkToFilterCursor());
         links.add(linkToUiSchema("/all", "get", "response"));
         links.addAll(buildCollectionActionLinks());
         links.addAll(buildCollectionDiscoveryLinks());
-
-        return successEnvelope(ResponseEntity.ok(), entityModels, Links.of(links));
+        return Links.of(links);
     }
 
     @GetMapping("/by-ids")
@@ -764,7 +942,8 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
 
         List<String> sort = queryParams.get("sort");
         Pageable pageable = buildPageable(page, size, sort, getService().getDefaultSort());
-        return withVersion(ResponseEntity.ok(), getService().filterOptions(filterDTO, pageable));
+        return conditionalCollectionRead(getService().getDatasetVersion(), filterDTO,
+                () -> withVersion(ResponseEntity.ok(), getService().filterOptions(filterDTO, pageable)));
     }
 
     @PostMapping("/option-sources/{sourceKey}/options/filter")
@@ -809,14 +988,166 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
                     sort
             );
             Pageable pageable = buildPageable(page, size, sort, Sort.unsorted());
-            return withOptionSourceVersion(
-                    ResponseEntity.ok(),
-                    sourceKey,
-                    getService().filterOptionSourceOptions(
+            return conditionalCollectionRead(getService().getOptionSourceDatasetVersion(sourceKey), request, () ->
+                    withOptionSourceVersion(
+                            ResponseEntity.ok(),
                             sourceKey,
-                            envelope.request(),
-                            pageable,
-                            envelope.providerFilterPayload()
+                            getService().filterOptionSourceOptions(
+                                    sourceKey,
+                                    envelope.request(),
+                                    pageable,
+                                    envelope.providerFilterPayload()
+                            )
+                    ));
+        } catch (UnknownOptionSourceException ex) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage(), ex);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage(), ex);
+        } catch (UnsupportedOperationException ex) {
+            throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, ex.getMessage(), ex);
+        }
+    }
+
+    @GetMapping("/option-sources/{sourceKey}/options/snapshot")
+    @Operation(summary = "Baixar snapshot completo de uma fonte derivada pequena")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Todas as opcoes da fonte, sem envelope."),
+            @ApiResponse(responseCode = "304", description = "Snapshot inalterado para o ETag informado."),
+            @ApiResponse(responseCode = "404", description = "Option-source inexistente."),
+            @ApiResponse(responseCode = "409", description = "Fonte acima do limite de linhas do snapshot; use o endpoint paginado."),
+            @ApiResponse(responseCode = "501", description = "Fonte sem modo snapshot.")
+    })
+    public ResponseEntity<byte[]> getOptionSourceSnapshot(
+            @PathVariable String sourceKey,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        try {
+            OptionSourceDescriptor descriptor = getService().resolveOptionSource(sourceKey);
+            if (descriptor.executionMode() != OptionSourceExecutionMode.SNAPSHOT) {
+                throw new UnsupportedOperationException("Option source does not publish a snapshot: " + sourceKey);
+            }
+            if (optionSourceSnapshotService == null) {
+                throw new UnsupportedOperationException("Option source snapshots are not configured.");
+            }
+            ResourceVersionScope scope = resourceVersionScope();
+            String datasetVersion = getService().getOptionSourceDatasetVersion(sourceKey).orElse(null);
+            OptionSourceSnapshot snapshot = optionSourceSnapshotService.resolve(
+                    getResourceKey() + "|" + sourceKey + "|" + scope.value(),
+                    datasetVersion,
+                    !ResourceVersionScope.GLOBAL.equals(scope),
+                    () -> loadOptionSourceSnapshot(sourceKey, optionSourceSnapshotService.maxRows())
+            );
+
+            CacheControl cacheControl = CacheControl.maxAge(optionSourceSnapshotService.maxAge());
+            cacheControl = ResourceVersionScope.GLOBAL.equals(scope)
+                    ? cacheControl.cachePublic()
+                    : cacheControl.cachePrivate();
+            boolean gzip = acceptsGzip(acceptEncoding);
+            boolean notModified = snapshot.matches(ifNoneMatch, gzip);
+            ResponseEntity.BodyBuilder builder = notModified
+                    ? ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    : ResponseEntity.ok();
+            builder.eTag(snapshot.etag(gzip))
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (snapshot.datasetVersion() != null) {
+                builder.header(HDR, snapshot.datasetVersion());
+            }
+            if (notModified) {
+                return builder.build();
+            }
+            builder.contentType(MediaType.APPLICATION_JSON);
+            if (gzip) {
+                return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzipContent());
+            }
+            return builder.body(snapshot.jsonContent());
+        } catch (UnknownOptionSourceException ex) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage(), ex);
+        } catch (OptionSourceSnapshotTooLargeException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage(), ex);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage(), ex);
+        } catch (UnsupportedOperationException ex) {
+            throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Loads a whole snapshot source. A one-row probe reads the total first so oversized sources are
+     * rejected before every row is materialized.
+     */
+    private List<OptionDTO<Object>> loadOptionSourceSnapshot(String sourceKey, int maxRows) {
+        long total = getService()
+                .filterOptionSourceOptions(sourceKey, null, PageRequest.of(0, 1))
+                .getTotalElements();
+        if (total > maxRows) {
+            throw new OptionSourceSnapshotTooLargeException(sourceKey, maxRows);
+        }
+        return getService().filterOptionSourceOptions(sourceKey, null, Pageable.unpaged()).getContent();
+    }
+
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!"gzip".equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+            return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+        }
+        return false;
+    }
+
+    @PostMapping("/option-sources/cascade")
+    @Operation(summary = "Resolver fontes derivadas dependentes em uma unica chamada")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            required = false,
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = OptionSourceCascadeRequest.class)
+            )
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Resultados por fonte, em ordem de dependencia."),
+            @ApiResponse(responseCode = "404", description = "Option-source inexistente."),
+            @ApiResponse(responseCode = "422", description = "Payload, policy, filtros invalidos ou dependencia ciclica."),
+            @ApiResponse(responseCode = "501", description = "Capability ou provider nao implementado.")
+    })
+    public ResponseEntity<List<OptionSourceCascadeResult>> resolveOptionSourceCascade(
+            @RequestBody(required = false) OptionSourceCascadeRequest request
+    ) {
+        OptionSourceCascadeRequest effectiveRequest = request == null
+                ? new OptionSourceCascadeRequest(null, null, null)
+                : request;
+        if (effectiveRequest.size() != null
+                && (effectiveRequest.size() < 1 || effectiveRequest.size() > paginationMaxSize)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Option source cascade page size must be between 1 and " + paginationMaxSize);
+        }
+
+        try {
+            List<String> sourceKeys = effectiveRequest.sources().isEmpty()
+                    ? getService().getOptionSourceRegistry().descriptors().stream()
+                            .map(OptionSourceDescriptor::key)
+                            .filter(getService()::hasOptionSource)
+                            .distinct()
+                            .toList()
+                    : effectiveRequest.sources();
+            List<OptionSourceDescriptor> descriptors = sourceKeys.stream()
+                    .map(getService()::resolveOptionSource)
+                    .toList();
+            OptionSourceCascadeResolver resolver = optionSourceCascadeResolver != null
+                    ? optionSourceCascadeResolver
+                    : new OptionSourceCascadeResolver(null);
+            return withVersion(
+                    ResponseEntity.ok(),
+                    resolver.resolve(
+                            descriptors,
+                            effectiveRequest.values(),
+                            descriptor -> loadCascadeOptions(descriptor, effectiveRequest)
                     )
             );
         } catch (UnknownOptionSourceException ex) {
@@ -828,6 +1159,57 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
         }
     }
 
+    /**
+     * Builds the filter a client would send for one cascade step: dependency values, translated by
+     * {@code dependencyFilterMap} for JPA-backed sources, plus the current selection as includeIds.
+     */
+    private Page<OptionDTO<Object>> loadCascadeOptions(
+            OptionSourceDescriptor descriptor,
+            OptionSourceCascadeRequest request
+    ) {
+        Map<String, Object> values = request.values();
+        boolean translateDependencies = descriptor.executionMode() != OptionSourceExecutionMode.PROVIDER_REQUIRED;
+        ObjectNode filter = objectMapper.createObjectNode();
+        for (String dependency : descriptor.dependsOn()) {
+            String filterKey = translateDependencies
+                    ? descriptor.dependencyFilterMap().getOrDefault(dependency, dependency)
+                    : dependency;
+            filter.set(filterKey, objectMapper.valueToTree(values.get(dependency)));
+        }
+        ObjectNode body = objectMapper.createObjectNode();
+        if (!filter.isEmpty()) {
+            body.set("filter", filter);
+        }
+
+        List<String> includeIds = new ArrayList<>();
+        Object selected = descriptor.filterField() == null ? null : values.get(descriptor.filterField());
+        if (descriptor.policy().allowIncludeIds() && selected != null) {
+            if (selected instanceof Collection<?> selectedValues) {
+                selectedValues.stream().filter(Objects::nonNull).map(String::valueOf).forEach(includeIds::add);
+            } else if (!(selected instanceof Map<?, ?>) && StringUtils.hasText(String.valueOf(selected))) {
+                includeIds.add(String.valueOf(selected));
+            }
+        }
+
+        OptionSourceFilterEnvelope<FD> envelope = parseOptionSourceFilterRequest(
+                body,
+                descriptor,
+                null,
+                null,
+                includeIds,
+                null
+        );
+        int size = request.size() != null
+                ? request.size()
+                : Math.min(descriptor.policy().defaultPageSize(), paginationMaxSize);
+        return getService().filterOptionSourceOptions(
+                descriptor.key(),
+                envelope.request(),
+                PageRequest.of(0, size),
+                envelope.providerFilterPayload()
+        );
+    }
+
     private OptionSourceFilterEnvelope<FD> parseOptionSourceFilterRequest(
             JsonNode request,
             OptionSourceDescriptor descriptor,
@@ -919,7 +1301,7 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
 
     private Set<String> optionSourceDependencyKeys(OptionSourceDescriptor descriptor) {
         Set<String> keys = new LinkedHashSet<>();
-        if (descriptor == null || descriptor.executionMode() == OptionSourceExecutionMode.JPA) {
+        if (descriptor == null || descriptor.executionMode() != OptionSourceExecutionMode.PROVIDER_REQUIRED) {
             return keys;
         }
         keys.addAll(descriptor.dependsOn());
@@ -1055,7 +1437,8 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
             throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
                     "Maximum number of IDs exceeded: " + byIdsMax);
         }
-        return withVersion(ResponseEntity.ok(), getService().byIdsOptions(ids));
+        return conditionalCollectionRead(getService().getDatasetVersion(), null,
+                () -> withVersion(ResponseEntity.ok(), getService().byIdsOptions(ids)));
     }
 
     @GetMapping("/option-sources/{sourceKey}/options/by-ids")
@@ -1075,11 +1458,12 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
                 throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
                         "Maximum number of IDs exceeded: " + byIdsMax);
             }
-            return withOptionSourceVersion(
-                    ResponseEntity.ok(),
-                    sourceKey,
-                    getService().byIdsOptionSourceOptions(sourceKey, ids == null ? List.of() : List.copyOf(ids))
-            );
+            return conditionalCollectionRead(getService().getOptionSourceDatasetVersion(sourceKey), null, () ->
+                    withOptionSourceVersion(
+                            ResponseEntity.ok(),
+                            sourceKey,
+                            getService().byIdsOptionSourceOptions(sourceKey, ids == null ? List.of() : List.copyOf(ids))
+                    ));
         } catch (UnknownOptionSourceException ex) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage(), ex);
         } catch (IllegalArgumentException ex) {
@@ -1116,15 +1500,16 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
                 throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
                         "Maximum number of IDs exceeded: " + byIdsMax);
             }
-            return withOptionSourceVersion(
-                    ResponseEntity.ok(),
-                    sourceKey,
-                    getService().byIdsOptionSourceOptions(
+            return conditionalCollectionRead(getService().getOptionSourceDatasetVersion(sourceKey), request, () ->
+                    withOptionSourceVersion(
+                            ResponseEntity.ok(),
                             sourceKey,
-                            envelope.request(),
-                            envelope.providerFilterPayload()
-                    )
-            );
+                            getService().byIdsOptionSourceOptions(
+                                    sourceKey,
+                                    envelope.request(),
+                                    envelope.providerFilterPayload()
+                            )
+                    ));
         } catch (UnknownOptionSourceException ex) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage(), ex);
         } catch (IllegalArgumentException ex) {
@@ -1238,23 +1623,24 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
     }
 
     protected Link linkToSelf(ID id) {
-        return Link.of(resourcePath(id)).withSelfRel();
+        return Link.of(itemPath(id)).withSelfRel();
     }
 
     protected Link linkToAll() {
-        return Link.of(resourcePath("all"), "all");
+        return linkTemplates().collectionLink("all", () -> Link.of(resourcePath("all"), "all"));
     }
 
     protected Link linkToFilter() {
-        return Link.of(resourcePath("filter"), "filter");
+        return linkTemplates().collectionLink("filter", () -> Link.of(resourcePath("filter"), "filter"));
     }
 
     protected Link linkToFilterCursor() {
-        return Link.of(resourcePath("filter", "cursor"), "filter-cursor");
+        return linkTemplates().collectionLink("filter-cursor",
+                () -> Link.of(resourcePath("filter", "cursor"), "filter-cursor"));
     }
 
     protected Link linkToExport() {
-        return Link.of(resourcePath("export"), "export");
+        return linkTemplates().collectionLink("export", () -> Link.of(resourcePath("export"), "export"));
     }
 
     protected void addCollectionOperationLink(List<Link> links, String operationId, Link link) {
@@ -1449,7 +1835,7 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
         if (!StringUtils.hasText(getResourceKeyOrNull()) || surfaceCatalogService == null) {
             return null;
         }
-        return Link.of(resourceDiscoveryPath(id, "surfaces"), "surfaces");
+        return Link.of(itemPath(id, "surfaces"), "surfaces");
     }
 
     protected Link linkToCollectionActionsIfAvailable() {
@@ -1463,7 +1849,7 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
         if (!hasWorkflowActions(ActionScope.ITEM) || actionCatalogService == null) {
             return null;
         }
-        return Link.of(resourceDiscoveryPath(id, "actions"), "actions");
+        return Link.of(itemPath(id, "actions"), "actions");
     }
 
     protected Link linkToCollectionCapabilitiesIfAvailable() {
@@ -1477,15 +1863,29 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
         if (!StringUtils.hasText(getResourceKeyOrNull()) || capabilityService == null) {
             return null;
         }
-        return Link.of(resourceDiscoveryPath(id, "capabilities"), "capabilities");
+        return Link.of(itemPath(id, "capabilities"), "capabilities");
     }
 
     private String resourceDiscoveryPath(String discoverySegment) {
         return resourcePath(discoverySegment);
     }
 
-    private String resourceDiscoveryPath(ID id, String discoverySegment) {
-        return resourcePath(id, discoverySegment);
+    /**
+     * Path da colecao do recurso ({@code contextPath + basePath}), pre-compilado.
+     */
+    protected String collectionPath() {
+        return linkTemplates().collectionPath;
+    }
+
+    /**
+     * Path do item: prefixo pre-compilado concatenado ao id codificado como segmento de path.
+     */
+    protected String itemPath(ID id) {
+        return linkTemplates().itemPath(id, "");
+    }
+
+    protected String itemPath(ID id, String segment) {
+        return linkTemplates().itemPath(id, "/" + segment);
     }
 
     protected String resourcePath(Object... segments) {
@@ -1506,6 +1906,26 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
         return Link.of(docsUrl, "docs");
     }
 
+    /**
+     * Aplica status e headers na resposta corrente e devolve o corpo para escrita assincrona.
+     *
+     * <p>O {@code StreamingResponseBodyReturnValueHandler} so reconhece
+     * {@code ResponseEntity<StreamingResponseBody>} pelo tipo declarado do metodo; endpoints que
+     * tambem devolvem JSON ou {@link Resource} declaram {@code Object} e entregam o corpo nu, que o
+     * handler reconhece pelo tipo em runtime. Sem resposta corrente, devolve a propria entidade.</p>
+     */
+    private Object streamingBody(ResponseEntity<StreamingResponseBody> entity) {
+        HttpServletResponse response = RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getResponse()
+                : null;
+        if (response == null) {
+            return entity;
+        }
+        response.setStatus(entity.getStatusCode().value());
+        entity.getHeaders().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        return entity.getBody();
+    }
+
     private MediaType resolveExportContentType(CollectionExportResult result) {
         if (StringUtils.hasText(result.contentType())) {
             return MediaType.parseMediaType(result.contentType());
@@ -1523,6 +1943,43 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
         return "export";
     }
 
+    /**
+     * Job visivel para este recurso: mesmo tenant e mesmo principal da requisicao, submetido pelo
+     * proprio recurso. Jobs de outros tenants, usuarios ou recursos respondem 404, sem revelar sua
+     * existencia.
+     */
+    private CollectionExportJob requireExportJob(String jobId) {
+        if (exportJobScheduler == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, "Not implemented.");
+        }
+        String tenant = resourceVersionScope().value();
+        String principal = exportJobScheduler.currentPrincipal();
+        return exportJobScheduler.find(jobId)
+                .filter(job -> Objects.equals(job.tenant(), tenant))
+                .filter(job -> Objects.equals(job.principal(), principal))
+                .filter(job -> job.owner() == null
+                        || job.owner().equals(getBasePath())
+                        || job.owner().equals(resourcePath()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Export job not found."));
+    }
+
+    /**
+     * Conteudo materializado como {@link Resource}, sem copiar o buffer: o Spring define
+     * {@code Content-Length} e atende {@code Range} com {@code ResourceRegion}. O corpo inteiro
+     * sai por {@link CollectionExportResult#writeTo}, que escreve o array do buffer de uma vez;
+     * a visao de {@code contentBuffer()} e somente leitura e nao expoe o array.
+     */
+    private Resource exportContentResource(CollectionExportResult result) {
+        if (result.contentFile() != null) {
+            return new FileSystemResource(result.contentFile());
+        }
+        return new ByteBufferResource(result.contentBuffer(), "collection export " + result.fileName(), result::writeTo);
+    }
+
+    private CollectionExportResult withJobDownloadUrl(CollectionExportResult result) {
+        return result.withDownloadUrl(resourcePath("export", "jobs", result.jobId(), "download"));
+    }
+
     private Map<String, Object> exportResultBody(CollectionExportResult result) {
         return Map.of(
                 "status", result.status().value(),
@@ -1542,6 +1999,10 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
         addExportHeader(builder, "X-Export-Truncated", metadata.get("truncated"));
         addExportHeader(builder, "X-Export-Max-Rows", metadata.get("maxRows"));
         addExportHeader(builder, "X-Export-Candidate-Row-Count", metadata.get("candidateRows"));
+        addExportHeader(builder, "X-Export-Admission", metadata.get("admission"));
+        addExportHeader(builder, "X-Export-Admission-Reason", metadata.get("admissionReason"));
+        addExportHeader(builder, "X-Export-Estimated-Rows", metadata.get("estimatedRows"));
+        addExportHeader(builder, "X-Export-Estimated-Bytes", metadata.get("estimatedBytes"));
         if (!result.warnings().isEmpty()) {
             builder.header("X-Export-Warnings", String.join(" | ", result.warnings()));
         }
@@ -1565,6 +2026,13 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
                 ? "response"
                 : schemaType.toLowerCase();
 
+        return linkTemplates().collectionLink(
+                "schema " + methodPath + " " + operation + " " + resolvedSchemaType,
+                () -> buildUiSchemaLink(methodPath, operation, resolvedSchemaType)
+        );
+    }
+
+    private Link buildUiSchemaLink(String methodPath, String operation, String resolvedSchemaType) {
         String fullPath = resolveSchemaMethodPath(methodPath);
         try {
             String docsPath = UriComponentsBuilder.fromPath(contextPath + SCHEMAS_FILTERED_PATH)
@@ -1652,6 +2120,120 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
         return builder.body(body);
     }
 
+    /**
+     * Leitura condicional de colecao. Com versao de dataset, a resposta recebe um ETag forte
+     * derivado da versao, do escopo, do principal e da requisicao (metodo, path, query e corpo
+     * normalizado); um {@code If-None-Match} igual devolve 304 sem executar a leitura. Consultas
+     * por POST so participam quando {@link #isConditionalPostQueryEnabled()} esta ligado.
+     *
+     * <p>A versao e lida antes da consulta: uma escrita concorrente gera um ETag antigo, que sera
+     * revalidado na proxima leitura, nunca um ETag novo sobre dados antigos.</p>
+     */
+    protected <T> ResponseEntity<T> conditionalCollectionRead(
+            Optional<String> datasetVersion,
+            Object requestBody,
+            Supplier<ResponseEntity<T>> read
+    ) {
+        String etag = collectionEtag(datasetVersion, requestBody);
+        if (isNotModified(etag)) {
+            return notModified(etag, datasetVersion.get());
+        }
+        ResponseEntity<T> response = read.get();
+        if (etag == null || !response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.setETag(etag);
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+
+    /**
+     * Liga ETag e 304 nas consultas por POST ({@code /filter}, {@code /options/filter},
+     * {@code /stats/*}). Desligado por padrao: POST nao e um metodo seguro e caches e
+     * intermediarios nao esperam 304 nele. Ligue apenas quando os clientes do recurso revalidam
+     * essas consultas com {@code If-None-Match}.
+     */
+    protected boolean isConditionalPostQueryEnabled() {
+        return false;
+    }
+
+    /**
+     * ETag da leitura de colecao na requisicao corrente, ou {@code null} sem versao de dataset,
+     * sem requisicao, em POST nao habilitado ou com corpo nao serializavel.
+     */
+    private String collectionEtag(Optional<String> datasetVersion, Object requestBody) {
+        HttpServletRequest request = currentRequest();
+        if (datasetVersion.isEmpty() || request == null || (requestBody != null && objectMapper == null)) {
+            return null;
+        }
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        boolean safe = method == HttpMethod.GET || method == HttpMethod.HEAD;
+        if (!safe && !(method == HttpMethod.POST && isConditionalPostQueryEnabled())) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String principal = request.getUserPrincipal() == null ? "" : request.getUserPrincipal().getName();
+            String query = request.getQueryString() == null ? "" : request.getQueryString();
+            String payload = String.join("\n",
+                    Objects.toString(getResourceKeyOrNull(), ""),
+                    resourceVersionScope().value(),
+                    principal,
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    query,
+                    datasetVersion.get()
+            );
+            digest.update(payload.getBytes(StandardCharsets.UTF_8));
+            if (requestBody != null) {
+                digest.update((byte) '\n');
+                digest.update(objectMapper.writeValueAsBytes(requestBody));
+            }
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()) + "\"";
+        } catch (JsonProcessingException ex) {
+            logger.debug("Collection ETag skipped: request body is not serializable", ex);
+            return null;
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available.", ex);
+        }
+    }
+
+    private boolean isNotModified(String etag) {
+        HttpServletRequest request = currentRequest();
+        return etag != null && request != null
+                && IfNoneMatchUtils.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag);
+    }
+
+    private <T> ResponseEntity<T> notModified(String etag, String datasetVersion) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .header(HDR, datasetVersion)
+                .build();
+    }
+
+    private HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest()
+                : null;
+    }
+
+    /**
+     * Publica em {@code meta} do envelope como o total da pagina foi obtido.
+     */
+    private <T> ResponseEntity<RestApiResponse<T>> withCountMetadata(
+            ResponseEntity<RestApiResponse<T>> response,
+            Page<?> page
+    ) {
+        if (response.getBody() != null && page instanceof CountedPage<?> counted) {
+            Map<String, Object> meta = new LinkedHashMap<>();
+            meta.put("countMode", counted.getCountMode().value());
+            meta.put("totalExact", counted.isTotalExact());
+            response.getBody().setMeta(meta);
+        }
+        return response;
+    }
+
     protected Links hateoasOrNull(Links links) {
         return isHateoasEnabled() ? links : null;
     }
@@ -1677,8 +2259,58 @@ public abstract class AbstractResourceQueryController<ResponseDTO, ID, FD extend
         if (!StringUtils.hasText(resourceKey) || actionDefinitionRegistry == null) {
             return false;
         }
-        return actionDefinitionRegistry.findByResourceKey(resourceKey).stream()
-                .anyMatch(definition -> definition.scope() == scope);
+        return linkTemplates().workflowActions.computeIfAbsent(scope, key ->
+                actionDefinitionRegistry.findByResourceKey(resourceKey).stream()
+                        .anyMatch(definition -> definition.scope() == key));
+    }
+
+    /**
+     * Templates compilados no {@code @PostConstruct}; sem ele (controllers montados manualmente) sao
+     * criados no primeiro uso.
+     */
+    private LinkTemplates linkTemplates() {
+        LinkTemplates templates = linkTemplates;
+        if (templates == null) {
+            templates = new LinkTemplates(resourcePath());
+            linkTemplates = templates;
+        }
+        return templates;
+    }
+
+    /**
+     * Links HATEOAS pre-compilados do controller. Links de colecao sao montados uma vez; links de
+     * item sao prefixo + id codificado + sufixo, sem {@link UriComponentsBuilder} por linha. A
+     * presenca de workflow actions e resolvida no primeiro uso, depois que o registry de handlers
+     * ja esta pronto.
+     */
+    private static final class LinkTemplates {
+
+        private final String collectionPath;
+        private final String itemPrefix;
+        private final Map<String, Link> collectionLinks = new ConcurrentHashMap<>();
+        private final Map<ActionScope, Boolean> workflowActions = new ConcurrentHashMap<>();
+        private volatile List<Link> collectionDiscoveryLinks;
+
+        private LinkTemplates(String collectionPath) {
+            this.collectionPath = collectionPath;
+            this.itemPrefix = collectionPath.endsWith("/") ? collectionPath : collectionPath + "/";
+        }
+
+        private String itemPath(Object id, String suffix) {
+            if (id == null) {
+                return collectionPath + suffix;
+            }
+            return itemPrefix + UriUtils.encodePathSegment(String.valueOf(id), StandardCharsets.UTF_8) + suffix;
+        }
+
+        private Link collectionLink(String key, Supplier<Link> factory) {
+            Link link = collectionLinks.get(key);
+            if (link == null) {
+                link = factory.get();
+                collectionLinks.putIfAbsent(key, link);
+            }
+            return link;
+        }
     }
 
     private String resolveSchemaMethodPath(String methodPath) {
@@ -83,6 +83,6 @@ public abstract class AbstractUnitDeleteResourceController<ResponseDTO, ID, FD e
     }
 
     protected Link linkToDelete(ID id) {
-        return Link.of(resourcePath(id), "delete");
+        return Link.of(itemPath(id), "delete");
     }
 }
@@ -0,0 +1,40 @@
+package org.praxisplatform.uischema.dto;
+
+import org.praxisplatform.uischema.exporting.CollectionExportRowSource;
+
+/**
+ * Fatia de {@code GET /all} lida em streaming.
+ *
+ * <p>
+ * As linhas so sao abertas quando {@code rows} e consumido, direto para a resposta; {@code next}
+ * e resolvido antes, para que o controller publique a continuacao em headers antes do corpo.
+ * </p>
+ *
+ * @param rows linhas da fatia, consumidas uma unica vez
+ * @param next continuacao opaca para a fatia seguinte, ou {@code null} quando nao ha mais linhas
+ * @param <T> tipo do conteudo
+ */
+public record CollectionSlice<T>(CollectionExportRowSource<T> rows, String next) {
+
+    /**
+     * Deslocamento em linhas de uma continuacao emitida como numero, usada quando a fonte nao pagina
+     * por keyset; {@code null} comeca do inicio.
+     *
+     * @throws IllegalArgumentException quando a continuacao nao e um deslocamento valido
+     */
+    public static long offset(String after) {
+        if (after == null) {
+            return 0L;
+        }
+        long offset;
+        try {
+            offset = Long.parseLong(after);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid continuation.", ex);
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("Invalid continuation.");
+        }
+        return offset;
+    }
+}
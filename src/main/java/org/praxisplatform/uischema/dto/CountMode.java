@@ -0,0 +1,58 @@
+package org.praxisplatform.uischema.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * Semantica do total de uma pagina de {@code /filter}.
+ *
+ * <p>
+ * O {@code COUNT} exato sob filtros com joins pode custar mais que a propria pagina. Os modos
+ * alternativos trocam a precisao de {@code totalElements} por latencia; a pagina devolvida informa
+ * o modo efetivamente usado em {@link CountedPage#getCountMode()}.
+ * </p>
+ */
+public enum CountMode {
+
+    /** {@code COUNT} completo; {@code totalElements} exato. */
+    EXACT("exact"),
+
+    /** Sem {@code COUNT}: le uma linha a mais para saber se ha proxima pagina. */
+    SKIP("skip"),
+
+    /** {@code COUNT} limitado: conta no maximo ate o teto configurado mais um. */
+    CAPPED("capped"),
+
+    /** Estimativa das estatisticas do banco; cai para {@link #CAPPED} sem estimativa. */
+    ESTIMATED("estimated");
+
+    private final String value;
+
+    CountMode(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String value() {
+        return value;
+    }
+
+    /**
+     * Interpreta o parametro {@code countMode}; {@code null} ou vazio devolve {@code null}.
+     *
+     * @throws IllegalArgumentException para valores desconhecidos
+     */
+    public static CountMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (CountMode mode : values()) {
+            if (mode.value.equals(normalized)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported countMode: " + value);
+    }
+}
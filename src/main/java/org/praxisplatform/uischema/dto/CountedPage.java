@@ -0,0 +1,66 @@
+package org.praxisplatform.uischema.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@link Page} de {@code /filter} que informa como {@code totalElements} foi obtido.
+ *
+ * <p>
+ * Serializado como uma pagina comum acrescida de {@code countMode} e {@code totalExact}. Quando
+ * {@code totalExact} e {@code false}, {@code totalElements} e um limite inferior ({@code skip},
+ * {@code capped}) ou uma estimativa ({@code estimated}); {@code last} continua confiavel porque a
+ * consulta le uma linha alem da pagina.
+ * </p>
+ *
+ * <p>
+ * O total informado e mantido como esta. {@link PageImpl} o recalcularia a partir do conteudo na
+ * ultima pagina, o que contaria os {@code includeIds} servidos alem da pagina.
+ * </p>
+ *
+ * @param <T> tipo do conteudo
+ */
+public class CountedPage<T> extends PageImpl<T> {
+
+    private final long total;
+    private final CountMode countMode;
+    private final boolean totalExact;
+
+    public CountedPage(List<T> content, Pageable pageable, long total, CountMode countMode, boolean totalExact) {
+        super(content, pageable, total);
+        this.total = total;
+        this.countMode = countMode;
+        this.totalExact = totalExact;
+    }
+
+    @Override
+    public long getTotalElements() {
+        return total;
+    }
+
+    @Override
+    public int getTotalPages() {
+        return getSize() == 0 ? 1 : (int) Math.ceil((double) total / (double) getSize());
+    }
+
+    /**
+     * Modo efetivamente usado; {@link CountMode#ESTIMATED} sem estimativa disponivel vira
+     * {@link CountMode#CAPPED}.
+     */
+    public CountMode getCountMode() {
+        return countMode;
+    }
+
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+
+    @Override
+    public <U> CountedPage<U> map(Function<? super T, ? extends U> converter) {
+        return new CountedPage<>(getConvertedContent(converter), getPageable(), getTotalElements(), countMode, totalExact);
+    }
+}
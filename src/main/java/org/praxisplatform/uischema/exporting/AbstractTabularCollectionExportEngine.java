@@ -1,10 +1,11 @@
 package org.praxisplatform.uischema.exporting;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.text.NumberFormat;
 import java.time.Instant;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
@@ -15,11 +16,127 @@ import java.time.temporal.TemporalAccessor;
 import java.util.Currency;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+/**
+ * Base dos engines tabulares: cada engine escreve as linhas direto em um {@link OutputStream}, e a
+ * mesma escrita atende tanto o resultado materializado quanto o resultado em streaming.
+ */
 abstract class AbstractTabularCollectionExportEngine implements CollectionExportEngine {
 
     protected static final String DEFAULT_FILE_BASENAME = "collection-export";
 
+    @Override
+    public <T> CollectionExportResult export(
+            CollectionExportRequest<?> request,
+            List<T> rows,
+            List<CollectionExportField> fields,
+            CollectionExportValueResolver<T> valueResolver,
+            Map<String, Object> metadata
+    ) {
+        ExportContentOutputStream output = new ExportContentOutputStream();
+        long rowCount;
+        try {
+            rowCount = write(request, rows == null ? Stream.empty() : rows.stream(), fields, valueResolver, output);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to serialize collection export as " + format().name(), ex);
+        }
+        return new CollectionExportResult(
+                CollectionExportStatus.COMPLETED,
+                format(),
+                request == null ? CollectionExportScope.AUTO : request.scope(),
+                output.toByteBuffer(),
+                fileName(request),
+                contentType(request),
+                null,
+                null,
+                rowCount,
+                List.of(),
+                metadata,
+                null,
+                null
+        );
+    }
+
+    @Override
+    public <T> CollectionExportResult stream(
+            CollectionExportRequest<?> request,
+            CollectionExportRowSource<T> rows,
+            List<CollectionExportField> fields,
+            CollectionExportValueResolver<T> valueResolver,
+            Map<String, Object> metadata
+    ) {
+        return CollectionExportResult.streamed(
+                format(),
+                request == null ? CollectionExportScope.AUTO : request.scope(),
+                fileName(request),
+                contentType(request),
+                output -> writeRows(request, rows, fields, valueResolver, output),
+                metadata
+        );
+    }
+
+    private <T> void writeRows(
+            CollectionExportRequest<?> request,
+            CollectionExportRowSource<T> rows,
+            List<CollectionExportField> fields,
+            CollectionExportValueResolver<T> valueResolver,
+            OutputStream output
+    ) throws IOException {
+        if (rows instanceof CollectionExportPartitionedRowSource<T> partitioned && partitioned.parallelism().enabled()) {
+            writePartitioned(request, partitioned, fields, valueResolver, output);
+        } else {
+            rows.consume(stream -> write(request, stream, fields, valueResolver, output));
+        }
+    }
+
+    protected abstract CollectionExportFormat format();
+
+    protected abstract String contentType(CollectionExportRequest<?> request);
+
+    protected abstract String fileName(CollectionExportRequest<?> request);
+
+    /**
+     * Escreve cabecalho e linhas em {@code output}, consumindo {@code rows} uma unica vez.
+     * Nao fecha {@code output}.
+     *
+     * @return quantidade de linhas escritas
+     */
+    protected abstract <T> long write(
+            CollectionExportRequest<?> request,
+            Stream<T> rows,
+            List<CollectionExportField> fields,
+            CollectionExportValueResolver<T> valueResolver,
+            OutputStream output
+    ) throws IOException;
+
+    /**
+     * Escreve uma origem particionada. Engines que formatam particoes isoladamente sobrescrevem e
+     * usam {@link CollectionExportPartitionedRowSource#forEachInOrder}; o padrao le as linhas em
+     * sequencia.
+     *
+     * @return quantidade de linhas escritas
+     */
+    protected <T> long writePartitioned(
+            CollectionExportRequest<?> request,
+            CollectionExportPartitionedRowSource<T> rows,
+            List<CollectionExportField> fields,
+            CollectionExportValueResolver<T> valueResolver,
+            OutputStream output
+    ) throws IOException {
+        long[] written = {0L};
+        rows.consume(stream -> written[0] = write(request, stream, fields, valueResolver, output));
+        return written[0];
+    }
+
+    /**
+     * Bytes de uma particao ja codificada, sem separador inicial.
+     */
+    protected record EncodedRows(byte[] bytes, long rows) {
+    }
+
     protected String columnKey(CollectionExportField field) {
         if (field == null) {
             return "";
@@ -47,10 +164,6 @@ abstract class AbstractTabularCollectionExportEngine implements CollectionExport
         return DEFAULT_FILE_BASENAME + "." + extension;
     }
 
-    protected long rowCount(List<?> rows) {
-        return rows == null ? 0L : rows.size();
-    }
-
     protected Object normalizeValue(Object value) {
         if (value instanceof BigDecimal decimal) {
             return decimal.toPlainString();
@@ -64,22 +177,43 @@ abstract class AbstractTabularCollectionExportEngine implements CollectionExport
         return value;
     }
 
+    /**
+     * Formata um valor isolado. Escritas de linhas usam {@link #compileColumns(List, CollectionExportRequest)},
+     * que resolve formatadores uma unica vez por exportacao.
+     */
     protected Object materializeValue(
             Object value,
             CollectionExportField field,
             CollectionExportRequest<?> request
     ) {
-        if (request == null || request.applyFormatting() != Boolean.TRUE) {
-            return normalizeValue(value);
+        return compileColumn(field, request).format(value);
+    }
+
+    /**
+     * Compila os campos em colunas com chave, rotulo e formatador ja resolvidos: tipo semantico,
+     * locale, fuso e padroes sao lidos uma vez por exportacao, e nao a cada celula.
+     */
+    protected ExportColumn[] compileColumns(List<CollectionExportField> fields, CollectionExportRequest<?> request) {
+        ExportColumn[] columns = new ExportColumn[fields.size()];
+        for (int index = 0; index < columns.length; index++) {
+            columns[index] = compileColumn(fields.get(index), request);
         }
+        return columns;
+    }
 
-        CollectionExportFieldPresentation presentation = field == null ? null : field.presentation();
-        if (value == null) {
-            return presentation != null && hasText(presentation.nullDisplay())
-                    ? presentation.nullDisplay()
-                    : "";
+    private ExportColumn compileColumn(CollectionExportField field, CollectionExportRequest<?> request) {
+        return new ExportColumn(field, columnKey(field), columnLabel(field), compileFormatter(field, request));
+    }
+
+    private ValueFormatter compileFormatter(CollectionExportField field, CollectionExportRequest<?> request) {
+        if (request == null || request.applyFormatting() != Boolean.TRUE) {
+            return this::normalizeValue;
         }
 
+        CollectionExportFieldPresentation presentation = field == null ? null : field.presentation();
+        String nullDisplay = presentation != null && hasText(presentation.nullDisplay())
+                ? presentation.nullDisplay()
+                : "";
         String semanticType = firstText(
                 presentation == null ? null : presentation.semanticType(),
                 field == null ? null : field.type()
@@ -89,89 +223,109 @@ abstract class AbstractTabularCollectionExportEngine implements CollectionExport
                 field == null ? null : field.format()
         );
         Locale locale = resolveLocale(presentation, request);
-        ZoneId zoneId = resolveZoneId(presentation, request);
-
-        return switch (semanticType) {
-            case "currency" -> formatCurrency(value, presentation, locale);
-            case "date" -> formatDate(value, format, locale);
-            case "datetime", "date-time", "timestamp" -> formatDateTime(value, format, locale, zoneId);
-            case "boolean", "bool" -> formatBoolean(value, presentation, locale);
-            default -> normalizeValue(value);
+
+        ValueFormatter formatter = switch (semanticType) {
+            case "currency" -> currencyFormatter(presentation, locale);
+            case "date" -> dateFormatter(format, locale);
+            case "datetime", "date-time", "timestamp" -> dateTimeFormatter(format, locale, resolveZoneId(presentation, request));
+            case "boolean", "bool" -> booleanFormatter(presentation, locale);
+            default -> this::normalizeValue;
         };
+        return value -> value == null ? nullDisplay : formatter.format(value);
     }
 
-    private Object formatCurrency(
-            Object value,
-            CollectionExportFieldPresentation presentation,
-            Locale locale
-    ) {
-        if (!(value instanceof Number number)) {
-            return normalizeValue(value);
-        }
-        NumberFormat formatter = NumberFormat.getCurrencyInstance(locale);
-        String currency = presentation == null ? null : presentation.currency();
-        if (hasText(currency)) {
+    /**
+     * {@link NumberFormat} nao e thread-safe: cada thread que escreve a coluna recebe sua copia.
+     */
+    private ValueFormatter currencyFormatter(CollectionExportFieldPresentation presentation, Locale locale) {
+        String currencyCode = presentation == null ? null : presentation.currency();
+        Currency currency = null;
+        if (hasText(currencyCode)) {
             try {
-                formatter.setCurrency(Currency.getInstance(currency.trim()));
+                currency = Currency.getInstance(currencyCode.trim());
             } catch (IllegalArgumentException ignored) {
-                return normalizeValue(value);
+                return this::normalizeValue;
             }
         }
-        return formatter.format(number);
+        Currency resolvedCurrency = currency;
+        ThreadLocal<NumberFormat> formatters = ThreadLocal.withInitial(() -> {
+            NumberFormat formatter = NumberFormat.getCurrencyInstance(locale);
+            if (resolvedCurrency != null) {
+                formatter.setCurrency(resolvedCurrency);
+            }
+            return formatter;
+        });
+        return value -> value instanceof Number number
+                ? formatters.get().format(number)
+                : normalizeValue(value);
     }
 
-    private Object formatDate(Object value, String format, Locale locale) {
-        if (value instanceof LocalDate date) {
-            return formatter(format, locale, "dd/MM/yyyy").format(date);
-        }
-        if (value instanceof Temporal temporal) {
-            return formatter(format, locale, "dd/MM/yyyy").format(temporal);
-        }
-        return normalizeValue(value);
+    private ValueFormatter dateFormatter(String format, Locale locale) {
+        Supplier<DateTimeFormatter> formatter = formatter(format, locale, "dd/MM/yyyy");
+        return value -> value instanceof Temporal temporal
+                ? formatter.get().format(temporal)
+                : normalizeValue(value);
     }
 
-    private Object formatDateTime(Object value, String format, Locale locale, ZoneId zoneId) {
-        DateTimeFormatter formatter = formatter(format, locale, "dd/MM/yyyy HH:mm:ss");
-        if (value instanceof Instant instant) {
-            return formatter.withZone(zoneId).format(instant);
-        }
-        if (value instanceof ZonedDateTime dateTime) {
-            return formatter.format(dateTime.withZoneSameInstant(zoneId));
-        }
-        if (value instanceof OffsetDateTime dateTime) {
-            return formatter.format(dateTime.atZoneSameInstant(zoneId));
-        }
-        if (value instanceof LocalDateTime dateTime) {
-            return formatter.format(dateTime);
-        }
-        if (value instanceof Temporal temporal) {
-            return formatter.withZone(zoneId).format((TemporalAccessor) temporal);
-        }
-        return normalizeValue(value);
+    private ValueFormatter dateTimeFormatter(String format, Locale locale, ZoneId zoneId) {
+        Supplier<DateTimeFormatter> formatter = formatter(format, locale, "dd/MM/yyyy HH:mm:ss");
+        Supplier<DateTimeFormatter> zoned = formatter(format, locale, "dd/MM/yyyy HH:mm:ss", zoneId);
+        return value -> {
+            if (value instanceof Instant instant) {
+                return zoned.get().format(instant);
+            }
+            if (value instanceof ZonedDateTime dateTime) {
+                return formatter.get().format(dateTime.withZoneSameInstant(zoneId));
+            }
+            if (value instanceof OffsetDateTime dateTime) {
+                return formatter.get().format(dateTime.atZoneSameInstant(zoneId));
+            }
+            if (value instanceof LocalDateTime dateTime) {
+                return formatter.get().format(dateTime);
+            }
+            if (value instanceof Temporal temporal) {
+                return zoned.get().format(temporal);
+            }
+            return normalizeValue(value);
+        };
     }
 
-    private Object formatBoolean(
-            Object value,
-            CollectionExportFieldPresentation presentation,
-            Locale locale
-    ) {
-        if (!(value instanceof Boolean bool)) {
-            return normalizeValue(value);
-        }
-        if (presentation != null) {
-            String explicit = bool ? presentation.trueLabel() : presentation.falseLabel();
-            if (hasText(explicit)) {
-                return explicit;
-            }
-        }
-        return "pt".equalsIgnoreCase(locale.getLanguage())
-                ? bool ? "Sim" : "Nao"
-                : bool.toString();
+    private ValueFormatter booleanFormatter(CollectionExportFieldPresentation presentation, Locale locale) {
+        boolean portuguese = "pt".equalsIgnoreCase(locale.getLanguage());
+        String trueLabel = presentation != null && hasText(presentation.trueLabel())
+                ? presentation.trueLabel()
+                : portuguese ? "Sim" : "true";
+        String falseLabel = presentation != null && hasText(presentation.falseLabel())
+                ? presentation.falseLabel()
+                : portuguese ? "Nao" : "false";
+        return value -> value instanceof Boolean bool
+                ? bool ? trueLabel : falseLabel
+                : normalizeValue(value);
+    }
+
+    /**
+     * {@link DateTimeFormatter} e imutavel e compartilhado entre threads. Um padrao invalido so
+     * falha ao formatar o primeiro valor, como antes da compilacao das colunas.
+     */
+    private Supplier<DateTimeFormatter> formatter(String format, Locale locale, String fallback) {
+        return formatter(format, locale, fallback, null);
     }
 
-    private DateTimeFormatter formatter(String format, Locale locale, String fallback) {
+    /**
+     * Variante com fuso de sobrescrita aplicado uma unica vez, na compilacao da coluna, em vez de
+     * um {@code withZone} por celula.
+     */
+    private Supplier<DateTimeFormatter> formatter(String format, Locale locale, String fallback, ZoneId zoneId) {
         String pattern = hasText(format) ? format.trim() : fallback;
-        return DateTimeFormatter.ofPattern(pattern, locale);
+        try {
+            DateTimeFormatter compiled = DateTimeFormatter.ofPattern(pattern, locale);
+            DateTimeFormatter formatter = zoneId == null ? compiled : compiled.withZone(zoneId);
+            return () -> formatter;
+        } catch (IllegalArgumentException ex) {
+            return () -> {
+                throw ex;
+            };
+        }
     }
 
     private Locale resolveLocale(
@@ -210,4 +364,21 @@ abstract class AbstractTabularCollectionExportEngine implements CollectionExport
     private boolean hasText(String value) {
         return value != null && !value.isBlank();
     }
+
+    /**
+     * Campo compilado para uma exportacao; engines indexam o array de colunas em vez de resolver
+     * formatacao por celula.
+     */
+    protected record ExportColumn(CollectionExportField field, String key, String label, ValueFormatter formatter) {
+
+        public Object format(Object value) {
+            return formatter.format(value);
+        }
+    }
+
+    @FunctionalInterface
+    protected interface ValueFormatter {
+
+        Object format(Object value);
+    }
 }
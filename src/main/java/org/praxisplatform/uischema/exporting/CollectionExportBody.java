@@ -0,0 +1,16 @@
+package org.praxisplatform.uischema.exporting;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Corpo de uma exportacao escrito diretamente no stream de resposta.
+ *
+ * <p>Engines com suporte a streaming devolvem este contrato em vez de um {@code byte[]}, de modo
+ * que as linhas sao lidas e serializadas uma a uma enquanto a resposta e enviada.</p>
+ */
+@FunctionalInterface
+public interface CollectionExportBody {
+
+    void writeTo(OutputStream output) throws IOException;
+}
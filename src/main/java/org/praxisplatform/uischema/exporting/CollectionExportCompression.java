@@ -0,0 +1,110 @@
+package org.praxisplatform.uischema.exporting;
+
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compressoes aplicadas por {@link CompressedCollectionExportEngine} sobre a saida de outro engine.
+ *
+ * <p>{@link #ZSTD} depende de {@code com.github.luben:zstd-jni}, declarada como dependencia
+ * opcional; use {@link #available()} antes de registrar engines com ela.</p>
+ */
+public enum CollectionExportCompression {
+    GZIP("gzip", ".gz", "application/gzip") {
+        @Override
+        OutputStream open(OutputStream output) throws IOException {
+            return new GZIPOutputStream(output, BUFFER_SIZE);
+        }
+
+        @Override
+        public boolean available() {
+            return true;
+        }
+    },
+    ZSTD("zstd", ".zst", "application/zstd") {
+        @Override
+        OutputStream open(OutputStream output) throws IOException {
+            return ZstdCodec.open(output);
+        }
+
+        @Override
+        public boolean available() {
+            try {
+                Class.forName("com.github.luben.zstd.ZstdOutputStream", false, CollectionExportCompression.class.getClassLoader());
+                return true;
+            } catch (ClassNotFoundException | LinkageError ex) {
+                return false;
+            }
+        }
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String value;
+    private final String extension;
+    private final String contentType;
+
+    CollectionExportCompression(String value, String extension, String contentType) {
+        this.value = value;
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String value() {
+        return value;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    /**
+     * Indica se o codec esta no classpath.
+     */
+    public abstract boolean available();
+
+    /**
+     * Abre um stream compressor sobre {@code output}. Fechar o stream devolvido finaliza a
+     * compressao sem fechar {@code output}.
+     */
+    public OutputStream wrap(OutputStream output) throws IOException {
+        return open(new NonClosingOutputStream(output));
+    }
+
+    abstract OutputStream open(OutputStream output) throws IOException;
+
+    /**
+     * Isola a referencia a {@code zstd-jni}: a classe so e carregada quando o codec e usado.
+     */
+    private static final class ZstdCodec {
+
+        private static OutputStream open(OutputStream output) throws IOException {
+            return new ZstdOutputStream(output);
+        }
+    }
+
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        private NonClosingOutputStream(OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
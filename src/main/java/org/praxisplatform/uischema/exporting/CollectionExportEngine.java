@@ -17,4 +17,19 @@ public interface CollectionExportEngine {
             CollectionExportValueResolver<T> valueResolver,
             Map<String, Object> metadata
     );
+
+    /**
+     * Exporta linhas lidas sob demanda. Engines canonicos devolvem um resultado em streaming que
+     * so consome {@code rows} ao escrever a resposta; a implementacao padrao materializa as linhas
+     * e delega a {@link #export(CollectionExportRequest, List, List, CollectionExportValueResolver, Map)}.
+     */
+    default <T> CollectionExportResult stream(
+            CollectionExportRequest<?> request,
+            CollectionExportRowSource<T> rows,
+            List<CollectionExportField> fields,
+            CollectionExportValueResolver<T> valueResolver,
+            Map<String, Object> metadata
+    ) {
+        return export(request, rows.toList(), fields, valueResolver, metadata);
+    }
 }
@@ -15,4 +15,39 @@ public interface CollectionExportExecutor {
             CollectionExportValueResolver<T> valueResolver,
             Map<String, Object> metadata
     );
+
+    /**
+     * Variante em streaming: as linhas sao lidas de {@code rows} enquanto a resposta e escrita,
+     * mantendo o heap constante independentemente do volume exportado.
+     */
+    default <T> CollectionExportResult stream(
+            CollectionExportRequest<?> request,
+            CollectionExportRowSource<T> rows,
+            List<CollectionExportField> defaultFields,
+            CollectionExportValueResolver<T> valueResolver,
+            Map<String, Object> metadata
+    ) {
+        return export(request, rows.toList(), defaultFields, valueResolver, metadata);
+    }
+
+    /**
+     * Formatos com engine registrado, na ordem de {@link CollectionExportFormat}. Recursos usam a
+     * lista para publicar {@link CollectionExportCapability#formats()} sem anunciar formatos cujo
+     * engine nao esta disponivel, como Parquet sem a dependencia opcional.
+     */
+    default List<CollectionExportFormat> supportedFormats() {
+        return List.of();
+    }
+
+    /**
+     * Campos que a exportacao efetivamente escreve: os solicitados em {@code request}, completados
+     * pelos padroes do recurso, ou os padroes visiveis quando nada foi solicitado. Services usam a
+     * lista para projetar apenas essas colunas antes de chamar {@link #stream}.
+     */
+    default List<CollectionExportField> effectiveFields(
+            CollectionExportRequest<?> request,
+            List<CollectionExportField> defaultFields
+    ) {
+        return defaultFields == null ? List.of() : defaultFields;
+    }
 }
@@ -11,7 +11,13 @@ import java.util.Locale;
 public enum CollectionExportFormat {
     CSV("csv"),
     JSON("json"),
+    NDJSON("ndjson"),
     EXCEL("excel"),
+    PARQUET("parquet"),
+    CSV_GZIP("csv-gzip"),
+    CSV_ZSTD("csv-zstd"),
+    JSON_GZIP("json-gzip"),
+    JSON_ZSTD("json-zstd"),
     PDF("pdf"),
     PRINT("print");
 
@@ -0,0 +1,31 @@
+package org.praxisplatform.uischema.exporting;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Configuracao da leitura particionada de exportacoes.
+ *
+ * @param executor  executor onde as particoes sao lidas e formatadas
+ * @param threads   particoes em voo ao mesmo tempo; tambem limita conexoes simultaneas ao banco
+ * @param chunkRows linhas por particao
+ */
+public record CollectionExportParallelism(Executor executor, int threads, int chunkRows) {
+
+    public static final int DEFAULT_CHUNK_ROWS = 10_000;
+
+    public CollectionExportParallelism {
+        threads = Math.max(1, threads);
+        chunkRows = chunkRows <= 0 ? DEFAULT_CHUNK_ROWS : chunkRows;
+    }
+
+    public static CollectionExportParallelism sequential() {
+        return new CollectionExportParallelism(null, 1, DEFAULT_CHUNK_ROWS);
+    }
+
+    /**
+     * Indica se ha executor e mais de uma thread disponivel.
+     */
+    public boolean enabled() {
+        return executor != null && threads > 1;
+    }
+}
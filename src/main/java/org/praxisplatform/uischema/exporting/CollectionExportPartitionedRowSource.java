@@ -0,0 +1,163 @@
+package org.praxisplatform.uischema.exporting;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Origem de linhas dividida em particoes ordenadas e independentes, por exemplo faixas de keyset
+ * por id.
+ *
+ * <p>Engines que sabem formatar particoes isoladamente usam
+ * {@link #forEachInOrder(PartitionReader, PartitionSink)}: ate {@code threads} particoes sao lidas
+ * e formatadas em paralelo, e um buffer de reordenacao entrega os resultados ao escritor na ordem
+ * original. Os demais engines usam {@link #consume(RowConsumer)}, que le a origem sequencial
+ * equivalente.</p>
+ */
+public final class CollectionExportPartitionedRowSource<T> implements CollectionExportRowSource<T> {
+
+    private final CollectionExportRowSource<T> sequential;
+    private final PartitionPlanner<T> planner;
+    private final CollectionExportParallelism parallelism;
+
+    /**
+     * @param sequential  mesmas linhas, na mesma ordem, lidas em um unico cursor
+     * @param planner     calcula as particoes no momento da escrita
+     * @param parallelism executor e limite de particoes em voo
+     */
+    public CollectionExportPartitionedRowSource(
+            CollectionExportRowSource<T> sequential,
+            PartitionPlanner<T> planner,
+            CollectionExportParallelism parallelism
+    ) {
+        this.sequential = Objects.requireNonNull(sequential, "sequential");
+        this.planner = Objects.requireNonNull(planner, "planner");
+        this.parallelism = parallelism == null ? CollectionExportParallelism.sequential() : parallelism;
+    }
+
+    @Override
+    public void consume(RowConsumer<T> consumer) throws IOException {
+        sequential.consume(consumer);
+    }
+
+    @Override
+    public CollectionExportPartitionedRowSource<T> peek(Consumer<? super T> action) {
+        return new CollectionExportPartitionedRowSource<>(
+                sequential.peek(action),
+                () -> planner.partitions().stream().map(partition -> partition.peek(action)).toList(),
+                parallelism
+        );
+    }
+
+    public CollectionExportParallelism parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Le cada particao com {@code reader}, em paralelo, e entrega os resultados a {@code sink} na
+     * ordem das particoes, em uma unica thread.
+     *
+     * <p>No maximo {@code threads} particoes ficam em voo; uma particao concluida fora de ordem
+     * aguarda no buffer ate que as anteriores sejam escritas, o que limita a memoria a
+     * {@code threads} particoes formatadas. Uma falha cancela as particoes pendentes.</p>
+     */
+    public <R> void forEachInOrder(PartitionReader<T, R> reader, PartitionSink<R> sink) throws IOException {
+        if (!parallelism.enabled()) {
+            for (CollectionExportRowSource<T> partition : planner.partitions()) {
+                sink.accept(read(partition, reader));
+            }
+            return;
+        }
+        Iterator<CollectionExportRowSource<T>> partitions = planner.partitions().iterator();
+        Deque<Future<R>> inFlight = new ArrayDeque<>();
+        try {
+            while (inFlight.size() < parallelism.threads() && partitions.hasNext()) {
+                inFlight.addLast(submit(partitions.next(), reader));
+            }
+            while (!inFlight.isEmpty()) {
+                R result = await(inFlight.removeFirst());
+                if (partitions.hasNext()) {
+                    inFlight.addLast(submit(partitions.next(), reader));
+                }
+                sink.accept(result);
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private <R> Future<R> submit(CollectionExportRowSource<T> partition, PartitionReader<T, R> reader) {
+        FutureTask<R> task = new FutureTask<>(() -> read(partition, reader));
+        parallelism.executor().execute(task);
+        return task;
+    }
+
+    private static <T, R> R read(CollectionExportRowSource<T> partition, PartitionReader<T, R> reader) throws IOException {
+        Object[] result = new Object[1];
+        partition.consume(rows -> result[0] = reader.read(rows));
+        @SuppressWarnings("unchecked")
+        R value = (R) result[0];
+        return value;
+    }
+
+    private static <R> R await(Future<R> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an export partition");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException("Failed to read export partition", cause);
+        }
+    }
+
+    /**
+     * Calcula as particoes em ordem; chamado uma vez por escrita.
+     */
+    @FunctionalInterface
+    public interface PartitionPlanner<T> {
+
+        List<CollectionExportRowSource<T>> partitions() throws IOException;
+    }
+
+    /**
+     * Le e formata as linhas de uma particao, fora da thread do escritor.
+     */
+    @FunctionalInterface
+    public interface PartitionReader<T, R> {
+
+        R read(Stream<T> rows) throws IOException;
+    }
+
+    /**
+     * Recebe particoes formatadas, em ordem, na thread do escritor.
+     */
+    @FunctionalInterface
+    public interface PartitionSink<R> {
+
+        void accept(R partition) throws IOException;
+    }
+}
@@ -0,0 +1,61 @@
+package org.praxisplatform.uischema.exporting;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Linhas de exportacao projetadas direto da consulta, sem entidade nem DTO intermediarios.
+ *
+ * <p>Cada linha e um {@code Object[]} com uma posicao por campo, na ordem de {@link #fields()}.
+ * O {@link #valueResolver()} localiza a posicao pelo {@code valuePath} (ou {@code key}) do campo,
+ * de modo que os engines recebem os mesmos campos e formatadores da exportacao baseada em DTO.</p>
+ *
+ * @param fields        campos projetados, na ordem das colunas de cada linha
+ * @param rows          origem das linhas projetadas
+ * @param valueResolver resolvedor por posicao
+ */
+public record CollectionExportProjectedRows(
+        List<CollectionExportField> fields,
+        CollectionExportRowSource<Object[]> rows,
+        CollectionExportValueResolver<Object[]> valueResolver
+) {
+
+    public CollectionExportProjectedRows {
+        fields = List.copyOf(Objects.requireNonNull(fields, "fields must not be null"));
+        Objects.requireNonNull(rows, "rows must not be null");
+        Objects.requireNonNull(valueResolver, "valueResolver must not be null");
+    }
+
+    /**
+     * Agrupa {@code rows} com um resolvedor que associa cada campo a sua posicao em {@code fields}.
+     */
+    public static CollectionExportProjectedRows of(
+            List<CollectionExportField> fields,
+            CollectionExportRowSource<Object[]> rows
+    ) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int index = 0; index < fields.size(); index++) {
+            CollectionExportField field = fields.get(index);
+            positions.putIfAbsent(propertyOf(field), index);
+            if (field.key() != null) {
+                positions.putIfAbsent(field.key(), index);
+            }
+        }
+        return new CollectionExportProjectedRows(fields, rows, (row, field) -> {
+            Integer position = positions.get(propertyOf(field));
+            if (position == null && field.key() != null) {
+                position = positions.get(field.key());
+            }
+            return position == null || position >= row.length ? null : row[position];
+        });
+    }
+
+    /**
+     * Propriedade projetada para o campo: {@code valuePath} quando informado, senao {@code key}.
+     */
+    public static String propertyOf(CollectionExportField field) {
+        return field.valuePath() == null || field.valuePath().isBlank() ? field.key() : field.valuePath();
+    }
+}
@@ -1,34 +1,94 @@
 package org.praxisplatform.uischema.exporting;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Resultado produzido por um recurso que implementa exportacao.
+ *
+ * <p>O conteudo pode vir materializado em {@code contentBuffer}, em um arquivo
+ * ({@code contentFile}) ou, para exportacoes em streaming, em {@code body}, escrito diretamente na
+ * resposta sem acumular o arquivo em memoria. Nesse caso {@code rowCount} e desconhecido ate o fim
+ * da escrita e fica {@code null}.</p>
+ *
+ * <p>O conteudo materializado nao e copiado: o buffer recebido passa a pertencer ao resultado,
+ * {@link #contentBuffer()} devolve uma visao somente leitura e {@link #writeTo(OutputStream)}
+ * escreve direto do buffer ou do arquivo ({@link FileChannel#transferTo}).</p>
  */
 public record CollectionExportResult(
         CollectionExportStatus status,
         CollectionExportFormat format,
         CollectionExportScope scope,
-        byte[] content,
+        ByteBuffer contentBuffer,
         String fileName,
         String contentType,
         String downloadUrl,
         String jobId,
         Long rowCount,
         List<String> warnings,
-        Map<String, Object> metadata
+        Map<String, Object> metadata,
+        CollectionExportBody body,
+        Path contentFile
 ) {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
     public CollectionExportResult {
         status = status == null ? CollectionExportStatus.COMPLETED : status;
         format = format == null ? CollectionExportFormat.CSV : format;
         scope = scope == null ? CollectionExportScope.AUTO : scope;
-        content = content == null ? new byte[0] : content.clone();
+        contentBuffer = contentBuffer == null ? EMPTY : contentBuffer.slice();
         warnings = warnings == null ? List.of() : List.copyOf(warnings);
         metadata = metadata == null ? Map.of() : Map.copyOf(metadata);
     }
 
+    /**
+     * Resultado materializado; {@code content} nao e copiado e nao deve ser alterado depois.
+     */
+    public CollectionExportResult(
+            CollectionExportStatus status,
+            CollectionExportFormat format,
+            CollectionExportScope scope,
+            byte[] content,
+            String fileName,
+            String contentType,
+            String downloadUrl,
+            String jobId,
+            Long rowCount,
+            List<String> warnings,
+            Map<String, Object> metadata,
+            CollectionExportBody body
+    ) {
+        this(status, format, scope, content == null ? null : ByteBuffer.wrap(content), fileName, contentType,
+                downloadUrl, jobId, rowCount, warnings, metadata, body, null);
+    }
+
+    public CollectionExportResult(
+            CollectionExportStatus status,
+            CollectionExportFormat format,
+            CollectionExportScope scope,
+            byte[] content,
+            String fileName,
+            String contentType,
+            String downloadUrl,
+            String jobId,
+            Long rowCount,
+            List<String> warnings,
+            Map<String, Object> metadata
+    ) {
+        this(status, format, scope, content, fileName, contentType, downloadUrl, jobId, rowCount, warnings, metadata, null);
+    }
+
     public CollectionExportResult(
             byte[] content,
             String fileName,
@@ -51,9 +111,55 @@ public record CollectionExportResult(
         );
     }
 
+    /**
+     * Visao somente leitura do conteudo materializado, sem copia. A visao nao expoe o array
+     * ({@code hasArray()} e {@code false}); para escrever o conteudo de uma vez use
+     * {@link #writeTo(OutputStream)}.
+     */
     @Override
+    public ByteBuffer contentBuffer() {
+        return contentBuffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Copia do conteudo materializado (ou do arquivo); prefira {@link #writeTo(OutputStream)} ou
+     * {@link #contentBuffer()} para conteudos grandes.
+     */
     public byte[] content() {
-        return content.clone();
+        if (contentFile != null) {
+            try {
+                return Files.readAllBytes(contentFile);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to read collection export content", ex);
+            }
+        }
+        byte[] copy = new byte[contentBuffer.remaining()];
+        contentBuffer.duplicate().get(copy);
+        return copy;
+    }
+
+    /**
+     * Tamanho do conteudo materializado ou do arquivo; {@code -1} em streaming.
+     */
+    public long contentLength() {
+        if (body != null) {
+            return -1L;
+        }
+        if (contentFile != null) {
+            try {
+                return Files.size(contentFile);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to read collection export content", ex);
+            }
+        }
+        return contentBuffer.remaining();
+    }
+
+    /**
+     * Indica se ha conteudo a entregar: streaming, arquivo ou buffer nao vazio.
+     */
+    public boolean hasContent() {
+        return body != null || contentFile != null || contentBuffer.hasRemaining();
     }
 
     public static CollectionExportResult text(String content, String fileName, String contentType) {
@@ -66,6 +172,30 @@ public record CollectionExportResult(
         );
     }
 
+    public static CollectionExportResult streamed(
+            CollectionExportFormat format,
+            CollectionExportScope scope,
+            String fileName,
+            String contentType,
+            CollectionExportBody body,
+            Map<String, Object> metadata
+    ) {
+        return new CollectionExportResult(
+                CollectionExportStatus.COMPLETED,
+                format,
+                scope,
+                null,
+                fileName,
+                contentType,
+                null,
+                null,
+                null,
+                List.of(),
+                metadata,
+                body
+        );
+    }
+
     public static CollectionExportResult deferred(
             CollectionExportFormat format,
             CollectionExportScope scope,
@@ -92,4 +222,95 @@ public record CollectionExportResult(
     public boolean deferredStatus() {
         return status == CollectionExportStatus.DEFERRED;
     }
+
+    /**
+     * Indica que o conteudo e produzido por {@link #body()} durante a escrita da resposta.
+     */
+    public boolean streaming() {
+        return body != null;
+    }
+
+    /**
+     * Resultado ja gravado em arquivo, entregue sem carregar o conteudo em memoria.
+     */
+    public static CollectionExportResult file(
+            CollectionExportFormat format,
+            CollectionExportScope scope,
+            Path contentFile,
+            String fileName,
+            String contentType,
+            Long rowCount,
+            Map<String, Object> metadata
+    ) {
+        return new CollectionExportResult(
+                CollectionExportStatus.COMPLETED,
+                format,
+                scope,
+                null,
+                fileName,
+                contentType,
+                null,
+                null,
+                rowCount,
+                List.of(),
+                metadata,
+                null,
+                contentFile
+        );
+    }
+
+    /**
+     * Mesmo resultado com outros metadados, compartilhando o conteudo.
+     */
+    public CollectionExportResult withMetadata(Map<String, Object> metadata) {
+        return new CollectionExportResult(status, format, scope, contentBuffer, fileName, contentType,
+                downloadUrl, jobId, rowCount, warnings, metadata, body, contentFile);
+    }
+
+    /**
+     * Mesmo resultado com outro corpo de streaming.
+     */
+    public CollectionExportResult withBody(CollectionExportBody body) {
+        return new CollectionExportResult(status, format, scope, contentBuffer, fileName, contentType,
+                downloadUrl, jobId, rowCount, warnings, metadata, body, contentFile);
+    }
+
+    /**
+     * Mesmo resultado com outra URL de download.
+     */
+    public CollectionExportResult withDownloadUrl(String downloadUrl) {
+        return new CollectionExportResult(status, format, scope, contentBuffer, fileName, contentType,
+                downloadUrl, jobId, rowCount, warnings, metadata, body, contentFile);
+    }
+
+    /**
+     * Escreve o conteudo em {@code output} sem copias intermediarias: arquivos usam
+     * {@link FileChannel#transferTo}, que vira copia no kernel quando o destino e outro arquivo.
+     */
+    public void writeTo(OutputStream output) throws IOException {
+        if (body != null) {
+            body.writeTo(output);
+        } else if (contentFile != null) {
+            transferFile(output);
+        } else if (contentBuffer.hasArray()) {
+            output.write(contentBuffer.array(), contentBuffer.arrayOffset() + contentBuffer.position(), contentBuffer.remaining());
+        } else {
+            WritableByteChannel channel = Channels.newChannel(output);
+            ByteBuffer remaining = contentBuffer.duplicate();
+            while (remaining.hasRemaining()) {
+                channel.write(remaining);
+            }
+        }
+    }
+
+    private void transferFile(OutputStream output) throws IOException {
+        try (FileChannel file = FileChannel.open(contentFile)) {
+            WritableByteChannel channel = Channels.newChannel(output);
+            long size = file.size();
+            long position = 0;
+            while (position < size) {
+                position += file.transferTo(position, size - position, channel);
+            }
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package org.praxisplatform.uischema.exporting;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Origem de linhas consumida uma unica vez durante a escrita de uma exportacao em streaming.
+ *
+ * <p>A origem abre as linhas (por exemplo um cursor JPA com fetch size), entrega o
+ * {@link Stream} ao consumidor e libera cursor, transacao e contexto de persistencia ao final.
+ * Como a escrita pode acontecer depois que o controller ja devolveu a resposta, a origem nao
+ * deve depender de recursos abertos pela thread da requisicao.</p>
+ */
+@FunctionalInterface
+public interface CollectionExportRowSource<T> {
+
+    /**
+     * Abre as linhas, entrega-as a {@code consumer} e libera os recursos associados.
+     */
+    void consume(RowConsumer<T> consumer) throws IOException;
+
+    /**
+     * Materializa todas as linhas; usado apenas por engines sem suporte a streaming.
+     */
+    default List<T> toList() {
+        List<T> rows = new ArrayList<>();
+        try {
+            consume(stream -> stream.forEach(rows::add));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read collection export rows", ex);
+        }
+        return rows;
+    }
+
+    /**
+     * Origem que executa {@code action} para cada linha lida, por exemplo para medir progresso.
+     * Em origens particionadas a acao pode rodar em varias threads.
+     */
+    default CollectionExportRowSource<T> peek(Consumer<? super T> action) {
+        return consumer -> consume(rows -> consumer.accept(rows.peek(action)));
+    }
+
+    static <T> CollectionExportRowSource<T> of(Collection<T> rows) {
+        List<T> snapshot = rows == null ? List.of() : List.copyOf(rows);
+        return consumer -> consumer.accept(snapshot.stream());
+    }
+
+    /**
+     * Origem que abre um novo stream a cada consumo e o fecha ao final.
+     */
+    static <T> CollectionExportRowSource<T> of(Supplier<? extends Stream<T>> opener) {
+        return consumer -> {
+            try (Stream<T> rows = opener.get()) {
+                consumer.accept(rows);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    interface RowConsumer<T> {
+
+        void accept(Stream<T> rows) throws IOException;
+    }
+}
@@ -0,0 +1,110 @@
+package org.praxisplatform.uischema.exporting;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Engine que comprime, em streaming, a saida de outro engine, por exemplo {@code csv-gzip} sobre o
+ * engine CSV.
+ *
+ * <p>O engine delegado escreve direto no stream compressor; nada e materializado alem do buffer
+ * do codec. O arquivo recebe a extensao da compressao e o content type do codec.</p>
+ */
+public class CompressedCollectionExportEngine implements CollectionExportEngine {
+
+    private final CollectionExportFormat format;
+    private final CollectionExportEngine delegate;
+    private final CollectionExportCompression compression;
+
+    public CompressedCollectionExportEngine(
+            CollectionExportFormat format,
+            CollectionExportEngine delegate,
+            CollectionExportCompression compression
+    ) {
+        this.format = Objects.requireNonNull(format, "format");
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.compression = Objects.requireNonNull(compression, "compression");
+    }
+
+    @Override
+    public boolean supports(CollectionExportFormat format) {
+        return this.format == format;
+    }
+
+    @Override
+    public <T> CollectionExportResult export(
+            CollectionExportRequest<?> request,
+            List<T> rows,
+            List<CollectionExportField> fields,
+            CollectionExportValueResolver<T> valueResolver,
+            Map<String, Object> metadata
+    ) {
+        CollectionExportResult result = delegate.export(request, rows, fields, valueResolver, metadata);
+        if (result.deferredStatus()) {
+            return result;
+        }
+        ExportContentOutputStream output = new ExportContentOutputStream();
+        try {
+            compress(result, output);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to serialize collection export as " + format.name(), ex);
+        }
+        return new CollectionExportResult(
+                result.status(),
+                format,
+                result.scope(),
+                output.toByteBuffer(),
+                fileName(result.fileName()),
+                compression.contentType(),
+                result.downloadUrl(),
+                result.jobId(),
+                result.rowCount(),
+                result.warnings(),
+                result.metadata(),
+                null,
+                null
+        );
+    }
+
+    @Override
+    public <T> CollectionExportResult stream(
+            CollectionExportRequest<?> request,
+            CollectionExportRowSource<T> rows,
+            List<CollectionExportField> fields,
+            CollectionExportValueResolver<T> valueResolver,
+            Map<String, Object> metadata
+    ) {
+        CollectionExportResult result = delegate.stream(request, rows, fields, valueResolver, metadata);
+        if (result.deferredStatus()) {
+            return result;
+        }
+        return CollectionExportResult.streamed(
+                format,
+                result.scope(),
+                fileName(result.fileName()),
+                compression.contentType(),
+                output -> compress(result, output),
+                result.metadata()
+        );
+    }
+
+    public CollectionExportCompression compression() {
+        return compression;
+    }
+
+    private void compress(CollectionExportResult result, OutputStream output) throws IOException {
+        try (OutputStream compressed = compression.wrap(output)) {
+            result.writeTo(compressed);
+        }
+    }
+
+    private String fileName(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            return null;
+        }
+        return fileName.endsWith(compression.extension()) ? fileName : fileName + compression.extension();
+    }
+}
@@ -1,12 +1,23 @@
 package org.praxisplatform.uischema.exporting;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Engine canonico para CSV RFC-4180-like, com protecao basica contra formula injection.
+ *
+ * <p>As linhas sao codificadas diretamente no stream de saida, sem materializar o arquivo. Origens
+ * particionadas sao codificadas em paralelo, particao a particao, quando o charset nao depende de
+ * estado (sem BOM implicito, como em {@code UTF-16}).</p>
  */
 public class CsvCollectionExportEngine extends AbstractTabularCollectionExportEngine {
 
@@ -20,68 +31,191 @@ public class CsvCollectionExportEngine extends AbstractTabularCollectionExportEn
     }
 
     @Override
-    public <T> CollectionExportResult export(
+    protected CollectionExportFormat format() {
+        return CollectionExportFormat.CSV;
+    }
+
+    @Override
+    protected String contentType(CollectionExportRequest<?> request) {
+        return resolveContentType(csvOptions(request));
+    }
+
+    @Override
+    protected String fileName(CollectionExportRequest<?> request) {
+        return resolveFileName(request, "csv");
+    }
+
+    @Override
+    protected <T> long write(
             CollectionExportRequest<?> request,
-            List<T> rows,
+            Stream<T> rows,
             List<CollectionExportField> fields,
             CollectionExportValueResolver<T> valueResolver,
-            Map<String, Object> metadata
-    ) {
-        StringBuilder csv = new StringBuilder();
-        CollectionExportCsvOptions options = request == null || request.formatOptions() == null
-                ? null
-                : request.formatOptions().csv();
+            OutputStream output
+    ) throws IOException {
+        CollectionExportCsvOptions options = csvOptions(request);
         String delimiter = resolveDelimiter(options);
         String lineEnding = resolveLineEnding(options);
-        if (resolveIncludeSepDirective(options)) {
-            csv.append("sep=").append(delimiter);
-        }
-        if (request == null || request.includeHeaders() != Boolean.FALSE) {
-            appendCsvLine(csv, fields.stream().map(this::columnLabel).toList(), delimiter, lineEnding);
+        ExportColumn[] columns = compileColumns(fields, request);
+        Writer csv = new BufferedWriter(new OutputStreamWriter(output, resolveCharset(options)));
+        boolean started = writeHead(csv, request, columns, options);
+        long rowCount = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            if (started) {
+                csv.write(lineEnding);
+            }
+            writeRow(csv, iterator.next(), columns, valueResolver, delimiter);
+            started = true;
+            rowCount++;
         }
-        for (T row : rows) {
-            appendCsvLine(csv, fields.stream()
-                    .map(field -> materializeValue(valueResolver.resolve(row, field), field, request))
-                    .toList(), delimiter, lineEnding);
+        csv.flush();
+        return rowCount;
+    }
+
+    @Override
+    protected <T> long writePartitioned(
+            CollectionExportRequest<?> request,
+            CollectionExportPartitionedRowSource<T> rows,
+            List<CollectionExportField> fields,
+            CollectionExportValueResolver<T> valueResolver,
+            OutputStream output
+    ) throws IOException {
+        CollectionExportCsvOptions options = csvOptions(request);
+        Charset charset = resolveCharset(options);
+        if (!statelessEncoding(charset)) {
+            return super.writePartitioned(request, rows, fields, valueResolver, output);
         }
-        String content = csv.toString();
-        if (resolveIncludeBom(options)) {
-            content = "\uFEFF" + content;
-        }
-        String contentType = resolveContentType(options);
-        return new CollectionExportResult(
-                CollectionExportStatus.COMPLETED,
-                CollectionExportFormat.CSV,
-                request == null ? CollectionExportScope.AUTO : request.scope(),
-                content.getBytes(resolveCharset(options)),
-                resolveFileName(request, "csv"),
-                contentType,
-                null,
-                null,
-                rowCount(rows),
-                List.of(),
-                metadata
+        String delimiter = resolveDelimiter(options);
+        String lineEnding = resolveLineEnding(options);
+        byte[] lineBreak = lineEnding.getBytes(charset);
+        ExportColumn[] columns = compileColumns(fields, request);
+        Writer head = new OutputStreamWriter(output, charset);
+        boolean[] started = {writeHead(head, request, columns, options)};
+        head.flush();
+        long[] rowCount = {0L};
+        rows.forEachInOrder(
+                partition -> encodeRows(partition, columns, valueResolver, delimiter, lineEnding, charset),
+                encoded -> {
+                    if (encoded.rows() == 0) {
+                        return;
+                    }
+                    if (started[0]) {
+                        output.write(lineBreak);
+                    }
+                    output.write(encoded.bytes());
+                    started[0] = true;
+                    rowCount[0] += encoded.rows();
+                }
         );
+        output.flush();
+        return rowCount[0];
     }
 
-    private void appendCsvLine(StringBuilder csv, List<?> values, String delimiter, String lineEnding) {
-        if (!csv.isEmpty()) {
-            csv.append(lineEnding);
+    private <T> EncodedRows encodeRows(
+            Stream<T> rows,
+            ExportColumn[] columns,
+            CollectionExportValueResolver<T> valueResolver,
+            String delimiter,
+            String lineEnding,
+            Charset charset
+    ) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        Writer csv = new BufferedWriter(new OutputStreamWriter(buffer, charset));
+        long rowCount = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            if (rowCount > 0) {
+                csv.write(lineEnding);
+            }
+            writeRow(csv, iterator.next(), columns, valueResolver, delimiter);
+            rowCount++;
+        }
+        csv.flush();
+        return new EncodedRows(buffer.toByteArray(), rowCount);
+    }
+
+    /**
+     * Escreve BOM, diretiva {@code sep=} e cabecalho, conforme as opcoes.
+     *
+     * @return {@code true} quando algo foi escrito e a proxima linha precisa de quebra
+     */
+    private boolean writeHead(
+            Writer csv,
+            CollectionExportRequest<?> request,
+            ExportColumn[] columns,
+            CollectionExportCsvOptions options
+    ) throws IOException {
+        String delimiter = resolveDelimiter(options);
+        if (resolveIncludeBom(options)) {
+            csv.write('\uFEFF');
+        }
+        boolean started = false;
+        if (resolveIncludeSepDirective(options)) {
+            csv.write("sep=");
+            csv.write(delimiter);
+            started = true;
+        }
+        if (request == null || request.includeHeaders() != Boolean.FALSE) {
+            if (started) {
+                csv.write(resolveLineEnding(options));
+            }
+            for (int index = 0; index < columns.length; index++) {
+                if (index > 0) {
+                    csv.write(delimiter);
+                }
+                writeCsvValue(csv, columns[index].label());
+            }
+            started = true;
         }
-        for (int index = 0; index < values.size(); index++) {
+        return started;
+    }
+
+    private <T> void writeRow(
+            Writer csv,
+            T row,
+            ExportColumn[] columns,
+            CollectionExportValueResolver<T> valueResolver,
+            String delimiter
+    ) throws IOException {
+        for (int index = 0; index < columns.length; index++) {
             if (index > 0) {
-                csv.append(delimiter);
+                csv.write(delimiter);
             }
-            csv.append(quoteCsv(values.get(index)));
+            ExportColumn column = columns[index];
+            writeCsvValue(csv, column.format(valueResolver.resolve(row, column.field())));
         }
     }
 
-    private String quoteCsv(Object value) {
+    /**
+     * Charsets que emitem BOM ou trocam de estado a cada codificacao nao podem ser concatenados
+     * particao a particao.
+     */
+    private boolean statelessEncoding(Charset charset) {
+        return "a".getBytes(charset).length * 2 == "aa".getBytes(charset).length;
+    }
+
+    private CollectionExportCsvOptions csvOptions(CollectionExportRequest<?> request) {
+        return request == null || request.formatOptions() == null
+                ? null
+                : request.formatOptions().csv();
+    }
+
+    /**
+     * Escreve o valor entre aspas, dobrando aspas internas, direto no writer.
+     */
+    private void writeCsvValue(Writer csv, Object value) throws IOException {
         String text = value == null ? "" : value.toString();
+        csv.write('"');
         if (startsWithFormula(text)) {
-            text = "'" + text;
+            csv.write('\'');
+        }
+        if (text.indexOf('"') < 0) {
+            csv.write(text);
+        } else {
+            csv.write(text.replace("\"", "\"\""));
         }
-        return "\"" + text.replace("\"", "\"\"") + "\"";
+        csv.write('"');
     }
 
     private boolean startsWithFormula(String text) {
@@ -95,7 +229,8 @@ public class CsvCollectionExportEngine extends AbstractTabularCollectionExportEn
         if (index >= text.length()) {
             return false;
         }
-        return List.of('=', '+', '-', '@').contains(text.charAt(index));
+        char first = text.charAt(index);
+        return first == '=' || first == '+' || first == '-' || first == '@';
     }
 
     private String resolveDelimiter(CollectionExportCsvOptions options) {
@@ -1,5 +1,6 @@
 package org.praxisplatform.uischema.exporting;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,25 +26,65 @@ public class DefaultCollectionExportExecutor implements CollectionExportExecutor
             Map<String, Object> metadata
     ) {
         Objects.requireNonNull(valueResolver, "valueResolver must not be null");
-        CollectionExportRequest<?> effectiveRequest = request == null
-                ? new CollectionExportRequest<>(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null)
-                : request;
-        List<CollectionExportField> fields = resolveFields(effectiveRequest.fields(), defaultFields);
-        CollectionExportEngine engine = engines.stream()
-                .filter(candidate -> candidate.supports(effectiveRequest.format()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Unsupported collection export format: " + effectiveRequest.format().value()
-                ));
-        return engine.export(
+        CollectionExportRequest<?> effectiveRequest = effectiveRequest(request);
+        return resolveEngine(effectiveRequest).export(
                 effectiveRequest,
                 rows == null ? List.of() : rows,
-                fields,
+                resolveFields(effectiveRequest.fields(), defaultFields),
                 valueResolver,
                 metadata == null ? Map.of() : Map.copyOf(metadata)
         );
     }
 
+    @Override
+    public <T> CollectionExportResult stream(
+            CollectionExportRequest<?> request,
+            CollectionExportRowSource<T> rows,
+            List<CollectionExportField> defaultFields,
+            CollectionExportValueResolver<T> valueResolver,
+            Map<String, Object> metadata
+    ) {
+        Objects.requireNonNull(valueResolver, "valueResolver must not be null");
+        CollectionExportRequest<?> effectiveRequest = effectiveRequest(request);
+        return resolveEngine(effectiveRequest).stream(
+                effectiveRequest,
+                rows == null ? CollectionExportRowSource.of(List.<T>of()) : rows,
+                resolveFields(effectiveRequest.fields(), defaultFields),
+                valueResolver,
+                metadata == null ? Map.of() : Map.copyOf(metadata)
+        );
+    }
+
+    @Override
+    public List<CollectionExportFormat> supportedFormats() {
+        return Arrays.stream(CollectionExportFormat.values())
+                .filter(format -> engines.stream().anyMatch(engine -> engine.supports(format)))
+                .toList();
+    }
+
+    @Override
+    public List<CollectionExportField> effectiveFields(
+            CollectionExportRequest<?> request,
+            List<CollectionExportField> defaultFields
+    ) {
+        return resolveFields(effectiveRequest(request).fields(), defaultFields);
+    }
+
+    private CollectionExportRequest<?> effectiveRequest(CollectionExportRequest<?> request) {
+        return request == null
+                ? new CollectionExportRequest<>(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null)
+                : request;
+    }
+
+    private CollectionExportEngine resolveEngine(CollectionExportRequest<?> request) {
+        return engines.stream()
+                .filter(candidate -> candidate.supports(request.format()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Unsupported collection export format: " + request.format().value()
+                ));
+    }
+
     private List<CollectionExportField> resolveFields(
             List<CollectionExportField> requestedFields,
             List<CollectionExportField> defaultFields
@@ -6,10 +6,10 @@ import org.apache.poi.ss.usermodel.CreationHelper;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.LocalDate;
@@ -17,20 +17,52 @@ import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Engine canonico para XLSX tabular, preservando a mesma resolucao governada de campos dos
  * engines CSV/JSON.
+ *
+ * <p>Usa {@link SXSSFWorkbook}: apenas uma janela de {@code rowWindow} linhas fica em memoria e
+ * as demais sao descarregadas em arquivos temporarios (opcionalmente comprimidos), removidos ao
+ * final da escrita. {@code autoFitColumns} estima larguras a partir das primeiras
+ * {@code widthSampleRows} linhas, sem varrer a planilha inteira, e estilos de data sao criados uma
+ * unica vez por formato.</p>
  */
 public class ExcelCollectionExportEngine extends AbstractTabularCollectionExportEngine {
 
     public static final String CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    public static final int DEFAULT_ROW_WINDOW = 100;
+    public static final int DEFAULT_WIDTH_SAMPLE_ROWS = 200;
     private static final String DEFAULT_SHEET_NAME = "Export";
     private static final int EXCEL_SHEET_NAME_LIMIT = 31;
-    private static final int MAX_AUTO_FIT_COLUMNS = 64;
+    private static final int EXCEL_MAX_COLUMN_CHARS = 255;
+    private static final String DATE_PATTERN = "dd/MM/yyyy";
+    private static final String DATE_TIME_PATTERN = "dd/MM/yyyy HH:mm:ss";
+
+    private final int rowWindow;
+    private final boolean compressTempFiles;
+    private final int widthSampleRows;
+
+    public ExcelCollectionExportEngine() {
+        this(DEFAULT_ROW_WINDOW, true, DEFAULT_WIDTH_SAMPLE_ROWS);
+    }
+
+    /**
+     * @param rowWindow         linhas mantidas em memoria antes de descarregar no arquivo temporario
+     * @param compressTempFiles comprime os arquivos temporarios com gzip
+     * @param widthSampleRows   linhas de dados usadas para estimar larguras com {@code autoFitColumns}
+     */
+    public ExcelCollectionExportEngine(int rowWindow, boolean compressTempFiles, int widthSampleRows) {
+        this.rowWindow = rowWindow <= 0 ? DEFAULT_ROW_WINDOW : rowWindow;
+        this.compressTempFiles = compressTempFiles;
+        this.widthSampleRows = Math.max(0, widthSampleRows);
+    }
 
     @Override
     public boolean supports(CollectionExportFormat format) {
@@ -38,137 +70,177 @@ public class ExcelCollectionExportEngine extends AbstractTabularCollectionExport
     }
 
     @Override
-    public <T> CollectionExportResult export(
+    protected CollectionExportFormat format() {
+        return CollectionExportFormat.EXCEL;
+    }
+
+    @Override
+    protected String contentType(CollectionExportRequest<?> request) {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    protected String fileName(CollectionExportRequest<?> request) {
+        return resolveExcelFileName(request);
+    }
+
+    @Override
+    protected <T> long write(
             CollectionExportRequest<?> request,
-            List<T> rows,
+            Stream<T> rows,
             List<CollectionExportField> fields,
             CollectionExportValueResolver<T> valueResolver,
-            Map<String, Object> metadata
-    ) {
-        CollectionExportExcelOptions options = request == null || request.formatOptions() == null
-                ? null
-                : request.formatOptions().excel();
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream output = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet(resolveSheetName(options));
-            CellStyle dateStyle = dateStyle(workbook, "dd/MM/yyyy");
-            CellStyle dateTimeStyle = dateStyle(workbook, "dd/MM/yyyy HH:mm:ss");
-            int rowIndex = 0;
-
-            if (request == null || request.includeHeaders() != Boolean.FALSE) {
-                Row header = sheet.createRow(rowIndex++);
-                for (int columnIndex = 0; columnIndex < fields.size(); columnIndex++) {
-                    writeStringCell(header.createCell(columnIndex), columnLabel(fields.get(columnIndex)));
-                }
-                if (Boolean.TRUE.equals(options == null ? null : options.freezeHeaders())) {
-                    sheet.createFreezePane(0, 1);
-                }
+            OutputStream output
+    ) throws IOException {
+        ExportColumn[] columns = compileColumns(fields, request);
+        boolean typedCells = typedCells(request);
+        return writeWorkbook(request, columns, output, sheet -> {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                sheet.writeRow(cellValues(iterator.next(), columns, valueResolver, typedCells));
             }
+        });
+    }
 
-            boolean typedCells = Boolean.TRUE.equals(options == null ? null : options.typedCells())
-                    && (request == null || request.applyFormatting() != Boolean.TRUE);
-            for (T sourceRow : rows) {
-                Row excelRow = sheet.createRow(rowIndex++);
-                for (int columnIndex = 0; columnIndex < fields.size(); columnIndex++) {
-                    CollectionExportField field = fields.get(columnIndex);
-                    Object value = valueResolver.resolve(sourceRow, field);
-                    Cell cell = excelRow.createCell(columnIndex);
-                    if (typedCells) {
-                        writeTypedCell(cell, value, field, dateStyle, dateTimeStyle);
-                    } else {
-                        writeStringCell(cell, materializeValue(value, field, request));
+    /**
+     * Resolve e formata os valores das particoes em paralelo; um unico escritor grava as celulas
+     * na ordem original, ja que o workbook nao aceita escrita concorrente.
+     */
+    @Override
+    protected <T> long writePartitioned(
+            CollectionExportRequest<?> request,
+            CollectionExportPartitionedRowSource<T> rows,
+            List<CollectionExportField> fields,
+            CollectionExportValueResolver<T> valueResolver,
+            OutputStream output
+    ) throws IOException {
+        ExportColumn[] columns = compileColumns(fields, request);
+        boolean typedCells = typedCells(request);
+        return writeWorkbook(request, columns, output, sheet -> rows.forEachInOrder(
+                partition -> partition
+                        .map(row -> cellValues(row, columns, valueResolver, typedCells))
+                        .toList(),
+                partitionCells -> {
+                    for (Object[] cells : partitionCells) {
+                        sheet.writeRow(cells);
                     }
                 }
-            }
+        ));
+    }
 
-            if (Boolean.TRUE.equals(options == null ? null : options.autoFitColumns())) {
-                int limit = Math.min(fields.size(), MAX_AUTO_FIT_COLUMNS);
-                for (int columnIndex = 0; columnIndex < limit; columnIndex++) {
-                    sheet.autoSizeColumn(columnIndex);
+    private long writeWorkbook(
+            CollectionExportRequest<?> request,
+            ExportColumn[] columns,
+            OutputStream output,
+            SheetBody body
+    ) throws IOException {
+        CollectionExportExcelOptions options = excelOptions(request);
+        // close() also deletes the temporary sheet files, including when the write fails.
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(null, rowWindow, compressTempFiles)) {
+            SheetWriter sheet = new SheetWriter(
+                    workbook,
+                    workbook.createSheet(resolveSheetName(options)),
+                    columns.length,
+                    Boolean.TRUE.equals(options == null ? null : options.autoFitColumns()),
+                    typedCells(request)
+            );
+
+            if (request == null || request.includeHeaders() != Boolean.FALSE) {
+                sheet.writeHeader(columns);
+                if (Boolean.TRUE.equals(options == null ? null : options.freezeHeaders())) {
+                    sheet.sheet.createFreezePane(0, 1);
                 }
             }
+            body.write(sheet);
+            sheet.applyColumnWidths();
 
             workbook.write(output);
-            return new CollectionExportResult(
-                    CollectionExportStatus.COMPLETED,
-                    CollectionExportFormat.EXCEL,
-                    request == null ? CollectionExportScope.AUTO : request.scope(),
-                    output.toByteArray(),
-                    resolveExcelFileName(request),
-                    CONTENT_TYPE,
-                    null,
-                    null,
-                    rowCount(rows),
-                    List.of(),
-                    metadata
-            );
-        } catch (IOException ex) {
-            throw new IllegalStateException("Failed to serialize collection export as XLSX", ex);
+            output.flush();
+            return sheet.dataRows();
         }
     }
 
-    private CellStyle dateStyle(Workbook workbook, String pattern) {
-        CreationHelper helper = workbook.getCreationHelper();
-        CellStyle style = workbook.createCellStyle();
-        style.setDataFormat(helper.createDataFormat().getFormat(pattern));
-        return style;
+    private <T> Object[] cellValues(
+            T row,
+            ExportColumn[] columns,
+            CollectionExportValueResolver<T> valueResolver,
+            boolean typedCells
+    ) {
+        Object[] cells = new Object[columns.length];
+        for (int columnIndex = 0; columnIndex < cells.length; columnIndex++) {
+            ExportColumn column = columns[columnIndex];
+            Object value = valueResolver.resolve(row, column.field());
+            cells[columnIndex] = typedCells ? value : column.format(value);
+        }
+        return cells;
     }
 
-    private void writeTypedCell(
-            Cell cell,
-            Object value,
-            CollectionExportField field,
-            CellStyle dateStyle,
-            CellStyle dateTimeStyle
-    ) {
+    private CollectionExportExcelOptions excelOptions(CollectionExportRequest<?> request) {
+        return request == null || request.formatOptions() == null
+                ? null
+                : request.formatOptions().excel();
+    }
+
+    private boolean typedCells(CollectionExportRequest<?> request) {
+        CollectionExportExcelOptions options = excelOptions(request);
+        return Boolean.TRUE.equals(options == null ? null : options.typedCells())
+                && (request == null || request.applyFormatting() != Boolean.TRUE);
+    }
+
+    /**
+     * Escreve uma celula tipada e devolve a largura aproximada, em caracteres, do valor exibido.
+     */
+    private int writeTypedCell(Cell cell, Object value, CellStyles styles) {
         if (value == null) {
             cell.setBlank();
-            return;
+            return 0;
         }
         if (value instanceof Boolean bool) {
             cell.setCellValue(bool);
-            return;
+            return bool ? 4 : 5;
         }
         if (value instanceof BigDecimal decimal) {
             cell.setCellValue(decimal.doubleValue());
-            return;
+            return decimal.toPlainString().length();
         }
         if (value instanceof BigInteger integer) {
             cell.setCellValue(integer.doubleValue());
-            return;
+            return integer.toString().length();
         }
         if (value instanceof Number number) {
             cell.setCellValue(number.doubleValue());
-            return;
+            return number.toString().length();
         }
         if (value instanceof LocalDate date) {
             cell.setCellValue(date);
-            cell.setCellStyle(dateStyle);
-            return;
+            cell.setCellStyle(styles.get(DATE_PATTERN));
+            return DATE_PATTERN.length();
         }
         if (value instanceof LocalDateTime dateTime) {
             cell.setCellValue(dateTime);
-            cell.setCellStyle(dateTimeStyle);
-            return;
+            cell.setCellStyle(styles.get(DATE_TIME_PATTERN));
+            return DATE_TIME_PATTERN.length();
         }
         if (value instanceof ZonedDateTime dateTime) {
             cell.setCellValue(dateTime.toLocalDateTime());
-            cell.setCellStyle(dateTimeStyle);
-            return;
+            cell.setCellStyle(styles.get(DATE_TIME_PATTERN));
+            return DATE_TIME_PATTERN.length();
         }
         if (value instanceof OffsetDateTime dateTime) {
             cell.setCellValue(dateTime.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime());
-            cell.setCellStyle(dateTimeStyle);
-            return;
+            cell.setCellStyle(styles.get(DATE_TIME_PATTERN));
+            return DATE_TIME_PATTERN.length();
         }
-        writeStringCell(cell, normalizeValue(value));
+        return writeStringCell(cell, normalizeValue(value));
     }
 
-    private void writeStringCell(Cell cell, Object value) {
+    private int writeStringCell(Cell cell, Object value) {
         String text = value == null ? "" : value.toString();
         if (startsWithFormula(text)) {
             text = "'" + text;
         }
         cell.setCellValue(text);
+        return text.length();
     }
 
     private boolean startsWithFormula(String text) {
@@ -217,4 +289,90 @@ public class ExcelCollectionExportEngine extends AbstractTabularCollectionExport
         }
         return fileName + ".xlsx";
     }
+
+    @FunctionalInterface
+    private interface SheetBody {
+
+        void write(SheetWriter sheet) throws IOException;
+    }
+
+    /**
+     * Escritor unico da planilha: cria linhas em sequencia e acumula larguras das linhas amostradas.
+     */
+    private final class SheetWriter {
+
+        private final Sheet sheet;
+        private final CellStyles styles;
+        private final boolean autoFit;
+        private final boolean typedCells;
+        private final int[] widths;
+        private int rowIndex;
+        private int dataStart;
+
+        private SheetWriter(Workbook workbook, Sheet sheet, int columns, boolean autoFit, boolean typedCells) {
+            this.sheet = sheet;
+            this.styles = new CellStyles(workbook);
+            this.autoFit = autoFit;
+            this.typedCells = typedCells;
+            this.widths = new int[columns];
+        }
+
+        private void writeHeader(ExportColumn[] columns) {
+            Row header = sheet.createRow(rowIndex++);
+            for (int columnIndex = 0; columnIndex < columns.length; columnIndex++) {
+                int length = writeStringCell(header.createCell(columnIndex), columns[columnIndex].label());
+                widths[columnIndex] = Math.max(widths[columnIndex], length);
+            }
+            dataStart = rowIndex;
+        }
+
+        private void writeRow(Object[] cells) {
+            boolean sampled = autoFit && rowIndex - dataStart < widthSampleRows;
+            Row excelRow = sheet.createRow(rowIndex++);
+            for (int columnIndex = 0; columnIndex < cells.length; columnIndex++) {
+                Cell cell = excelRow.createCell(columnIndex);
+                int length = typedCells
+                        ? writeTypedCell(cell, cells[columnIndex], styles)
+                        : writeStringCell(cell, cells[columnIndex]);
+                if (sampled) {
+                    widths[columnIndex] = Math.max(widths[columnIndex], length);
+                }
+            }
+        }
+
+        private void applyColumnWidths() {
+            if (!autoFit) {
+                return;
+            }
+            for (int columnIndex = 0; columnIndex < widths.length; columnIndex++) {
+                sheet.setColumnWidth(columnIndex, Math.min(EXCEL_MAX_COLUMN_CHARS, widths[columnIndex] + 2) * 256);
+            }
+        }
+
+        private long dataRows() {
+            return rowIndex - dataStart;
+        }
+    }
+
+    /**
+     * Estilos de data compartilhados por formato; o workbook aceita poucos estilos distintos.
+     */
+    private static final class CellStyles {
+
+        private final Workbook workbook;
+        private final Map<String, CellStyle> byFormat = new HashMap<>();
+
+        private CellStyles(Workbook workbook) {
+            this.workbook = workbook;
+        }
+
+        private CellStyle get(String pattern) {
+            return byFormat.computeIfAbsent(pattern, key -> {
+                CreationHelper helper = workbook.getCreationHelper();
+                CellStyle style = workbook.createCellStyle();
+                style.setDataFormat(helper.createDataFormat().getFormat(key));
+                return style;
+            });
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package org.praxisplatform.uischema.exporting;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Buffer de escrita de exportacoes materializadas que entrega o conteudo sem a copia de
+ * {@link ByteArrayOutputStream#toByteArray()}.
+ */
+final class ExportContentOutputStream extends ByteArrayOutputStream {
+
+    ExportContentOutputStream() {
+        super(8192);
+    }
+
+    /**
+     * Envolve o array interno; nada mais deve ser escrito depois.
+     */
+    ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buf, 0, count);
+    }
+}
@@ -1,23 +1,42 @@
 package org.praxisplatform.uischema.exporting;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Engine canonico para JSON tabular, preservando a ordem dos campos exportados.
+ *
+ * <p>O array e escrito objeto a objeto por um {@link JsonGenerator}, sem montar a lista completa.
+ * Origens particionadas sao serializadas em paralelo, em JSON compacto, e concatenadas em ordem.</p>
  */
 public class JsonCollectionExportEngine extends AbstractTabularCollectionExportEngine {
 
     public static final String CONTENT_TYPE = "application/json";
 
+    private static final byte[] ARRAY_START = {'['};
+    private static final byte[] ARRAY_END = {']'};
+    private static final byte[] VALUE_SEPARATOR = {','};
+
     private final ObjectMapper objectMapper;
+    private final ObjectWriter partitionWriter;
 
     public JsonCollectionExportEngine(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
+        this.partitionWriter = objectMapper.writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .withRootValueSeparator(",");
     }
 
     @Override
@@ -26,44 +45,97 @@ public class JsonCollectionExportEngine extends AbstractTabularCollectionExportE
     }
 
     @Override
-    public <T> CollectionExportResult export(
+    protected CollectionExportFormat format() {
+        return CollectionExportFormat.JSON;
+    }
+
+    @Override
+    protected String contentType(CollectionExportRequest<?> request) {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    protected String fileName(CollectionExportRequest<?> request) {
+        return resolveFileName(request, "json");
+    }
+
+    @Override
+    protected <T> long write(
             CollectionExportRequest<?> request,
-            List<T> rows,
+            Stream<T> rows,
             List<CollectionExportField> fields,
             CollectionExportValueResolver<T> valueResolver,
-            Map<String, Object> metadata
-    ) {
-        List<Map<String, Object>> payload = rows.stream()
-                .map(row -> toJsonRow(row, fields, valueResolver, request))
-                .toList();
-        try {
-            return new CollectionExportResult(
-                    CollectionExportStatus.COMPLETED,
-                    CollectionExportFormat.JSON,
-                    request == null ? CollectionExportScope.AUTO : request.scope(),
-                    objectMapper.writeValueAsBytes(payload),
-                    resolveFileName(request, "json"),
-                    CONTENT_TYPE,
-                    null,
-                    null,
-                    rowCount(rows),
-                    List.of(),
-                    metadata
-            );
-        } catch (JsonProcessingException ex) {
-            throw new IllegalStateException("Failed to serialize collection export as JSON", ex);
+            OutputStream output
+    ) throws IOException {
+        ExportColumn[] columns = compileColumns(fields, request);
+        long rowCount = 0;
+        try (JsonGenerator generator = objectMapper.createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(toJsonRow(iterator.next(), columns, valueResolver));
+                rowCount++;
+            }
+            generator.writeEndArray();
         }
+        return rowCount;
     }
 
-    private <T> Map<String, Object> toJsonRow(
-            T row,
+    @Override
+    protected <T> long writePartitioned(
+            CollectionExportRequest<?> request,
+            CollectionExportPartitionedRowSource<T> rows,
             List<CollectionExportField> fields,
             CollectionExportValueResolver<T> valueResolver,
-            CollectionExportRequest<?> request
+            OutputStream output
+    ) throws IOException {
+        ExportColumn[] columns = compileColumns(fields, request);
+        long[] rowCount = {0L};
+        output.write(ARRAY_START);
+        rows.forEachInOrder(
+                partition -> encodeRows(partition, columns, valueResolver),
+                encoded -> {
+                    if (encoded.rows() == 0) {
+                        return;
+                    }
+                    if (rowCount[0] > 0) {
+                        output.write(VALUE_SEPARATOR);
+                    }
+                    output.write(encoded.bytes());
+                    rowCount[0] += encoded.rows();
+                }
+        );
+        output.write(ARRAY_END);
+        output.flush();
+        return rowCount[0];
+    }
+
+    private <T> EncodedRows encodeRows(
+            Stream<T> rows,
+            ExportColumn[] columns,
+            CollectionExportValueResolver<T> valueResolver
+    ) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        long rowCount = 0;
+        try (SequenceWriter sequence = partitionWriter.writeValues(buffer)) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                sequence.write(toJsonRow(iterator.next(), columns, valueResolver));
+                rowCount++;
+            }
+        }
+        return new EncodedRows(buffer.toByteArray(), rowCount);
+    }
+
+    private <T> Map<String, Object> toJsonRow(
+            T row,
+            ExportColumn[] columns,
+            CollectionExportValueResolver<T> valueResolver
     ) {
-        Map<String, Object> jsonRow = new LinkedHashMap<>();
-        for (CollectionExportField field : fields) {
-            jsonRow.put(columnKey(field), materializeValue(valueResolver.resolve(row, field), field, request));
+        Map<String, Object> jsonRow = new LinkedHashMap<>(Math.max(16, columns.length * 4 / 3 + 1));
+        for (ExportColumn column : columns) {
+            jsonRow.put(column.key(), column.format(valueResolver.resolve(row, column.field())));
         }
         return jsonRow;
     }
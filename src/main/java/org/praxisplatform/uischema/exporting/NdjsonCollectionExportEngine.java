@@ -0,0 +1,193 @@
+package org.praxisplatform.uischema.exporting;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Engine de JSON delimitado por linha (NDJSON): um objeto por linha, escrito direto por um
+ * {@link JsonGenerator} sobre a resposta.
+ *
+ * <p>Nomes de campo sao pre-serializados uma vez por exportacao ({@link SerializedString}) e nao
+ * ha mapa por linha. A primeira linha e descarregada assim que escrita e depois a cada
+ * {@code flushRows} linhas, de modo que o primeiro byte nao depende do tamanho do resultado e a
+ * memoria fica constante. Origens particionadas sao codificadas em paralelo e concatenadas em
+ * ordem.</p>
+ */
+public class NdjsonCollectionExportEngine extends AbstractTabularCollectionExportEngine {
+
+    public static final String CONTENT_TYPE = "application/x-ndjson";
+    public static final int DEFAULT_FLUSH_ROWS = 500;
+
+    private static final char LINE_SEPARATOR = '\n';
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter valueWriter;
+    private final int flushRows;
+
+    public NdjsonCollectionExportEngine(ObjectMapper objectMapper) {
+        this(objectMapper, DEFAULT_FLUSH_ROWS);
+    }
+
+    /**
+     * @param flushRows linhas entre descargas do generator para a resposta
+     */
+    public NdjsonCollectionExportEngine(ObjectMapper objectMapper, int flushRows) {
+        this.objectMapper = objectMapper;
+        this.valueWriter = objectMapper.writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.flushRows = flushRows <= 0 ? DEFAULT_FLUSH_ROWS : flushRows;
+    }
+
+    @Override
+    public boolean supports(CollectionExportFormat format) {
+        return format == CollectionExportFormat.NDJSON;
+    }
+
+    @Override
+    protected CollectionExportFormat format() {
+        return CollectionExportFormat.NDJSON;
+    }
+
+    @Override
+    protected String contentType(CollectionExportRequest<?> request) {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    protected String fileName(CollectionExportRequest<?> request) {
+        return resolveFileName(request, "ndjson");
+    }
+
+    @Override
+    protected <T> long write(
+            CollectionExportRequest<?> request,
+            Stream<T> rows,
+            List<CollectionExportField> fields,
+            CollectionExportValueResolver<T> valueResolver,
+            OutputStream output
+    ) throws IOException {
+        ExportColumn[] columns = compileColumns(fields, request);
+        SerializedString[] names = fieldNames(columns);
+        long rowCount = 0;
+        try (JsonGenerator generator = createGenerator(output)) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writeLine(generator, iterator.next(), columns, names, valueResolver);
+                rowCount++;
+                if (rowCount == 1 || rowCount % flushRows == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return rowCount;
+    }
+
+    @Override
+    protected <T> long writePartitioned(
+            CollectionExportRequest<?> request,
+            CollectionExportPartitionedRowSource<T> rows,
+            List<CollectionExportField> fields,
+            CollectionExportValueResolver<T> valueResolver,
+            OutputStream output
+    ) throws IOException {
+        ExportColumn[] columns = compileColumns(fields, request);
+        SerializedString[] names = fieldNames(columns);
+        long[] rowCount = {0L};
+        rows.forEachInOrder(
+                partition -> encodeRows(partition, columns, names, valueResolver),
+                encoded -> {
+                    output.write(encoded.bytes());
+                    output.flush();
+                    rowCount[0] += encoded.rows();
+                }
+        );
+        return rowCount[0];
+    }
+
+    private <T> EncodedRows encodeRows(
+            Stream<T> rows,
+            ExportColumn[] columns,
+            SerializedString[] names,
+            CollectionExportValueResolver<T> valueResolver
+    ) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        long rowCount = 0;
+        try (JsonGenerator generator = createGenerator(buffer)) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writeLine(generator, iterator.next(), columns, names, valueResolver);
+                rowCount++;
+            }
+        }
+        return new EncodedRows(buffer.toByteArray(), rowCount);
+    }
+
+    private JsonGenerator createGenerator(OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private SerializedString[] fieldNames(ExportColumn[] columns) {
+        SerializedString[] names = new SerializedString[columns.length];
+        for (int index = 0; index < columns.length; index++) {
+            names[index] = new SerializedString(columns[index].key());
+        }
+        return names;
+    }
+
+    private <T> void writeLine(
+            JsonGenerator generator,
+            T row,
+            ExportColumn[] columns,
+            SerializedString[] names,
+            CollectionExportValueResolver<T> valueResolver
+    ) throws IOException {
+        generator.writeStartObject();
+        for (int index = 0; index < columns.length; index++) {
+            ExportColumn column = columns[index];
+            generator.writeFieldName(names[index]);
+            writeValue(generator, column.format(valueResolver.resolve(row, column.field())));
+        }
+        generator.writeEndObject();
+        generator.writeRaw(LINE_SEPARATOR);
+    }
+
+    private void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String text) {
+            generator.writeString(text);
+        } else if (value instanceof Boolean bool) {
+            generator.writeBoolean(bool);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            generator.writeNumber(((Number) value).intValue());
+        } else if (value instanceof Long number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Double number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Float number) {
+            generator.writeNumber(number);
+        } else if (value instanceof BigDecimal number) {
+            generator.writeNumber(number);
+        } else if (value instanceof BigInteger number) {
+            generator.writeNumber(number);
+        } else {
+            valueWriter.writeValue(generator, value);
+        }
+    }
+}
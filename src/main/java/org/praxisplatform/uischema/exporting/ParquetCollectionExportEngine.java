@@ -0,0 +1,485 @@
+package org.praxisplatform.uischema.exporting;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Engine Apache Parquet com colunas tipadas a partir de {@link CollectionExportField#type()}.
+ *
+ * <p>Valores sao gravados crus: {@code applyFormatting} e ignorado, porque o consumidor e uma
+ * ferramenta analitica. Campos {@code decimal}, {@code numeric}, {@code currency} e {@code percent}
+ * usam o tipo logico {@code DECIMAL(38, escala)} em {@code FIXED_LEN_BYTE_ARRAY}, sem passar por
+ * ponto flutuante; a escala vem do {@code format} do campo (digitos apos o ponto, como
+ * {@code 0.00}, ou o numero de casas) e, sem ele, e 2 para {@code currency} e 4 para os demais. Apenas o row group corrente fica em memoria; cada row group completo e
+ * escrito no {@link OutputStream} da resposta. Depende de {@code org.apache.parquet:parquet-hadoop}
+ * e do cliente Hadoop, declarados como dependencias opcionais.</p>
+ */
+public class ParquetCollectionExportEngine extends AbstractTabularCollectionExportEngine {
+
+    public static final String CONTENT_TYPE = "application/vnd.apache.parquet";
+    public static final long DEFAULT_ROW_GROUP_BYTES = 32L * 1024 * 1024;
+    public static final int DEFAULT_PAGE_BYTES = 1024 * 1024;
+
+    private static final String MESSAGE_NAME = "row";
+    private static final int DECIMAL_PRECISION = 38;
+    private static final int DECIMAL_BYTES = 16;
+    private static final int DEFAULT_CURRENCY_SCALE = 2;
+    private static final int DEFAULT_DECIMAL_SCALE = 4;
+
+    private final CompressionCodecName codec;
+    private final long rowGroupBytes;
+    private final int pageBytes;
+
+    public ParquetCollectionExportEngine() {
+        this("snappy", DEFAULT_ROW_GROUP_BYTES, DEFAULT_PAGE_BYTES);
+    }
+
+    /**
+     * @param codec         codec das paginas ({@code snappy}, {@code gzip}, {@code zstd} ou {@code uncompressed})
+     * @param rowGroupBytes tamanho alvo de cada row group; limita a memoria por exportacao
+     * @param pageBytes     tamanho alvo de cada pagina
+     */
+    public ParquetCollectionExportEngine(String codec, long rowGroupBytes, int pageBytes) {
+        this.codec = codec == null || codec.isBlank()
+                ? CompressionCodecName.SNAPPY
+                : CompressionCodecName.valueOf(codec.trim().toUpperCase(Locale.ROOT));
+        this.rowGroupBytes = rowGroupBytes <= 0 ? DEFAULT_ROW_GROUP_BYTES : rowGroupBytes;
+        this.pageBytes = pageBytes <= 0 ? DEFAULT_PAGE_BYTES : pageBytes;
+    }
+
+    @Override
+    public boolean supports(CollectionExportFormat format) {
+        return format == CollectionExportFormat.PARQUET;
+    }
+
+    @Override
+    protected CollectionExportFormat format() {
+        return CollectionExportFormat.PARQUET;
+    }
+
+    @Override
+    protected String contentType(CollectionExportRequest<?> request) {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    protected String fileName(CollectionExportRequest<?> request) {
+        return resolveFileName(request, "parquet");
+    }
+
+    @Override
+    protected <T> long write(
+            CollectionExportRequest<?> request,
+            Stream<T> rows,
+            List<CollectionExportField> fields,
+            CollectionExportValueResolver<T> valueResolver,
+            OutputStream output
+    ) throws IOException {
+        ZoneId zoneId = resolveZoneId(request);
+        ParquetColumn[] columns = new ParquetColumn[fields.size()];
+        List<Type> types = new ArrayList<>(columns.length);
+        for (int index = 0; index < columns.length; index++) {
+            CollectionExportField field = fields.get(index);
+            ColumnKind kind = ColumnKind.of(field.type());
+            int scale = kind == ColumnKind.DECIMAL ? decimalScale(field) : 0;
+            columns[index] = new ParquetColumn(field, columnKey(field), kind, scale);
+            types.add(kind.type(columns[index].name(), scale));
+        }
+        MessageType schema = new MessageType(MESSAGE_NAME, types);
+
+        long rowCount = 0;
+        try (ParquetWriter<Object[]> writer = new RowWriterBuilder(new StreamOutputFile(output), schema, columns, zoneId)
+                .withCompressionCodec(codec)
+                .withRowGroupSize(rowGroupBytes)
+                .withPageSize(pageBytes)
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withConf(new PlainParquetConfiguration())
+                .build()) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                Object[] values = new Object[columns.length];
+                for (int index = 0; index < columns.length; index++) {
+                    values[index] = valueResolver.resolve(row, columns[index].field());
+                }
+                writer.write(values);
+                rowCount++;
+            }
+        }
+        return rowCount;
+    }
+
+    private ZoneId resolveZoneId(CollectionExportRequest<?> request) {
+        String zone = request == null || request.localization() == null ? null : request.localization().timeZone();
+        if (zone == null || zone.isBlank()) {
+            return ZoneOffset.UTC;
+        }
+        try {
+            return ZoneId.of(zone.trim());
+        } catch (DateTimeException ex) {
+            return ZoneOffset.UTC;
+        }
+    }
+
+    /**
+     * Escala da coluna {@code DECIMAL}: o {@code format} do campo, ou da apresentacao, como numero
+     * de casas ({@code 2}) ou padrao numerico ({@code #,##0.00}); sem format, o padrao do tipo.
+     */
+    private static int decimalScale(CollectionExportField field) {
+        String format = field.presentation() != null && field.presentation().format() != null
+                ? field.presentation().format()
+                : field.format();
+        if (format != null && !format.isBlank()) {
+            String trimmed = format.trim();
+            int scale = -1;
+            if (trimmed.chars().allMatch(Character::isDigit)) {
+                scale = Integer.parseInt(trimmed);
+            } else if (trimmed.matches("[#0,]*\\.[#0]+")) {
+                scale = trimmed.length() - trimmed.indexOf('.') - 1;
+            }
+            if (scale >= 0 && scale <= DECIMAL_PRECISION) {
+                return scale;
+            }
+        }
+        return "currency".equalsIgnoreCase(field.type() == null ? null : field.type().trim())
+                ? DEFAULT_CURRENCY_SCALE
+                : DEFAULT_DECIMAL_SCALE;
+    }
+
+    private record ParquetColumn(CollectionExportField field, String name, ColumnKind kind, int scale) {
+    }
+
+    /**
+     * Tipo fisico e logico de cada coluna, derivado do tipo declarado do campo.
+     */
+    private enum ColumnKind {
+        INT64,
+        DOUBLE,
+        DECIMAL,
+        BOOLEAN,
+        DATE,
+        TIMESTAMP,
+        STRING;
+
+        static ColumnKind of(String type) {
+            String normalized = type == null ? "" : type.trim().toLowerCase(Locale.ROOT);
+            return switch (normalized) {
+                case "integer", "int", "long", "bigint", "int64" -> INT64;
+                case "number", "double", "float" -> DOUBLE;
+                case "numeric", "decimal", "currency", "percent" -> DECIMAL;
+                case "boolean", "bool" -> BOOLEAN;
+                case "date" -> DATE;
+                case "datetime", "date-time", "timestamp" -> TIMESTAMP;
+                default -> STRING;
+            };
+        }
+
+        PrimitiveType type(String name, int scale) {
+            return switch (this) {
+                case INT64 -> Types.optional(PrimitiveTypeName.INT64).named(name);
+                case DOUBLE -> Types.optional(PrimitiveTypeName.DOUBLE).named(name);
+                case DECIMAL -> Types.optional(PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY)
+                        .length(DECIMAL_BYTES)
+                        .as(LogicalTypeAnnotation.decimalType(scale, DECIMAL_PRECISION))
+                        .named(name);
+                case BOOLEAN -> Types.optional(PrimitiveTypeName.BOOLEAN).named(name);
+                case DATE -> Types.optional(PrimitiveTypeName.INT32)
+                        .as(LogicalTypeAnnotation.dateType())
+                        .named(name);
+                case TIMESTAMP -> Types.optional(PrimitiveTypeName.INT64)
+                        .as(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MILLIS))
+                        .named(name);
+                case STRING -> Types.optional(PrimitiveTypeName.BINARY)
+                        .as(LogicalTypeAnnotation.stringType())
+                        .named(name);
+            };
+        }
+    }
+
+    private final class RowWriteSupport extends WriteSupport<Object[]> {
+
+        private final MessageType schema;
+        private final ParquetColumn[] columns;
+        private final ZoneId zoneId;
+        private RecordConsumer consumer;
+
+        private RowWriteSupport(MessageType schema, ParquetColumn[] columns, ZoneId zoneId) {
+            this.schema = schema;
+            this.columns = columns;
+            this.zoneId = zoneId;
+        }
+
+        @Override
+        public WriteContext init(ParquetConfiguration configuration) {
+            return new WriteContext(schema, Map.of());
+        }
+
+        /**
+         * Ainda abstrato no parquet 1.14; o writer chama a sobrecarga com {@link ParquetConfiguration}.
+         */
+        @Override
+        @Deprecated
+        public WriteContext init(Configuration configuration) {
+            return new WriteContext(schema, Map.of());
+        }
+
+        @Override
+        public void prepareForWrite(RecordConsumer recordConsumer) {
+            this.consumer = recordConsumer;
+        }
+
+        @Override
+        public void write(Object[] values) {
+            consumer.startMessage();
+            for (int index = 0; index < columns.length; index++) {
+                Object value = values[index];
+                if (value == null) {
+                    continue;
+                }
+                ParquetColumn column = columns[index];
+                consumer.startField(column.name(), index);
+                try {
+                    writeValue(column, value);
+                } catch (RuntimeException ex) {
+                    throw new IllegalStateException(
+                            "Value of type " + value.getClass().getSimpleName()
+                                    + " is not compatible with parquet column " + column.name() + " (" + column.kind() + ")",
+                            ex
+                    );
+                }
+                consumer.endField(column.name(), index);
+            }
+            consumer.endMessage();
+        }
+
+        private void writeValue(ParquetColumn column, Object value) {
+            switch (column.kind()) {
+                case INT64 -> consumer.addLong(value instanceof Number number
+                        ? number.longValue()
+                        : Long.parseLong(value.toString().trim()));
+                case DOUBLE -> consumer.addDouble(value instanceof Number number
+                        ? number.doubleValue()
+                        : Double.parseDouble(value.toString().trim()));
+                case DECIMAL -> consumer.addBinary(toFixedDecimal(value, column.scale()));
+                case BOOLEAN -> consumer.addBoolean(value instanceof Boolean bool
+                        ? bool
+                        : Boolean.parseBoolean(value.toString().trim()));
+                case DATE -> consumer.addInteger(Math.toIntExact(toLocalDate(value).toEpochDay()));
+                case TIMESTAMP -> consumer.addLong(toInstant(value).toEpochMilli());
+                case STRING -> consumer.addBinary(Binary.fromString(String.valueOf(normalizeValue(value))));
+            }
+        }
+
+        /**
+         * Valor sem escala em complemento de dois big-endian, estendido pelo sinal ate
+         * {@link #DECIMAL_BYTES}; arredonda {@code HALF_UP} para a escala da coluna.
+         */
+        private Binary toFixedDecimal(Object value, int scale) {
+            BigDecimal decimal = switch (value) {
+                case BigDecimal number -> number;
+                case BigInteger number -> new BigDecimal(number);
+                case Long number -> BigDecimal.valueOf(number);
+                case Integer number -> BigDecimal.valueOf(number);
+                case Short number -> BigDecimal.valueOf(number);
+                case Byte number -> BigDecimal.valueOf(number);
+                case Number number -> new BigDecimal(number.toString());
+                default -> new BigDecimal(value.toString().trim());
+            };
+            BigDecimal scaled = decimal.setScale(scale, RoundingMode.HALF_UP);
+            if (scaled.precision() > DECIMAL_PRECISION) {
+                throw new ArithmeticException("Decimal " + decimal + " exceeds precision " + DECIMAL_PRECISION);
+            }
+            byte[] unscaled = scaled.unscaledValue().toByteArray();
+            byte[] fixed = new byte[DECIMAL_BYTES];
+            byte sign = (byte) (scaled.signum() < 0 ? -1 : 0);
+            int padding = DECIMAL_BYTES - unscaled.length;
+            for (int index = 0; index < padding; index++) {
+                fixed[index] = sign;
+            }
+            System.arraycopy(unscaled, 0, fixed, padding, unscaled.length);
+            return Binary.fromConstantByteArray(fixed);
+        }
+
+        private LocalDate toLocalDate(Object value) {
+            if (value instanceof LocalDate date) {
+                return date;
+            }
+            if (value instanceof java.sql.Date date) {
+                return date.toLocalDate();
+            }
+            if (value instanceof Date date) {
+                return date.toInstant().atZone(zoneId).toLocalDate();
+            }
+            if (value instanceof Instant instant) {
+                return instant.atZone(zoneId).toLocalDate();
+            }
+            if (value instanceof TemporalAccessor temporal) {
+                return LocalDate.from(temporal);
+            }
+            return LocalDate.parse(value.toString().trim());
+        }
+
+        private Instant toInstant(Object value) {
+            if (value instanceof Instant instant) {
+                return instant;
+            }
+            if (value instanceof OffsetDateTime dateTime) {
+                return dateTime.toInstant();
+            }
+            if (value instanceof ZonedDateTime dateTime) {
+                return dateTime.toInstant();
+            }
+            if (value instanceof LocalDateTime dateTime) {
+                return dateTime.atZone(zoneId).toInstant();
+            }
+            if (value instanceof LocalDate date) {
+                return date.atStartOfDay(zoneId).toInstant();
+            }
+            if (value instanceof Date date) {
+                return Instant.ofEpochMilli(date.getTime());
+            }
+            return Instant.parse(value.toString().trim());
+        }
+    }
+
+    private final class RowWriterBuilder extends ParquetWriter.Builder<Object[], RowWriterBuilder> {
+
+        private final MessageType schema;
+        private final ParquetColumn[] columns;
+        private final ZoneId zoneId;
+
+        private RowWriterBuilder(OutputFile file, MessageType schema, ParquetColumn[] columns, ZoneId zoneId) {
+            super(file);
+            this.schema = schema;
+            this.columns = columns;
+            this.zoneId = zoneId;
+        }
+
+        @Override
+        protected RowWriterBuilder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<Object[]> getWriteSupport(ParquetConfiguration configuration) {
+            return new RowWriteSupport(schema, columns, zoneId);
+        }
+
+        /**
+         * Ainda abstrato no parquet 1.14; {@code build()} chama a sobrecarga com
+         * {@link ParquetConfiguration}.
+         */
+        @Override
+        @Deprecated
+        protected WriteSupport<Object[]> getWriteSupport(Configuration configuration) {
+            return new RowWriteSupport(schema, columns, zoneId);
+        }
+    }
+
+    /**
+     * {@link OutputFile} sobre o stream da resposta. O writer Parquet so escreve em sequencia, entao
+     * a posicao e a contagem de bytes ja escritos; fechar o arquivo nao fecha a resposta.
+     */
+    private static final class StreamOutputFile implements OutputFile {
+
+        private final OutputStream output;
+
+        private StreamOutputFile(OutputStream output) {
+            this.output = output;
+        }
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) {
+            return new CountingPositionOutputStream(output);
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+            return create(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return 0;
+        }
+    }
+
+    private static final class CountingPositionOutputStream extends PositionOutputStream {
+
+        private final OutputStream output;
+        private long position;
+
+        private CountingPositionOutputStream(OutputStream output) {
+            this.output = output;
+        }
+
+        @Override
+        public long getPos() {
+            return position;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            output.write(b);
+            position++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            output.write(b, off, len);
+            position += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            output.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            output.flush();
+        }
+    }
+}
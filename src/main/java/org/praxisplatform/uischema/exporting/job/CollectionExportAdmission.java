@@ -0,0 +1,182 @@
+package org.praxisplatform.uischema.exporting.job;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+import org.praxisplatform.uischema.exporting.CollectionExportResult;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decisao do {@link CollectionExportAdmissionController} para uma exportacao.
+ *
+ * <p>Uma exportacao {@link Decision#ADMITTED} reserva memoria e um slot de concorrencia ate
+ * {@link #release()}; {@link #track(CollectionExportResult)} libera a reserva ao final da escrita
+ * do resultado ou, se o corpo nunca for escrito (cliente desconectado, timeout assincrono, erro
+ * antes da escrita ou resposta {@code 304}), ao termino da requisicao HTTP corrente. Uma exportacao
+ * {@link Decision#DEFERRED} nao reserva nada e deve virar job.</p>
+ */
+public final class CollectionExportAdmission {
+
+    public enum Decision {
+        ADMITTED("admitted"),
+        DEFERRED("deferred");
+
+        private final String value;
+
+        Decision(String value) {
+            this.value = value;
+        }
+
+        public String value() {
+            return value;
+        }
+    }
+
+    private final Decision decision;
+    private final String reason;
+    private final long estimatedRows;
+    private final long estimatedBytes;
+    private final Runnable onRelease;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    CollectionExportAdmission(
+            Decision decision,
+            String reason,
+            long estimatedRows,
+            long estimatedBytes,
+            Runnable onRelease
+    ) {
+        this.decision = decision;
+        this.reason = reason;
+        this.estimatedRows = estimatedRows;
+        this.estimatedBytes = estimatedBytes;
+        this.onRelease = onRelease;
+    }
+
+    public Decision decision() {
+        return decision;
+    }
+
+    public boolean admitted() {
+        return decision == Decision.ADMITTED;
+    }
+
+    /**
+     * Orcamento que levou ao adiamento ({@code memory}, {@code cells}, {@code concurrency} ou
+     * {@code tenant-concurrency}); {@code null} quando admitida.
+     */
+    public String reason() {
+        return reason;
+    }
+
+    public long estimatedRows() {
+        return estimatedRows;
+    }
+
+    public long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Metadados publicados como headers {@code X-Export-*} pelo controller.
+     */
+    public Map<String, Object> metadata() {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("admission", decision.value());
+        if (reason != null) {
+            metadata.put("admissionReason", reason);
+        }
+        metadata.put("estimatedRows", estimatedRows);
+        metadata.put("estimatedBytes", estimatedBytes);
+        return metadata;
+    }
+
+    /**
+     * Devolve a reserva; chamadas repetidas sao ignoradas.
+     */
+    public void release() {
+        if (released.compareAndSet(false, true) && onRelease != null) {
+            onRelease.run();
+        }
+    }
+
+    /**
+     * Acrescenta {@link #metadata()} ao resultado e vincula a reserva a ele: resultados em
+     * streaming liberam ao terminar a escrita ou ao fim da requisicao corrente, o que vier
+     * primeiro; os demais liberam imediatamente.
+     */
+    public CollectionExportResult track(CollectionExportResult result) {
+        if (result == null) {
+            release();
+            return null;
+        }
+        Map<String, Object> metadata = new HashMap<>(result.metadata());
+        metadata.putAll(metadata());
+        CollectionExportResult tracked = result.withMetadata(metadata);
+        if (!result.streaming()) {
+            release();
+            return tracked;
+        }
+        releaseWithCurrentRequest();
+        return tracked.withBody(output -> {
+            try {
+                result.writeTo(output);
+            } finally {
+                release();
+            }
+        });
+    }
+
+    /**
+     * Garante a liberacao quando a requisicao termina sem escrever o corpo. O callback de
+     * destruicao roda ao fim do dispatch inicial; se a resposta seguiu em modo assincrono
+     * ({@code StreamingResponseBody}), a liberacao passa para o fim do {@code AsyncContext},
+     * disparado tambem em timeout e erro.
+     */
+    private void releaseWithCurrentRequest() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        attributes.registerDestructionCallback(
+                CollectionExportAdmission.class.getName() + "@" + Integer.toHexString(System.identityHashCode(this)),
+                () -> {
+                    if (request.isAsyncStarted()) {
+                        request.getAsyncContext().addListener(new ReleaseOnAsyncEnd());
+                    } else {
+                        release();
+                    }
+                },
+                RequestAttributes.SCOPE_REQUEST
+        );
+    }
+
+    private final class ReleaseOnAsyncEnd implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.praxisplatform.uischema.exporting.job;
+
+import org.praxisplatform.uischema.concurrency.ResourceVersionScope;
+import org.praxisplatform.uischema.concurrency.ResourceVersionScopeProvider;
+import org.praxisplatform.uischema.exporting.CollectionExportFormat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controle de admissao de exportacoes sincronas.
+ *
+ * <p>O custo de cada exportacao e estimado como {@code linhas x campos}: em celulas, limitado por
+ * {@code maxSyncCells} (orcamento de CPU da thread HTTP), e em bytes de heap, por
+ * {@link #bytesPerCell(CollectionExportFormat)}, somado as exportacoes em andamento e limitado por
+ * {@code memoryBudgetBytes}. Tambem ha limites de exportacoes sincronas simultaneas por pod e por
+ * tenant ({@link ResourceVersionScope}). Exportacoes fora do orcamento sao adiadas para o
+ * {@link CollectionExportJobScheduler}, que grava em disco e tem sua propria fila.</p>
+ */
+public class CollectionExportAdmissionController {
+
+    public static final String REASON_CELLS = "cells";
+    public static final String REASON_MEMORY = "memory";
+    public static final String REASON_CONCURRENCY = "concurrency";
+    public static final String REASON_TENANT_CONCURRENCY = "tenant-concurrency";
+
+    private final ResourceVersionScopeProvider scopeProvider;
+    private final long memoryBudgetBytes;
+    private final int maxConcurrent;
+    private final int maxConcurrentPerTenant;
+    private final long maxSyncCells;
+
+    private final Map<String, Integer> runningPerTenant = new HashMap<>();
+    private final Object lock = new Object();
+    private long reservedBytes;
+    private int running;
+
+    /**
+     * @param memoryBudgetBytes      heap reservado a exportacoes sincronas; {@code <= 0} usa um quarto
+     *                               do heap maximo
+     * @param maxConcurrent          exportacoes sincronas simultaneas; {@code <= 0} usa o numero de
+     *                               processadores
+     * @param maxConcurrentPerTenant exportacoes sincronas simultaneas por tenant; {@code <= 0} usa
+     *                               {@code maxConcurrent}
+     * @param maxSyncCells           maximo de celulas de uma exportacao sincrona; {@code <= 0} nao limita
+     */
+    public CollectionExportAdmissionController(
+            ResourceVersionScopeProvider scopeProvider,
+            long memoryBudgetBytes,
+            int maxConcurrent,
+            int maxConcurrentPerTenant,
+            long maxSyncCells
+    ) {
+        this.scopeProvider = scopeProvider;
+        this.memoryBudgetBytes = memoryBudgetBytes <= 0 ? Runtime.getRuntime().maxMemory() / 4 : memoryBudgetBytes;
+        this.maxConcurrent = maxConcurrent <= 0 ? Runtime.getRuntime().availableProcessors() : maxConcurrent;
+        this.maxConcurrentPerTenant = maxConcurrentPerTenant <= 0
+                ? this.maxConcurrent
+                : Math.min(maxConcurrentPerTenant, this.maxConcurrent);
+        this.maxSyncCells = maxSyncCells <= 0 ? Long.MAX_VALUE : maxSyncCells;
+    }
+
+    /**
+     * Decide se a exportacao roda na requisicao ou vira job. Quando admitida, a reserva fica ativa
+     * ate {@link CollectionExportAdmission#release()}.
+     *
+     * @param estimatedRows linhas estimadas, por exemplo por {@code COUNT} limitado a {@code maxRows}
+     * @param fieldCount    campos efetivamente exportados
+     */
+    public CollectionExportAdmission admit(CollectionExportFormat format, long estimatedRows, int fieldCount) {
+        long rows = Math.max(0L, estimatedRows);
+        long cells = saturatedMultiply(rows, Math.max(1, fieldCount));
+        long bytes = saturatedMultiply(cells, bytesPerCell(format));
+        String tenant = currentTenant();
+        synchronized (lock) {
+            String reason = null;
+            if (cells > maxSyncCells) {
+                reason = REASON_CELLS;
+            } else if (bytes > memoryBudgetBytes - reservedBytes) {
+                reason = REASON_MEMORY;
+            } else if (running >= maxConcurrent) {
+                reason = REASON_CONCURRENCY;
+            } else if (runningPerTenant.getOrDefault(tenant, 0) >= maxConcurrentPerTenant) {
+                reason = REASON_TENANT_CONCURRENCY;
+            }
+            if (reason != null) {
+                return new CollectionExportAdmission(CollectionExportAdmission.Decision.DEFERRED, reason, rows, bytes, null);
+            }
+            reservedBytes += bytes;
+            running++;
+            runningPerTenant.merge(tenant, 1, Integer::sum);
+        }
+        return new CollectionExportAdmission(
+                CollectionExportAdmission.Decision.ADMITTED,
+                null,
+                rows,
+                bytes,
+                () -> release(tenant, bytes)
+        );
+    }
+
+    /**
+     * Heap estimado por celula enquanto a exportacao roda no formato informado. XLSX e PDF mantem
+     * estilos, strings e a janela de linhas do documento; Parquet acumula o row group em memoria;
+     * formatos de texto so mantem os buffers de codificacao.
+     */
+    protected long bytesPerCell(CollectionExportFormat format) {
+        if (format == null) {
+            return 32L;
+        }
+        return switch (format) {
+            case EXCEL, PDF -> 256L;
+            case PARQUET -> 64L;
+            default -> 32L;
+        };
+    }
+
+    public long reservedBytes() {
+        synchronized (lock) {
+            return reservedBytes;
+        }
+    }
+
+    public int running() {
+        synchronized (lock) {
+            return running;
+        }
+    }
+
+    private void release(String tenant, long bytes) {
+        synchronized (lock) {
+            reservedBytes = Math.max(0L, reservedBytes - bytes);
+            running = Math.max(0, running - 1);
+            runningPerTenant.computeIfPresent(tenant, (key, count) -> count <= 1 ? null : count - 1);
+        }
+    }
+
+    private String currentTenant() {
+        ResourceVersionScope scope = scopeProvider == null ? null : scopeProvider.currentScope();
+        return (scope == null ? ResourceVersionScope.GLOBAL : scope).value();
+    }
+
+    private static long saturatedMultiply(long left, long right) {
+        long high = Math.multiplyHigh(left, right);
+        long product = left * right;
+        return high != 0 || product < 0 ? Long.MAX_VALUE : product;
+    }
+}
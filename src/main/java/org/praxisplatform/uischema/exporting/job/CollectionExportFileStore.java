@@ -0,0 +1,136 @@
+package org.praxisplatform.uischema.exporting.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Store local de arquivos produzidos por jobs de exportacao.
+ *
+ * <p>Cada job grava em {@code <jobId>.part} e o arquivo so fica visivel como {@code <jobId>} depois
+ * de {@link #publish(String)}, de modo que downloads nunca leem um arquivo incompleto. Apenas ids
+ * no formato UUID sao aceitos, o que impede acesso fora do diretorio.</p>
+ */
+public class CollectionExportFileStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CollectionExportFileStore.class);
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    private final Path directory;
+
+    public CollectionExportFileStore(Path directory) {
+        this.directory = directory.toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to create export job directory " + this.directory, ex);
+        }
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * Abre o arquivo parcial do job para escrita.
+     */
+    public OutputStream create(String jobId) throws IOException {
+        return new BufferedOutputStream(Files.newOutputStream(partialPath(jobId)));
+    }
+
+    /**
+     * Torna o arquivo do job visivel para download.
+     */
+    public Path publish(String jobId) throws IOException {
+        Path target = path(jobId);
+        try {
+            return Files.move(partialPath(jobId), target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            return Files.move(partialPath(jobId), target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public Optional<Path> find(String jobId) {
+        if (!validId(jobId)) {
+            return Optional.empty();
+        }
+        Path file = path(jobId);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    public void delete(String jobId) {
+        if (!validId(jobId)) {
+            return;
+        }
+        deleteQuietly(path(jobId));
+        deleteQuietly(partialPath(jobId));
+    }
+
+    /**
+     * Remove arquivos modificados antes de {@code threshold}, inclusive os deixados por execucoes
+     * anteriores do processo.
+     *
+     * @return quantidade de arquivos removidos
+     */
+    public int deleteOlderThan(Instant threshold) {
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file)
+                        && Files.getLastModifiedTime(file).toInstant().isBefore(threshold)
+                        && deleteQuietly(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException ex) {
+            logger.warn("Failed to sweep export job directory {}.", directory, ex);
+        }
+        return deleted;
+    }
+
+    private Path path(String jobId) {
+        return directory.resolve(requireValidId(jobId));
+    }
+
+    private Path partialPath(String jobId) {
+        return directory.resolve(requireValidId(jobId) + PARTIAL_SUFFIX);
+    }
+
+    private static String requireValidId(String jobId) {
+        if (!validId(jobId)) {
+            throw new IllegalArgumentException("Invalid export job id: " + jobId);
+        }
+        return jobId;
+    }
+
+    private static boolean validId(String jobId) {
+        if (jobId == null || jobId.length() != 36) {
+            return false;
+        }
+        try {
+            return UUID.fromString(jobId).toString().equals(jobId);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    private static boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            logger.warn("Failed to delete export job file {}.", file, ex);
+            return false;
+        }
+    }
+}
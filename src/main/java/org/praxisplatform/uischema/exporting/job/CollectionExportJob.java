@@ -0,0 +1,67 @@
+package org.praxisplatform.uischema.exporting.job;
+
+import org.praxisplatform.uischema.exporting.CollectionExportFormat;
+import org.praxisplatform.uischema.exporting.CollectionExportScope;
+
+import java.time.Instant;
+
+/**
+ * Fotografia imutavel do estado de um job de exportacao diferida.
+ *
+ * @param jobId        identificador opaco do job
+ * @param owner        recurso que submeteu o job (resourceKey ou path base)
+ * @param tenant       escopo de isolamento resolvido no momento do submit
+ * @param principal    nome do principal que submeteu o job, ou {@code null} sem autenticacao
+ * @param status       estado atual
+ * @param format       formato solicitado
+ * @param scope        escopo de exportacao solicitado
+ * @param fileName     nome sugerido para download
+ * @param contentType  content type do arquivo, conhecido quando o job termina
+ * @param rowsWritten  linhas exportadas ate agora
+ * @param expectedRows total esperado de linhas, ou {@code null} quando desconhecido
+ * @param bytesWritten bytes gravados no store
+ * @param createdAt    instante do submit
+ * @param startedAt    inicio da execucao, ou {@code null} enquanto na fila
+ * @param finishedAt   fim da execucao, ou {@code null} enquanto nao terminou
+ * @param expiresAt    instante a partir do qual job e arquivo sao removidos
+ * @param error        {@link #ERROR_FAILED} quando {@link CollectionExportJobStatus#FAILED}; a causa
+ *                     fica apenas no log do servidor
+ */
+public record CollectionExportJob(
+        String jobId,
+        String owner,
+        String tenant,
+        String principal,
+        CollectionExportJobStatus status,
+        CollectionExportFormat format,
+        CollectionExportScope scope,
+        String fileName,
+        String contentType,
+        long rowsWritten,
+        Long expectedRows,
+        long bytesWritten,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt,
+        Instant expiresAt,
+        String error
+) {
+
+    /**
+     * Codigo de erro de um job que falhou, sem detalhes da causa.
+     */
+    public static final String ERROR_FAILED = "EXPORT_JOB_FAILED";
+
+    /**
+     * Fracao concluida entre 0 e 1, ou {@code null} quando o total de linhas e desconhecido.
+     */
+    public Double progress() {
+        if (status == CollectionExportJobStatus.COMPLETED) {
+            return 1.0d;
+        }
+        if (expectedRows == null || expectedRows <= 0) {
+            return null;
+        }
+        return Math.min(1.0d, (double) rowsWritten / expectedRows);
+    }
+}
@@ -0,0 +1,21 @@
+package org.praxisplatform.uischema.exporting.job;
+
+import org.praxisplatform.uischema.exporting.CollectionExportRowSource;
+
+/**
+ * Progresso de um job de exportacao em execucao.
+ */
+public interface CollectionExportJobProgress {
+
+    String jobId();
+
+    /**
+     * Informa o total esperado de linhas, quando conhecido, para calcular o percentual.
+     */
+    void expectRows(long rows);
+
+    /**
+     * Envolve a origem de linhas para contar cada linha lida como linha exportada.
+     */
+    <T> CollectionExportRowSource<T> track(CollectionExportRowSource<T> rows);
+}
@@ -0,0 +1,11 @@
+package org.praxisplatform.uischema.exporting.job;
+
+/**
+ * Sinaliza que a fila de jobs de exportacao esta cheia.
+ */
+public class CollectionExportJobRejectedException extends RuntimeException {
+
+    public CollectionExportJobRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,400 @@
+package org.praxisplatform.uischema.exporting.job;
+
+import org.praxisplatform.uischema.concurrency.ResourceVersionScope;
+import org.praxisplatform.uischema.concurrency.ResourceVersionScopeProvider;
+import org.praxisplatform.uischema.exporting.CollectionExportFormat;
+import org.praxisplatform.uischema.exporting.CollectionExportRequest;
+import org.praxisplatform.uischema.exporting.CollectionExportResult;
+import org.praxisplatform.uischema.exporting.CollectionExportRowSource;
+import org.praxisplatform.uischema.exporting.CollectionExportScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.security.Principal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executa exportacoes diferidas fora da thread HTTP.
+ *
+ * <p>Jobs entram em uma fila limitada e sao despachados em ordem de chegada respeitando um limite
+ * global e um limite por tenant ({@link ResourceVersionScope}), de modo que um tenant com muitas
+ * exportacoes grandes nao monopoliza os slots. Cada job roda no {@link Executor} informado
+ * (virtual threads na configuracao padrao), grava o resultado no {@link CollectionExportFileStore}
+ * e fica disponivel para download ate {@code ttl} depois de terminar.</p>
+ *
+ * <p>Tenant e principal sao registrados no submit; status e download so devem ser expostos a
+ * requisicoes do mesmo tenant e do mesmo principal, porque o job carrega o escopo de acesso de
+ * quem o submeteu.</p>
+ *
+ * <p>Uma falha fica no job apenas como {@link CollectionExportJob#ERROR_FAILED}; a causa vai para
+ * o log, porque mensagens de excecao podem expor SQL, caminhos ou dados de outro escopo.</p>
+ */
+public final class CollectionExportJobScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CollectionExportJobScheduler.class);
+
+    private final CollectionExportFileStore store;
+    private final Executor executor;
+    private final ResourceVersionScopeProvider scopeProvider;
+    private final int maxQueuedJobs;
+    private final int maxConcurrentJobs;
+    private final int maxConcurrentJobsPerTenant;
+    private final Duration ttl;
+    private final Clock clock;
+
+    private final Map<String, JobState> jobs = new ConcurrentHashMap<>();
+    private final Deque<JobState> pending = new ArrayDeque<>();
+    private final Map<String, Integer> runningPerTenant = new HashMap<>();
+    private final Object lock = new Object();
+    private int running;
+
+    public CollectionExportJobScheduler(
+            CollectionExportFileStore store,
+            Executor executor,
+            ResourceVersionScopeProvider scopeProvider,
+            int maxQueuedJobs,
+            int maxConcurrentJobs,
+            int maxConcurrentJobsPerTenant,
+            Duration ttl,
+            ScheduledExecutorService cleanupExecutor
+    ) {
+        this(store, executor, scopeProvider, maxQueuedJobs, maxConcurrentJobs, maxConcurrentJobsPerTenant, ttl, Clock.systemUTC());
+        if (cleanupExecutor != null) {
+            long period = Math.max(1L, this.ttl.toMillis() / 2);
+            cleanupExecutor.scheduleWithFixedDelay(this::purgeExpired, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    CollectionExportJobScheduler(
+            CollectionExportFileStore store,
+            Executor executor,
+            ResourceVersionScopeProvider scopeProvider,
+            int maxQueuedJobs,
+            int maxConcurrentJobs,
+            int maxConcurrentJobsPerTenant,
+            Duration ttl,
+            Clock clock
+    ) {
+        this.store = Objects.requireNonNull(store, "store");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.scopeProvider = scopeProvider;
+        this.maxQueuedJobs = Math.max(0, maxQueuedJobs);
+        this.maxConcurrentJobs = Math.max(1, maxConcurrentJobs);
+        this.maxConcurrentJobsPerTenant = maxConcurrentJobsPerTenant <= 0
+                ? this.maxConcurrentJobs
+                : Math.min(maxConcurrentJobsPerTenant, this.maxConcurrentJobs);
+        this.ttl = ttl == null || ttl.isNegative() || ttl.isZero() ? Duration.ofHours(1) : ttl;
+        this.clock = Objects.requireNonNull(clock, "clock");
+        store.deleteOlderThan(clock.instant().minus(this.ttl));
+    }
+
+    /**
+     * Enfileira um job e devolve imediatamente um resultado {@code DEFERRED} com o {@code jobId}.
+     *
+     * <p>Tenant e principal sao resolvidos aqui, ainda na thread da requisicao.</p>
+     *
+     * @param owner recurso dono do job; somente ele deve expor status e download
+     * @throws CollectionExportJobRejectedException quando a fila esta cheia
+     */
+    public CollectionExportResult submit(String owner, CollectionExportRequest<?> request, CollectionExportJobTask task) {
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(task, "task");
+        JobState job = new JobState(
+                UUID.randomUUID().toString(),
+                owner,
+                currentTenant(),
+                currentPrincipal(),
+                request.format(),
+                request.scope(),
+                request.fileName(),
+                task,
+                clock.instant()
+        );
+        synchronized (lock) {
+            if (pending.size() >= maxQueuedJobs) {
+                throw new CollectionExportJobRejectedException(
+                        "Export job queue is full (" + maxQueuedJobs + " pending jobs)."
+                );
+            }
+            jobs.put(job.jobId, job);
+            pending.addLast(job);
+        }
+        dispatch();
+        return CollectionExportResult.deferred(
+                job.format,
+                job.scope,
+                null,
+                job.jobId,
+                job.fileName,
+                Map.of("jobStatus", CollectionExportJobStatus.QUEUED.value())
+        );
+    }
+
+    public Optional<CollectionExportJob> find(String jobId) {
+        JobState job = jobId == null ? null : jobs.get(jobId);
+        return job == null ? Optional.empty() : Optional.of(job.snapshot());
+    }
+
+    /**
+     * Arquivo de um job concluido, enquanto nao expirado.
+     */
+    public Optional<Path> resultFile(String jobId) {
+        return find(jobId)
+                .filter(job -> job.status() == CollectionExportJobStatus.COMPLETED)
+                .flatMap(job -> store.find(job.jobId()));
+    }
+
+    /**
+     * Tenant corrente, como registrado em {@link CollectionExportJob#tenant()}.
+     */
+    public String currentTenant() {
+        ResourceVersionScope scope = scopeProvider == null ? null : scopeProvider.currentScope();
+        return (scope == null ? ResourceVersionScope.GLOBAL : scope).value();
+    }
+
+    /**
+     * Principal autenticado da requisicao corrente, como registrado em
+     * {@link CollectionExportJob#principal()}, ou {@code null} fora de requisicao ou sem autenticacao.
+     */
+    public String currentPrincipal() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            Principal principal = attributes.getRequest().getUserPrincipal();
+            return principal == null ? null : principal.getName();
+        }
+        return null;
+    }
+
+    /**
+     * Remove jobs terminados cujo TTL expirou, junto com seus arquivos, e arquivos orfaos.
+     *
+     * @return quantidade de jobs removidos
+     */
+    public int purgeExpired() {
+        Instant now = clock.instant();
+        int purged = 0;
+        Iterator<JobState> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            JobState job = iterator.next();
+            Instant expiresAt = job.expiresAt;
+            if (expiresAt != null && !now.isBefore(expiresAt)) {
+                iterator.remove();
+                store.delete(job.jobId);
+                purged++;
+            }
+        }
+        store.deleteOlderThan(now.minus(ttl).minus(ttl));
+        return purged;
+    }
+
+    private void dispatch() {
+        List<JobState> ready = new ArrayList<>();
+        synchronized (lock) {
+            Iterator<JobState> iterator = pending.iterator();
+            while (running < maxConcurrentJobs && iterator.hasNext()) {
+                JobState job = iterator.next();
+                int tenantRunning = runningPerTenant.getOrDefault(job.tenant, 0);
+                if (tenantRunning >= maxConcurrentJobsPerTenant) {
+                    continue;
+                }
+                iterator.remove();
+                running++;
+                runningPerTenant.put(job.tenant, tenantRunning + 1);
+                ready.add(job);
+            }
+        }
+        for (JobState job : ready) {
+            try {
+                executor.execute(() -> run(job));
+            } catch (RuntimeException ex) {
+                logger.warn("Export job {} could not be dispatched.", job.jobId, ex);
+                job.fail(clock.instant(), ttl);
+                release(job);
+            }
+        }
+    }
+
+    private void run(JobState job) {
+        job.start(clock.instant());
+        try {
+            CollectionExportResult result = job.task.run(job);
+            if (result == null) {
+                throw new IllegalStateException("Export job task returned no result.");
+            }
+            try (OutputStream output = new CountingOutputStream(store.create(job.jobId), job.bytesWritten)) {
+                result.writeTo(output);
+            }
+            store.publish(job.jobId);
+            job.complete(clock.instant(), ttl, result);
+        } catch (Throwable ex) {
+            // Errors too: otherwise the job would stay RUNNING until the process restarts.
+            logger.warn("Export job {} failed.", job.jobId, ex);
+            store.delete(job.jobId);
+            job.fail(clock.instant(), ttl);
+            if (ex instanceof Error error) {
+                throw error;
+            }
+        } finally {
+            release(job);
+        }
+    }
+
+    private void release(JobState job) {
+        synchronized (lock) {
+            running--;
+            runningPerTenant.computeIfPresent(job.tenant, (tenant, count) -> count <= 1 ? null : count - 1);
+        }
+        dispatch();
+    }
+
+    private static final class JobState implements CollectionExportJobProgress {
+
+        private final String jobId;
+        private final String owner;
+        private final String tenant;
+        private final String principal;
+        private final CollectionExportFormat format;
+        private final CollectionExportScope scope;
+        private final CollectionExportJobTask task;
+        private final Instant createdAt;
+        private final AtomicLong rowsWritten = new AtomicLong();
+        private final AtomicLong bytesWritten = new AtomicLong();
+
+        private volatile String fileName;
+        private volatile CollectionExportJobStatus status = CollectionExportJobStatus.QUEUED;
+        private volatile String contentType;
+        private volatile Long expectedRows;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile Instant expiresAt;
+        private volatile String error;
+
+        private JobState(
+                String jobId,
+                String owner,
+                String tenant,
+                String principal,
+                CollectionExportFormat format,
+                CollectionExportScope scope,
+                String fileName,
+                CollectionExportJobTask task,
+                Instant createdAt
+        ) {
+            this.jobId = jobId;
+            this.owner = owner;
+            this.tenant = tenant;
+            this.principal = principal;
+            this.format = format;
+            this.scope = scope;
+            this.fileName = fileName;
+            this.task = task;
+            this.createdAt = createdAt;
+        }
+
+        @Override
+        public String jobId() {
+            return jobId;
+        }
+
+        @Override
+        public void expectRows(long rows) {
+            expectedRows = rows < 0 ? null : rows;
+        }
+
+        @Override
+        public <T> CollectionExportRowSource<T> track(CollectionExportRowSource<T> rows) {
+            return rows.peek(row -> rowsWritten.incrementAndGet());
+        }
+
+        private void start(Instant now) {
+            startedAt = now;
+            status = CollectionExportJobStatus.RUNNING;
+        }
+
+        private void complete(Instant now, Duration ttl, CollectionExportResult result) {
+            contentType = result.contentType();
+            if (result.fileName() != null) {
+                fileName = result.fileName();
+            }
+            if (result.rowCount() != null) {
+                rowsWritten.set(result.rowCount());
+            }
+            finishedAt = now;
+            expiresAt = now.plus(ttl);
+            status = CollectionExportJobStatus.COMPLETED;
+        }
+
+        private void fail(Instant now, Duration ttl) {
+            error = CollectionExportJob.ERROR_FAILED;
+            finishedAt = now;
+            expiresAt = now.plus(ttl);
+            status = CollectionExportJobStatus.FAILED;
+        }
+
+        private CollectionExportJob snapshot() {
+            return new CollectionExportJob(
+                    jobId,
+                    owner,
+                    tenant,
+                    principal,
+                    status,
+                    format,
+                    scope,
+                    fileName,
+                    contentType,
+                    rowsWritten.get(),
+                    expectedRows,
+                    bytesWritten.get(),
+                    createdAt,
+                    startedAt,
+                    finishedAt,
+                    expiresAt,
+                    error
+            );
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private final AtomicLong count;
+
+        private CountingOutputStream(OutputStream output, AtomicLong count) {
+            super(output);
+            this.count = count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count.addAndGet(len);
+        }
+    }
+}
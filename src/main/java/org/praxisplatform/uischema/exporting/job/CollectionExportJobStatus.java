@@ -0,0 +1,28 @@
+package org.praxisplatform.uischema.exporting.job;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Ciclo de vida de um job de exportacao diferida.
+ */
+public enum CollectionExportJobStatus {
+    QUEUED("queued"),
+    RUNNING("running"),
+    COMPLETED("completed"),
+    FAILED("failed");
+
+    private final String value;
+
+    CollectionExportJobStatus(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String value() {
+        return value;
+    }
+
+    public boolean finished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,16 @@
+package org.praxisplatform.uischema.exporting.job;
+
+import org.praxisplatform.uischema.exporting.CollectionExportResult;
+
+/**
+ * Trabalho executado por um job de exportacao diferida.
+ *
+ * <p>Roda fora da requisicao, em uma virtual thread: tudo o que depende do contexto da requisicao
+ * (escopo de acesso, filtros, campos) deve ser resolvido antes do {@code submit}. O resultado,
+ * preferencialmente em streaming, e gravado no store local do job.</p>
+ */
+@FunctionalInterface
+public interface CollectionExportJobTask {
+
+    CollectionExportResult run(CollectionExportJobProgress progress) throws Exception;
+}
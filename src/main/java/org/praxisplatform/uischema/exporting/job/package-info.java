@@ -0,0 +1,2 @@
+/** Deferred collection-export jobs: scheduling, progress and local result storage. @since 1.0.0 */
+package org.praxisplatform.uischema.exporting.job;
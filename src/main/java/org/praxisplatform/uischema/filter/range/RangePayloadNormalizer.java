@@ -57,6 +57,12 @@ public class RangePayloadNormalizer implements FilterPayloadNormalizer {
 
     private final Map<Class<?>, List<RangeFieldMetadata>> fieldCache = new ConcurrentHashMap<>();
 
+    @Override
+    public boolean supports(Class<?> filterClass) {
+        return FilterPayloadNormalizer.super.supports(filterClass)
+                && !fieldCache.computeIfAbsent(filterClass, this::discoverRangeFields).isEmpty();
+    }
+
     public boolean normalizeInPlace(ObjectNode payload, Class<?> filterClass) {
         if (payload == null || filterClass == null || !GenericFilterDTO.class.isAssignableFrom(filterClass)) {
             return false;
@@ -47,6 +47,12 @@ public class RelativePeriodPayloadNormalizer implements FilterPayloadNormalizer
         this.clock = clock;
     }
 
+    @Override
+    public boolean supports(Class<?> filterClass) {
+        return FilterPayloadNormalizer.super.supports(filterClass)
+                && !fieldCache.computeIfAbsent(filterClass, this::discoverRelativePeriodFields).isEmpty();
+    }
+
     @Override
     public boolean normalizeInPlace(ObjectNode payload, Class<?> filterClass) {
         if (payload == null || filterClass == null || !GenericFilterDTO.class.isAssignableFrom(filterClass)) {
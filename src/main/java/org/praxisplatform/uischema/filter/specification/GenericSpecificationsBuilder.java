@@ -112,20 +112,68 @@ public class GenericSpecificationsBuilder<E> {
         // method does not exist. The stream is then mapped to keep the original
         // direction while replacing the property when a relation is configured.
         List<Sort.Order> orderList = sort.stream().map(order -> {
-            try {
-                Field field = filter.getClass().getDeclaredField(order.getProperty());
-                Filterable filterable = field.getAnnotation(Filterable.class);
-                if (filterable == null || filterable.relation().isEmpty()) {
-                    return order;
-                }
-                return order.withProperty(filterable.relation());
-            } catch (NoSuchFieldException e) {
-                return order;
-            }
+            String property = resolvePropertyPath(filter, order.getProperty());
+            return property.equals(order.getProperty()) ? order : order.withProperty(property);
         }).toList();
         return ((PageRequest) oldPageable).withSort(Sort.by(orderList));
     }
 
+    /**
+     * Traduz uma propriedade pública do recurso para o caminho na entidade, usando o mesmo
+     * {@link Filterable#relation()} aplicado a ordenação: se o DTO de filtro declara um campo com
+     * esse nome e uma relação, devolve a relação; caso contrário devolve a propriedade.
+     *
+     * @param filter   DTO de filtro do recurso; {@code null} devolve a propriedade
+     * @param property nome público, por exemplo um {@code valuePath} de exportação
+     * @return caminho da propriedade na entidade
+     */
+    public String resolvePropertyPath(GenericFilterDTO filter, String property) {
+        if (filter == null || property == null) {
+            return property;
+        }
+        try {
+            Field field = filter.getClass().getDeclaredField(property);
+            Filterable filterable = field.getAnnotation(Filterable.class);
+            return filterable == null || filterable.relation().isEmpty() ? property : filterable.relation();
+        } catch (NoSuchFieldException e) {
+            return property;
+        }
+    }
+
+    /**
+     * Resolve um caminho para projeção, reutilizando joins LEFT já criados na mesma consulta, de
+     * modo que {@code departamento.nome} e {@code departamento.sigla} compartilham um único join.
+     *
+     * <p>Os predicados de filtro continuam criando um join por predicado, o que preserva a
+     * semântica de filtros sobre coleções.</p>
+     *
+     * @param root         raiz da consulta
+     * @param propertyPath caminho no formato "relacao1.relacao2.atributo"
+     * @return caminho resolvido
+     * @throws IllegalArgumentException quando algum segmento não existe na entidade
+     */
+    public jakarta.persistence.criteria.Path<?> resolveSelectionPath(Root<?> root, String propertyPath) {
+        String[] parts = propertyPath.split("\\.");
+        jakarta.persistence.criteria.Path<?> path = root;
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            if (i == parts.length - 1) {
+                path = path.get(part);
+            } else if (path instanceof From<?, ?> from) {
+                path = from.getJoins().stream()
+                        .filter(join -> join.getJoinType() == JoinType.LEFT
+                                && join.getAttribute() != null
+                                && part.equals(join.getAttribute().getName()))
+                        .<From<?, ?>>map(join -> join)
+                        .findFirst()
+                        .orElseGet(() -> from.join(part, JoinType.LEFT));
+            } else {
+                throw new IllegalArgumentException("Não foi possível resolver o caminho: " + propertyPath);
+            }
+        }
+        return path;
+    }
+
     /**
      * Identifica os campos no DTO que possuem a anotação {@link Filterable}.
      *
@@ -0,0 +1,190 @@
+package org.praxisplatform.uischema.filter.web;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.praxisplatform.uischema.filter.dto.GenericFilterDTO;
+import org.praxisplatform.uischema.options.OptionSourceFilterRequest;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Normaliza payloads de filtro durante a propria desserializacao dos {@link GenericFilterDTO}s.
+ *
+ * <p>
+ * DTOs sem campos atendidos pelos {@link FilterPayloadNormalizer}s sao lidos direto do stream. Os
+ * demais tem o objeto do filtro inteiro lido como arvore ({@code JsonNode}), normalizado e entregue
+ * ao deserializer do bean, sem copia do corpo nem segundo parse: o custo de memoria continua
+ * proporcional ao tamanho do filtro, pois os normalizadores combinam campos irmaos (por exemplo
+ * {@code valor} em {@code valorBetween}). Corpos legados de {@link OptionSourceFilterRequest} sem
+ * envelope tambem passam por arvore para serem embrulhados em {@code filter}.
+ * </p>
+ *
+ * <p>
+ * O modulo so age nos {@code ObjectMapper}s em que esta registrado. O Spring Boot registra beans de
+ * {@code Module} no mapper que ele constroi; aplicacoes que publicam o proprio {@code ObjectMapper}
+ * sem o {@code Jackson2ObjectMapperBuilder} ficam cobertas pela auto-configuracao, que usa
+ * {@link #registerIfMissing(ObjectMapper)} nos conversores JSON do MVC.
+ * </p>
+ */
+public class FilterPayloadJacksonModule extends SimpleModule {
+
+    private static final List<String> OPTION_SOURCE_ENVELOPE_KEYS =
+            List.of("filter", "filters", "search", "sort", "includeIds");
+
+    private final List<FilterPayloadNormalizer> payloadNormalizers;
+
+    public FilterPayloadJacksonModule(List<FilterPayloadNormalizer> payloadNormalizers) {
+        super(FilterPayloadJacksonModule.class.getName());
+        this.payloadNormalizers = List.copyOf(payloadNormalizers);
+    }
+
+    /**
+     * Registra o modificador de deserializers quando o modulo entra no mapper, e nao no construtor,
+     * para que subclasses ja estejam inicializadas quando ele for criado.
+     */
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        context.addBeanDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public JsonDeserializer<?> modifyDeserializer(
+                    DeserializationConfig config,
+                    BeanDescription beanDescription,
+                    JsonDeserializer<?> deserializer
+            ) {
+                Class<?> beanClass = beanDescription.getBeanClass();
+                if (GenericFilterDTO.class.isAssignableFrom(beanClass)) {
+                    return new NormalizingFilterDeserializer(deserializer, beanClass, payloadNormalizers);
+                }
+                if (OptionSourceFilterRequest.class.isAssignableFrom(beanClass)) {
+                    return new OptionSourceEnvelopeDeserializer(deserializer);
+                }
+                return deserializer;
+            }
+        });
+    }
+
+    public List<FilterPayloadNormalizer> getPayloadNormalizers() {
+        return payloadNormalizers;
+    }
+
+    /**
+     * Indica se um {@code FilterPayloadJacksonModule} ja foi registrado no mapper.
+     */
+    public static boolean isRegistered(ObjectMapper objectMapper) {
+        return objectMapper != null && objectMapper.getRegisteredModuleIds().contains(FilterPayloadJacksonModule.class.getName());
+    }
+
+    /**
+     * Registra este modulo no mapper quando nenhum {@code FilterPayloadJacksonModule} estiver presente.
+     *
+     * @return {@code true} se o modulo foi registrado agora
+     */
+    public boolean registerIfMissing(ObjectMapper objectMapper) {
+        if (objectMapper == null || isRegistered(objectMapper)) {
+            return false;
+        }
+        objectMapper.registerModule(this);
+        return true;
+    }
+
+    private static Object deserializeTree(
+            JsonDeserializer<?> delegate,
+            JsonNode tree,
+            JsonParser source,
+            DeserializationContext ctxt
+    ) throws IOException {
+        try (JsonParser treeParser = tree.traverse(source.getCodec())) {
+            treeParser.nextToken();
+            return delegate.deserialize(treeParser, ctxt);
+        }
+    }
+
+    private static boolean isObjectStart(JsonParser parser) {
+        return parser.hasToken(JsonToken.START_OBJECT) || parser.hasToken(JsonToken.FIELD_NAME);
+    }
+
+    private static final class NormalizingFilterDeserializer extends DelegatingDeserializer {
+
+        private final Class<?> filterClass;
+        private final List<FilterPayloadNormalizer> normalizers;
+        private volatile Boolean normalizable;
+
+        private NormalizingFilterDeserializer(
+                JsonDeserializer<?> delegate,
+                Class<?> filterClass,
+                List<FilterPayloadNormalizer> normalizers
+        ) {
+            super(delegate);
+            this.filterClass = filterClass;
+            this.normalizers = normalizers;
+        }
+
+        @Override
+        protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+            return new NormalizingFilterDeserializer(newDelegatee, filterClass, normalizers);
+        }
+
+        @Override
+        public Object deserialize(JsonParser parser, DeserializationContext ctxt) throws IOException {
+            if (!isObjectStart(parser) || !isNormalizable()) {
+                return super.deserialize(parser, ctxt);
+            }
+            JsonNode tree = ctxt.readTree(parser);
+            if (tree instanceof ObjectNode payload) {
+                for (FilterPayloadNormalizer normalizer : normalizers) {
+                    normalizer.normalizeInPlace(payload, filterClass);
+                }
+            }
+            return deserializeTree(_delegatee, tree, parser, ctxt);
+        }
+
+        private boolean isNormalizable() {
+            Boolean resolved = normalizable;
+            if (resolved == null) {
+                resolved = normalizers.stream().anyMatch(normalizer -> normalizer.supports(filterClass));
+                normalizable = resolved;
+            }
+            return resolved;
+        }
+    }
+
+    private static final class OptionSourceEnvelopeDeserializer extends DelegatingDeserializer {
+
+        private OptionSourceEnvelopeDeserializer(JsonDeserializer<?> delegate) {
+            super(delegate);
+        }
+
+        @Override
+        protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+            return new OptionSourceEnvelopeDeserializer(newDelegatee);
+        }
+
+        @Override
+        public Object deserialize(JsonParser parser, DeserializationContext ctxt) throws IOException {
+            if (!isObjectStart(parser)) {
+                return super.deserialize(parser, ctxt);
+            }
+            JsonNode tree = ctxt.readTree(parser);
+            if (tree instanceof ObjectNode payload
+                    && OPTION_SOURCE_ENVELOPE_KEYS.stream().noneMatch(payload::has)) {
+                ObjectNode wrapped = JsonNodeFactory.instance.objectNode();
+                wrapped.set("filter", payload);
+                tree = wrapped;
+            }
+            return deserializeTree(_delegatee, tree, parser, ctxt);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.praxisplatform.uischema.filter.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Garante o {@link FilterPayloadJacksonModule} nos conversores JSON do MVC.
+ *
+ * <p>
+ * O Spring Boot registra beans de {@code Module} apenas no {@code ObjectMapper} que ele proprio
+ * constroi. Quando a aplicacao publica um {@code ObjectMapper} montado a mao, o modulo ficaria de
+ * fora e os payloads de filtro deixariam de ser normalizados sem nenhum erro; este configurer
+ * registra o modulo nesses mappers e avisa no log.
+ * </p>
+ */
+public class FilterPayloadMessageConverterConfigurer implements WebMvcConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilterPayloadMessageConverterConfigurer.class);
+
+    private final FilterPayloadJacksonModule module;
+
+    public FilterPayloadMessageConverterConfigurer(FilterPayloadJacksonModule module) {
+        this.module = module;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2HttpMessageConverter jackson
+                    && module.registerIfMissing(jackson.getObjectMapper())) {
+                logger.warn("ObjectMapper of the JSON message converter did not register FilterPayloadJacksonModule; "
+                        + "registered it so filter payloads are normalized. Build the ObjectMapper with "
+                        + "Jackson2ObjectMapperBuilder or register the module bean to silence this warning.");
+            }
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package org.praxisplatform.uischema.filter.web;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.praxisplatform.uischema.filter.dto.GenericFilterDTO;
 
 public interface FilterPayloadNormalizer {
 
     boolean normalizeInPlace(ObjectNode payload, Class<?> filterClass);
+
+    /**
+     * Indica se o filtro declara campos tratados por este normalizador; sem nenhum, o payload e
+     * desserializado direto do stream.
+     */
+    default boolean supports(Class<?> filterClass) {
+        return filterClass != null && GenericFilterDTO.class.isAssignableFrom(filterClass);
+    }
 }
@@ -27,7 +27,14 @@ import java.util.List;
 
 /**
  * Normaliza payloads de filtros de range antes da desserialização de DTOs.
+ *
+ * @deprecated a normalizacao acontece na propria desserializacao, pelo
+ * {@link FilterPayloadJacksonModule} que a auto-configuracao registra no {@code ObjectMapper} do
+ * MVC, sem copiar o corpo nem fazer um segundo parse. Este advice nao e mais registrado pelo
+ * starter; aplicacoes que ainda o declaram continuam funcionando, e ele deixa o corpo intacto
+ * quando o {@code ObjectMapper} informado ja tem o modulo.
  */
+@Deprecated(since = "8.0.0", forRemoval = true)
 @ControllerAdvice
 public class FilterRequestBodyAdvice extends RequestBodyAdviceAdapter {
 
@@ -62,6 +69,9 @@ public class FilterRequestBodyAdvice extends RequestBodyAdviceAdapter {
         if (!org.springframework.http.converter.json.MappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType)) {
             return false;
         }
+        if (FilterPayloadJacksonModule.isRegistered(objectMapper)) {
+            return false;
+        }
         return targetClass != null
                 && (GenericFilterDTO.class.isAssignableFrom(targetClass)
                 || OptionSourceFilterRequest.class.isAssignableFrom(targetClass));
@@ -0,0 +1,149 @@
+package org.praxisplatform.uischema.http;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * {@link org.springframework.core.io.Resource} backed by a {@link ByteBuffer}, written without
+ * copying the buffer into a new array.
+ *
+ * <p>Returning it from a controller lets Spring serve {@code Range} requests through
+ * {@code ResourceRegion} and set {@code Content-Length} from {@link #contentLength()}. Each
+ * {@link #getInputStream()} reads an independent view of the same buffer; its
+ * {@link InputStream#transferTo(OutputStream)} writes the backing array directly when it is
+ * accessible and otherwise drains the buffer through a channel in bounded chunks.</p>
+ *
+ * <p>A read-only view never exposes its array. The owner of the writable buffer can pass a
+ * {@link ContentWriter} that writes the whole content from the backing array; full-body transfers
+ * then use it instead of the chunked channel copy.</p>
+ */
+public class ByteBufferResource extends AbstractResource {
+
+    private final ByteBuffer buffer;
+    private final String description;
+    private final ContentWriter writer;
+
+    public ByteBufferResource(ByteBuffer buffer) {
+        this(buffer, "ByteBuffer resource");
+    }
+
+    public ByteBufferResource(ByteBuffer buffer, String description) {
+        this(buffer, description, null);
+    }
+
+    /**
+     * @param writer writes exactly the remaining bytes of {@code buffer}; used for transfers of the
+     *               whole content, {@code null} to always write from the buffer
+     */
+    public ByteBufferResource(ByteBuffer buffer, String description, ContentWriter writer) {
+        this.buffer = Objects.requireNonNull(buffer, "buffer").slice();
+        this.description = description == null ? "" : description;
+        this.writer = writer;
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteBufferInputStream(buffer.duplicate(), writer);
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    /**
+     * Writes the complete content of the resource.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+
+        void writeTo(OutputStream output) throws IOException;
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+        private final ContentWriter writer;
+
+        private ByteBufferInputStream(ByteBuffer buffer, ContentWriter writer) {
+            this.buffer = buffer;
+            this.writer = writer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, target.length);
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long count) {
+            int skipped = (int) Math.max(0L, Math.min(count, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public long transferTo(OutputStream output) throws IOException {
+            int count = buffer.remaining();
+            if (writer != null && buffer.position() == 0) {
+                writer.writeTo(output);
+                buffer.position(buffer.limit());
+            } else if (buffer.hasArray()) {
+                output.write(buffer.array(), buffer.arrayOffset() + buffer.position(), count);
+                buffer.position(buffer.limit());
+            } else {
+                WritableByteChannel channel = Channels.newChannel(output);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            return count;
+        }
+    }
+}
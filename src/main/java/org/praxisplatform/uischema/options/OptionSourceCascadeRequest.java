@@ -0,0 +1,32 @@
+package org.praxisplatform.uischema.options;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request envelope for resolving several dependent option sources in one call.
+ *
+ * <p>{@code values} carries the current (possibly partial) form state keyed by field name. Each
+ * source receives the values of its {@code dependsOn} fields, translated through
+ * {@code dependencyFilterMap} when the source is JPA-backed, and the value of its own
+ * {@code filterField} as {@code includeIds} so the current selection keeps its label.</p>
+ *
+ * @param sources option-source keys to resolve; empty resolves every source of the resource
+ * @param values  current form state
+ * @param size    page size per source; {@code null} uses each source default
+ */
+public record OptionSourceCascadeRequest(
+        List<String> sources,
+        Map<String, Object> values,
+        Integer size
+) {
+
+    public OptionSourceCascadeRequest {
+        sources = sources == null
+                ? List.of()
+                : sources.stream().filter(key -> key != null && !key.isBlank()).map(String::trim).distinct().toList();
+        values = values == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(values));
+    }
+}
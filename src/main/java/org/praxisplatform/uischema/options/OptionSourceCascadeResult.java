@@ -0,0 +1,47 @@
+package org.praxisplatform.uischema.options;
+
+import org.praxisplatform.uischema.dto.OptionDTO;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Outcome of one option source inside a cascade resolution.
+ *
+ * @param sourceKey           option-source key
+ * @param filterField         form field fed by the source
+ * @param status              whether options were resolved or the source still awaits dependencies
+ * @param missingDependencies {@code dependsOn} fields absent from the form state
+ * @param options             resolved page; {@code null} when {@link Status#BLOCKED}
+ */
+public record OptionSourceCascadeResult(
+        String sourceKey,
+        String filterField,
+        Status status,
+        List<String> missingDependencies,
+        Page<OptionDTO<Object>> options
+) {
+
+    public enum Status {
+        RESOLVED,
+        BLOCKED
+    }
+
+    public OptionSourceCascadeResult {
+        missingDependencies = missingDependencies == null ? List.of() : List.copyOf(missingDependencies);
+    }
+
+    public static OptionSourceCascadeResult resolved(OptionSourceDescriptor descriptor, Page<OptionDTO<Object>> options) {
+        return new OptionSourceCascadeResult(descriptor.key(), descriptor.filterField(), Status.RESOLVED, List.of(), options);
+    }
+
+    public static OptionSourceCascadeResult blocked(OptionSourceDescriptor descriptor, List<String> missingDependencies) {
+        return new OptionSourceCascadeResult(
+                descriptor.key(),
+                descriptor.filterField(),
+                Status.BLOCKED,
+                missingDependencies,
+                null
+        );
+    }
+}
@@ -368,8 +368,14 @@ public record OptionSourceDescriptor(
         metadata.put("searchMode", policy.searchMode());
         metadata.put("pageSize", policy.defaultPageSize());
         metadata.put("includeIds", policy.allowIncludeIds());
-        metadata.put("cachePolicy", policy.cacheable() ? "request-scope" : "none");
+        metadata.put("cachePolicy", executionMode == OptionSourceExecutionMode.SNAPSHOT
+                ? "snapshot"
+                : policy.cacheable() ? "request-scope" : "none");
         metadata.putAll(runtimeContract.toMetadataMap());
+        String snapshotEndpoint = snapshotEndpoint();
+        if (snapshotEndpoint != null) {
+            metadata.put("snapshotEndpoint", snapshotEndpoint);
+        }
         if (entityLookup != null) {
             metadata.putAll(entityLookup.toMetadataMap());
             if (!dependencyFilterMap.isEmpty()) {
@@ -383,6 +389,20 @@ public record OptionSourceDescriptor(
         return metadata;
     }
 
+    /**
+     * Endpoint do snapshot completo, publicado apenas para fontes em
+     * {@link OptionSourceExecutionMode#SNAPSHOT} com contrato canonico de filtro.
+     */
+    private String snapshotEndpoint() {
+        String filterEndpoint = runtimeContract.filterEndpoint();
+        if (executionMode != OptionSourceExecutionMode.SNAPSHOT
+                || filterEndpoint == null
+                || !filterEndpoint.endsWith("/options/filter")) {
+            return null;
+        }
+        return filterEndpoint.substring(0, filterEndpoint.length() - "filter".length()) + "snapshot";
+    }
+
     /**
      * Normaliza strings opcionais, convertendo valores vazios em {@code null}.
      */
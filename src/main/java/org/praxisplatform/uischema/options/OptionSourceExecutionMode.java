@@ -8,8 +8,15 @@ package org.praxisplatform.uischema.options;
  * {@link #PROVIDER_REQUIRED} when the source must be executed by a host-specific
  * provider and must never fall back to JPA path resolution.
  * </p>
+ *
+ * <p>
+ * {@link #SNAPSHOT} is meant for small, rarely changing sources: it keeps the JPA provider
+ * eligible and additionally publishes {@code /options/snapshot}, which serves the whole source as
+ * one compressed, versioned payload with a strong ETag so clients can filter locally.
+ * </p>
  */
 public enum OptionSourceExecutionMode {
     JPA,
-    PROVIDER_REQUIRED
+    PROVIDER_REQUIRED,
+    SNAPSHOT
 }
@@ -0,0 +1,195 @@
+package org.praxisplatform.uischema.options.service;
+
+import org.praxisplatform.uischema.dto.OptionDTO;
+import org.praxisplatform.uischema.options.OptionSourceCascadeResult;
+import org.praxisplatform.uischema.options.OptionSourceDescriptor;
+import org.springframework.data.domain.Page;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Resolves a set of dependent option sources in dependency order.
+ *
+ * <p>A source depends on another source of the same set when one of its {@code dependsOn} fields
+ * is the other source's {@code filterField}. Sources are grouped into levels (upstream first);
+ * sources of the same level are independent branches. Without an executor every source runs on the
+ * calling thread, inside its transaction, persistence context and security context. With an executor
+ * the branches of a level run in parallel, the calling thread executing one of them. Sources whose
+ * dependencies are absent from the form state are reported as
+ * {@link OptionSourceCascadeResult.Status#BLOCKED} without querying.</p>
+ *
+ * <p>Worker threads only see the caller request attributes: they run outside the caller transaction
+ * and persistence context, and host context kept in other thread-locals (such as the Spring Security
+ * context) is not propagated. Only enable the executor when the loaders do not depend on them.</p>
+ */
+public class OptionSourceCascadeResolver {
+
+    private final Executor executor;
+
+    /**
+     * @param executor executor for independent branches; {@code null} resolves sequentially
+     */
+    public OptionSourceCascadeResolver(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Resolves every descriptor and returns the results in dependency order.
+     *
+     * @param descriptors sources to resolve
+     * @param values      current form state
+     * @param loader      loads the options of one unblocked source
+     */
+    public List<OptionSourceCascadeResult> resolve(
+            Collection<OptionSourceDescriptor> descriptors,
+            Map<String, Object> values,
+            Function<OptionSourceDescriptor, Page<OptionDTO<Object>>> loader
+    ) {
+        Map<String, Object> formState = values == null ? Map.of() : values;
+        List<OptionSourceCascadeResult> results = new ArrayList<>();
+        for (List<OptionSourceDescriptor> level : levels(descriptors)) {
+            List<OptionSourceDescriptor> runnable = new ArrayList<>();
+            Map<String, OptionSourceCascadeResult> levelResults = new LinkedHashMap<>();
+            for (OptionSourceDescriptor descriptor : level) {
+                List<String> missing = missingDependencies(descriptor, formState);
+                if (missing.isEmpty()) {
+                    runnable.add(descriptor);
+                    levelResults.put(descriptor.key(), null);
+                } else {
+                    levelResults.put(descriptor.key(), OptionSourceCascadeResult.blocked(descriptor, missing));
+                }
+            }
+            for (OptionSourceCascadeResult resolved : run(runnable, loader)) {
+                levelResults.put(resolved.sourceKey(), resolved);
+            }
+            results.addAll(levelResults.values());
+        }
+        return results;
+    }
+
+    /**
+     * Groups descriptors into dependency levels, keeping the given order inside each level.
+     *
+     * @throws IllegalArgumentException when the dependencies form a cycle
+     */
+    static List<List<OptionSourceDescriptor>> levels(Collection<OptionSourceDescriptor> descriptors) {
+        List<OptionSourceDescriptor> pending = new ArrayList<>(descriptors);
+        Map<String, Set<String>> upstreams = new LinkedHashMap<>();
+        for (OptionSourceDescriptor descriptor : pending) {
+            Set<String> keys = new LinkedHashSet<>();
+            for (OptionSourceDescriptor candidate : pending) {
+                if (candidate != descriptor
+                        && candidate.filterField() != null
+                        && descriptor.dependsOn().contains(candidate.filterField())) {
+                    keys.add(candidate.key());
+                }
+            }
+            upstreams.put(descriptor.key(), keys);
+        }
+
+        List<List<OptionSourceDescriptor>> levels = new ArrayList<>();
+        Set<String> done = new LinkedHashSet<>();
+        while (!pending.isEmpty()) {
+            List<OptionSourceDescriptor> level = pending.stream()
+                    .filter(descriptor -> done.containsAll(upstreams.get(descriptor.key())))
+                    .toList();
+            if (level.isEmpty()) {
+                throw new IllegalArgumentException(
+                        "Option source dependency cycle: " + pending.stream().map(OptionSourceDescriptor::key).toList()
+                );
+            }
+            levels.add(level);
+            pending.removeAll(level);
+            level.forEach(descriptor -> done.add(descriptor.key()));
+        }
+        return levels;
+    }
+
+    static List<String> missingDependencies(OptionSourceDescriptor descriptor, Map<String, Object> values) {
+        List<String> missing = new ArrayList<>();
+        for (String dependency : descriptor.dependsOn()) {
+            if (!hasValue(values.get(dependency))) {
+                missing.add(dependency);
+            }
+        }
+        return missing;
+    }
+
+    static boolean hasValue(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof CharSequence text) {
+            return !text.toString().isBlank();
+        }
+        if (value instanceof Collection<?> collection) {
+            return !collection.isEmpty();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return !map.isEmpty();
+        }
+        return true;
+    }
+
+    private List<OptionSourceCascadeResult> run(
+            List<OptionSourceDescriptor> descriptors,
+            Function<OptionSourceDescriptor, Page<OptionDTO<Object>>> loader
+    ) {
+        if (descriptors.isEmpty()) {
+            return List.of();
+        }
+        if (executor == null || descriptors.size() == 1) {
+            return descriptors.stream()
+                    .map(descriptor -> OptionSourceCascadeResult.resolved(descriptor, loader.apply(descriptor)))
+                    .toList();
+        }
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        List<CompletableFuture<OptionSourceCascadeResult>> branches = new ArrayList<>();
+        for (OptionSourceDescriptor descriptor : descriptors.subList(1, descriptors.size())) {
+            branches.add(CompletableFuture.supplyAsync(() -> {
+                RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                try {
+                    return OptionSourceCascadeResult.resolved(descriptor, loader.apply(descriptor));
+                } finally {
+                    RequestContextHolder.setRequestAttributes(previous);
+                }
+            }, executor));
+        }
+
+        List<OptionSourceCascadeResult> results = new ArrayList<>();
+        RuntimeException failure = null;
+        try {
+            OptionSourceDescriptor first = descriptors.get(0);
+            results.add(OptionSourceCascadeResult.resolved(first, loader.apply(first)));
+        } catch (RuntimeException ex) {
+            failure = ex;
+        }
+        for (CompletableFuture<OptionSourceCascadeResult> branch : branches) {
+            try {
+                results.add(branch.join());
+            } catch (CompletionException ex) {
+                if (failure == null) {
+                    failure = ex.getCause() instanceof RuntimeException runtime ? runtime : ex;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+}
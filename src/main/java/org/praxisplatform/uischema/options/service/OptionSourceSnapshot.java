@@ -0,0 +1,78 @@
+package org.praxisplatform.uischema.options.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Immutable, pre-serialized copy of a whole option source served by
+ * {@link org.praxisplatform.uischema.options.OptionSourceExecutionMode#SNAPSHOT}.
+ *
+ * <p>The payload is kept gzip-compressed in memory; {@link #etag()} is a strong validator derived
+ * from the dataset version when one is published, or from the serialized content otherwise. The
+ * gzip and identity encodings are different representations, so each one is served with its own
+ * tag (see {@link #etag(boolean)}).</p>
+ *
+ * @param datasetVersion dataset version observed when the snapshot was built, or {@code null}
+ * @param etag           quoted strong entity tag of the uncompressed representation
+ * @param gzipContent    gzip-compressed JSON array of options
+ * @param contentLength  length of the uncompressed JSON payload
+ * @param rowCount       number of options in the snapshot
+ * @param builtAt        build instant
+ */
+public record OptionSourceSnapshot(
+        String datasetVersion,
+        String etag,
+        byte[] gzipContent,
+        int contentLength,
+        int rowCount,
+        Instant builtAt
+) {
+
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+    /**
+     * Returns the quoted strong entity tag of the gzip or the identity representation.
+     */
+    public String etag(boolean gzip) {
+        return gzip ? etag.substring(0, etag.length() - 1) + GZIP_ETAG_SUFFIX + "\"" : etag;
+    }
+
+    /**
+     * Returns the uncompressed JSON payload for clients that do not accept gzip.
+     */
+    public byte[] jsonContent() {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(gzipContent))) {
+            return input.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to inflate option source snapshot.", ex);
+        }
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header value matches the gzip or the identity representation
+     * of this snapshot. Weak comparison is used, as required by RFC 9110 for {@code If-None-Match}.
+     */
+    public boolean matches(String ifNoneMatch, boolean gzip) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String expected = etag(gzip);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag)) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
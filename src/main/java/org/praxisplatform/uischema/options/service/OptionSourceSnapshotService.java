@@ -0,0 +1,254 @@
+package org.praxisplatform.uischema.options.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-memory store of option-source snapshots.
+ *
+ * <p>The first request for a key builds the snapshot synchronously. Afterwards the current
+ * snapshot is always served from memory; when the published dataset version changes (or, for
+ * sources without a version, when {@code refreshInterval} elapses) a single rebuild is scheduled on
+ * the rebuild executor and the previous snapshot keeps being served until it completes.</p>
+ *
+ * <p>Background rebuilds run without the request, security or tenant context of the caller, so
+ * they are reserved for shared keys. Callers isolate tenants by including the resource version
+ * scope in the cache key and mark those keys as request-bound: a stale request-bound snapshot is
+ * rebuilt synchronously on the calling thread, where the scope that keyed it is still active.</p>
+ */
+public class OptionSourceSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptionSourceSnapshotService.class);
+
+    private final ObjectMapper objectMapper;
+    private final Executor rebuildExecutor;
+    private final int maxRows;
+    private final Duration maxAge;
+    private final Duration refreshInterval;
+    private final Clock clock;
+    private final ConcurrentMap<String, OptionSourceSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<OptionSourceSnapshot>> builds = new ConcurrentHashMap<>();
+
+    public OptionSourceSnapshotService(
+            ObjectMapper objectMapper,
+            Executor rebuildExecutor,
+            int maxRows,
+            Duration maxAge,
+            Duration refreshInterval
+    ) {
+        this(objectMapper, rebuildExecutor, maxRows, maxAge, refreshInterval, Clock.systemUTC());
+    }
+
+    OptionSourceSnapshotService(
+            ObjectMapper objectMapper,
+            Executor rebuildExecutor,
+            int maxRows,
+            Duration maxAge,
+            Duration refreshInterval,
+            Clock clock
+    ) {
+        this.objectMapper = objectMapper;
+        this.rebuildExecutor = rebuildExecutor;
+        this.maxRows = maxRows <= 0 ? 500 : maxRows;
+        this.maxAge = maxAge == null || maxAge.isNegative() ? Duration.ofHours(1) : maxAge;
+        this.refreshInterval = refreshInterval == null || refreshInterval.isNegative()
+                ? Duration.ofMinutes(5)
+                : refreshInterval;
+        this.clock = clock;
+    }
+
+    /**
+     * Maximum number of options a snapshot may hold.
+     */
+    public int maxRows() {
+        return maxRows;
+    }
+
+    /**
+     * Freshness lifetime advertised to browsers and shared caches.
+     */
+    public Duration maxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Returns the snapshot for {@code cacheKey}, building it on first use and scheduling an
+     * asynchronous rebuild when it is stale.
+     *
+     * @param cacheKey       resource, source and isolation scope of the snapshot
+     * @param datasetVersion current dataset version, or {@code null} when the source publishes none
+     * @param loader         loads every option of the source; must not exceed {@link #maxRows()}
+     * @throws OptionSourceSnapshotTooLargeException when the loader returns more than {@link #maxRows()} options
+     */
+    public OptionSourceSnapshot resolve(String cacheKey, String datasetVersion, Supplier<? extends List<?>> loader) {
+        return resolve(cacheKey, datasetVersion, false, loader);
+    }
+
+    /**
+     * Returns the snapshot for {@code cacheKey}, rebuilding a stale one on the calling thread when
+     * {@code requestBound} is set.
+     *
+     * @param cacheKey       resource, source and isolation scope of the snapshot
+     * @param datasetVersion current dataset version, or {@code null} when the source publishes none
+     * @param requestBound   whether the loader depends on the caller's context, for example a tenant scope
+     * @param loader         loads every option of the source; must not exceed {@link #maxRows()}
+     * @throws OptionSourceSnapshotTooLargeException when the loader returns more than {@link #maxRows()} options
+     */
+    public OptionSourceSnapshot resolve(
+            String cacheKey,
+            String datasetVersion,
+            boolean requestBound,
+            Supplier<? extends List<?>> loader
+    ) {
+        OptionSourceSnapshot current = snapshots.get(cacheKey);
+        if (current == null) {
+            return buildNow(cacheKey, datasetVersion, loader);
+        }
+        if (isStale(current, datasetVersion)) {
+            if (requestBound) {
+                return buildNow(cacheKey, datasetVersion, loader);
+            }
+            scheduleRebuild(cacheKey, datasetVersion, loader);
+        }
+        return current;
+    }
+
+    /**
+     * Drops every snapshot whose key starts with {@code prefix}; the next request rebuilds it.
+     */
+    public void invalidate(String prefix) {
+        snapshots.keySet().removeIf(key -> prefix == null || key.startsWith(prefix));
+    }
+
+    private boolean isStale(OptionSourceSnapshot snapshot, String datasetVersion) {
+        if (datasetVersion != null) {
+            return !datasetVersion.equals(snapshot.datasetVersion());
+        }
+        return snapshot.datasetVersion() != null
+                || snapshot.builtAt().plus(refreshInterval).isBefore(clock.instant());
+    }
+
+    private OptionSourceSnapshot buildNow(String cacheKey, String datasetVersion, Supplier<? extends List<?>> loader) {
+        CompletableFuture<OptionSourceSnapshot> pending = new CompletableFuture<>();
+        CompletableFuture<OptionSourceSnapshot> inflight = builds.putIfAbsent(cacheKey, pending);
+        if (inflight != null) {
+            return join(inflight);
+        }
+        try {
+            OptionSourceSnapshot built = build(cacheKey, datasetVersion, loader);
+            snapshots.put(cacheKey, built);
+            pending.complete(built);
+            return built;
+        } catch (RuntimeException ex) {
+            pending.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            builds.remove(cacheKey, pending);
+        }
+    }
+
+    private void scheduleRebuild(String cacheKey, String datasetVersion, Supplier<? extends List<?>> loader) {
+        CompletableFuture<OptionSourceSnapshot> pending = new CompletableFuture<>();
+        if (builds.putIfAbsent(cacheKey, pending) != null) {
+            return;
+        }
+        try {
+            rebuildExecutor.execute(() -> {
+                try {
+                    OptionSourceSnapshot built = build(cacheKey, datasetVersion, loader);
+                    snapshots.put(cacheKey, built);
+                    pending.complete(built);
+                } catch (RuntimeException ex) {
+                    logger.warn("Failed to rebuild option source snapshot {}; serving the previous one.", cacheKey, ex);
+                    pending.completeExceptionally(ex);
+                } finally {
+                    builds.remove(cacheKey, pending);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            builds.remove(cacheKey, pending);
+            pending.completeExceptionally(ex);
+            logger.debug("Option source snapshot rebuild rejected for {}.", cacheKey, ex);
+        }
+    }
+
+    private OptionSourceSnapshot build(String cacheKey, String datasetVersion, Supplier<? extends List<?>> loader) {
+        List<?> options = loader.get();
+        List<?> rows = options == null ? List.of() : options;
+        if (rows.size() > maxRows) {
+            throw new OptionSourceSnapshotTooLargeException(cacheKey, maxRows);
+        }
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(rows);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize option source snapshot: " + cacheKey, ex);
+        }
+        String token = datasetVersion != null
+                ? sha256(cacheKey.getBytes(StandardCharsets.UTF_8), datasetVersion.getBytes(StandardCharsets.UTF_8))
+                : sha256(json);
+        return new OptionSourceSnapshot(
+                datasetVersion,
+                "\"" + token + "\"",
+                gzip(json),
+                json.length,
+                rows.size(),
+                clock.instant()
+        );
+    }
+
+    private static OptionSourceSnapshot join(CompletableFuture<OptionSourceSnapshot> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw ex;
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+        try (GZIPOutputStream output = new GZIPOutputStream(buffer)) {
+            output.write(content);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to compress option source snapshot.", ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String sha256(byte[]... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (byte[] part : parts) {
+                digest.update(part);
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.praxisplatform.uischema.options.service;
+
+/**
+ * Raised when a snapshot option-source holds more options than the configured snapshot limit.
+ */
+public class OptionSourceSnapshotTooLargeException extends RuntimeException {
+
+    public OptionSourceSnapshotTooLargeException(String source, int maxRows) {
+        super("Option source snapshot exceeds the maximum of %d rows: %s".formatted(maxRows, source));
+    }
+}
@@ -7,12 +7,17 @@ import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Order;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.praxisplatform.uischema.dto.CountMode;
+import org.praxisplatform.uischema.dto.CountedPage;
 import org.praxisplatform.uischema.dto.OptionDTO;
 import org.praxisplatform.uischema.options.EntityLookupDescriptor;
 import org.praxisplatform.uischema.options.LookupFilterDefinition;
@@ -26,8 +31,8 @@ import org.praxisplatform.uischema.options.LookupSortOption;
 import org.praxisplatform.uischema.options.OptionSourceDescriptor;
 import org.praxisplatform.uischema.options.OptionSourceType;
 import org.praxisplatform.uischema.options.service.OptionSourceQueryExecutor;
+import org.praxisplatform.uischema.util.InListBatches;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
@@ -39,6 +44,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.math.BigDecimal;
@@ -54,6 +60,19 @@ import java.time.ZonedDateTime;
  */
 public class JpaOptionSourceQueryExecutor implements OptionSourceQueryExecutor {
 
+    private final int maxInListParameters;
+
+    public JpaOptionSourceQueryExecutor() {
+        this(InListBatches.DEFAULT_MAX_PARAMETERS);
+    }
+
+    /**
+     * @param maxInListParameters maximum number of {@code IN} parameters per by-ids statement
+     */
+    public JpaOptionSourceQueryExecutor(int maxInListParameters) {
+        this.maxInListParameters = maxInListParameters;
+    }
+
     @Override
     public <E> Page<OptionDTO<Object>> filterOptions(
             EntityManager entityManager,
@@ -84,9 +103,27 @@ public class JpaOptionSourceQueryExecutor implements OptionSourceQueryExecutor {
         Predicate notNullPredicate = cb.isNotNull(valuePath);
         Predicate searchPredicate = buildSearchPredicate(cb, root, labelPath, descriptor, search);
         Predicate structuredFilterPredicate = buildStructuredFilterPredicate(cb, root, descriptor, filters);
+        Predicate pagePredicate = mergePredicates(cb, notNullPredicate, searchPredicate);
+
+        // includeIds on an identifier value path are pinned out of the paged sequence, and the total
+        // counts that sequence only. When rows cannot repeat, the first page reads them in the same
+        // statement, sorted before the page.
+        List<Object> pinnedIds = isIdentifierPath(valuePath)
+                ? coerceIds(includeIds, valuePath.getJavaType())
+                : List.of();
+        boolean pinnedFirstPage = !pinnedIds.isEmpty()
+                && pageable.isPaged()
+                && pageable.getPageNumber() == 0
+                && !query.isDistinct()
+                && !hasCollectionJoin(root);
+        if (pinnedFirstPage) {
+            pagePredicate = cb.or(pagePredicate, valuePath.in(pinnedIds));
+        } else if (!pinnedIds.isEmpty()) {
+            pagePredicate = cb.and(pagePredicate, cb.not(valuePath.in(pinnedIds)));
+        }
         Predicate mergedPredicate = mergePredicates(
                 cb,
-                mergePredicates(cb, mergePredicates(cb, predicate, notNullPredicate), searchPredicate),
+                mergePredicates(cb, predicate, pagePredicate),
                 structuredFilterPredicate
         );
         if (mergedPredicate != null) {
@@ -98,34 +135,96 @@ public class JpaOptionSourceQueryExecutor implements OptionSourceQueryExecutor {
         } else {
             applyOptionSelections(query, valuePath, labelPath);
         }
-        query.distinct(!relaxDistinctForMetadataSort);
-        query.orderBy(resolveOrders(cb, root, valuePath, labelPath, descriptor, pageable.getSort(), sortKey));
+        List<Order> orders = new ArrayList<>();
+        if (pinnedFirstPage) {
+            orders.add(cb.asc(cb.<Integer>selectCase().when(valuePath.in(pinnedIds), 0).otherwise(1)));
+        }
+        orders.addAll(List.of(resolveOrders(cb, root, valuePath, labelPath, descriptor, pageable.getSort(), sortKey)));
+        // Identifier values are unique per row, and DISTINCT would require the pinned ordering in the select list.
+        query.distinct(!relaxDistinctForMetadataSort && !pinnedFirstPage);
+        query.orderBy(orders);
 
         TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
-        typedQuery.setFirstResult((int) pageable.getOffset());
-        typedQuery.setMaxResults(pageable.getPageSize());
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize() + (pinnedFirstPage ? pinnedIds.size() : 0));
+        }
 
-        List<OptionDTO<Object>> pageContent = typedQuery.getResultList().stream()
+        List<OptionDTO<Object>> rows = typedQuery.getResultList().stream()
                 .map(tuple -> richResourceEntity ? toEntityLookupOption(tuple, descriptor) : toOption(tuple))
                 .filter(option -> option.id() != null)
                 .toList();
-        pageContent = dedupeOptions(pageContent);
 
-        long total = countDistinct(entityManager, entityClass, specification, descriptor, search, filters);
+        List<OptionDTO<Object>> pageContent;
+        Map<String, OptionDTO<Object>> available = new LinkedHashMap<>();
+        if (pinnedFirstPage) {
+            Set<String> pinnedKeys = pinnedIds.stream().map(this::stringify).collect(Collectors.toSet());
+            List<OptionDTO<Object>> unpinned = new ArrayList<>();
+            for (OptionDTO<Object> option : dedupeOptions(rows)) {
+                if (pinnedKeys.contains(stringify(option.id()))) {
+                    available.put(stringify(option.id()), option);
+                } else if (unpinned.size() < pageable.getPageSize()) {
+                    unpinned.add(option);
+                }
+            }
+            pageContent = List.copyOf(unpinned);
+        } else {
+            pageContent = dedupeOptions(rows);
+            pageContent.forEach(option -> available.put(stringify(option.id()), option));
+        }
+
+        long total = countDistinct(entityManager, entityClass, specification, descriptor, search, filters, pinnedIds);
         List<OptionDTO<Object>> merged = mergeIncludedOptions(
                 pageContent,
-                byIdsOptions(
+                resolveIncludedOptions(
                         entityManager,
                         entityClass,
                         specification,
                         filterPayload,
                         descriptor,
                         filters,
-                        includeIds == null ? List.of() : includeIds
+                        includeIds,
+                        available,
+                        pinnedFirstPage
                 )
         );
 
-        return new PageImpl<>(merged, pageable, Math.max(total, merged.size()));
+        return new CountedPage<>(merged, pageable, total, CountMode.EXACT, true);
+    }
+
+    /**
+     * Returns the included options in request order, querying only the ids that are not already
+     * available from the page statement.
+     */
+    private <E> List<OptionDTO<Object>> resolveIncludedOptions(
+            EntityManager entityManager,
+            Class<E> entityClass,
+            Specification<E> specification,
+            Object filterPayload,
+            OptionSourceDescriptor descriptor,
+            List<LookupFilterRequest> filters,
+            Collection<Object> includeIds,
+            Map<String, OptionDTO<Object>> available,
+            boolean complete
+    ) {
+        if (includeIds == null || includeIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, OptionDTO<Object>> resolved = new LinkedHashMap<>(available);
+        List<Object> missing = includeIds.stream()
+                .filter(Objects::nonNull)
+                .filter(id -> !available.containsKey(stringify(id)))
+                .toList();
+        if (!complete && !missing.isEmpty()) {
+            byIdsOptions(entityManager, entityClass, specification, filterPayload, descriptor, filters, missing)
+                    .forEach(option -> resolved.putIfAbsent(stringify(option.id()), option));
+        }
+        return includeIds.stream()
+                .filter(Objects::nonNull)
+                .map(id -> resolved.get(stringify(id)))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
     }
 
     @Override
@@ -153,43 +252,82 @@ public class JpaOptionSourceQueryExecutor implements OptionSourceQueryExecutor {
             return List.of();
         }
 
+        // Ids are coerced before batching so the padded IN lists keep their bucket size.
+        Class<?> valueType = resolveValuePath(entityManager.getCriteriaBuilder().createTupleQuery().from(entityClass), descriptor)
+                .getJavaType();
+        Map<String, OptionDTO<Object>> byKey = new LinkedHashMap<>();
+        for (List<Object> batch : InListBatches.partition(coerceIds(ids, valueType), maxInListParameters)) {
+            byIdsBatch(entityManager, entityClass, specification, descriptor, filters, batch)
+                    .forEach(option -> byKey.putIfAbsent(stringify(option.id()), option));
+        }
+
+        return ids.stream()
+                .map(id -> byKey.get(stringify(id)))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private <E> List<OptionDTO<Object>> byIdsBatch(
+            EntityManager entityManager,
+            Class<E> entityClass,
+            Specification<E> specification,
+            OptionSourceDescriptor descriptor,
+            List<LookupFilterRequest> filters,
+            List<Object> batch
+    ) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<Tuple> query = cb.createTupleQuery();
         Root<E> root = query.from(entityClass);
         Path<?> valuePath = resolveValuePath(root, descriptor);
         Path<?> labelPath = resolveLabelPath(root, descriptor);
         boolean richResourceEntity = isRichResourceEntity(descriptor);
-        Class<?> valueType = valuePath.getJavaType();
-
-        List<Object> coercedIds = ids.stream()
-                .filter(Objects::nonNull)
-                .map(Object::toString)
-                .map(raw -> coerceValue(raw, valueType))
-                .toList();
 
         if (richResourceEntity) {
             applyEntityLookupSelections(query, root, valuePath, labelPath, descriptor, null);
         } else {
             applyOptionSelections(query, valuePath, labelPath);
         }
-        Predicate idPredicate = valuePath.in(coercedIds);
+        Predicate idPredicate = valuePath.in(batch);
         Predicate filterPredicate = applyPredicate(specification, root, query, cb);
         Predicate structuredFilterPredicate = buildStructuredFilterPredicate(cb, root, descriptor, filters);
         Predicate mergedPredicate = mergePredicates(cb, mergePredicates(cb, idPredicate, filterPredicate), structuredFilterPredicate);
         query.where(mergedPredicate).distinct(true);
 
-        Map<String, OptionDTO<Object>> byKey = entityManager.createQuery(query)
+        return entityManager.createQuery(query)
                 .getResultList()
                 .stream()
                 .map(tuple -> richResourceEntity ? toEntityLookupOption(tuple, descriptor) : toOption(tuple))
-                .collect(Collectors.toMap(option -> stringify(option.id()), option -> option, (left, right) -> left, LinkedHashMap::new));
+                .toList();
+    }
 
+    private List<Object> coerceIds(Collection<Object> ids, Class<?> valueType) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
         return ids.stream()
-                .map(id -> byKey.get(stringify(id)))
                 .filter(Objects::nonNull)
+                .map(Object::toString)
+                .map(raw -> coerceValue(raw, valueType))
+                .distinct()
                 .toList();
     }
 
+    private boolean isIdentifierPath(Path<?> valuePath) {
+        return valuePath.getParentPath() instanceof Root<?>
+                && valuePath.getModel() instanceof SingularAttribute<?, ?> attribute
+                && attribute.isId()
+                && attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC;
+    }
+
+    private boolean hasCollectionJoin(From<?, ?> from) {
+        for (Join<?, ?> join : from.getJoins()) {
+            if (join.getAttribute().isCollection() || hasCollectionJoin(join)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void ensureSupported(OptionSourceDescriptor descriptor) {
         if (descriptor.type() == OptionSourceType.DISTINCT_DIMENSION
                 || descriptor.type() == OptionSourceType.CATEGORICAL_BUCKET
@@ -214,7 +352,8 @@ public class JpaOptionSourceQueryExecutor implements OptionSourceQueryExecutor {
             Specification<E> specification,
             OptionSourceDescriptor descriptor,
             String search,
-            List<LookupFilterRequest> filters
+            List<LookupFilterRequest> filters,
+            List<Object> pinnedIds
     ) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
@@ -222,7 +361,9 @@ public class JpaOptionSourceQueryExecutor implements OptionSourceQueryExecutor {
         Path<?> valuePath = resolveValuePath(root, descriptor);
 
         Predicate predicate = applyPredicate(specification, root, countQuery, cb);
-        Predicate notNullPredicate = cb.isNotNull(valuePath);
+        Predicate notNullPredicate = pinnedIds.isEmpty()
+                ? cb.isNotNull(valuePath)
+                : cb.and(cb.isNotNull(valuePath), cb.not(valuePath.in(pinnedIds)));
         Predicate searchPredicate = buildSearchPredicate(cb, root, resolveLabelPath(root, descriptor), descriptor, search);
         Predicate structuredFilterPredicate = buildStructuredFilterPredicate(cb, root, descriptor, filters);
         Predicate mergedPredicate = mergePredicates(
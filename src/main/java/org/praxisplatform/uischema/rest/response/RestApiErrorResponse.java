@@ -6,6 +6,6 @@ import java.time.LocalDateTime;
 public class RestApiErrorResponse extends RestApiResponse<Object> {
 
     public RestApiErrorResponse() {
-        super(null, null, null, null, null, LocalDateTime.now());
+        super(null, null, null, null, null, null, LocalDateTime.now());
     }
 }
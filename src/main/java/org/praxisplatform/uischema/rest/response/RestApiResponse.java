@@ -9,6 +9,7 @@ import org.springframework.hateoas.Links;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Envelope padrao de resposta da API Praxis.
@@ -47,6 +48,12 @@ public class RestApiResponse<T> {
     private RestApiLinks links;
     private List<CustomProblemDetail> errors;
 
+    /**
+     * Metadados de execucao do payload, por exemplo {@code countMode} e {@code totalExact} em
+     * paginas de {@code /filter}.
+     */
+    private Map<String, Object> meta;
+
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
     @Builder.Default
     private LocalDateTime timestamp = LocalDateTime.now();
@@ -7,6 +7,6 @@ import java.time.LocalDateTime;
 /** OpenAPI envelope for period-over-period comparison stats responses. */
 public class RestApiResponseComparisonStatsResponse extends RestApiResponse<ComparisonStatsResponse> {
     public RestApiResponseComparisonStatsResponse() {
-        super(null, null, null, null, null, LocalDateTime.now());
+        super(null, null, null, null, null, null, LocalDateTime.now());
     }
 }
@@ -15,6 +15,6 @@ import java.time.LocalDateTime;
 public class RestApiResponseDistributionStatsResponse extends RestApiResponse<DistributionStatsResponse> {
 
     public RestApiResponseDistributionStatsResponse() {
-        super(null, null, null, null, null, LocalDateTime.now());
+        super(null, null, null, null, null, null, LocalDateTime.now());
     }
 }
@@ -15,6 +15,6 @@ import java.time.LocalDateTime;
 public class RestApiResponseGroupByStatsResponse extends RestApiResponse<GroupByStatsResponse> {
 
     public RestApiResponseGroupByStatsResponse() {
-        super(null, null, null, null, null, LocalDateTime.now());
+        super(null, null, null, null, null, null, LocalDateTime.now());
     }
 }
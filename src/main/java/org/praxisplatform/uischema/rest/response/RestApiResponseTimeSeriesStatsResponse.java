@@ -15,6 +15,6 @@ import java.time.LocalDateTime;
 public class RestApiResponseTimeSeriesStatsResponse extends RestApiResponse<TimeSeriesStatsResponse> {
 
     public RestApiResponseTimeSeriesStatsResponse() {
-        super(null, null, null, null, null, LocalDateTime.now());
+        super(null, null, null, null, null, null, LocalDateTime.now());
     }
 }
@@ -0,0 +1,113 @@
+package org.praxisplatform.uischema.rest.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.praxisplatform.uischema.exporting.CollectionExportRowSource;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Lista de {@code data} lida sob demanda a partir de uma {@link CollectionExportRowSource}.
+ *
+ * <p>
+ * Na serializacao Jackson as linhas sao percorridas uma unica vez direto para o gerador da
+ * resposta, sem materializa-las; o payload continua passando pelos message converters e pelos
+ * {@code ResponseBodyAdvice} configurados. Qualquer outro acesso ({@code size}, {@code get},
+ * iteracao) materializa as linhas na primeira chamada e passa a servir a copia em memoria.
+ * </p>
+ *
+ * <p>
+ * Como o corpo e escrito enquanto as linhas sao lidas, uma falha depois do primeiro buffer da
+ * resposta ja enviado interrompe o JSON; antes disso ela segue o tratamento de erro usual.
+ * </p>
+ *
+ * @param <T> tipo dos itens
+ */
+@JsonSerialize(using = StreamedList.Serializer.class)
+public final class StreamedList<T> extends AbstractList<T> {
+
+    private final CollectionExportRowSource<T> rows;
+    private List<T> materialized;
+    private boolean streamed;
+
+    private StreamedList(CollectionExportRowSource<T> rows) {
+        this.rows = Objects.requireNonNull(rows, "rows");
+    }
+
+    /**
+     * Lista sobre {@code rows}, aplicando {@code mapper} a cada linha lida.
+     */
+    public static <S, T> StreamedList<T> of(CollectionExportRowSource<S> rows, Function<? super S, ? extends T> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new StreamedList<>(consumer -> rows.consume(stream -> consumer.accept(stream.map(mapper))));
+    }
+
+    @Override
+    public T get(int index) {
+        return materialize().get(index);
+    }
+
+    @Override
+    public int size() {
+        return materialize().size();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return materialize().iterator();
+    }
+
+    private synchronized List<T> materialize() {
+        if (materialized == null) {
+            if (streamed) {
+                throw new IllegalStateException("Streamed rows were already consumed.");
+            }
+            materialized = rows.toList();
+        }
+        return materialized;
+    }
+
+    private synchronized boolean claimStream() {
+        if (materialized != null) {
+            return false;
+        }
+        if (streamed) {
+            throw new IllegalStateException("Streamed rows were already consumed.");
+        }
+        streamed = true;
+        return true;
+    }
+
+    static final class Serializer extends StdSerializer<StreamedList<?>> {
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Serializer() {
+            super((Class) StreamedList.class);
+        }
+
+        @Override
+        public void serialize(StreamedList<?> value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartArray(value);
+            if (value.claimStream()) {
+                value.rows.consume(stream -> {
+                    Iterator<?> iterator = stream.iterator();
+                    while (iterator.hasNext()) {
+                        provider.defaultSerializeValue(iterator.next(), generator);
+                    }
+                });
+            } else {
+                for (Object row : value.materialized) {
+                    provider.defaultSerializeValue(row, generator);
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -4,8 +4,36 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.Id;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaDerivedRoot;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.praxisplatform.uischema.concurrency.DatasetVersionTracker;
+import org.praxisplatform.uischema.dto.CollectionSlice;
+import org.praxisplatform.uischema.dto.CountMode;
+import org.praxisplatform.uischema.dto.CountedPage;
 import org.praxisplatform.uischema.dto.CursorPage;
 import org.praxisplatform.uischema.dto.OptionDTO;
+import org.praxisplatform.uischema.exporting.CollectionExportField;
+import org.praxisplatform.uischema.exporting.CollectionExportParallelism;
+import org.praxisplatform.uischema.exporting.CollectionExportPartitionedRowSource;
+import org.praxisplatform.uischema.exporting.CollectionExportProjectedRows;
+import org.praxisplatform.uischema.exporting.CollectionExportRequest;
+import org.praxisplatform.uischema.exporting.CollectionExportResult;
+import org.praxisplatform.uischema.exporting.CollectionExportRowSource;
+import org.praxisplatform.uischema.exporting.job.CollectionExportAdmission;
+import org.praxisplatform.uischema.exporting.job.CollectionExportAdmissionController;
+import org.praxisplatform.uischema.exporting.job.CollectionExportJobRejectedException;
+import org.praxisplatform.uischema.exporting.job.CollectionExportJobScheduler;
+import org.praxisplatform.uischema.exporting.job.CollectionExportJobTask;
 import org.praxisplatform.uischema.filter.dto.GenericFilterDTO;
 import org.praxisplatform.uischema.filter.specification.GenericSpecification;
 import org.praxisplatform.uischema.filter.specification.GenericSpecificationsBuilder;
@@ -21,6 +49,7 @@ import org.praxisplatform.uischema.options.service.OptionSourceOperation;
 import org.praxisplatform.uischema.options.service.OptionSourceQueryExecutor;
 import org.praxisplatform.uischema.repository.base.BaseCrudRepository;
 import org.praxisplatform.uischema.service.base.annotation.DefaultSortColumn;
+import org.praxisplatform.uischema.service.base.annotation.FetchPlan;
 import org.praxisplatform.uischema.stats.StatsEligibility;
 import org.praxisplatform.uischema.stats.StatsFieldDescriptor;
 import org.praxisplatform.uischema.stats.StatsFieldRegistry;
@@ -45,17 +74,29 @@ import org.praxisplatform.uischema.stats.dto.TimeSeriesStatsRequest;
 import org.praxisplatform.uischema.stats.dto.TimeSeriesStatsResponse;
 import org.praxisplatform.uischema.stats.service.ResolvedStatsMetric;
 import org.praxisplatform.uischema.stats.service.StatsQueryExecutor;
+import org.praxisplatform.uischema.util.CursorEncoder;
+import org.praxisplatform.uischema.util.InListBatches;
 import org.praxisplatform.uischema.capability.ResourceStructuralCapabilities;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -63,6 +104,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -71,8 +113,10 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.math.BigDecimal;
 import java.time.Clock;
 
@@ -92,6 +136,9 @@ public abstract class AbstractBaseQueryResourceService<
         FilterDTO extends GenericFilterDTO
 > implements BaseResourceQueryService<ResponseDTO, ID, FilterDTO> {
 
+    private static final String HINT_FETCH_SIZE = "org.hibernate.fetchSize";
+    private static final String HINT_READ_ONLY = "org.hibernate.readOnly";
+
     @Override
     public ResourceStructuralCapabilities getStructuralCapabilities() {
         StatsProperties properties = statsProperties != null ? statsProperties : StatsProperties.defaults();
@@ -161,6 +208,39 @@ public abstract class AbstractBaseQueryResourceService<
     @Autowired(required = false)
     private OptionSourceEligibility optionSourceEligibility;
 
+    @Autowired(required = false)
+    private ObjectProvider<PlatformTransactionManager> transactionManagerProvider;
+
+    @Autowired(required = false)
+    private CollectionExportJobScheduler exportJobScheduler;
+
+    @Autowired(required = false)
+    private CollectionExportParallelism exportParallelism;
+
+    @Autowired(required = false)
+    private CollectionExportAdmissionController exportAdmissionController;
+
+    @Autowired(required = false)
+    private CursorEncoder cursorEncoder;
+
+    @Autowired(required = false)
+    private DatasetVersionTracker datasetVersionTracker;
+
+    @Value("${praxis.query.by-ids.max-in-parameters:1000}")
+    private int inListParameterLimit = InListBatches.DEFAULT_MAX_PARAMETERS;
+
+    @Value("${praxis.query.fetch-plan.detect-n-plus-one:false}")
+    private boolean detectUnplannedLoads;
+
+    private volatile EntityFetchPlan<E> fetchPlan;
+
+    private volatile Optional<EntityResponseProjection<E, ResponseDTO>> responseProjection;
+
+    private volatile Boolean optionProjectionEligible;
+    private volatile Boolean optionLabelPathOverridden;
+
+    private volatile Boolean legacyIncludeIdsHook;
+
     private final BaseCrudRepository<E, ID> repository;
     private final GenericSpecificationsBuilder<E> specificationsBuilder;
     private final Class<E> entityClass;
@@ -235,9 +315,33 @@ public abstract class AbstractBaseQueryResourceService<
         return Sort.by(orders);
     }
 
+    /**
+     * Versao publicada pelo {@link DatasetVersionTracker} para as entidades de
+     * {@link #getDatasetVersionSources()}; vazia quando o tracker nao esta configurado.
+     */
     @Override
     public Optional<String> getDatasetVersion() {
-        return Optional.empty();
+        if (datasetVersionTracker == null) {
+            return Optional.empty();
+        }
+        return Optional.of(datasetVersionTracker.version(getDatasetVersionSources()));
+    }
+
+    /**
+     * Entidades cujas escritas alteram as leituras deste recurso. Por padrao, a entidade do recurso
+     * mais as entidades alcancadas pelo plano de fetch (associacoes lidas pelo Response DTO e as
+     * declaradas em {@link FetchPlan}). Recursos que leem dados relacionados por outros caminhos
+     * (consultas proprias, valores derivados no mapper) devem sobrescrever e inclui-las.
+     */
+    protected List<Class<?>> getDatasetVersionSources() {
+        Set<Class<?>> associated = fetchPlan().associatedEntityTypes();
+        if (associated.isEmpty()) {
+            return List.of(getEntityClass());
+        }
+        List<Class<?>> sources = new ArrayList<>(associated.size() + 1);
+        sources.add(getEntityClass());
+        associated.stream().filter(type -> !type.equals(getEntityClass())).forEach(sources::add);
+        return List.copyOf(sources);
     }
 
     @Override
@@ -301,9 +405,101 @@ public abstract class AbstractBaseQueryResourceService<
     @Override
     @Transactional(readOnly = true)
     public List<ResponseDTO> findAll() {
-        return findAllEntities().stream()
+        EntityResponseProjection<E, ResponseDTO> projection = responseProjection();
+        if (projection != null) {
+            return projection.query(entityManager, null, getDefaultSort()).getResultList().stream()
+                    .map(projection::toResponse)
+                    .toList();
+        }
+        List<E> entities = findAllEntities();
+        List<ResponseDTO> response = entities.stream()
                 .map(getResourceMapper()::toResponse)
                 .toList();
+        reportUnplannedLoads(entities);
+        return response;
+    }
+
+    /**
+     * Le a fatia em cursor com fetch size {@link #getExportFetchSize()}, limpando o contexto de
+     * persistencia no mesmo intervalo. Ordena por {@link #getDefaultSort()} com o id como desempate
+     * e nao passa por {@link #findAllEntities()}.
+     *
+     * <p>
+     * A continuacao e um cursor de keyset com os valores de ordenacao da ultima linha: a fatia
+     * seguinte le as linhas apos eles, sem OFFSET, e a continuacao e resolvida antes do corpo por
+     * uma consulta apenas das chaves das duas linhas na fronteira da fatia. Quando a ordenacao
+     * padrao usa tipos que o cursor nao codifica, a continuacao e o deslocamento em linhas.
+     * </p>
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CollectionSlice<ResponseDTO> findAllSlice(String after, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be > 0");
+        }
+        EntityManager entityManager = getEntityManager();
+        // The rows are ordered by QueryUtils with the dialect's NULL placement, so the seek follows it too.
+        EntityKeysetCursor<E> cursor = new EntityKeysetCursor<>(
+                entityManager,
+                getEntityClass(),
+                getSpecificationsBuilder(),
+                getCursorEncoder(),
+                EntityKeysetCursor.nullsSortedHigh(entityManager)
+        );
+        Sort sort = EntityKeysetCursor.keySort(getDefaultSort(), getIdFieldName());
+        Specification<E> range;
+        int first;
+        String next;
+        if (cursor.supports(sort, getIdFieldName())) {
+            next = cursor.next(null, sort, getIdFieldName(), after, limit);
+            range = cursor.after(sort, getIdFieldName(), after);
+            first = 0;
+        } else {
+            long offset = CollectionSlice.offset(after);
+            if (offset >= Integer.MAX_VALUE) {
+                return new CollectionSlice<>(CollectionExportRowSource.of(List.of()), null);
+            }
+            long following = offset + limit;
+            boolean hasMore = following < Integer.MAX_VALUE && !allRowsQuery(null, sort)
+                    .setFirstResult((int) following)
+                    .setMaxResults(1)
+                    .getResultList()
+                    .isEmpty();
+            next = hasMore ? String.valueOf(following) : null;
+            range = null;
+            first = (int) offset;
+        }
+        EntityResponseProjection<E, ResponseDTO> projection = responseProjection();
+        CollectionExportRowSource<ResponseDTO> rows = consumer -> inReadOnlyTransaction(() -> {
+            EntityManager readManager = getEntityManager();
+            int fetchSize = Math.max(1, getExportFetchSize());
+            if (projection != null) {
+                try (Stream<Tuple> tuples = projection.query(readManager, range, sort)
+                        .setFirstResult(first)
+                        .setMaxResults(limit)
+                        .setHint(HINT_FETCH_SIZE, fetchSize)
+                        .getResultStream()) {
+                    consumer.accept(tuples.map(projection::toResponse));
+                }
+                return null;
+            }
+            TypedQuery<E> query = fetchPlan().applyPaged(readManager, allRowsQuery(range, sort))
+                    .setFirstResult(first)
+                    .setMaxResults(limit)
+                    .setHint(HINT_FETCH_SIZE, fetchSize);
+            long[] read = {0L};
+            try (Stream<E> entities = query.getResultStream()) {
+                consumer.accept(entities.map(entity -> {
+                    ResponseDTO row = getResourceMapper().toResponse(entity);
+                    if (++read[0] % fetchSize == 0) {
+                        readManager.clear();
+                    }
+                    return row;
+                }));
+            }
+            return null;
+        });
+        return new CollectionSlice<>(rows, next);
     }
 
     @Override
@@ -312,19 +508,41 @@ public abstract class AbstractBaseQueryResourceService<
         if (ids == null || ids.isEmpty()) {
             return List.of();
         }
-        Map<ID, E> byId = findEntitiesById(ids).stream()
+        List<E> entities = findEntitiesById(ids);
+        Map<ID, E> byId = entities.stream()
                 .collect(Collectors.toMap(this::extractId, Function.identity(), (left, right) -> left));
-        return ids.stream()
+        List<ResponseDTO> response = ids.stream()
                 .map(byId::get)
                 .filter(Objects::nonNull)
                 .map(getResourceMapper()::toResponse)
                 .toList();
+        reportUnplannedLoads(entities);
+        return response;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ResponseDTO> filter(FilterDTO filter, Pageable pageable, Collection<ID> includeIds) {
-        return filterEntitiesWithIncludeIds(filter, pageable, includeIds).map(getResourceMapper()::toResponse);
+        return filter(filter, pageable, includeIds, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ResponseDTO> filter(FilterDTO filter, Pageable pageable, Collection<ID> includeIds, CountMode countMode) {
+        Page<E> page;
+        if (overridesLegacyIncludeIdsHook()) {
+            // The resource customized the page read before count modes existed; it keeps authority over rows and total.
+            page = filterEntitiesWithIncludeIds(filter, pageable, includeIds);
+        } else {
+            EntityResponseProjection<E, ResponseDTO> projection = responseProjection();
+            if (projection != null && (includeIds == null || includeIds.isEmpty())) {
+                return filterProjected(projection, filter, pageable, countMode == null ? getDefaultCountMode() : countMode);
+            }
+            page = filterEntitiesWithIncludeIds(filter, pageable, includeIds, countMode);
+        }
+        Page<ResponseDTO> response = page.map(getResourceMapper()::toResponse);
+        reportUnplannedLoads(page.getContent());
+        return response;
     }
 
     @Override
@@ -339,14 +557,39 @@ public abstract class AbstractBaseQueryResourceService<
         );
     }
 
+    /**
+     * Posicao do registro com um unico {@code COUNT} das linhas anteriores a ele, comparando os
+     * valores de ordenacao do alvo (com o id como desempate) sob o mesmo filtro e escopo de acesso
+     * de {@code /filter}.
+     *
+     * @throws EntityNotFoundException quando o id nao atende ao filtro ou ao escopo de acesso
+     */
     @Override
+    @Transactional(readOnly = true)
     public OptionalLong locate(FilterDTO filter, Sort sort, ID id) {
-        return OptionalLong.empty();
+        Pageable pageable = PageRequest.of(0, 1, sort == null ? Sort.unsorted() : sort);
+        ResourceFilterQuery<E> query = resolveResourceFilterQuery(filter, pageable);
+        OptionalLong position = keysetCursor().position(
+                query.effectiveSpecification(),
+                query.pageable().getSort(),
+                getIdFieldName(),
+                id
+        );
+        if (position.isEmpty()) {
+            throw getNotFoundException();
+        }
+        return position;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<OptionDTO<ID>> filterOptions(FilterDTO filter, Pageable pageable) {
+        EntityOptionProjection<E, ID> projection = resolveOptionProjection();
+        if (projection != null) {
+            ResourceFilterQuery<E> query = resolveResourceFilterQuery(filter, pageable);
+            Page<OptionDTO<ID>> page = projection.page(query.effectiveSpecification(), query.pageable());
+            return new PageImpl<>(fillMissingOptionLabels(page.getContent()), page.getPageable(), page.getTotalElements());
+        }
         return filterEntities(filter, pageable).map(getOptionMapper()::toOption);
     }
 
@@ -356,9 +599,10 @@ public abstract class AbstractBaseQueryResourceService<
         if (ids == null || ids.isEmpty()) {
             return List.of();
         }
-        List<OptionDTO<ID>> list = findEntitiesById(ids).stream()
-                .map(getOptionMapper()::toOption)
-                .toList();
+        EntityOptionProjection<E, ID> projection = resolveOptionProjection();
+        List<OptionDTO<ID>> list = projection != null
+                ? fillMissingOptionLabels(projection.byIds(null, ids))
+                : findEntitiesById(ids).stream().map(getOptionMapper()::toOption).toList();
         Map<ID, OptionDTO<ID>> byId = list.stream()
                 .collect(Collectors.toMap(OptionDTO::id, Function.identity(), (left, right) -> left));
         return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
@@ -643,8 +887,47 @@ public abstract class AbstractBaseQueryResourceService<
         return String.valueOf(left).compareTo(String.valueOf(right));
     }
 
+    /**
+     * Paginacao por keyset: a ordenacao recebe o id como desempate e cada pagina busca as linhas
+     * apos (ou antes de) os valores de ordenacao da linha limite carregados no cursor, com o mesmo
+     * filtro e escopo de acesso de {@code /filter}. O custo de uma pagina nao cresce com a
+     * profundidade, desde que haja indice nas colunas ordenadas.
+     *
+     * @throws IllegalArgumentException quando o cursor e invalido, foi emitido para outra
+     *                                  ordenacao ou {@code after} e {@code before} vem juntos
+     */
     protected CursorPage<E> filterEntitiesByCursor(FilterDTO filter, Sort sort, String after, String before, int size) {
-        throw new UnsupportedOperationException("Cursor pagination not implemented");
+        Pageable pageable = PageRequest.of(0, Math.max(1, size), sort == null ? Sort.unsorted() : sort);
+        ResourceFilterQuery<E> query = resolveResourceFilterQuery(filter, pageable);
+        return keysetCursor().page(query.effectiveSpecification(), query.pageable().getSort(), getIdFieldName(), after, before, size);
+    }
+
+    private EntityKeysetCursor<E> keysetCursor() {
+        return new EntityKeysetCursor<>(
+                getEntityManager(),
+                getEntityClass(),
+                getSpecificationsBuilder(),
+                getCursorEncoder(),
+                isCursorNullsSortedHigh()
+        );
+    }
+
+    /**
+     * Codificador dos tokens de cursor; com {@code praxis.query.cursor.secret} os tokens sao
+     * assinados por HMAC.
+     */
+    protected CursorEncoder getCursorEncoder() {
+        return cursorEncoder == null ? CursorEncoder.BASE64_URL : cursorEncoder;
+    }
+
+    /**
+     * Indica se a paginacao por cursor posiciona {@code NULL} acima de qualquer valor (ultimo em
+     * ordem crescente). O padrao segue o dialeto do Hibernate (PostgreSQL e Oracle {@code true};
+     * MySQL, SQL Server e H2 {@code false}), e a ordenacao recebe {@code NULLS FIRST/LAST}
+     * explicito coerente com este valor, de modo que sobrescrever so muda onde os nulos aparecem.
+     */
+    protected boolean isCursorNullsSortedHigh() {
+        return EntityKeysetCursor.nullsSortedHigh(getEntityManager());
     }
 
     protected ID extractId(E entity) {
@@ -655,45 +938,125 @@ public abstract class AbstractBaseQueryResourceService<
         return entity -> new OptionDTO<>(extractId(entity), computeOptionLabel(entity), null);
     }
 
+    /**
+     * Resolves the option label through the compiled accessor chain cached per entity class.
+     *
+     * <p>Precedence is documented in {@link org.praxisplatform.uischema.annotation.OptionLabel}; when no
+     * accessor yields a non-blank value the identifier is used.</p>
+     */
     protected String computeOptionLabel(E entity) {
         if (entity == null) {
             return null;
         }
+        String label = OptionLabelAccessor.forClass(entity.getClass()).resolve(entity);
+        return label != null ? label : String.valueOf(extractId(entity));
+    }
 
-        Class<?> clazz = entity.getClass();
-        for (Method method : getAllMethods(clazz)) {
-            if (hasOptionLabelAnnotation(method)) {
-                Object value = invokeSilently(entity, method);
-                String stringValue = toNonBlankString(value);
-                if (stringValue != null) {
-                    return stringValue;
-                }
-            }
+    /**
+     * Entity attribute that alone determines the option label, when it can be inferred from a single
+     * persistent {@code @OptionLabel} field and no {@code @OptionLabel} getter.
+     *
+     * <p>A present value allows option projections to select only the id and label columns instead of
+     * loading full entities; the inferred attribute must also be a basic attribute of the JPA
+     * metamodel. Override and return an explicit path when the label lives elsewhere, or
+     * {@link Optional#empty()} to always load entities.</p>
+     */
+    protected Optional<String> getOptionLabelPropertyPath() {
+        return OptionLabelAccessor.forClass(getEntityClass()).labelPropertyPath();
+    }
+
+    /**
+     * Returns the {@code (id, label)} projection for the legacy options endpoints, or {@code null}
+     * when entities must still be loaded.
+     *
+     * <p>Projection requires a label path and is skipped when the resource customizes option
+     * mapping, label computation or entity loading, so overridden hooks keep authority. An inferred
+     * path must name a basic attribute of the metamodel; an overridden
+     * {@link #getOptionLabelPropertyPath()} is trusted as is.</p>
+     */
+    private EntityOptionProjection<E, ID> resolveOptionProjection() {
+        if (entityManager == null) {
+            return null;
+        }
+        Boolean eligible = optionProjectionEligible;
+        if (eligible == null) {
+            eligible = !overridesQueryHook("getOptionMapper")
+                    && !overridesQueryHook("computeOptionLabel", Object.class)
+                    && !overridesQueryHook("filterEntities", GenericFilterDTO.class, Pageable.class)
+                    && !overridesQueryHook("findEntitiesById", Collection.class);
+            optionProjectionEligible = eligible;
+        }
+        if (!eligible) {
+            return null;
+        }
+        Boolean explicit = optionLabelPathOverridden;
+        if (explicit == null) {
+            explicit = overridesQueryHook("getOptionLabelPropertyPath");
+            optionLabelPathOverridden = explicit;
         }
+        boolean trusted = explicit;
+        return getOptionLabelPropertyPath()
+                .filter(labelPath -> trusted || isBasicAttribute(labelPath))
+                .map(labelPath -> new EntityOptionProjection<E, ID>(
+                        entityManager, entityClass, getIdFieldName(), labelPath, getInListParameterLimit()))
+                .orElse(null);
+    }
 
-        for (Field field : getAllFields(clazz)) {
-            if (hasOptionLabelAnnotation(field)) {
-                Object value = getFieldValueSilently(entity, field);
-                String stringValue = toNonBlankString(value);
-                if (stringValue != null) {
-                    return stringValue;
-                }
-            }
+    private boolean isBasicAttribute(String attributeName) {
+        try {
+            return entityManager.getMetamodel().managedType(entityClass).getAttribute(attributeName)
+                    .getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC;
+        } catch (IllegalArgumentException ex) {
+            return false;
         }
+    }
 
-        for (String getterName : List.of("getLabel", "getNomeCompleto", "getNome", "getDescricao", "getTitle")) {
-            Method method = findMethodIgnoreCase(clazz, getterName);
-            if (method == null) {
-                continue;
-            }
-            Object value = invokeSilently(entity, method);
-            String stringValue = toNonBlankString(value);
-            if (stringValue != null) {
-                return stringValue;
-            }
+    /**
+     * Resolves blank projected labels through the entity-based chain, preserving the heuristic and
+     * identifier fallbacks of {@link #computeOptionLabel(Object)}.
+     */
+    private List<OptionDTO<ID>> fillMissingOptionLabels(List<OptionDTO<ID>> options) {
+        List<ID> unlabeled = options.stream()
+                .filter(option -> option.label() == null)
+                .map(OptionDTO::id)
+                .toList();
+        if (unlabeled.isEmpty()) {
+            return options;
         }
+        Map<ID, String> fallbackLabels = new HashMap<>();
+        findEntitiesById(unlabeled).forEach(entity -> fallbackLabels.put(extractId(entity), computeOptionLabel(entity)));
+        return options.stream()
+                .map(option -> option.label() != null
+                        ? option
+                        : new OptionDTO<>(
+                                option.id(),
+                                fallbackLabels.getOrDefault(option.id(), String.valueOf(option.id())),
+                                option.extra()
+                        ))
+                .toList();
+    }
 
-        return String.valueOf(extractId(entity));
+    private boolean overridesLegacyIncludeIdsHook() {
+        Boolean overridden = legacyIncludeIdsHook;
+        if (overridden == null) {
+            overridden = overridesQueryHook(
+                    "filterEntitiesWithIncludeIds", GenericFilterDTO.class, Pageable.class, Collection.class);
+            legacyIncludeIdsHook = overridden;
+        }
+        return overridden;
+    }
+
+    private boolean overridesQueryHook(String methodName, Class<?>... parameterTypes) {
+        Class<?> current = getClass();
+        while (current != null && current != AbstractBaseQueryResourceService.class) {
+            try {
+                current.getDeclaredMethod(methodName, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException ignored) {
+                current = current.getSuperclass();
+            }
+        }
+        return false;
     }
 
     protected EntityNotFoundException getNotFoundException() {
@@ -701,18 +1064,110 @@ public abstract class AbstractBaseQueryResourceService<
     }
 
     protected E findEntityById(ID id) {
-        return repository.findById(id).orElseThrow(this::getNotFoundException);
+        EntityFetchPlan<E> plan = fetchPlan();
+        if (plan.isEmpty()) {
+            return repository.findById(id).orElseThrow(this::getNotFoundException);
+        }
+        E entity = entityManager.find(entityClass, id, plan.findHints(entityManager));
+        if (entity == null) {
+            throw getNotFoundException();
+        }
+        return entity;
     }
 
     protected List<E> findAllEntities() {
-        return repository.findAll(getDefaultSort());
+        EntityFetchPlan<E> plan = fetchPlan();
+        if (plan.isEmpty()) {
+            return repository.findAll(getDefaultSort());
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<E> query = cb.createQuery(entityClass);
+        Root<E> root = query.from(entityClass);
+        query.select(root).orderBy(QueryUtils.toOrders(getDefaultSort(), root, cb));
+        return plan.applyPaged(entityManager, entityManager.createQuery(query)).getResultList();
     }
 
+    /**
+     * Carrega as entidades dos ids em lotes de {@code IN} preenchidos ate o proximo bucket, reaproveitando
+     * o cache de segundo nivel quando a entidade ja esta nele e nenhum filtro de sessao do Hibernate
+     * ({@code @Filter}) esta ligado. A ordem do resultado e a do banco.
+     */
     protected List<E> findEntitiesById(Collection<ID> ids) {
         if (ids == null || ids.isEmpty()) {
             return List.of();
         }
-        return repository.findAllById(ids);
+        if (entityManager == null) {
+            return repository.findAllById(ids);
+        }
+        return entityIdLookup().find(null, ids);
+    }
+
+    /**
+     * Maximo de parametros por {@code IN} nas buscas por ids ({@code praxis.query.by-ids.max-in-parameters});
+     * acima dele a busca e dividida em lotes.
+     */
+    protected int getInListParameterLimit() {
+        return inListParameterLimit;
+    }
+
+    private EntityIdLookup<E, ID> entityIdLookup() {
+        return new EntityIdLookup<>(entityManager, entityClass, getIdFieldName(), getInListParameterLimit(), fetchPlan());
+    }
+
+    /**
+     * Associacoes carregadas junto com a entidade: {@link FetchPlan} do servico somado ao que o
+     * Response DTO do {@link #getResourceMapper()} usa. Resolvido uma vez por servico.
+     */
+    private EntityFetchPlan<E> fetchPlan() {
+        EntityFetchPlan<E> plan = fetchPlan;
+        if (plan == null) {
+            plan = entityManager == null
+                    ? EntityFetchPlan.empty(entityClass)
+                    : EntityFetchPlan.resolve(
+                            entityManager.getMetamodel(),
+                            entityClass,
+                            resolveResponseType(),
+                            AnnotatedElementUtils.findMergedAnnotation(getClass(), FetchPlan.class)
+                    );
+            fetchPlan = plan;
+        }
+        return plan;
+    }
+
+    private Class<?> resolveResponseType() {
+        ResourceMapper<E, ResponseDTO, ?, ?, ID> mapper = getResourceMapper();
+        return mapper == null ? null : ResolvableType.forClass(mapper.getClass()).as(ResourceMapper.class).resolveGeneric(1);
+    }
+
+    /**
+     * Liga a leitura por projecao em {@code /filter} (sem {@code includeIds}), {@code GET /all} e
+     * {@link #findAll()}: cada campo do Response DTO e lido direto da coluna correspondente, por nome
+     * ou achatado por associacao ({@code departamentoNome}), sem entidades gerenciadas nem snapshots
+     * de dirty checking. O {@link ResourceMapper} nao participa; quando algum campo nao tem caminho no
+     * metamodelo, o recurso segue pelo fluxo de entidades.
+     */
+    protected boolean isResponseProjectionEnabled() {
+        return false;
+    }
+
+    private EntityResponseProjection<E, ResponseDTO> responseProjection() {
+        Optional<EntityResponseProjection<E, ResponseDTO>> projection = responseProjection;
+        if (projection == null) {
+            projection = Optional.empty();
+            if (isResponseProjectionEnabled() && entityManager != null) {
+                @SuppressWarnings("unchecked")
+                Class<ResponseDTO> responseType = (Class<ResponseDTO>) resolveResponseType();
+                projection = Optional.ofNullable(EntityResponseProjection.resolve(entityManager.getMetamodel(), entityClass, responseType));
+            }
+            responseProjection = projection;
+        }
+        return projection.orElse(null);
+    }
+
+    private void reportUnplannedLoads(List<E> entities) {
+        if (detectUnplannedLoads && entityManager != null) {
+            fetchPlan().reportUnplannedLoads(entityManager, entities);
+        }
     }
 
     /**
@@ -732,46 +1187,648 @@ public abstract class AbstractBaseQueryResourceService<
         return repository.findAll(query.effectiveSpecification(), query.pageable());
     }
 
+    /**
+     * Pagina de {@code /filter} com os {@code includeIds} garantidos na primeira pagina, no
+     * {@link #getDefaultCountMode()}. Os {@code includeIds} saem da sequencia paginada: cada pagina
+     * le as linhas do filtro fora deles, {@code totalElements} conta apenas essas linhas e a pagina 0
+     * os traz antes das demais, alem do tamanho da pagina. Quando sobrescrito,
+     * {@link #filter(GenericFilterDTO, Pageable, Collection, CountMode)} passa a chamar este metodo e
+     * o {@code countMode} da requisicao deixa de ser aplicado.
+     */
     protected Page<E> filterEntitiesWithIncludeIds(FilterDTO filter, Pageable pageable, Collection<ID> includeIds) {
+        return filterEntitiesWithIncludeIds(filter, pageable, includeIds, null);
+    }
+
+    /**
+     * Variante de {@link #filterEntitiesWithIncludeIds(GenericFilterDTO, Pageable, Collection)} que resolve o
+     * total conforme {@code countMode}; {@code null} usa {@link #getDefaultCountMode()}.
+     */
+    protected Page<E> filterEntitiesWithIncludeIds(
+            FilterDTO filter,
+            Pageable pageable,
+            Collection<ID> includeIds,
+            CountMode countMode
+    ) {
         ResourceFilterQuery<E> query = resolveResourceFilterQuery(filter, pageable);
-        Page<E> page = repository.findAll(query.effectiveSpecification(), query.pageable());
-        if (includeIds == null || includeIds.isEmpty()) {
+        CountMode mode = countMode == null ? getDefaultCountMode() : countMode;
+        Set<ID> orderedIds = includeIds == null ? Set.of() : includeIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (orderedIds.isEmpty()) {
+            return findFilterPage(filter, query, mode);
+        }
+
+        // The includeIds leave the paged sequence, so every page and the total cover the same rows.
+        List<List<ID>> batches = InListBatches.partition(orderedIds, getInListParameterLimit());
+        Specification<E> outsideIncluded = (root, criteriaQuery, criteriaBuilder) -> criteriaBuilder.and(batches.stream()
+                .map(batch -> criteriaBuilder.not(root.get(getIdFieldName()).in(batch)))
+                .toArray(Predicate[]::new));
+        CountedPage<E> page = findFilterPage(filter, new ResourceFilterQuery<>(
+                query.accessSpecification(),
+                query.effectiveSpecification().and(outsideIncluded),
+                query.pageable()
+        ), mode);
+        if (pageable.isPaged() && pageable.getPageNumber() != 0) {
             return page;
         }
 
-        Set<ID> orderedIds = new LinkedHashSet<>(includeIds);
         Map<ID, E> ensured = new HashMap<>();
-        List<E> remaining = new ArrayList<>();
-
-        for (E entity : page.getContent()) {
-            ID entityId = extractId(entity);
-            if (orderedIds.contains(entityId)) {
-                ensured.put(entityId, entity);
-            } else {
-                remaining.add(entity);
+        findEntitiesByIdWithinAccessScope(orderedIds, query.accessSpecification())
+                .forEach(entity -> ensured.put(extractId(entity), entity));
+
+        List<E> merged = new ArrayList<>(orderedIds.size() + page.getNumberOfElements());
+        orderedIds.forEach(id -> {
+            E entity = ensured.get(id);
+            if (entity != null) {
+                merged.add(entity);
+            }
+        });
+        merged.addAll(page.getContent());
+
+        return new CountedPage<>(merged, pageable, page.getTotalElements(), page.getCountMode(), page.isTotalExact());
+    }
+
+    /**
+     * Semantica de total de {@code /filter} quando a requisicao nao informa {@code countMode}.
+     * Recursos sobre tabelas grandes com filtros em joins podem devolver {@link CountMode#CAPPED}
+     * ou {@link CountMode#SKIP}.
+     */
+    protected CountMode getDefaultCountMode() {
+        return CountMode.EXACT;
+    }
+
+    /**
+     * Teto do {@code COUNT} limitado de {@link CountMode#CAPPED}.
+     */
+    protected long getCappedCountLimit() {
+        return 10_000L;
+    }
+
+    /**
+     * Total estimado para {@link CountMode#ESTIMATED}, por exemplo {@code pg_class.reltuples} ou o
+     * {@code EXPLAIN} do banco para o filtro. Sem estimativa, o modo cai para
+     * {@link CountMode#CAPPED}.
+     */
+    protected OptionalLong estimateFilterCount(FilterDTO filter) {
+        return OptionalLong.empty();
+    }
+
+    /**
+     * Le a pagina e resolve o total conforme {@code countMode}. Fora de {@link CountMode#EXACT}, a
+     * pagina e lida com uma linha a mais: se nao houver proxima, o total sai do offset sem
+     * {@code COUNT}; caso contrario {@code skip} devolve um limite inferior, {@code capped} conta ate
+     * {@link #getCappedCountLimit()} + 1 e {@code estimated} usa {@link #estimateFilterCount}.
+     *
+     * <p>As linhas saem do repositorio, como em {@link #findEntityById} e {@link #findAllEntities()};
+     * apenas um {@link FetchPlan} nao vazio le pelo {@code EntityManager}, para aplicar o grafo.</p>
+     */
+    private CountedPage<E> findFilterPage(FilterDTO filter, ResourceFilterQuery<E> query, CountMode countMode) {
+        Specification<E> specification = query.effectiveSpecification();
+        Pageable pageable = query.pageable();
+        boolean planned = !fetchPlan().isEmpty();
+        if (pageable.isUnpaged() || (countMode == CountMode.EXACT && !planned)) {
+            Page<E> page = repository.findAll(specification, pageable);
+            return new CountedPage<>(page.getContent(), page.getPageable(), page.getTotalElements(), CountMode.EXACT, true);
+        }
+        return countedPage(filter, specification, pageable, countMode, planned ? this::findPageRows : this::scrollPageRows);
+    }
+
+    /**
+     * Le {@code pageSize + 1} linhas com {@code pageRows} e resolve o total conforme {@code countMode},
+     * com a mesma semantica para entidades e projecoes.
+     */
+    private <T> CountedPage<T> countedPage(
+            FilterDTO filter,
+            Specification<E> specification,
+            Pageable pageable,
+            CountMode countMode,
+            BiFunction<Specification<E>, Pageable, List<T>> pageRows
+    ) {
+        List<T> rows = pageRows.apply(specification, pageable);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<T> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        if (countMode == CountMode.EXACT) {
+            // Same rows and count as repository.findAll(spec, pageable), without going through the repository.
+            Page<T> page = PageableExecutionUtils.getPage(content, pageable, () -> exactCount(specification));
+            return new CountedPage<>(content, pageable, page.getTotalElements(), CountMode.EXACT, true);
+        }
+        long lowerBound = pageable.getOffset() + content.size() + (hasNext ? 1 : 0);
+        if (!hasNext && (!content.isEmpty() || pageable.getOffset() == 0)) {
+            return new CountedPage<>(content, pageable, lowerBound, countMode, true);
+        }
+        if (countMode == CountMode.SKIP) {
+            return new CountedPage<>(content, pageable, lowerBound, CountMode.SKIP, false);
+        }
+        if (countMode == CountMode.ESTIMATED) {
+            OptionalLong estimate = estimateFilterCount(filter);
+            if (estimate.isPresent()) {
+                return new CountedPage<>(content, pageable, Math.max(estimate.getAsLong(), lowerBound), CountMode.ESTIMATED, false);
             }
         }
+        long cap = Math.max(1L, getCappedCountLimit());
+        if (lowerBound > cap) {
+            return new CountedPage<>(content, pageable, lowerBound, CountMode.CAPPED, false);
+        }
+        long counted = boundedCount(specification, cap + 1);
+        boolean exact = counted <= cap;
+        return new CountedPage<>(content, pageable, Math.max(exact ? counted : cap, lowerBound), CountMode.CAPPED, exact);
+    }
 
-        if (pageable.getPageNumber() != 0) {
-            return new PageImpl<>(remaining, pageable, page.getTotalElements());
+    private CountedPage<ResponseDTO> filterProjected(
+            EntityResponseProjection<E, ResponseDTO> projection,
+            FilterDTO filter,
+            Pageable pageable,
+            CountMode countMode
+    ) {
+        ResourceFilterQuery<E> query = resolveResourceFilterQuery(filter, pageable);
+        Specification<E> specification = query.effectiveSpecification();
+        Pageable effective = query.pageable();
+        if (effective.isUnpaged()) {
+            List<ResponseDTO> content = projection.query(entityManager, specification, effective.getSort()).getResultList().stream()
+                    .map(projection::toResponse)
+                    .toList();
+            return new CountedPage<>(content, effective, content.size(), CountMode.EXACT, true);
+        }
+        return countedPage(filter, specification, effective, countMode, (spec, page) -> projection
+                .query(entityManager, spec, page.getSort())
+                .setFirstResult(Math.toIntExact(page.getOffset()))
+                .setMaxResults(page.getPageSize() + 1)
+                .getResultList()
+                .stream()
+                .map(projection::toResponse)
+                .toList());
+    }
+
+    private List<E> scrollPageRows(Specification<E> specification, Pageable pageable) {
+        // Offset positions start at the given zero-based row, so this is the page offset itself.
+        return repository.findBy(specification, query -> query
+                        .sortBy(pageable.getSort())
+                        .limit(pageable.getPageSize() + 1)
+                        .scroll(ScrollPosition.offset(pageable.getOffset())))
+                .getContent();
+    }
+
+    private List<E> findPageRows(Specification<E> specification, Pageable pageable) {
+        EntityManager entityManager = getEntityManager();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<E> query = cb.createQuery(getEntityClass());
+        Root<E> root = query.from(getEntityClass());
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
         }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        return fetchPlan().applyPaged(entityManager, entityManager.createQuery(query))
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+    }
+
+    private long exactCount(Specification<E> specification) {
+        EntityManager entityManager = getEntityManager();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<E> root = query.from(getEntityClass());
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
 
-        List<ID> missing = orderedIds.stream().filter(id -> !ensured.containsKey(id)).toList();
-        if (!missing.isEmpty()) {
-            findEntitiesByIdWithinAccessScope(missing, query.accessSpecification())
-                    .forEach(entity -> ensured.put(extractId(entity), entity));
+    /**
+     * Conta no maximo {@code limit} linhas; para antes de percorrer o resultado inteiro, ao
+     * contrario de {@code COUNT(*)}.
+     *
+     * <p>Com Hibernate, emite {@code select count(*) from (select id ... fetch first limit rows)}
+     * e o banco devolve um unico numero. Com outro provedor, percorre os ids em cursor sem
+     * materializa-los.</p>
+     */
+    private long boundedCount(Specification<E> specification, long limit) {
+        EntityManager entityManager = getEntityManager();
+        int max = Math.toIntExact(Math.min(limit, Integer.MAX_VALUE));
+        if (entityManager.getCriteriaBuilder() instanceof HibernateCriteriaBuilder cb) {
+            JpaCriteriaQuery<Long> query = cb.createQuery(Long.class);
+            JpaSubQuery<Object> ids = query.subquery(Object.class);
+            Root<E> root = ids.from(getEntityClass());
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                ids.where(predicate);
+            }
+            Path<Object> id = root.get(getIdFieldName());
+            id.alias("id");
+            ids.select(id).fetch(max);
+            // A specification can only mark the outer query distinct; the rows it means are the inner ones.
+            ids.distinct(query.isDistinct());
+            query.distinct(false);
+            JpaDerivedRoot<Object> bounded = query.from(ids);
+            query.select(cb.count(bounded.get("id")));
+            return entityManager.createQuery(query).getSingleResult();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = cb.createQuery(Object.class);
+        Root<E> root = query.from(getEntityClass());
+        query.select(root.get(getIdFieldName()));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
         }
+        try (Stream<Object> ids = entityManager.createQuery(query)
+                .setHint(HINT_READ_ONLY, true)
+                .setHint(HINT_FETCH_SIZE, getExportFetchSize())
+                .setMaxResults(max)
+                .getResultStream()) {
+            return ids.count();
+        }
+    }
 
-        List<E> merged = new ArrayList<>(orderedIds.size() + remaining.size());
-        orderedIds.forEach(id -> {
-            E entity = ensured.get(id);
-            if (entity != null) {
-                merged.add(entity);
+    /**
+     * Linhas da colecao filtrada para {@code CollectionExportExecutor#stream}.
+     *
+     * <p>Usa um cursor JPA com fetch size {@link #getExportFetchSize()}, aplica o mesmo escopo de
+     * acesso e filtro de {@code /filter} e mapeia cada entidade para DTO linha a linha; o contexto
+     * de persistencia e limpo a cada lote, de modo que o heap fica constante. Como a escrita
+     * acontece depois do retorno do controller, o cursor roda em uma transacao somente leitura
+     * propria quando ha um {@link PlatformTransactionManager} unico. Filtro e escopo de acesso sao
+     * resolvidos nesta chamada, ainda na thread da requisicao, para que a origem possa ser lida
+     * depois por um job diferido.</p>
+     *
+     * <p>Com {@link CollectionExportParallelism} habilitado e ordenacao apenas pelo id, a origem e
+     * particionada em faixas de keyset por id ({@code id > anterior AND id <= limite}); engines
+     * CSV, JSON e XLSX leem e formatam as faixas em paralelo, cada uma em sua propria transacao, e
+     * escrevem na ordem original. Outras ordenacoes sao lidas em um unico cursor.</p>
+     *
+     * @param maxRows limite efetivo do servidor, ou {@code null} para nao limitar
+     */
+    protected CollectionExportRowSource<ResponseDTO> streamExportRows(FilterDTO filter, Sort sort, Integer maxRows) {
+        ResourceFilterQuery<E> filterQuery = resolveResourceFilterQuery(
+                filter,
+                PageRequest.of(0, 1, sort == null ? Sort.unsorted() : sort)
+        );
+        return exportRowSource(filterQuery, maxRows, (range, limit, consumer) ->
+                consumeExportRows(filterQuery, range, limit, consumer));
+    }
+
+    /**
+     * Variante de {@link #streamExportRows} que projeta apenas as colunas exportadas, sem carregar
+     * entidades nem mapear DTOs.
+     *
+     * <p>Cada campo e lido pelo seu {@code valuePath} (ou {@code key}), traduzido por
+     * {@link #resolveExportPropertyPath}; campos de relacao usam o mesmo {@code @Filterable.relation}
+     * do filtro e compartilham um unico LEFT join. Filtro, escopo de acesso, ordenacao, limite,
+     * transacao e particionamento por keyset sao os mesmos de {@link #streamExportRows}. Use
+     * {@code CollectionExportExecutor#effectiveFields} para obter {@code fields}; campos derivados,
+     * que so existem no DTO, exigem {@link #streamExportRows}.</p>
+     *
+     * @param fields  campos efetivos da exportacao, na ordem das colunas
+     * @param maxRows limite efetivo do servidor, ou {@code null} para nao limitar
+     * @throws IllegalArgumentException quando algum campo nao corresponde a um caminho da entidade
+     */
+    protected CollectionExportProjectedRows streamExportProjection(
+            FilterDTO filter,
+            Sort sort,
+            List<CollectionExportField> fields,
+            Integer maxRows
+    ) {
+        if (fields == null || fields.isEmpty()) {
+            throw new IllegalArgumentException("Collection export projection requires at least one field");
+        }
+        ResourceFilterQuery<E> filterQuery = resolveResourceFilterQuery(
+                filter,
+                PageRequest.of(0, 1, sort == null ? Sort.unsorted() : sort)
+        );
+        List<String> propertyPaths = fields.stream()
+                .map(field -> resolveExportPropertyPath(filter, field))
+                .toList();
+        EntityExportProjection<E> projection = new EntityExportProjection<>(
+                getEntityManager(),
+                getEntityClass(),
+                propertyPaths,
+                getSpecificationsBuilder()
+        );
+        projection.validate();
+        Sort effectiveSort = filterQuery.pageable().getSort();
+        int fetchSize = Math.max(1, getExportFetchSize());
+        return CollectionExportProjectedRows.of(fields, exportRowSource(filterQuery, maxRows, (range, limit, consumer) ->
+                projection.read(rangeSpecification(filterQuery, range), effectiveSort, limit, fetchSize, consumer)));
+    }
+
+    /**
+     * Caminho na entidade projetado para {@code field} em {@link #streamExportProjection}: o
+     * {@code valuePath} (ou {@code key}) traduzido por {@code @Filterable.relation} do filtro.
+     */
+    protected String resolveExportPropertyPath(FilterDTO filter, CollectionExportField field) {
+        String property = CollectionExportProjectedRows.propertyOf(field);
+        if (property == null || property.isBlank()) {
+            throw new IllegalArgumentException("Collection export field has no key or valuePath");
+        }
+        return getSpecificationsBuilder().resolvePropertyPath(filter, property);
+    }
+
+    /**
+     * Enfileira a exportacao como job diferido quando ha um {@link CollectionExportJobScheduler}.
+     *
+     * <p>O {@code task} roda fora da requisicao; monte-o com {@link #streamExportRows} ainda na
+     * thread da requisicao, que resolve filtro e escopo de acesso antes do submit.</p>
+     *
+     * @throws UnsupportedOperationException quando jobs de exportacao nao estao configurados
+     */
+    protected CollectionExportResult submitExportJob(
+            CollectionExportRequest<FilterDTO> request,
+            CollectionExportJobTask task
+    ) {
+        if (exportJobScheduler == null) {
+            throw new UnsupportedOperationException("Deferred collection export jobs are not configured");
+        }
+        return exportJobScheduler.submit(request.resourcePath(), request, task);
+    }
+
+    /**
+     * Executa a exportacao na requisicao ou como job, conforme o
+     * {@link CollectionExportAdmissionController}.
+     *
+     * <p>O custo e estimado por {@link #estimateExportRows} vezes {@code fieldCount}. Dentro do
+     * orcamento, {@code export} roda com {@code rows} e a reserva e liberada ao fim da escrita;
+     * fora dele, a mesma funcao roda em {@link #submitExportJob} com as linhas rastreadas pelo job.
+     * A decisao segue nos metadados do resultado e o controller a publica em headers
+     * {@code X-Export-*}. Sem controle de admissao configurado, {@code export} roda direto.</p>
+     *
+     * @param fieldCount campos efetivos da exportacao
+     * @param maxRows    limite efetivo do servidor, ou {@code null} para nao limitar
+     * @throws CollectionExportJobRejectedException quando fora do orcamento e sem jobs configurados
+     */
+    protected <R> CollectionExportResult admitExport(
+            CollectionExportRequest<FilterDTO> request,
+            int fieldCount,
+            Integer maxRows,
+            CollectionExportRowSource<R> rows,
+            Function<CollectionExportRowSource<R>, CollectionExportResult> export
+    ) {
+        if (exportAdmissionController == null) {
+            return export.apply(rows);
+        }
+        long estimatedRows = estimateExportRows(request.filters(), maxRows);
+        CollectionExportAdmission admission = exportAdmissionController.admit(request.format(), estimatedRows, fieldCount);
+        if (admission.admitted()) {
+            try {
+                return admission.track(export.apply(rows));
+            } catch (RuntimeException ex) {
+                admission.release();
+                throw ex;
             }
+        }
+        if (exportJobScheduler == null) {
+            throw new CollectionExportJobRejectedException(
+                    "Collection export exceeds the synchronous export budget (" + admission.reason() + ")."
+            );
+        }
+        return admission.track(submitExportJob(request, progress -> {
+            progress.expectRows(estimatedRows);
+            return export.apply(progress.track(rows));
+        }));
+    }
+
+    /**
+     * Linhas estimadas para o controle de admissao: {@code COUNT} com o mesmo filtro e escopo de
+     * acesso de {@code /filter}, limitado a {@code maxRows}. Recursos com tabelas grandes podem
+     * sobrescrever com a estimativa do planner do banco.
+     */
+    protected long estimateExportRows(FilterDTO filter, Integer maxRows) {
+        ResourceFilterQuery<E> filterQuery = resolveResourceFilterQuery(filter, PageRequest.of(0, 1, getDefaultSort()));
+        long count = repository.count(filterQuery.effectiveSpecification());
+        return maxRows != null && maxRows > 0 ? Math.min(count, maxRows) : count;
+    }
+
+    /**
+     * Fetch size do cursor de exportacao e de {@code GET /all} e intervalo de limpeza do contexto de
+     * persistencia.
+     */
+    protected int getExportFetchSize() {
+        return 500;
+    }
+
+    private void consumeExportRows(
+            ResourceFilterQuery<E> filterQuery,
+            Specification<E> range,
+            Integer maxRows,
+            CollectionExportRowSource.RowConsumer<ResponseDTO> consumer
+    ) throws IOException {
+        EntityManager entityManager = getEntityManager();
+        int fetchSize = Math.max(1, getExportFetchSize());
+        Specification<E> specification = rangeSpecification(filterQuery, range);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<E> query = cb.createQuery(getEntityClass());
+        Root<E> root = query.from(getEntityClass());
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(filterQuery.pageable().getSort(), root, cb));
+
+        TypedQuery<E> typedQuery = entityManager.createQuery(query)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .setHint(HINT_READ_ONLY, true);
+        if (maxRows != null && maxRows > 0) {
+            typedQuery.setMaxResults(maxRows);
+        }
+        long[] read = {0L};
+        try (Stream<E> entities = typedQuery.getResultStream()) {
+            consumer.accept(entities.map(entity -> {
+                ResponseDTO row = getResourceMapper().toResponse(entity);
+                if (++read[0] % fetchSize == 0) {
+                    entityManager.clear();
+                }
+                return row;
+            }));
+        }
+    }
+
+    /**
+     * Query das entidades restritas por {@code specification} (todas quando {@code null}) em
+     * {@code sort}.
+     */
+    private TypedQuery<E> allRowsQuery(Specification<E> specification, Sort sort) {
+        EntityManager entityManager = getEntityManager();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<E> query = cb.createQuery(getEntityClass());
+        Root<E> root = query.from(getEntityClass());
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query).setHint(HINT_READ_ONLY, true);
+    }
+
+    private Specification<E> rangeSpecification(ResourceFilterQuery<E> filterQuery, Specification<E> range) {
+        return range == null
+                ? filterQuery.effectiveSpecification()
+                : filterQuery.effectiveSpecification().and(range);
+    }
+
+    /**
+     * Origem sequencial em cursor unico ou, com paralelismo habilitado e ordenacao apenas pelo id,
+     * particionada em faixas de keyset lidas por {@code reader}.
+     */
+    private <R> CollectionExportRowSource<R> exportRowSource(
+            ResourceFilterQuery<E> filterQuery,
+            Integer maxRows,
+            ExportRangeReader<E, R> reader
+    ) {
+        CollectionExportRowSource<R> sequential = consumer -> inReadOnlyTransaction(() -> {
+            reader.read(null, maxRows, consumer);
+            return null;
         });
-        merged.addAll(remaining);
+        Sort.Order keysetOrder = keysetOrder(filterQuery.pageable().getSort());
+        if (exportParallelism == null || !exportParallelism.enabled() || keysetOrder == null) {
+            return sequential;
+        }
+        return new CollectionExportPartitionedRowSource<>(
+                sequential,
+                () -> keysetPartitions(filterQuery, keysetOrder, maxRows, exportParallelism.chunkRows(), reader),
+                exportParallelism
+        );
+    }
+
+    /**
+     * Ordem de keyset quando a ordenacao efetiva e somente pelo id; caso contrario {@code null}.
+     */
+    private Sort.Order keysetOrder(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() != 1 || !orders.get(0).getProperty().equals(getIdFieldName())) {
+            return null;
+        }
+        return orders.get(0);
+    }
+
+    /**
+     * Le apenas os ids filtrados, em ordem, e fecha uma faixa a cada {@code chunkRows} ids. O
+     * ultimo id lido limita a ultima faixa, preservando {@code maxRows}.
+     */
+    private <R> List<CollectionExportRowSource<R>> keysetPartitions(
+            ResourceFilterQuery<E> filterQuery,
+            Sort.Order order,
+            Integer maxRows,
+            int chunkRows,
+            ExportRangeReader<E, R> reader
+    ) throws IOException {
+        List<Object> upperBounds = inReadOnlyTransaction(() -> keysetUpperBounds(filterQuery, order, maxRows, chunkRows));
+        List<CollectionExportRowSource<R>> partitions = new ArrayList<>(upperBounds.size());
+        Object lower = null;
+        for (Object upper : upperBounds) {
+            Specification<E> range = keysetRange(order.isAscending(), lower, upper);
+            partitions.add(consumer -> inReadOnlyTransaction(() -> {
+                reader.read(range, null, consumer);
+                return null;
+            }));
+            lower = upper;
+        }
+        return partitions;
+    }
+
+    private List<Object> keysetUpperBounds(
+            ResourceFilterQuery<E> filterQuery,
+            Sort.Order order,
+            Integer maxRows,
+            int chunkRows
+    ) {
+        EntityManager entityManager = getEntityManager();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = cb.createQuery(Object.class);
+        Root<E> root = query.from(getEntityClass());
+        query.select(root.get(getIdFieldName()));
+        Predicate predicate = filterQuery.effectiveSpecification().toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(order.isAscending()
+                ? cb.asc(root.get(getIdFieldName()))
+                : cb.desc(root.get(getIdFieldName())));
+
+        TypedQuery<Object> typedQuery = entityManager.createQuery(query)
+                .setHint(HINT_FETCH_SIZE, Math.max(1, getExportFetchSize()))
+                .setHint(HINT_READ_ONLY, true);
+        if (maxRows != null && maxRows > 0) {
+            typedQuery.setMaxResults(maxRows);
+        }
+        List<Object> upperBounds = new ArrayList<>();
+        long read = 0;
+        Object last = null;
+        try (Stream<Object> ids = typedQuery.getResultStream()) {
+            Iterator<Object> iterator = ids.iterator();
+            while (iterator.hasNext()) {
+                last = iterator.next();
+                if (++read % chunkRows == 0) {
+                    upperBounds.add(last);
+                }
+            }
+        }
+        if (read % chunkRows != 0) {
+            upperBounds.add(last);
+        }
+        return upperBounds;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Specification<E> keysetRange(boolean ascending, Object lower, Object upper) {
+        String idField = getIdFieldName();
+        return (root, query, cb) -> {
+            Path<Comparable> id = root.get(idField);
+            Predicate bounded = ascending
+                    ? cb.lessThanOrEqualTo(id, (Comparable) upper)
+                    : cb.greaterThanOrEqualTo(id, (Comparable) upper);
+            if (lower == null) {
+                return bounded;
+            }
+            return cb.and(ascending
+                    ? cb.greaterThan(id, (Comparable) lower)
+                    : cb.lessThan(id, (Comparable) lower), bounded);
+        };
+    }
 
-        return new PageImpl<>(merged, pageable, page.getTotalElements());
+    /**
+     * Executa {@code work} em transacao somente leitura propria quando ha um
+     * {@link PlatformTransactionManager} unico; leituras de exportacao rodam fora da requisicao.
+     */
+    private <R> R inReadOnlyTransaction(ExportWork<R> work) throws IOException {
+        PlatformTransactionManager transactionManager = transactionManagerProvider == null
+                ? null
+                : transactionManagerProvider.getIfUnique();
+        if (transactionManager == null) {
+            return work.run();
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        try {
+            return transaction.execute(status -> {
+                try {
+                    return work.run();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ExportWork<R> {
+
+        R run() throws IOException;
+    }
+
+    /**
+     * Le as linhas de uma faixa de keyset ({@code null} para o resultado inteiro).
+     */
+    @FunctionalInterface
+    private interface ExportRangeReader<E, R> {
+
+        void read(Specification<E> range, Integer maxRows, CollectionExportRowSource.RowConsumer<R> consumer)
+                throws IOException;
     }
 
     private ResourceFilterQuery<E> resolveResourceFilterQuery(FilterDTO filter, Pageable pageable) {
@@ -793,8 +1850,11 @@ public abstract class AbstractBaseQueryResourceService<
         if (ids == null || ids.isEmpty()) {
             return List.of();
         }
-        Specification<E> requestedIds = (root, query, criteriaBuilder) -> root.get(getIdFieldName()).in(ids);
-        return repository.findAll(accessSpecification.and(requestedIds));
+        if (entityManager == null) {
+            Specification<E> requestedIds = (root, query, criteriaBuilder) -> root.get(getIdFieldName()).in(ids);
+            return repository.findAll(accessSpecification.and(requestedIds));
+        }
+        return entityIdLookup().find(accessSpecification, ids);
     }
 
     private record ResourceFilterQuery<E>(
@@ -860,46 +1920,6 @@ public abstract class AbstractBaseQueryResourceService<
                 .toList();
     }
 
-    private boolean hasOptionLabelAnnotation(java.lang.reflect.AnnotatedElement element) {
-        return Arrays.stream(element.getAnnotations())
-                .anyMatch(annotation -> "OptionLabel".equals(annotation.annotationType().getSimpleName()));
-    }
-
-    private Method findMethodIgnoreCase(Class<?> clazz, String methodName) {
-        for (Method method : getAllMethods(clazz)) {
-            if (method.getParameterCount() == 0 && method.getName().equalsIgnoreCase(methodName)) {
-                return method;
-            }
-        }
-        return null;
-    }
-
-    private Object invokeSilently(E entity, Method method) {
-        try {
-            method.setAccessible(true);
-            return method.invoke(entity);
-        } catch (ReflectiveOperationException ex) {
-            return null;
-        }
-    }
-
-    private Object getFieldValueSilently(E entity, Field field) {
-        try {
-            field.setAccessible(true);
-            return field.get(entity);
-        } catch (IllegalAccessException ex) {
-            return null;
-        }
-    }
-
-    private String toNonBlankString(Object value) {
-        if (value == null) {
-            return null;
-        }
-        String result = String.valueOf(value).trim();
-        return result.isEmpty() ? null : result;
-    }
-
     protected List<Field> getAllFields(Class<?> type) {
         List<Field> fields = new ArrayList<>();
         Class<?> current = type;
@@ -1,11 +1,14 @@
 package org.praxisplatform.uischema.service.base;
 
+import org.praxisplatform.uischema.dto.CollectionSlice;
+import org.praxisplatform.uischema.dto.CountMode;
 import org.praxisplatform.uischema.dto.CursorPage;
 import org.praxisplatform.uischema.dto.OptionDTO;
 import org.praxisplatform.uischema.capability.ResourceStructuralCapabilities;
 import org.praxisplatform.uischema.exporting.CollectionExportCapability;
 import org.praxisplatform.uischema.exporting.CollectionExportRequest;
 import org.praxisplatform.uischema.exporting.CollectionExportResult;
+import org.praxisplatform.uischema.exporting.CollectionExportRowSource;
 import org.praxisplatform.uischema.filter.dto.GenericFilterDTO;
 import org.praxisplatform.uischema.options.OptionSourceByIdsRequest;
 import org.praxisplatform.uischema.options.OptionSourceDescriptor;
@@ -92,10 +95,32 @@ public interface BaseResourceQueryService<ResponseDTO, ID, FilterDTO extends Gen
 
     List<ResponseDTO> findAll();
 
+    /**
+     * Ate {@code limit} itens de {@code findAll()} apos a continuacao {@code after} ({@code null} na
+     * primeira fatia), para {@code GET /all} em streaming. A implementacao padrao materializa
+     * {@link #findAll()} e usa o deslocamento em linhas como continuacao.
+     *
+     * @throws IllegalArgumentException quando a continuacao e invalida
+     */
+    default CollectionSlice<ResponseDTO> findAllSlice(String after, int limit) {
+        long offset = CollectionSlice.offset(after);
+        List<ResponseDTO> all = findAll();
+        List<ResponseDTO> slice = all.stream().skip(offset).limit(limit).toList();
+        String next = all.size() - offset > limit ? String.valueOf(offset + limit) : null;
+        return new CollectionSlice<>(CollectionExportRowSource.of(slice), next);
+    }
+
     List<ResponseDTO> findAllById(Collection<ID> ids);
 
     Page<ResponseDTO> filter(FilterDTO filter, Pageable pageable, Collection<ID> includeIds);
 
+    /**
+     * Filtra com a semantica de total pedida; {@code null} usa o padrao do recurso.
+     */
+    default Page<ResponseDTO> filter(FilterDTO filter, Pageable pageable, Collection<ID> includeIds, CountMode countMode) {
+        return filter(filter, pageable, includeIds);
+    }
+
     CursorPage<ResponseDTO> filterByCursor(FilterDTO filter, Sort sort, String after, String before, int size);
 
     OptionalLong locate(FilterDTO filter, Sort sort, ID id);
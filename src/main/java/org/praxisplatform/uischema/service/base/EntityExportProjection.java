@@ -0,0 +1,113 @@
+package org.praxisplatform.uischema.service.base;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.praxisplatform.uischema.exporting.CollectionExportRowSource;
+import org.praxisplatform.uischema.filter.specification.GenericSpecificationsBuilder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Tuple projection of the exported columns used by {@code streamExportProjection}.
+ *
+ * <p>Only the requested property paths are selected, each resolved through
+ * {@link GenericSpecificationsBuilder#resolveSelectionPath} so that columns on the same relation
+ * share a single LEFT join. Rows are streamed as {@code Object[]} in column order, so no entity is
+ * hydrated and no DTO is mapped per row.</p>
+ *
+ * @param <E> entity type
+ */
+final class EntityExportProjection<E> {
+
+    private static final String HINT_FETCH_SIZE = "org.hibernate.fetchSize";
+    private static final String HINT_READ_ONLY = "org.hibernate.readOnly";
+    private static final String ALIAS_PREFIX = "c";
+
+    private final EntityManager entityManager;
+    private final Class<E> entityClass;
+    private final List<String> propertyPaths;
+    private final GenericSpecificationsBuilder<E> specificationsBuilder;
+
+    EntityExportProjection(
+            EntityManager entityManager,
+            Class<E> entityClass,
+            List<String> propertyPaths,
+            GenericSpecificationsBuilder<E> specificationsBuilder
+    ) {
+        this.entityManager = entityManager;
+        this.entityClass = entityClass;
+        this.propertyPaths = List.copyOf(propertyPaths);
+        this.specificationsBuilder = specificationsBuilder;
+    }
+
+    /**
+     * Builds the selection once so unknown paths fail with {@link IllegalArgumentException} before
+     * any row is written.
+     */
+    void validate() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        select(query, query.from(entityClass));
+    }
+
+    /**
+     * Streams the projected rows with the given specification, sort and limit, clearing the
+     * persistence context every {@code fetchSize} rows.
+     */
+    void read(
+            Specification<E> specification,
+            Sort sort,
+            Integer maxRows,
+            int fetchSize,
+            CollectionExportRowSource.RowConsumer<Object[]> consumer
+    ) throws IOException {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityClass);
+        select(query, root);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort != null && sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .setHint(HINT_READ_ONLY, true);
+        if (maxRows != null && maxRows > 0) {
+            typedQuery.setMaxResults(maxRows);
+        }
+        long[] read = {0L};
+        try (Stream<Tuple> tuples = typedQuery.getResultStream()) {
+            consumer.accept(tuples.map(tuple -> {
+                if (++read[0] % fetchSize == 0) {
+                    entityManager.clear();
+                }
+                return tuple.toArray();
+            }));
+        }
+    }
+
+    private void select(CriteriaQuery<Tuple> query, Root<E> root) {
+        List<Selection<?>> selections = new ArrayList<>(propertyPaths.size());
+        for (int index = 0; index < propertyPaths.size(); index++) {
+            selections.add(specificationsBuilder.resolveSelectionPath(root, propertyPaths.get(index))
+                    .alias(ALIAS_PREFIX + index));
+        }
+        query.multiselect(selections);
+    }
+}
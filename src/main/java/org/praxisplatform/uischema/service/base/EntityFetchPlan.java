@@ -0,0 +1,318 @@
+package org.praxisplatform.uischema.service.base;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.Subgraph;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.praxisplatform.uischema.service.base.annotation.FetchPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Association fetch plan applied as a JPA load graph to the entity reads that feed
+ * {@code ResourceMapper.toResponse}.
+ *
+ * <p>Paths come from {@link FetchPlan} and, unless disabled, from the Response DTO: singular
+ * associations named like a DTO property, or used as a flattened prefix ({@code departamentoNome}),
+ * are fetched with the root row, recursing into nested DTOs. {@code <association>Id} properties are
+ * ignored because the identifier is read from the proxy. Collections are only fetched when
+ * declared and only on unpaged reads, so paging never falls back to memory.</p>
+ *
+ * <p>The entity types reached by the paths are exposed as {@link #associatedEntityTypes()} so the
+ * dataset version of a resource also moves when the associations its DTO reads are written.</p>
+ *
+ * <p>With detection enabled, associations initialized for more than one row outside the plan
+ * after mapping are logged once per attribute as probable N+1 patterns.</p>
+ *
+ * @param <E> entity type
+ */
+final class EntityFetchPlan<E> {
+
+    static final String HINT_LOAD_GRAPH = "jakarta.persistence.loadgraph";
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityFetchPlan.class);
+    private static final int MAX_DERIVED_DEPTH = 3;
+
+    private final Class<E> entityClass;
+    private final Set<String> pagedPaths;
+    private final Set<String> entityPaths;
+    private final Set<Class<?>> associatedEntityTypes;
+    private final Map<String, Member> unplannedAssociations;
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    private EntityFetchPlan(
+            Class<E> entityClass,
+            Set<String> pagedPaths,
+            Set<String> entityPaths,
+            Set<Class<?>> associatedEntityTypes,
+            Map<String, Member> unplannedAssociations
+    ) {
+        this.entityClass = entityClass;
+        this.pagedPaths = pagedPaths;
+        this.entityPaths = entityPaths;
+        this.associatedEntityTypes = associatedEntityTypes;
+        this.unplannedAssociations = unplannedAssociations;
+    }
+
+    static <E> EntityFetchPlan<E> empty(Class<E> entityClass) {
+        return new EntityFetchPlan<>(entityClass, Set.of(), Set.of(), Set.of(), Map.of());
+    }
+
+    /**
+     * Resolves the plan against the metamodel; declared paths that do not exist fail fast.
+     */
+    static <E> EntityFetchPlan<E> resolve(
+            Metamodel metamodel,
+            Class<E> entityClass,
+            Class<?> responseType,
+            FetchPlan declared
+    ) {
+        if (metamodel == null) {
+            return empty(entityClass);
+        }
+        ManagedType<E> root;
+        try {
+            root = metamodel.managedType(entityClass);
+        } catch (IllegalArgumentException ex) {
+            return empty(entityClass);
+        }
+        Set<String> paths = new LinkedHashSet<>();
+        if (declared != null) {
+            paths.addAll(Arrays.asList(declared.value()));
+        }
+        if (responseType != null && (declared == null || declared.deriveFromResponse())) {
+            derive(root, responseType, "", 0, paths);
+        }
+        Set<String> paged = new LinkedHashSet<>();
+        Set<Class<?>> associated = new LinkedHashSet<>();
+        for (String path : paths) {
+            if (walk(root, path, associated)) {
+                paged.add(path);
+            }
+        }
+        Set<String> plannedRoots = new LinkedHashSet<>();
+        paged.forEach(path -> plannedRoots.add(path.split("\\.")[0]));
+        Map<String, Member> unplanned = new LinkedHashMap<>();
+        for (Attribute<? super E, ?> attribute : root.getAttributes()) {
+            if (attribute.isAssociation() && !plannedRoots.contains(attribute.getName())) {
+                unplanned.put(attribute.getName(), attribute.getJavaMember());
+            }
+        }
+        return new EntityFetchPlan<>(
+                entityClass,
+                Collections.unmodifiableSet(paged),
+                Collections.unmodifiableSet(paths),
+                Collections.unmodifiableSet(associated),
+                Collections.unmodifiableMap(unplanned)
+        );
+    }
+
+    boolean isEmpty() {
+        return entityPaths.isEmpty();
+    }
+
+    /**
+     * Entity types reached by the plan paths, collection elements included, in path order.
+     */
+    Set<Class<?>> associatedEntityTypes() {
+        return associatedEntityTypes;
+    }
+
+    /**
+     * Applies the singular paths to a paged or streamed query.
+     */
+    <T> TypedQuery<T> applyPaged(EntityManager entityManager, TypedQuery<T> query) {
+        return pagedPaths.isEmpty() ? query : query.setHint(HINT_LOAD_GRAPH, graph(entityManager, pagedPaths));
+    }
+
+    /**
+     * Applies every path, including declared collections, to an unpaged query.
+     */
+    <T> TypedQuery<T> applyUnpaged(EntityManager entityManager, TypedQuery<T> query) {
+        return entityPaths.isEmpty() ? query : query.setHint(HINT_LOAD_GRAPH, graph(entityManager, entityPaths));
+    }
+
+    /**
+     * Hints for {@link EntityManager#find(Class, Object, Map)}.
+     */
+    Map<String, Object> findHints(EntityManager entityManager) {
+        return entityPaths.isEmpty() ? Map.of() : Map.of(HINT_LOAD_GRAPH, graph(entityManager, entityPaths));
+    }
+
+    /**
+     * Logs associations outside the plan that mapping initialized for more than one row.
+     */
+    void reportUnplannedLoads(EntityManager entityManager, Collection<E> rows) {
+        if (rows.size() < 2 || unplannedAssociations.isEmpty()) {
+            return;
+        }
+        PersistenceUnitUtil util = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        unplannedAssociations.forEach((name, member) -> {
+            if (reported.contains(name)) {
+                return;
+            }
+            Set<Object> initialized = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (E row : rows) {
+                Object value = read(member, row);
+                if (value != null && util.isLoaded(value)) {
+                    initialized.add(value);
+                }
+            }
+            if (initialized.size() > 1 && reported.add(name)) {
+                logger.warn(
+                        "Possible N+1: {}.{} was initialized for {} rows outside the fetch plan; declare it with @FetchPlan or enable batch fetching.",
+                        entityClass.getSimpleName(), name, initialized.size()
+                );
+            }
+        });
+    }
+
+    private EntityGraph<E> graph(EntityManager entityManager, Set<String> paths) {
+        Node tree = new Node();
+        for (String path : paths) {
+            Node current = tree;
+            for (String segment : path.split("\\.")) {
+                current = current.children.computeIfAbsent(segment, ignored -> new Node());
+            }
+        }
+        EntityGraph<E> graph = entityManager.createEntityGraph(entityClass);
+        tree.children.forEach((name, node) -> {
+            if (node.children.isEmpty()) {
+                graph.addAttributeNodes(name);
+            } else {
+                fill(graph.addSubgraph(name), node);
+            }
+        });
+        return graph;
+    }
+
+    private static void fill(Subgraph<?> subgraph, Node node) {
+        node.children.forEach((name, child) -> {
+            if (child.children.isEmpty()) {
+                subgraph.addAttributeNodes(name);
+            } else {
+                fill(subgraph.addSubgraph(name), child);
+            }
+        });
+    }
+
+    private static void derive(ManagedType<?> type, Class<?> dtoType, String prefix, int depth, Set<String> paths) {
+        if (depth >= MAX_DERIVED_DEPTH) {
+            return;
+        }
+        Map<String, SingularAttribute<?, ?>> associations = new LinkedHashMap<>();
+        for (SingularAttribute<?, ?> attribute : type.getSingularAttributes()) {
+            if (attribute.isAssociation()) {
+                associations.put(attribute.getName(), attribute);
+            }
+        }
+        if (associations.isEmpty()) {
+            return;
+        }
+        for (Class<?> current = dtoType; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                String name = field.getName();
+                SingularAttribute<?, ?> direct = associations.get(name);
+                if (direct != null) {
+                    paths.add(prefix + name);
+                    if (isNestedDto(field.getType()) && direct.getType() instanceof ManagedType<?> target) {
+                        derive(target, field.getType(), prefix + name + ".", depth + 1, paths);
+                    }
+                    continue;
+                }
+                for (String association : associations.keySet()) {
+                    if (name.length() > association.length()
+                            && name.startsWith(association)
+                            && Character.isUpperCase(name.charAt(association.length()))
+                            && !name.equals(association + "Id")) {
+                        paths.add(prefix + association);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Validates the path, collecting the entity types it reaches; {@code true} when it has no collection.
+     */
+    private static boolean walk(ManagedType<?> root, String path, Set<Class<?>> entityTypes) {
+        ManagedType<?> current = root;
+        boolean singular = true;
+        for (String segment : path.split("\\.")) {
+            if (current == null) {
+                throw new IllegalStateException("Fetch plan path does not resolve to an association: " + path);
+            }
+            Attribute<?, ?> attribute;
+            try {
+                attribute = current.getAttribute(segment);
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalStateException("Unknown fetch plan path: " + path, ex);
+            }
+            if (attribute instanceof PluralAttribute<?, ?, ?> plural) {
+                singular = false;
+                current = plural.getElementType() instanceof ManagedType<?> target ? target : null;
+            } else {
+                current = attribute instanceof SingularAttribute<?, ?> single && single.getType() instanceof ManagedType<?> target
+                        ? target
+                        : null;
+            }
+            if (current instanceof EntityType<?> entity) {
+                entityTypes.add(entity.getJavaType());
+            }
+        }
+        return singular;
+    }
+
+    private static boolean isNestedDto(Class<?> type) {
+        return !type.isPrimitive()
+                && !type.isEnum()
+                && !type.isArray()
+                && !type.getName().startsWith("java.")
+                && !Collection.class.isAssignableFrom(type)
+                && !Map.class.isAssignableFrom(type);
+    }
+
+    private static Object read(Member member, Object row) {
+        try {
+            if (member instanceof Field field) {
+                field.trySetAccessible();
+                return field.get(row);
+            }
+            if (member instanceof Method method) {
+                method.trySetAccessible();
+                return method.invoke(row);
+            }
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            // Members that cannot be read are left out of the detection.
+        }
+        return null;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new LinkedHashMap<>();
+    }
+}
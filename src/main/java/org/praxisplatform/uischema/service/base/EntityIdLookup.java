@@ -0,0 +1,105 @@
+package org.praxisplatform.uischema.service.base;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.praxisplatform.uischema.util.InListBatches;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loads entities by identifier for {@code /by-ids}, {@code /options/by-ids} and {@code includeIds}.
+ *
+ * <p>Identifiers already held by the second-level cache are resolved through
+ * {@link EntityManager#find(Class, Object)} without SQL. The remaining ones are queried in
+ * {@link InListBatches padded batches} that respect the dialect parameter limit, so every lookup
+ * size maps to a small set of reusable statements. Batches run sequentially on the caller's
+ * persistence context, keeping loaded entities managed for the mapping that follows.</p>
+ *
+ * <p>The cache is bypassed when a row scope specification is given or a Hibernate session filter
+ * is enabled, because only the database can decide whether a cached entity still satisfies them:
+ * {@code find} ignores filters, and the cache holds entities loaded by every tenant. It is also
+ * bypassed for other providers, whose session restrictions cannot be inspected. Loads use the
+ * {@link EntityFetchPlan} of the service. The result follows database order and omits unknown
+ * ids.</p>
+ *
+ * @param <E>  entity type
+ * @param <ID> identifier type
+ */
+final class EntityIdLookup<E, ID> {
+
+    private final EntityManager entityManager;
+    private final Class<E> entityClass;
+    private final String idAttribute;
+    private final int maxParameters;
+    private final EntityFetchPlan<E> fetchPlan;
+
+    EntityIdLookup(
+            EntityManager entityManager,
+            Class<E> entityClass,
+            String idAttribute,
+            int maxParameters,
+            EntityFetchPlan<E> fetchPlan
+    ) {
+        this.entityManager = entityManager;
+        this.entityClass = entityClass;
+        this.idAttribute = idAttribute;
+        this.maxParameters = maxParameters;
+        this.fetchPlan = fetchPlan;
+    }
+
+    List<E> find(Specification<E> specification, Collection<ID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<E> found = new ArrayList<>(ids.size());
+        Set<ID> pending = new LinkedHashSet<>(ids);
+        pending.remove(null);
+        if (specification == null && !sessionRestricted()) {
+            Cache cache = entityManager.getEntityManagerFactory().getCache();
+            pending.removeIf(id -> {
+                if (cache == null || !cache.contains(entityClass, id)) {
+                    return false;
+                }
+                E cached = entityManager.find(entityClass, id, fetchPlan.findHints(entityManager));
+                if (cached != null) {
+                    found.add(cached);
+                }
+                return true;
+            });
+        }
+        for (List<ID> batch : InListBatches.partition(pending, maxParameters)) {
+            found.addAll(query(specification, batch));
+        }
+        return found;
+    }
+
+    private boolean sessionRestricted() {
+        SharedSessionContractImplementor session;
+        try {
+            session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        } catch (RuntimeException ex) {
+            return true;
+        }
+        return session == null || session.getLoadQueryInfluencers().hasEnabledFilters();
+    }
+
+    private List<E> query(Specification<E> specification, List<ID> batch) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<E> query = cb.createQuery(entityClass);
+        Root<E> root = query.from(entityClass);
+        Predicate idPredicate = root.get(idAttribute).in(batch);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        query.select(root).where(predicate == null ? idPredicate : cb.and(predicate, idPredicate));
+        return fetchPlan.applyUnpaged(entityManager, entityManager.createQuery(query)).getResultList();
+    }
+}
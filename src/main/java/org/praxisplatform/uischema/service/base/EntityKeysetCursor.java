@@ -0,0 +1,506 @@
+package org.praxisplatform.uischema.service.base;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.dialect.NullOrdering;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.criteria.JpaOrder;
+import org.praxisplatform.uischema.dto.CursorPage;
+import org.praxisplatform.uischema.filter.specification.GenericSpecificationsBuilder;
+import org.praxisplatform.uischema.util.CursorEncoder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Keyset (seek) pagination used by the default {@code filterEntitiesByCursor}.
+ *
+ * <p>The requested sort is completed with the id as tiebreaker, so every row has a unique
+ * position. Each page selects the entity together with its sort key values; the cursor carries
+ * the key values of the boundary row ({@code next}: last row, {@code prev}: first row) and the
+ * following page is read with {@code (k1, ..., kn) > (v1, ..., vn)} expanded into
+ * {@code k1 > v1 OR (k1 = v1 AND k2 > v2) ...}, which a composite index on the sort columns
+ * answers without scanning the skipped rows. {@code before} reverses the order, reads backwards
+ * and restores the requested order in memory.</p>
+ *
+ * <p>The same seek predicate counts the rows before a target row for {@code locate} and
+ * continues the streamed {@code GET /all} scan through {@link #next} and {@link #after}.</p>
+ *
+ * <p>The seek predicate must agree with where the database places {@code NULL}. On Hibernate
+ * every key is ordered with an explicit {@code NULLS FIRST}/{@code NULLS LAST} derived from
+ * {@code nullsHigh}; Hibernate omits the clause when it matches the dialect default, so the order
+ * still uses the index there. {@link #nullsSortedHigh(EntityManager)} derives the default from the
+ * dialect.</p>
+ *
+ * <p>Values are encoded as strings and decoded with the Java type of their path, so the bound
+ * parameters keep the attribute type. The token also holds a fingerprint of the entity and sort;
+ * a cursor issued for another sort is rejected with {@link IllegalArgumentException}.</p>
+ *
+ * @param <E> entity type
+ */
+final class EntityKeysetCursor<E> {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String ENTITY_ALIAS = "e";
+    private static final String KEY_ALIAS_PREFIX = "k";
+    private static final List<Class<?>> SUPPORTED_TYPES = List.of(
+            String.class, Long.class, long.class, Integer.class, int.class, Short.class, short.class,
+            Byte.class, byte.class, Double.class, double.class, Float.class, float.class,
+            BigDecimal.class, BigInteger.class, Boolean.class, boolean.class, Character.class, char.class,
+            UUID.class, LocalDate.class, LocalDateTime.class, LocalTime.class, Instant.class,
+            OffsetDateTime.class, ZonedDateTime.class, java.sql.Date.class, java.sql.Time.class,
+            java.sql.Timestamp.class, java.util.Date.class
+    );
+
+    private final EntityManager entityManager;
+    private final Class<E> entityClass;
+    private final GenericSpecificationsBuilder<E> specificationsBuilder;
+    private final CursorEncoder encoder;
+    private final boolean nullsHigh;
+
+    /**
+     * @param nullsHigh whether {@code NULL} is placed above every value, i.e. last when ascending
+     *                  and first when descending
+     */
+    EntityKeysetCursor(
+            EntityManager entityManager,
+            Class<E> entityClass,
+            GenericSpecificationsBuilder<E> specificationsBuilder,
+            CursorEncoder encoder,
+            boolean nullsHigh
+    ) {
+        this.entityManager = entityManager;
+        this.entityClass = entityClass;
+        this.specificationsBuilder = specificationsBuilder;
+        this.encoder = encoder;
+        this.nullsHigh = nullsHigh;
+    }
+
+    /**
+     * Reads one page after or before the given cursor.
+     *
+     * @param specification filter and access scope
+     * @param sort          effective sort, with entity property paths
+     * @param idField       id attribute appended as tiebreaker when absent from the sort
+     * @throws IllegalArgumentException when both cursors are given, the size is not positive or a
+     *                                  cursor is invalid for this sort
+     */
+    CursorPage<E> page(Specification<E> specification, Sort sort, String idField, String after, String before, int size) {
+        if (after != null && before != null) {
+            throw new IllegalArgumentException("Use either 'after' or 'before', not both.");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Cursor page size must be positive.");
+        }
+        List<Sort.Order> orders = keyOrders(sort, idField);
+        String fingerprint = fingerprint(orders);
+        boolean backward = before != null;
+        String cursor = backward ? before : after;
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityClass);
+        List<Path<?>> keys = keys(root, orders);
+        List<Selection<?>> selections = new ArrayList<>(orders.size() + 1);
+        selections.add(root.alias(ENTITY_ALIAS));
+        selections.addAll(keySelections(keys));
+        query.multiselect(selections);
+
+        restrict(cb, query, root, specification, keys, orders, fingerprint, cursor, backward);
+        query.orderBy(orderBy(cb, keys, orders, backward));
+
+        List<Tuple> rows = new ArrayList<>(entityManager.createQuery(query).setMaxResults(size + 1).getResultList());
+        boolean more = rows.size() > size;
+        if (more) {
+            rows = rows.subList(0, size);
+        }
+        if (backward) {
+            Collections.reverse(rows);
+        }
+        List<E> content = rows.stream().map(row -> entityClass.cast(row.get(ENTITY_ALIAS))).toList();
+        if (rows.isEmpty()) {
+            return new CursorPage<>(content, null, null, size);
+        }
+        boolean hasNext = backward || more;
+        boolean hasPrev = backward ? more : cursor != null;
+        return new CursorPage<>(
+                content,
+                hasNext ? encode(fingerprint, rows.get(rows.size() - 1), orders.size()) : null,
+                hasPrev ? encode(fingerprint, rows.get(0), orders.size()) : null,
+                size
+        );
+    }
+
+    /**
+     * Zero-based position of the row with the given id: the sort values of the target are read
+     * first and the rows strictly before them are counted with the same seek predicate used for
+     * {@code before}, so an index on the sort columns answers both queries.
+     *
+     * @return empty when the id is not matched by the specification
+     */
+    OptionalLong position(Specification<E> specification, Sort sort, String idField, Object id) {
+        List<Sort.Order> orders = keyOrders(sort, idField);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> target = cb.createTupleQuery();
+        Root<E> targetRoot = target.from(entityClass);
+        List<Path<?>> targetKeys = keys(targetRoot, orders);
+        target.multiselect(keySelections(targetKeys));
+        target.where(where(cb, specification, targetRoot, target, cb.equal(targetRoot.get(idField), id)));
+        List<Tuple> matches = entityManager.createQuery(target).setMaxResults(1).getResultList();
+        if (matches.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        List<Object> values = new ArrayList<>(orders.size());
+        for (int index = 0; index < orders.size(); index++) {
+            values.add(matches.get(0).get(KEY_ALIAS_PREFIX + index));
+        }
+
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        Root<E> root = count.from(entityClass);
+        List<Path<?>> keys = keys(root, orders);
+        count.select(cb.count(root));
+        count.where(where(cb, specification, root, count, seek(cb, keys, orders, values, true)));
+        return OptionalLong.of(entityManager.createQuery(count).getSingleResult());
+    }
+
+    /**
+     * Cursor past the first {@code limit} rows after {@code after}, for a forward scan that reads
+     * those rows through {@link #after(Sort, String, String)} ordered by
+     * {@link #keySort(Sort, String)}. Only the key values of the last row of the scan and of the
+     * row following it are selected, so the cost follows {@code limit} and not how deep the cursor
+     * is; an invalid cursor fails here, before any row is streamed.
+     *
+     * @return {@code null} when no row follows the scan
+     * @throws IllegalArgumentException when the cursor is invalid for this sort
+     */
+    String next(Specification<E> specification, Sort sort, String idField, String after, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Cursor page size must be positive.");
+        }
+        List<Sort.Order> orders = keyOrders(sort, idField);
+        String fingerprint = fingerprint(orders);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityClass);
+        List<Path<?>> keys = keys(root, orders);
+        query.multiselect(keySelections(keys));
+        restrict(cb, query, root, specification, keys, orders, fingerprint, after, false);
+        query.orderBy(orderBy(cb, keys, orders, false));
+        List<Tuple> boundary = entityManager.createQuery(query)
+                .setFirstResult(limit - 1)
+                .setMaxResults(2)
+                .getResultList();
+        return boundary.size() < 2 ? null : encode(fingerprint, boundary.get(0), orders.size());
+    }
+
+    /**
+     * Rows after {@code after} in the order of {@link #keySort(Sort, String)}; {@code null} when
+     * there is no cursor. The cursor is decoded when the predicate is built.
+     */
+    Specification<E> after(Sort sort, String idField, String after) {
+        if (after == null) {
+            return null;
+        }
+        List<Sort.Order> orders = keyOrders(sort, idField);
+        String fingerprint = fingerprint(orders);
+        return (root, query, cb) -> {
+            List<Path<?>> keys = keys(root, orders);
+            return seek(cb, keys, orders, decode(after, fingerprint, keys), false);
+        };
+    }
+
+    /**
+     * Whether every key of the sort, completed with the id, has a type the cursor can encode.
+     */
+    boolean supports(Sort sort, String idField) {
+        Root<E> root = entityManager.getCriteriaBuilder().createTupleQuery().from(entityClass);
+        for (Sort.Order order : keyOrders(sort, idField)) {
+            if (!isSupported(specificationsBuilder.resolveSelectionPath(root, order.getProperty()).getJavaType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The sort completed with the id as tiebreaker, as scanned by the cursor.
+     */
+    static Sort keySort(Sort sort, String idField) {
+        return Sort.by(keyOrders(sort, idField));
+    }
+
+    /**
+     * Whether the Hibernate dialect behind the entity manager places {@code NULL} above every value
+     * when ascending; {@code true} when the provider is not Hibernate.
+     */
+    static boolean nullsSortedHigh(EntityManager entityManager) {
+        SessionFactoryImplementor sessionFactory;
+        try {
+            sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        } catch (RuntimeException ex) {
+            return true;
+        }
+        NullOrdering ordering = sessionFactory.getJdbcServices().getDialect().getNullOrdering();
+        return ordering == NullOrdering.GREATEST || ordering == NullOrdering.LAST;
+    }
+
+    private List<Path<?>> keys(Root<E> root, List<Sort.Order> orders) {
+        List<Path<?>> keys = new ArrayList<>(orders.size());
+        for (Sort.Order order : orders) {
+            Path<?> key = specificationsBuilder.resolveSelectionPath(root, order.getProperty());
+            requireSupported(key.getJavaType(), order.getProperty());
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private static List<Selection<?>> keySelections(List<Path<?>> keys) {
+        List<Selection<?>> selections = new ArrayList<>(keys.size());
+        for (int index = 0; index < keys.size(); index++) {
+            selections.add(keys.get(index).alias(KEY_ALIAS_PREFIX + index));
+        }
+        return selections;
+    }
+
+    /**
+     * Applies the specification and, with a cursor, the seek past its boundary row.
+     */
+    private void restrict(
+            CriteriaBuilder cb,
+            CriteriaQuery<Tuple> query,
+            Root<E> root,
+            Specification<E> specification,
+            List<Path<?>> keys,
+            List<Sort.Order> orders,
+            String fingerprint,
+            String cursor,
+            boolean backward
+    ) {
+        List<Predicate> predicates = new ArrayList<>(2);
+        Predicate filter = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (filter != null) {
+            predicates.add(filter);
+        }
+        if (cursor != null) {
+            predicates.add(seek(cb, keys, orders, decode(cursor, fingerprint, keys), backward));
+        }
+        if (!predicates.isEmpty()) {
+            query.where(predicates.toArray(Predicate[]::new));
+        }
+    }
+
+    private List<Order> orderBy(CriteriaBuilder cb, List<Path<?>> keys, List<Sort.Order> orders, boolean backward) {
+        List<Order> orderBy = new ArrayList<>(orders.size());
+        for (int index = 0; index < orders.size(); index++) {
+            boolean ascending = orders.get(index).isAscending() != backward;
+            Order order = ascending ? cb.asc(keys.get(index)) : cb.desc(keys.get(index));
+            if (order instanceof JpaOrder jpaOrder) {
+                jpaOrder.nullPrecedence(ascending == nullsHigh ? NullPrecedence.LAST : NullPrecedence.FIRST);
+            }
+            orderBy.add(order);
+        }
+        return orderBy;
+    }
+
+    private static <E> Predicate[] where(
+            CriteriaBuilder cb,
+            Specification<E> specification,
+            Root<E> root,
+            CriteriaQuery<?> query,
+            Predicate restriction
+    ) {
+        Predicate filter = specification == null ? null : specification.toPredicate(root, query, cb);
+        return filter == null ? new Predicate[]{restriction} : new Predicate[]{filter, restriction};
+    }
+
+    private static List<Sort.Order> keyOrders(Sort sort, String idField) {
+        List<Sort.Order> orders = new ArrayList<>(sort == null ? List.of() : sort.toList());
+        if (orders.stream().noneMatch(order -> order.getProperty().equals(idField))) {
+            orders.add(Sort.Order.asc(idField));
+        }
+        return orders;
+    }
+
+    private String fingerprint(List<Sort.Order> orders) {
+        StringBuilder value = new StringBuilder(entityClass.getName());
+        for (Sort.Order order : orders) {
+            value.append(',').append(order.getProperty()).append(':').append(order.getDirection());
+        }
+        return Integer.toHexString(value.toString().hashCode());
+    }
+
+    /**
+     * Rows strictly after the boundary in scan order: for each key, the previous keys are equal
+     * and this key is past the boundary value.
+     */
+    private Predicate seek(
+            CriteriaBuilder cb,
+            List<Path<?>> keys,
+            List<Sort.Order> orders,
+            List<Object> boundary,
+            boolean backward
+    ) {
+        List<Predicate> alternatives = new ArrayList<>(keys.size());
+        List<Predicate> equalPrefix = new ArrayList<>(keys.size());
+        for (int index = 0; index < keys.size(); index++) {
+            Path<?> key = keys.get(index);
+            Object value = boundary.get(index);
+            Predicate past = past(cb, key, value, orders.get(index).isAscending() != backward);
+            if (past != null) {
+                List<Predicate> conjunction = new ArrayList<>(equalPrefix);
+                conjunction.add(past);
+                alternatives.add(cb.and(conjunction.toArray(Predicate[]::new)));
+            }
+            equalPrefix.add(value == null ? cb.isNull(key) : cb.equal(key, value));
+        }
+        return alternatives.isEmpty() ? cb.disjunction() : cb.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    /**
+     * Values past {@code value} when scanning ascending or descending, honoring where the database
+     * places {@code NULL}; {@code null} when no value can follow.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate past(CriteriaBuilder cb, Path<?> key, Object value, boolean ascending) {
+        boolean nullsAfter = ascending == nullsHigh;
+        if (value == null) {
+            return nullsAfter ? null : cb.isNotNull(key);
+        }
+        Expression<Comparable> comparable = (Expression<Comparable>) key;
+        Predicate strict = ascending
+                ? cb.greaterThan(comparable, (Comparable) value)
+                : cb.lessThan(comparable, (Comparable) value);
+        return nullsAfter ? cb.or(strict, cb.isNull(key)) : strict;
+    }
+
+    private String encode(String fingerprint, Tuple row, int keyCount) {
+        List<String> payload = new ArrayList<>(keyCount + 1);
+        payload.add(fingerprint);
+        for (int index = 0; index < keyCount; index++) {
+            payload.add(encodeValue(row.get(KEY_ALIAS_PREFIX + index)));
+        }
+        try {
+            return encoder.encode(JSON.writeValueAsString(payload));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not encode cursor.", ex);
+        }
+    }
+
+    private List<Object> decode(String cursor, String fingerprint, List<Path<?>> keys) {
+        String[] payload;
+        try {
+            payload = JSON.readValue(encoder.decode(cursor), String[].class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Invalid cursor.", ex);
+        }
+        if (payload.length != keys.size() + 1 || !fingerprint.equals(payload[0])) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort.");
+        }
+        List<Object> values = new ArrayList<>(keys.size());
+        for (int index = 0; index < keys.size(); index++) {
+            values.add(decodeValue(payload[index + 1], keys.get(index).getJavaType()));
+        }
+        return values;
+    }
+
+    static String encodeValue(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        if (value instanceof java.sql.Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof java.util.Date date && !(value instanceof java.sql.Date) && !(value instanceof java.sql.Time)) {
+            return Long.toString(date.getTime());
+        }
+        return value.toString();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object decodeValue(String raw, Class<?> type) {
+        if (raw == null) {
+            return null;
+        }
+        try {
+            if (type == String.class) return raw;
+            if (type == Long.class || type == long.class) return Long.valueOf(raw);
+            if (type == Integer.class || type == int.class) return Integer.valueOf(raw);
+            if (type == Short.class || type == short.class) return Short.valueOf(raw);
+            if (type == Byte.class || type == byte.class) return Byte.valueOf(raw);
+            if (type == Double.class || type == double.class) return Double.valueOf(raw);
+            if (type == Float.class || type == float.class) return Float.valueOf(raw);
+            if (type == BigDecimal.class) return new BigDecimal(raw);
+            if (type == BigInteger.class) return new BigInteger(raw);
+            if (type == Boolean.class || type == boolean.class) return parseBoolean(raw);
+            if (type == Character.class || type == char.class) return parseCharacter(raw);
+            if (type == UUID.class) return UUID.fromString(raw);
+            if (type == LocalDate.class) return LocalDate.parse(raw);
+            if (type == LocalDateTime.class) return LocalDateTime.parse(raw);
+            if (type == LocalTime.class) return LocalTime.parse(raw);
+            if (type == Instant.class) return Instant.parse(raw);
+            if (type == OffsetDateTime.class) return OffsetDateTime.parse(raw);
+            if (type == ZonedDateTime.class) return ZonedDateTime.parse(raw);
+            if (type == java.sql.Date.class) return java.sql.Date.valueOf(raw);
+            if (type == java.sql.Time.class) return java.sql.Time.valueOf(raw);
+            if (type == java.sql.Timestamp.class) return java.sql.Timestamp.valueOf(LocalDateTime.parse(raw));
+            if (type == java.util.Date.class) return new java.util.Date(Long.parseLong(raw));
+            if (type != null && type.isEnum()) return Enum.valueOf((Class<? extends Enum>) type, raw);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor.", ex);
+        }
+        throw new IllegalArgumentException("Unsupported cursor key type: " + type);
+    }
+
+    static boolean isSupported(Class<?> type) {
+        return type != null && (type.isEnum() || SUPPORTED_TYPES.contains(type));
+    }
+
+    private static void requireSupported(Class<?> type, String property) {
+        if (!isSupported(type)) {
+            throw new IllegalArgumentException("Cursor pagination does not support sorting by '" + property + "'.");
+        }
+    }
+
+    private static Boolean parseBoolean(String raw) {
+        if (!"true".equals(raw) && !"false".equals(raw)) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+        return Boolean.valueOf(raw);
+    }
+
+    private static Character parseCharacter(String raw) {
+        if (raw.length() != 1) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+        return raw.charAt(0);
+    }
+}
@@ -0,0 +1,152 @@
+package org.praxisplatform.uischema.service.base;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.praxisplatform.uischema.dto.OptionDTO;
+import org.praxisplatform.uischema.util.InListBatches;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Tuple projection of {@code (id, label)} used by the resource {@code /options/*} endpoints.
+ *
+ * <p>Mirrors what {@code JpaOptionSourceQueryExecutor} does for declared option sources: only the
+ * identifier and label columns are selected, so eager associations and dirty-checking snapshots are
+ * never materialized just to build an {@link OptionDTO}. Labels are trimmed; blank labels are
+ * returned as {@code null} so the caller can apply its entity-based fallback.</p>
+ *
+ * @param <E>  entity type
+ * @param <ID> identifier type
+ */
+final class EntityOptionProjection<E, ID> {
+
+    private static final String VALUE_ALIAS = "optionValue";
+    private static final String LABEL_ALIAS = "optionLabel";
+
+    private final EntityManager entityManager;
+    private final Class<E> entityClass;
+    private final String idAttribute;
+    private final String labelPropertyPath;
+    private final int maxParameters;
+
+    EntityOptionProjection(
+            EntityManager entityManager,
+            Class<E> entityClass,
+            String idAttribute,
+            String labelPropertyPath,
+            int maxParameters
+    ) {
+        this.entityManager = entityManager;
+        this.entityClass = entityClass;
+        this.idAttribute = idAttribute;
+        this.labelPropertyPath = labelPropertyPath;
+        this.maxParameters = maxParameters;
+    }
+
+    /**
+     * Pages the projection with the same specification, sort and count semantics used by
+     * {@code repository.findAll(spec, pageable)}.
+     */
+    Page<OptionDTO<ID>> page(Specification<E> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityClass);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        select(query, root);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<OptionDTO<ID>> content = typedQuery.getResultList().stream().map(this::toOption).toList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    /**
+     * Projects the requested identifiers in {@link InListBatches padded batches}; the result follows
+     * database order and omits unknown ids.
+     */
+    List<OptionDTO<ID>> byIds(Specification<E> specification, Collection<ID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<OptionDTO<ID>> options = new ArrayList<>(ids.size());
+        for (List<ID> batch : InListBatches.partition(ids, maxParameters)) {
+            options.addAll(byIdsBatch(specification, batch));
+        }
+        return options;
+    }
+
+    private List<OptionDTO<ID>> byIdsBatch(Specification<E> specification, List<ID> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityClass);
+        Predicate idPredicate = root.get(idAttribute).in(ids);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        query.where(predicate == null ? idPredicate : cb.and(predicate, idPredicate));
+        select(query, root);
+        return entityManager.createQuery(query).getResultList().stream().map(this::toOption).toList();
+    }
+
+    private long count(Specification<E> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<E> root = query.from(entityClass);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private void select(CriteriaQuery<Tuple> query, Root<E> root) {
+        Path<?> idPath = root.get(idAttribute);
+        Path<?> labelPath = resolvePath(root, labelPropertyPath);
+        query.multiselect(idPath.alias(VALUE_ALIAS), labelPath.alias(LABEL_ALIAS));
+    }
+
+    @SuppressWarnings("unchecked")
+    private OptionDTO<ID> toOption(Tuple tuple) {
+        Object label = tuple.get(LABEL_ALIAS);
+        String text = label == null ? null : String.valueOf(label).trim();
+        return new OptionDTO<>((ID) tuple.get(VALUE_ALIAS), text == null || text.isEmpty() ? null : text, null);
+    }
+
+    private Path<?> resolvePath(Root<E> root, String propertyPath) {
+        String[] parts = propertyPath.split("\\.");
+        Path<?> path = root;
+        for (int i = 0; i < parts.length; i++) {
+            if (i == parts.length - 1) {
+                path = path.get(parts[i]);
+            } else if (path instanceof From<?, ?> from) {
+                path = from.join(parts[i], JoinType.LEFT);
+            } else {
+                throw new IllegalArgumentException("Unable to resolve option label property path: " + propertyPath);
+            }
+        }
+        return path;
+    }
+}
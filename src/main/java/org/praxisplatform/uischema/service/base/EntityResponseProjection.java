@@ -0,0 +1,220 @@
+package org.praxisplatform.uischema.service.base;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tuple projection of exactly the Response DTO fields, read without hydrating managed entities.
+ *
+ * <p>Each DTO field must resolve against the metamodel to a basic attribute of the entity, either
+ * by name ({@code nome}) or flattened through singular associations ({@code departamentoNome} as
+ * {@code departamento.nome}, joined with {@code LEFT JOIN}), with a value type assignable to the
+ * field. When any field does not resolve, for example nested DTOs, collections or derived values,
+ * {@link #resolve} returns {@code null} and the caller keeps the entity and mapper path. DTOs are
+ * built through the record canonical constructor or a no-arg constructor plus field assignment.</p>
+ *
+ * @param <E> entity type
+ * @param <R> response type
+ */
+final class EntityResponseProjection<E, R> {
+
+    private static final int MAX_FLATTENED_DEPTH = 3;
+
+    private final Class<E> entityClass;
+    private final Class<R> responseType;
+    private final Map<String, String[]> fieldPaths;
+    private final Constructor<R> constructor;
+    private final List<Field> fields;
+
+    private EntityResponseProjection(
+            Class<E> entityClass,
+            Class<R> responseType,
+            Map<String, String[]> fieldPaths,
+            Constructor<R> constructor,
+            List<Field> fields
+    ) {
+        this.entityClass = entityClass;
+        this.responseType = responseType;
+        this.fieldPaths = fieldPaths;
+        this.constructor = constructor;
+        this.fields = fields;
+    }
+
+    /**
+     * Resolves the projection, or {@code null} when some DTO field has no basic attribute path.
+     */
+    static <E, R> EntityResponseProjection<E, R> resolve(Metamodel metamodel, Class<E> entityClass, Class<R> responseType) {
+        if (metamodel == null || responseType == null) {
+            return null;
+        }
+        ManagedType<E> root;
+        try {
+            root = metamodel.managedType(entityClass);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = responseType; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+        }
+        Map<String, String[]> paths = new LinkedHashMap<>();
+        for (Field field : fields) {
+            String[] path = resolvePath(root, field.getName(), field.getType(), 0);
+            if (path == null) {
+                return null;
+            }
+            paths.put(field.getName(), path);
+        }
+        if (paths.isEmpty()) {
+            return null;
+        }
+        Constructor<R> constructor;
+        try {
+            constructor = responseType.isRecord()
+                    ? responseType.getDeclaredConstructor(recordTypes(responseType))
+                    : responseType.getDeclaredConstructor();
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+        if (!constructor.trySetAccessible() || !fields.stream().allMatch(field -> responseType.isRecord() || field.trySetAccessible())) {
+            return null;
+        }
+        return new EntityResponseProjection<>(entityClass, responseType, paths, constructor, List.copyOf(fields));
+    }
+
+    /**
+     * Tuple query over the specification and sort; paging and fetch size are left to the caller.
+     */
+    TypedQuery<Tuple> query(EntityManager entityManager, Specification<E> specification, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityClass);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>(fieldPaths.size());
+        fieldPaths.forEach((alias, path) -> selections.add(path(root, path, joins).alias(alias)));
+        query.multiselect(selections);
+        if (sort != null && sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    R toResponse(Tuple tuple) {
+        try {
+            if (responseType.isRecord()) {
+                RecordComponent[] components = responseType.getRecordComponents();
+                Object[] arguments = new Object[components.length];
+                for (int index = 0; index < components.length; index++) {
+                    arguments[index] = value(tuple, components[index].getName(), components[index].getType());
+                }
+                return constructor.newInstance(arguments);
+            }
+            R response = constructor.newInstance();
+            for (Field field : fields) {
+                field.set(response, value(tuple, field.getName(), field.getType()));
+            }
+            return response;
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException("Unable to build " + responseType.getName() + " from projection", ex);
+        }
+    }
+
+    private static Object value(Tuple tuple, String alias, Class<?> type) {
+        Object value = tuple.get(alias);
+        return value == null && type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : value;
+    }
+
+    private static String[] resolvePath(ManagedType<?> type, String name, Class<?> fieldType, int depth) {
+        Attribute<?, ?> direct = type.getAttributes().stream()
+                .filter(attribute -> attribute.getName().equals(name))
+                .findFirst()
+                .orElse(null);
+        if (direct != null) {
+            return direct instanceof SingularAttribute<?, ?>
+                    && !direct.isAssociation()
+                    && ClassUtils.isAssignable(fieldType, direct.getJavaType())
+                    ? new String[]{name}
+                    : null;
+        }
+        if (depth >= MAX_FLATTENED_DEPTH) {
+            return null;
+        }
+        for (Attribute<?, ?> attribute : type.getAttributes()) {
+            String attributeName = attribute.getName();
+            if (attribute instanceof SingularAttribute<?, ?> singular
+                    && attribute.isAssociation()
+                    && name.length() > attributeName.length()
+                    && name.startsWith(attributeName)
+                    && Character.isUpperCase(name.charAt(attributeName.length()))
+                    && singular.getType() instanceof ManagedType<?> target) {
+                String remainder = Character.toLowerCase(name.charAt(attributeName.length())) + name.substring(attributeName.length() + 1);
+                String[] nested = resolvePath(target, remainder, fieldType, depth + 1);
+                if (nested != null) {
+                    String[] path = new String[nested.length + 1];
+                    path[0] = attributeName;
+                    System.arraycopy(nested, 0, path, 1, nested.length);
+                    return path;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Path<?> path(Root<?> root, String[] segments, Map<String, From<?, ?>> joins) {
+        From<?, ?> from = root;
+        StringBuilder key = new StringBuilder();
+        for (int index = 0; index < segments.length - 1; index++) {
+            key.append(segments[index]).append('.');
+            From<?, ?> parent = from;
+            String segment = segments[index];
+            from = joins.computeIfAbsent(key.toString(), ignored -> parent.join(segment, JoinType.LEFT));
+        }
+        return from.get(segments[segments.length - 1]);
+    }
+
+    private static Class<?>[] recordTypes(Class<?> recordType) {
+        RecordComponent[] components = recordType.getRecordComponents();
+        Class<?>[] types = new Class<?>[components.length];
+        for (int index = 0; index < components.length; index++) {
+            types[index] = components[index].getType();
+        }
+        return types;
+    }
+}
@@ -0,0 +1,208 @@
+package org.praxisplatform.uischema.service.base;
+
+import jakarta.persistence.Transient;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Compiled label accessor chain used by {@link AbstractBaseQueryResourceService#computeOptionLabel(Object)}.
+ *
+ * <p>The chain follows the documented precedence of {@code @OptionLabel}: annotated getters, then
+ * annotated fields, then the heuristic getters {@code getLabel}, {@code getNomeCompleto},
+ * {@code getNome}, {@code getDescricao} and {@code getTitle}. Members are discovered once per
+ * runtime class and kept as {@link MethodHandle}s, so projecting a page of options no longer walks
+ * the class hierarchy for every row.</p>
+ *
+ * <p>When the chain is backed by exactly one {@code @OptionLabel} field that is persistent and no
+ * annotated getter, {@link #labelPropertyPath()} exposes that attribute so callers can project only
+ * the label column instead of hydrating full entities. Annotated getters never yield a path: they
+ * come first in the chain and may derive the value in Java.</p>
+ */
+final class OptionLabelAccessor {
+
+    private static final List<String> HEURISTIC_GETTERS =
+            List.of("getLabel", "getNomeCompleto", "getNome", "getDescricao", "getTitle");
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<OptionLabelAccessor> CACHE = new ClassValue<>() {
+        @Override
+        protected OptionLabelAccessor computeValue(Class<?> type) {
+            return compile(type);
+        }
+    };
+
+    private final MethodHandle[] accessors;
+    private final String labelPropertyPath;
+
+    private OptionLabelAccessor(List<MethodHandle> accessors, String labelPropertyPath) {
+        this.accessors = accessors.toArray(new MethodHandle[0]);
+        this.labelPropertyPath = labelPropertyPath;
+    }
+
+    static OptionLabelAccessor forClass(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * Returns the first non-blank label produced by the chain, or {@code null} when every accessor
+     * yields a blank value.
+     */
+    String resolve(Object entity) {
+        if (entity == null) {
+            return null;
+        }
+        for (MethodHandle accessor : accessors) {
+            String label = toNonBlankString(invokeSilently(accessor, entity));
+            if (label != null) {
+                return label;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Persistent attribute that fully determines the label, when it can be inferred safely from
+     * {@code @OptionLabel}.
+     */
+    Optional<String> labelPropertyPath() {
+        return Optional.ofNullable(labelPropertyPath);
+    }
+
+    private static OptionLabelAccessor compile(Class<?> type) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<Method> methods = allMethods(type);
+        List<Field> fields = allFields(type);
+        List<MethodHandle> accessors = new ArrayList<>();
+        List<String> annotatedProperties = new ArrayList<>();
+        boolean notProjectable = false;
+
+        for (Method method : methods) {
+            if (method.getParameterCount() == 0 && hasOptionLabelAnnotation(method)) {
+                MethodHandle handle = unreflect(lookup, method);
+                if (handle != null) {
+                    accessors.add(handle);
+                    notProjectable = true;
+                }
+            }
+        }
+
+        for (Field field : fields) {
+            if (hasOptionLabelAnnotation(field)) {
+                MethodHandle handle = unreflectGetter(lookup, field);
+                if (handle != null) {
+                    accessors.add(handle);
+                    if (isPersistent(field)) {
+                        annotatedProperties.add(field.getName());
+                    } else {
+                        notProjectable = true;
+                    }
+                }
+            }
+        }
+
+        for (String getterName : HEURISTIC_GETTERS) {
+            Method method = findMethodIgnoreCase(methods, getterName);
+            if (method != null) {
+                MethodHandle handle = unreflect(lookup, method);
+                if (handle != null) {
+                    accessors.add(handle);
+                }
+            }
+        }
+
+        String labelPropertyPath = !notProjectable
+                && annotatedProperties.stream().distinct().count() == 1
+                ? annotatedProperties.get(0)
+                : null;
+        return new OptionLabelAccessor(accessors, labelPropertyPath);
+    }
+
+    private static boolean isPersistent(Field field) {
+        int modifiers = field.getModifiers();
+        return !Modifier.isStatic(modifiers)
+                && !Modifier.isTransient(modifiers)
+                && !field.isAnnotationPresent(Transient.class);
+    }
+
+    private static MethodHandle unreflect(MethodHandles.Lookup lookup, Method method) {
+        try {
+            method.setAccessible(true);
+            return lookup.unreflect(method).asType(ACCESSOR_TYPE);
+        } catch (IllegalAccessException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static MethodHandle unreflectGetter(MethodHandles.Lookup lookup, Field field) {
+        if (Modifier.isStatic(field.getModifiers())) {
+            return null;
+        }
+        try {
+            field.setAccessible(true);
+            return lookup.unreflectGetter(field).asType(ACCESSOR_TYPE);
+        } catch (IllegalAccessException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static Object invokeSilently(MethodHandle accessor, Object entity) {
+        try {
+            return (Object) accessor.invokeExact(entity);
+        } catch (Throwable ex) {
+            return null;
+        }
+    }
+
+    private static String toNonBlankString(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String result = String.valueOf(value).trim();
+        return result.isEmpty() ? null : result;
+    }
+
+    private static boolean hasOptionLabelAnnotation(AnnotatedElement element) {
+        return Arrays.stream(element.getAnnotations())
+                .anyMatch(annotation -> "OptionLabel".equals(annotation.annotationType().getSimpleName()));
+    }
+
+    private static Method findMethodIgnoreCase(List<Method> methods, String methodName) {
+        for (Method method : methods) {
+            if (method.getParameterCount() == 0 && method.getName().equalsIgnoreCase(methodName)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static List<Field> allFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        Class<?> current = type;
+        while (current != null && current != Object.class) {
+            fields.addAll(Arrays.asList(current.getDeclaredFields()));
+            current = current.getSuperclass();
+        }
+        return fields;
+    }
+
+    private static List<Method> allMethods(Class<?> type) {
+        List<Method> methods = new ArrayList<>();
+        Class<?> current = type;
+        while (current != null && current != Object.class) {
+            methods.addAll(Arrays.asList(current.getDeclaredMethods()));
+            current = current.getSuperclass();
+        }
+        return methods;
+    }
+}
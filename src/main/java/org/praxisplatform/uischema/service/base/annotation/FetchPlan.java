@@ -0,0 +1,45 @@
+package org.praxisplatform.uischema.service.base.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declara as associacoes carregadas junto com a entidade nas leituras do query service.
+ *
+ * <p>
+ * Sem a anotacao, o starter deriva o plano das propriedades do Response DTO: associacoes
+ * singulares com o mesmo nome de uma propriedade ({@code departamento}) ou usadas como prefixo
+ * achatado ({@code departamentoNome}) entram no {@code EntityGraph} aplicado a {@code /filter},
+ * {@code /all}, {@code /by-ids} e {@code GET /{id}}. Prefixos terminados apenas em {@code Id}
+ * ficam de fora, porque o identificador vem do proxy sem consulta.
+ * </p>
+ *
+ * <p>
+ * Colecoes nunca sao derivadas. Quando declaradas, entram apenas nas leituras sem paginacao
+ * ({@code /by-ids} e {@code GET /{id}}), para nao paginar em memoria; nas listagens use batch
+ * fetching do Hibernate.
+ * </p>
+ *
+ * <pre>{@code
+ * @Service
+ * @FetchPlan({"departamento", "cargo.nivel"})
+ * public class FuncionarioService extends AbstractBaseResourceService<...> {
+ * }
+ * }</pre>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface FetchPlan {
+
+    /**
+     * Caminhos de associacao a carregar, com segmentos separados por ponto.
+     */
+    String[] value() default {};
+
+    /**
+     * Quando {@code false}, usa apenas {@link #value()} e desliga a derivacao pelo Response DTO.
+     */
+    boolean deriveFromResponse() default true;
+}
@@ -0,0 +1,75 @@
+package org.praxisplatform.uischema.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Splits identifier lookups into {@code IN} parameter batches.
+ *
+ * <p>Batches never exceed the dialect parameter limit (Oracle accepts 1000 expressions per list)
+ * and are padded up to the next power of two, starting at 8, by repeating their last value. Lookups
+ * of 5, 6 or 7 ids therefore render the same SQL and reuse its cached statement and plan; repeated
+ * values do not change the {@code IN} result.</p>
+ *
+ * @since 1.0.0
+ */
+public final class InListBatches {
+
+    /**
+     * Default maximum number of {@code IN} parameters per statement.
+     */
+    public static final int DEFAULT_MAX_PARAMETERS = 1000;
+
+    private static final int MIN_BUCKET_SIZE = 8;
+
+    private InListBatches() {
+    }
+
+    /**
+     * Distinct, non-null values split into padded batches of at most {@code maxParameters} entries.
+     */
+    public static <T> List<List<T>> partition(Collection<? extends T> values, int maxParameters) {
+        if (maxParameters < 1) {
+            throw new IllegalArgumentException("maxParameters must be positive");
+        }
+        if (values == null || values.isEmpty()) {
+            return List.of();
+        }
+        List<T> distinct = new ArrayList<>(new LinkedHashSet<T>(values));
+        distinct.removeIf(Objects::isNull);
+        List<List<T>> batches = new ArrayList<>((distinct.size() + maxParameters - 1) / maxParameters);
+        for (int start = 0; start < distinct.size(); start += maxParameters) {
+            List<T> batch = distinct.subList(start, Math.min(start + maxParameters, distinct.size()));
+            batches.add(pad(batch, maxParameters));
+        }
+        return batches;
+    }
+
+    /**
+     * Parameter count rendered for a batch of {@code size} values.
+     */
+    public static int bucketSize(int size, int maxParameters) {
+        if (size >= maxParameters) {
+            return size;
+        }
+        int bucket = MIN_BUCKET_SIZE;
+        while (bucket < size) {
+            bucket <<= 1;
+        }
+        return Math.min(bucket, maxParameters);
+    }
+
+    private static <T> List<T> pad(List<T> batch, int maxParameters) {
+        int bucket = bucketSize(batch.size(), maxParameters);
+        List<T> padded = new ArrayList<>(bucket);
+        padded.addAll(batch);
+        T last = batch.get(batch.size() - 1);
+        while (padded.size() < bucket) {
+            padded.add(last);
+        }
+        return List.copyOf(padded);
+    }
+}
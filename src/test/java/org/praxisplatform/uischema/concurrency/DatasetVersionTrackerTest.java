@@ -0,0 +1,100 @@
+package org.praxisplatform.uischema.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class DatasetVersionTrackerTest {
+
+    @Test
+    void incrementsTheEntityAndItsSuperclassesOnly() {
+        DatasetVersionTracker tracker = new DatasetVersionTracker();
+        String base = tracker.version(BaseEntity.class);
+        String child = tracker.version(ChildEntity.class);
+        String other = tracker.version(OtherEntity.class);
+        String combined = tracker.version(List.of(ChildEntity.class, OtherEntity.class));
+
+        tracker.increment(ChildEntity.class);
+
+        assertNotEquals(base, tracker.version(BaseEntity.class));
+        assertNotEquals(child, tracker.version(ChildEntity.class));
+        assertEquals(other, tracker.version(OtherEntity.class));
+        assertNotEquals(combined, tracker.version(List.of(ChildEntity.class, OtherEntity.class)));
+    }
+
+    @Test
+    void sharedStoreValuesAreReadAtMostOncePerRefreshInterval() {
+        InMemoryStore store = new InMemoryStore();
+        MutableClock clock = new MutableClock();
+        DatasetVersionTracker tracker = new DatasetVersionTracker(store, Duration.ofSeconds(1), clock);
+        DatasetVersionTracker otherNode = new DatasetVersionTracker(store, Duration.ofSeconds(1), clock);
+
+        assertEquals("0", tracker.version(OtherEntity.class));
+        otherNode.increment(OtherEntity.class);
+        assertEquals("1", otherNode.version(OtherEntity.class));
+        assertEquals("0", tracker.version(OtherEntity.class));
+
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals("1", tracker.version(OtherEntity.class));
+
+        tracker.increment(OtherEntity.class);
+        assertEquals("2", tracker.version(OtherEntity.class));
+    }
+
+    static class BaseEntity {
+    }
+
+    static class ChildEntity extends BaseEntity {
+    }
+
+    static class OtherEntity {
+    }
+
+    private static final class InMemoryStore implements DatasetVersionStore {
+
+        private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+        @Override
+        public long current(String key) {
+            return versions.getOrDefault(key, 0L);
+        }
+
+        @Override
+        public long increment(String key) {
+            return versions.merge(key, 1L, Long::sum);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
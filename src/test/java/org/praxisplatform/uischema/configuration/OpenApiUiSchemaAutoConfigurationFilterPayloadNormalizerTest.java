@@ -4,7 +4,8 @@ import org.junit.jupiter.api.Test;
 import org.praxisplatform.uischema.filter.relativeperiod.RelativePeriodPayloadNormalizer;
 import org.praxisplatform.uischema.filter.range.RangePayloadNormalizer;
 import org.praxisplatform.uischema.filter.web.FilterPayloadNormalizer;
-import org.praxisplatform.uischema.filter.web.FilterRequestBodyAdvice;
+import org.praxisplatform.uischema.filter.web.FilterPayloadJacksonModule;
+import org.praxisplatform.uischema.filter.web.FilterPayloadMessageConverterConfigurer;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -24,23 +25,21 @@ class OpenApiUiSchemaAutoConfigurationFilterPayloadNormalizerTest {
             .withConfiguration(AutoConfigurations.of(OpenApiUiSchemaAutoConfiguration.class));
 
     @Test
-    void shouldWireOrderedPayloadNormalizersIntoFilterRequestBodyAdvice() {
+    void shouldWireOrderedPayloadNormalizersIntoFilterPayloadJacksonModule() {
         contextRunner.run(context -> {
-            FilterRequestBodyAdvice advice = context.getBean(FilterRequestBodyAdvice.class);
+            FilterPayloadJacksonModule module = context.getBean(FilterPayloadJacksonModule.class);
             FilterPayloadNormalizer range = context.getBean("rangePayloadNormalizer", FilterPayloadNormalizer.class);
             FilterPayloadNormalizer relativePeriod = context.getBean("relativePeriodPayloadNormalizer", FilterPayloadNormalizer.class);
 
-            assertNotNull(advice);
+            assertNotNull(module);
+            assertNotNull(context.getBean(FilterPayloadMessageConverterConfigurer.class));
             assertInstanceOf(RangePayloadNormalizer.class, range);
             assertInstanceOf(RelativePeriodPayloadNormalizer.class, relativePeriod);
 
-            @SuppressWarnings("unchecked")
-            List<FilterPayloadNormalizer> adviceNormalizers =
-                    (List<FilterPayloadNormalizer>) ReflectionTestUtils.getField(advice, "payloadNormalizers");
+            List<FilterPayloadNormalizer> moduleNormalizers = module.getPayloadNormalizers();
 
-            assertNotNull(adviceNormalizers);
-            assertEquals(2, adviceNormalizers.size());
-            assertIterableEquals(List.of(range, relativePeriod), adviceNormalizers);
+            assertEquals(2, moduleNormalizers.size());
+            assertIterableEquals(List.of(range, relativePeriod), moduleNormalizers);
         });
     }
 
@@ -1,8 +1,11 @@
 package org.praxisplatform.uischema.controller.base;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.praxisplatform.uischema.annotation.ApiResource;
 import org.praxisplatform.uischema.capability.CapabilityService;
+import org.praxisplatform.uischema.dto.CollectionSlice;
+import org.praxisplatform.uischema.exporting.CollectionExportRowSource;
 import org.praxisplatform.uischema.filter.dto.GenericFilterDTO;
 import org.praxisplatform.uischema.service.base.BaseResourceQueryService;
 import org.praxisplatform.uischema.surface.SurfaceCatalogService;
@@ -17,6 +20,8 @@ import java.util.List;
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -31,7 +36,8 @@ class AbstractReadOnlyResourceControllerLinksTest {
     @Test
     void getAllOmitsWriteLinks() throws Exception {
         ReadOnlyService service = mock(ReadOnlyService.class);
-        when(service.findAll()).thenReturn(List.of(new SimpleDto(1L)));
+        when(service.findAllSlice(any(), anyInt()))
+                .thenReturn(new CollectionSlice<>(CollectionExportRowSource.of(List.of(new SimpleDto(1L))), null));
         MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controllerWith(service)).build();
 
         mockMvc.perform(get("/ro/all"))
@@ -162,6 +168,7 @@ class AbstractReadOnlyResourceControllerLinksTest {
     private static ReadOnlyController controllerWith(ReadOnlyService service) {
         ReadOnlyController controller = new ReadOnlyController();
         ReflectionTestUtils.setField(controller, "service", service);
+        ReflectionTestUtils.setField(controller, "objectMapper", new ObjectMapper().findAndRegisterModules());
         return controller;
     }
 }
@@ -5,7 +5,10 @@ import org.praxisplatform.uischema.action.ActionDefinition;
 import org.praxisplatform.uischema.action.ActionDefinitionRegistry;
 import org.praxisplatform.uischema.action.ActionScope;
 import org.praxisplatform.uischema.annotation.ApiResource;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.praxisplatform.uischema.capability.CapabilityService;
+import org.praxisplatform.uischema.dto.CollectionSlice;
+import org.praxisplatform.uischema.exporting.CollectionExportRowSource;
 import org.praxisplatform.uischema.filter.dto.GenericFilterDTO;
 import org.praxisplatform.uischema.surface.SurfaceCatalogService;
 import org.praxisplatform.uischema.service.base.BaseResourceService;
@@ -17,11 +20,18 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class AbstractResourceControllerLinksTest {
@@ -29,11 +39,35 @@ class AbstractResourceControllerLinksTest {
     @Test
     void getAllReturnsOk() throws Exception {
         SimpleService service = mock(SimpleService.class);
-        when(service.findAll()).thenReturn(List.of(new SimpleResponseDto(1L)));
+        when(service.findAllSlice(isNull(), anyInt()))
+                .thenReturn(new CollectionSlice<>(CollectionExportRowSource.of(List.of(new SimpleResponseDto(1L))), null));
         MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controllerWith(service)).build();
 
         mockMvc.perform(get("/simple/all"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Link"))
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.data[0].id").value(1))
+                .andExpect(jsonPath("$._links.filter").exists());
+    }
+
+    @Test
+    void getAllAnnouncesTheNextPageInTheLinkHeaderWhenTheRowCapIsReached() throws Exception {
+        SimpleService service = mock(SimpleService.class);
+        when(service.findAllSlice("c2", 2))
+                .thenReturn(new CollectionSlice<>(CollectionExportRowSource.of(List.of(new SimpleResponseDto(3L), new SimpleResponseDto(4L))), "c4"));
+        when(service.findAllSlice("bogus", 2)).thenThrow(new IllegalArgumentException("Invalid cursor."));
+        SimpleController controller = controllerWith(service);
+        ReflectionTestUtils.setField(controller, "allMaxRows", 2);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        mockMvc.perform(get("/simple/all").param("after", "c2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link", "</simple/all?after=c4>; rel=\"next\""))
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[1].id").value(4));
+        mockMvc.perform(get("/simple/all").param("after", "bogus"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -145,6 +179,26 @@ class AbstractResourceControllerLinksTest {
         assertEquals(List.of("surfaces", "actions", "capabilities"), controller.exposeItemDiscoveryRels(10L));
     }
 
+    @Test
+    void linkTemplatesAreCompiledOnceAndReusedAcrossItems() {
+        SimpleController controller = new SimpleController();
+        ReflectionTestUtils.setField(controller, "contextPath", "/ergon");
+        ActionDefinitionRegistry registry = mock(ActionDefinitionRegistry.class);
+        ReflectionTestUtils.setField(controller, "actionDefinitionRegistry", registry);
+        ReflectionTestUtils.setField(controller, "actionCatalogService", mock(org.praxisplatform.uischema.action.ActionCatalogService.class));
+        when(registry.findByResourceKey("test.simple")).thenReturn(List.of(itemAction()));
+
+        assertSame(controller.exposeAllLink(), controller.exposeAllLink());
+        assertSame(
+                controller.exposeLinkToUiSchema("/all", "get", "response"),
+                controller.exposeLinkToUiSchema("/all", "get", "response")
+        );
+        assertEquals("/ergon/simple/10", controller.exposeSelfLink(10L).getHref());
+        assertEquals("/ergon/simple/11/actions", controller.exposeItemActionsLink(11L).getHref());
+        assertEquals("/ergon/simple/12/actions", controller.exposeItemActionsLink(12L).getHref());
+        verify(registry, times(1)).findByResourceKey("test.simple");
+    }
+
     @Test
     void resourceOperationalAndDiscoveryLinksUseRelativeSameOriginPaths() {
         SimpleController controller = new SimpleController();
@@ -215,6 +269,7 @@ class AbstractResourceControllerLinksTest {
     private static SimpleController controllerWith(SimpleService service) {
         SimpleController controller = new SimpleController();
         ReflectionTestUtils.setField(controller, "service", service);
+        ReflectionTestUtils.setField(controller, "objectMapper", new ObjectMapper().findAndRegisterModules());
         return controller;
     }
 
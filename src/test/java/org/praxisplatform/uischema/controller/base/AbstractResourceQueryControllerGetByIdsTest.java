@@ -12,6 +12,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,11 +23,13 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(
@@ -116,6 +119,64 @@ class AbstractResourceQueryControllerGetByIdsTest {
         verify(service).exportCollection(any());
     }
 
+    @Test
+    void exportServesRangeRequestsOverMaterializedContent() throws Exception {
+        when(service.getDatasetVersion()).thenReturn(Optional.of("1"));
+        when(service.exportCollection(any())).thenReturn(CollectionExportResult.text(
+                "id,name\n1,Ana",
+                "simple.csv",
+                "text/csv"
+        ));
+
+        mockMvc.perform(post("/simple/export")
+                        .header("Range", "bytes=8-12")
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "format": "csv",
+                                  "scope": "filtered",
+                                  "filters": {}
+                                }
+                                """))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("Content-Range", "bytes 8-12/13"))
+                .andExpect(content().string("1,Ana"));
+    }
+
+    @Test
+    void exportWritesStreamedPayloadsThroughTheResponseStream() throws Exception {
+        when(service.getDatasetVersion()).thenReturn(Optional.of("1"));
+        when(service.exportCollection(any())).thenReturn(CollectionExportResult.streamed(
+                CollectionExportFormat.CSV,
+                CollectionExportScope.FILTERED,
+                "simple.csv",
+                "text/csv",
+                output -> output.write("id,name\n1,Ana".getBytes(java.nio.charset.StandardCharsets.UTF_8)),
+                java.util.Map.of("truncated", true)
+        ));
+
+        MvcResult started = mockMvc.perform(post("/simple/export")
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "format": "csv",
+                                  "scope": "filtered",
+                                  "filters": {}
+                                }
+                                """))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Data-Version", "1"))
+                .andExpect(header().string("X-Export-Truncated", "true"))
+                .andExpect(header().doesNotExist("X-Export-Row-Count"))
+                .andExpect(header().string("Content-Disposition", containsString("filename=\"simple.csv\"")))
+                .andExpect(content().string("id,name\n1,Ana"));
+    }
+
     @Test
     void exportReturnsAcceptedJsonForDeferredPayloads() throws Exception {
         when(service.getDatasetVersion()).thenReturn(Optional.of("1"));
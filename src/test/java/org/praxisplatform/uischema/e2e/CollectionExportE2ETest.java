@@ -0,0 +1,121 @@
+package org.praxisplatform.uischema.e2e;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "praxis.export.parallel.threads=2",
+        "praxis.export.parallel.chunk-rows=2",
+        "praxis.export.admission.max-sync-cells=10"
+})
+class CollectionExportE2ETest extends AbstractE2eH2Test {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void addDepartments() {
+        for (String code : List.of("FIN", "LEG", "OPS2")) {
+            assertEquals(201, postJson("/departments", """
+                    {
+                      "nome": "Department %s",
+                      "code": "%s"
+                    }
+                    """.formatted(code, code)).getStatusCode().value());
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void admittedExportCountsThenStreamsKeysetPartitionsThroughTheMapper() {
+        ResponseEntity<String> response = postJson("/departments/export", exportRequest(3, null));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(List.of(
+                "ID,Nome,Code",
+                state.humanResourcesDepartmentId() + ",Human Resources,HR",
+                state.operationsDepartmentId() + ",Operations,OPS",
+                (state.operationsDepartmentId() + 1) + ",Department FIN,FIN"
+        ), csvLines(response));
+        // COUNT for admission, the id scan that closes the ranges and one query per keyset range.
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(3, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void projectedExportReadsTuplesWithoutLoadingEntities() {
+        ResponseEntity<String> response = postJson("/departments/export", exportRequest(3, "projection"));
+
+        assertEquals(200, response.getStatusCode().value());
+        List<String> lines = csvLines(response);
+        assertEquals(4, lines.size());
+        assertEquals("ID,Nome,Code", lines.get(0));
+        assertEquals(state.humanResourcesDepartmentId() + ",Human Resources,HR", lines.get(1));
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void exportAboveTheSynchronousBudgetRunsAsJob() throws Exception {
+        ResponseEntity<String> accepted = postJson("/departments/export", exportRequest(null, null));
+
+        assertEquals(202, accepted.getStatusCode().value());
+        assertEquals("deferred", accepted.getHeaders().getFirst("X-Export-Admission"));
+        String jobId = body(accepted).path("jobId").asText();
+        JsonNode job = awaitJob(jobId);
+        assertEquals("completed", job.path("status").asText());
+        assertEquals(5, job.path("rowsWritten").asLong());
+
+        ResponseEntity<String> download = get("/departments/export/jobs/" + jobId + "/download");
+        assertEquals(200, download.getStatusCode().value());
+        assertEquals(6, csvLines(download).size());
+    }
+
+    private JsonNode awaitJob(String jobId) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        JsonNode job;
+        do {
+            Thread.sleep(20);
+            job = body(get("/departments/export/jobs/" + jobId));
+        } while (!"completed".equals(job.path("status").asText())
+                && !"failed".equals(job.path("status").asText())
+                && System.currentTimeMillis() < deadline);
+        return job;
+    }
+
+    private static String exportRequest(Integer maxRows, String source) {
+        return """
+                {
+                  "format": "csv",
+                  "scope": "filtered",
+                  "filters": {},
+                  "maxRows": %s,
+                  "metadata": %s
+                }
+                """.formatted(
+                maxRows == null ? "null" : maxRows,
+                source == null ? "{}" : "{\"source\": \"" + source + "\"}"
+        );
+    }
+
+    private static List<String> csvLines(ResponseEntity<String> response) {
+        assertTrue(response.getBody() != null && !response.getBody().isBlank());
+        return response.getBody().replace("﻿", "").replace("\"", "").lines().filter(line -> !line.isBlank()).toList();
+    }
+}
@@ -0,0 +1,51 @@
+package org.praxisplatform.uischema.e2e;
+
+import org.junit.jupiter.api.Test;
+import org.praxisplatform.uischema.concurrency.DatasetVersionTracker;
+import org.praxisplatform.uischema.concurrency.JdbcDatasetVersionStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@TestPropertySource(properties = {
+        "praxis.dataset-version.jdbc.enabled=true",
+        "praxis.dataset-version.refresh-interval=PT0S",
+        "spring.datasource.url=jdbc:h2:mem:praxis-metadata-e2e-shared-version;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;"
+                + "DATABASE_TO_UPPER=false;INIT=CREATE TABLE IF NOT EXISTS praxis_dataset_version "
+                + "(dataset_key VARCHAR(255) PRIMARY KEY, version BIGINT NOT NULL)"
+})
+class DatasetVersionSharedStoreE2ETest extends AbstractE2eH2Test {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void writeRecordedByAnotherNodeInvalidatesTheCollectionEtag() throws Exception {
+        ResponseEntity<String> first = get("/departments/all");
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch(etag);
+        assertEquals(304, exchange("/departments/all", HttpMethod.GET, conditional).getStatusCode().value());
+
+        // A second instance sharing the table records a write this node never observed.
+        DatasetVersionTracker otherNode = new DatasetVersionTracker(
+                new JdbcDatasetVersionStore(jdbcTemplate, "praxis_dataset_version"), Duration.ZERO, Clock.systemUTC());
+        otherNode.increment(Class.forName("org.praxisplatform.uischema.e2e.fixture.DepartmentEntity"));
+
+        ResponseEntity<String> changed = exchange("/departments/all", HttpMethod.GET, conditional);
+        assertEquals(200, changed.getStatusCode().value());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+    }
+}
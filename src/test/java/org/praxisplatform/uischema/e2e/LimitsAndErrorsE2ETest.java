@@ -45,28 +45,28 @@ class LimitsAndErrorsE2ETest extends AbstractE2eH2Test {
         JsonNode missingPathBody = body(missingPathResponse);
         assertNoStackTrace(missingPathBody);
 
-        ResponseEntity<String> unsupportedCursorResponse = postJson("/payroll-view/filter/cursor?size=2", """
+        ResponseEntity<String> invalidCursorResponse = postJson("/payroll-view/filter/cursor?size=2&after=not-a-cursor", """
                 {
                   "employeeNome": "Alice"
                 }
                 """);
-        assertEquals(501, unsupportedCursorResponse.getStatusCode().value());
-        JsonNode unsupportedCursorBody = body(unsupportedCursorResponse);
-        assertContainsReason(unsupportedCursorBody, "Not implemented");
-        assertNoStackTrace(unsupportedCursorBody);
+        assertEquals(400, invalidCursorResponse.getStatusCode().value());
+        JsonNode invalidCursorBody = body(invalidCursorResponse);
+        assertContainsReason(invalidCursorBody, "Invalid cursor");
+        assertNoStackTrace(invalidCursorBody);
 
-        ResponseEntity<String> unsupportedLocateResponse = postJson(
-                "/payroll-view/locate?id=" + state.payrollIdsByEmployee().get("Alice") + "&size=2",
+        ResponseEntity<String> outsideFilterLocateResponse = postJson(
+                "/payroll-view/locate?id=" + state.payrollIdsByEmployee().get("Bob") + "&size=2",
                 """
                         {
                           "employeeNome": "Alice"
                         }
                         """
         );
-        assertEquals(501, unsupportedLocateResponse.getStatusCode().value());
-        JsonNode unsupportedLocateBody = body(unsupportedLocateResponse);
-        assertContainsReason(unsupportedLocateBody, "Not implemented");
-        assertNoStackTrace(unsupportedLocateBody);
+        assertEquals(404, outsideFilterLocateResponse.getStatusCode().value());
+        JsonNode outsideFilterLocateBody = body(outsideFilterLocateResponse);
+        assertContainsReason(outsideFilterLocateBody, "Registro nao encontrado");
+        assertNoStackTrace(outsideFilterLocateBody);
 
         ResponseEntity<String> missingLocateResponse = postJson("/employees/locate?id=999999&size=2", "{}");
         assertEquals(404, missingLocateResponse.getStatusCode().value());
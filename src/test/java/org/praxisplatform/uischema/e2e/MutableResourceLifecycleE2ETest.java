@@ -2,10 +2,19 @@ package org.praxisplatform.uischema.e2e;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.net.URI;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class MutableResourceLifecycleE2ETest extends AbstractE2eH2Test {
@@ -120,4 +129,59 @@ class MutableResourceLifecycleE2ETest extends AbstractE2eH2Test {
         assertEquals("INVALID_PARAMETER", error.path("errors").get(0).path("properties").path("code").asText());
         assertEquals(beforeCount, fixtureData.employeeCount());
     }
+
+    @Test
+    void collectionReadsRevalidateAgainstTheTrackedDatasetVersion() {
+        ResponseEntity<String> first = get("/departments/all");
+        assertEquals(200, first.getStatusCode().value());
+        String etag = first.getHeaders().getETag();
+        String version = first.getHeaders().getFirst("X-Data-Version");
+        assertNotNull(etag);
+        assertNotNull(version);
+
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch(etag);
+        ResponseEntity<String> unchanged = exchange("/departments/all", HttpMethod.GET, conditional);
+        assertEquals(304, unchanged.getStatusCode().value());
+        assertEquals(etag, unchanged.getHeaders().getETag());
+
+        ResponseEntity<String> created = postJson("/departments", """
+                {
+                  "nome": "Finance",
+                  "code": "FIN"
+                }
+                """);
+        assertEquals(201, created.getStatusCode().value());
+
+        ResponseEntity<String> changed = exchange("/departments/all", HttpMethod.GET, conditional);
+        assertEquals(200, changed.getStatusCode().value());
+        assertNotEquals(version, changed.getHeaders().getFirst("X-Data-Version"));
+        assertNotEquals(etag, changed.getHeaders().getETag());
+        assertTrue(changed.getBody().contains("Finance"));
+
+        // POST is not a safe method: without the opt-in the query is neither tagged nor answered with 304.
+        ResponseEntity<String> filter = postJson("/employees/filter?page=0&size=2", "{}");
+        assertEquals(200, filter.getStatusCode().value());
+        assertNull(filter.getHeaders().getETag());
+        assertEquals(200, postConditional("/employees/filter?page=0&size=2", "{}", "\"any\"").getStatusCode().value());
+    }
+
+    @Test
+    void postQueriesRevalidateOnlyWhenTheResourceOptsIn() {
+        ResponseEntity<String> filter = postJson("/payroll-view/filter?page=0&size=2", "{}");
+        assertEquals(200, filter.getStatusCode().value());
+        String filterEtag = filter.getHeaders().getETag();
+        assertNotNull(filterEtag);
+        assertEquals(304, postConditional("/payroll-view/filter?page=0&size=2", "{}", filterEtag).getStatusCode().value());
+        assertEquals(200, postConditional("/payroll-view/filter?page=1&size=2", "{}", filterEtag).getStatusCode().value());
+        assertEquals(200, postConditional("/payroll-view/filter?page=0&size=2", "{\"employeeNome\":\"Alice\"}", filterEtag)
+                .getStatusCode().value());
+    }
+
+    private ResponseEntity<String> postConditional(String path, String body, String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setIfNoneMatch(etag);
+        return rest.getRestTemplate().exchange(URI.create(url(path)), HttpMethod.POST, new HttpEntity<>(body, headers), String.class);
+    }
 }
@@ -1,7 +1,11 @@
 package org.praxisplatform.uischema.e2e;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -18,6 +22,38 @@ class OptionsAndOptionSourcesE2ETest extends AbstractE2eH2Test {
 
     private static final String TEST_PRINCIPAL_HEADER = "X-Test-Principal";
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void fieldLevelOptionLabelsAreProjectedWithoutLoadingEntities() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        ResponseEntity<String> filterResponse;
+        ResponseEntity<String> byIdsResponse;
+        try {
+            filterResponse = postJson("/departments/options/filter?page=0&size=10", "{}");
+            byIdsResponse = get("/departments/options/by-ids?ids=%d&ids=%d".formatted(
+                    state.operationsDepartmentId(),
+                    state.humanResourcesDepartmentId()
+            ));
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        assertEquals(200, filterResponse.getStatusCode().value());
+        assertEquals(200, byIdsResponse.getStatusCode().value());
+        assertTrue(statistics.getPrepareStatementCount() > 0);
+        assertEquals(0, statistics.getEntityLoadCount(), "@OptionLabel nome must be read by projection");
+        JsonNode filterContent = body(filterResponse).path("content");
+        assertEquals("Human Resources", filterContent.get(0).path("label").asText());
+        assertEquals("Operations", filterContent.get(1).path("label").asText());
+        JsonNode byIdsBody = body(byIdsResponse);
+        assertEquals("Operations", byIdsBody.get(0).path("label").asText());
+        assertEquals("Human Resources", byIdsBody.get(1).path("label").asText());
+    }
+
     @Test
     void standardOptionsAndDerivedOptionSourcesBehaveCanonically() throws Exception {
         ResponseEntity<String> departmentOptionsResponse = postJson("/departments/options/filter?page=0&size=10", "{}");
@@ -166,6 +202,33 @@ class OptionsAndOptionSourcesE2ETest extends AbstractE2eH2Test {
         assertEquals("Alice", employeeLookupByIdsBody.get(1).path("label").asText());
         assertTrue(employeeLookupByIdsBody.isArray());
 
+        ResponseEntity<String> employeeLookupPinnedFirstPageResponse = postJson(
+                "/employees/option-sources/employeeEntityLookup/options/filter?search=Human&page=0&size=1&includeIds="
+                        + state.employeeIdsByName().get("Eve"),
+                "{}"
+        );
+        assertEquals(200, employeeLookupPinnedFirstPageResponse.getStatusCode().value());
+        JsonNode employeeLookupPinnedFirstPageBody = body(employeeLookupPinnedFirstPageResponse);
+        assertEquals(2, employeeLookupPinnedFirstPageBody.path("content").size());
+        assertEquals("Eve", employeeLookupPinnedFirstPageBody.path("content").get(0).path("label").asText());
+        assertEquals("Alice", employeeLookupPinnedFirstPageBody.path("content").get(1).path("label").asText());
+        // Eve matches the search but is pinned, so only Alice and Carol are paged.
+        assertEquals(2, employeeLookupPinnedFirstPageBody.path("totalElements").asInt());
+        assertEquals(2, employeeLookupPinnedFirstPageBody.path("totalPages").asInt());
+
+        ResponseEntity<String> employeeLookupPinnedNextPageResponse = postJson(
+                "/employees/option-sources/employeeEntityLookup/options/filter?search=Human&page=1&size=1&includeIds="
+                        + state.employeeIdsByName().get("Eve"),
+                "{}"
+        );
+        assertEquals(200, employeeLookupPinnedNextPageResponse.getStatusCode().value());
+        JsonNode employeeLookupPinnedNextPageBody = body(employeeLookupPinnedNextPageResponse);
+        assertEquals(2, employeeLookupPinnedNextPageBody.path("content").size());
+        assertEquals("Eve", employeeLookupPinnedNextPageBody.path("content").get(0).path("label").asText());
+        assertEquals("Carol", employeeLookupPinnedNextPageBody.path("content").get(1).path("label").asText());
+        assertEquals(2, employeeLookupPinnedNextPageBody.path("totalElements").asInt());
+        assertTrue(employeeLookupPinnedNextPageBody.path("last").asBoolean());
+
         ResponseEntity<String> employeeLookupStructuredFilterResponse = postJson(
                 "/employees/option-sources/employeeEntityLookup/options/filter?page=0&size=10",
                 """
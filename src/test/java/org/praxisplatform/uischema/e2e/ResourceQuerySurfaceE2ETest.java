@@ -1,7 +1,11 @@
 package org.praxisplatform.uischema.e2e;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -20,6 +24,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ResourceQuerySurfaceE2ETest extends AbstractE2eH2Test {
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private static final String TEST_PRINCIPAL_HEADER = "X-Test-Principal";
 
     @Test
@@ -41,9 +48,10 @@ class ResourceQuerySurfaceE2ETest extends AbstractE2eH2Test {
         assertEquals(200, includeFirstPageResponse.getStatusCode().value());
         JsonNode includeFirstPageBody = body(includeFirstPageResponse);
         List<String> includeFirstPageNames = names(includeFirstPageBody.path("data").path("content"));
-        assertEquals(List.of("Frank", "Carol"), includeFirstPageNames.subList(0, 2));
-        assertTrue(includeFirstPageNames.contains("Alice"));
-        assertTrue(includeFirstPageNames.contains("Bob"));
+        assertEquals(List.of("Frank", "Carol", "Alice", "Bob"), includeFirstPageNames);
+        // The total counts the paged sequence, which leaves the includeIds out.
+        assertEquals(4, includeFirstPageBody.path("data").path("totalElements").asInt());
+        assertEquals(2, includeFirstPageBody.path("data").path("totalPages").asInt());
 
         ResponseEntity<String> includeSecondPageResponse = postJson(
                 "/employees/filter?page=1&size=2&includeIds=%d&includeIds=%d".formatted(frankId, carolId),
@@ -52,9 +60,39 @@ class ResourceQuerySurfaceE2ETest extends AbstractE2eH2Test {
         assertEquals(200, includeSecondPageResponse.getStatusCode().value());
         JsonNode includeSecondPageBody = body(includeSecondPageResponse);
         List<String> secondPageNames = names(includeSecondPageBody.path("data").path("content"));
-        assertEquals(List.of("Diana"), secondPageNames);
-        assertFalse(secondPageNames.contains("Frank"));
-        assertFalse(secondPageNames.contains("Carol"));
+        assertEquals(List.of("Diana", "Eve"), secondPageNames);
+        assertEquals(4, includeSecondPageBody.path("data").path("totalElements").asInt());
+        assertTrue(includeSecondPageBody.path("data").path("last").asBoolean());
+    }
+
+    @Test
+    void filterReportsTheCountModeUsedForTheTotal() throws Exception {
+        JsonNode exact = body(postJson("/employees/filter?page=0&size=2", "{}"));
+        assertEquals("exact", exact.path("meta").path("countMode").asText());
+        assertEquals("exact", exact.path("data").path("countMode").asText());
+        assertEquals(6, exact.path("data").path("totalElements").asInt());
+
+        JsonNode skip = body(postJson("/employees/filter?page=0&size=2&countMode=skip", "{}"));
+        assertEquals(List.of("Alice", "Bob"), names(skip.path("data").path("content")));
+        assertEquals("skip", skip.path("meta").path("countMode").asText());
+        assertFalse(skip.path("meta").path("totalExact").asBoolean());
+        assertEquals(3, skip.path("data").path("totalElements").asInt());
+        assertFalse(skip.path("data").path("last").asBoolean());
+
+        JsonNode skipLastPage = body(postJson("/employees/filter?page=2&size=2&countMode=skip", "{}"));
+        assertTrue(skipLastPage.path("meta").path("totalExact").asBoolean());
+        assertEquals(6, skipLastPage.path("data").path("totalElements").asInt());
+        assertTrue(skipLastPage.path("data").path("last").asBoolean());
+
+        JsonNode capped = body(postJson("/employees/filter?page=0&size=2&countMode=capped", "{}"));
+        assertEquals("capped", capped.path("meta").path("countMode").asText());
+        assertTrue(capped.path("meta").path("totalExact").asBoolean());
+        assertEquals(6, capped.path("data").path("totalElements").asInt());
+
+        JsonNode estimatedWithoutStatistics = body(postJson("/employees/filter?page=0&size=2&countMode=estimated", "{}"));
+        assertEquals("capped", estimatedWithoutStatistics.path("meta").path("countMode").asText());
+
+        assertEquals(400, postJson("/employees/filter?page=0&size=2&countMode=approximate", "{}").getStatusCode().value());
     }
 
     @Test
@@ -124,7 +162,7 @@ class ResourceQuerySurfaceE2ETest extends AbstractE2eH2Test {
         assertEquals(200, scopedResponse.getStatusCode().value());
         JsonNode scopedBody = body(scopedResponse).path("data");
         assertEquals(List.of("Carol", "Alice", "Eve"), names(scopedBody.path("content")));
-        assertEquals(3, scopedBody.path("totalElements").asInt());
+        assertEquals(2, scopedBody.path("totalElements").asInt());
 
         ResponseEntity<String> noIncludeIdsResponse = postJsonAs(
                 "/employees/filter?page=0&size=10",
@@ -163,7 +201,83 @@ class ResourceQuerySurfaceE2ETest extends AbstractE2eH2Test {
         assertEquals(200, response.getStatusCode().value());
         JsonNode data = body(response).path("data");
         assertEquals(List.of("Carol", "Alice"), employeeNames(data.path("content")));
+        assertEquals(1, data.path("totalElements").asInt());
+    }
+
+    @Test
+    void projectedReadOnlyFilterKeepsTheAccessScopeAndResponseFields() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        ResponseEntity<String> response;
+        try {
+            response = postJsonAs("/payroll-view/filter?page=0&size=10", "{}", "hr-resource-user");
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        assertEquals(200, response.getStatusCode().value());
+        assertTrue(statistics.getPrepareStatementCount() > 0);
+        assertEquals(0, statistics.getEntityLoadCount(), "projected reads must not hydrate PayrollViewEntity");
+        JsonNode data = body(response).path("data");
+        assertEquals(List.of("Alice", "Carol"), employeeNames(data.path("content")));
         assertEquals(2, data.path("totalElements").asInt());
+        JsonNode alice = data.path("content").get(0);
+        assertEquals("Human Resources", alice.path("departmentNome").asText());
+        assertEquals(6300.0, alice.path("netAmount").asDouble());
+        assertEquals("CLOSED", alice.path("payrollStatus").asText());
+    }
+
+    @Test
+    void keysetCursorPagesTheReadOnlyResourceWithinTheAccessScope() throws Exception {
+        JsonNode firstPage = body(postJson("/payroll-view/filter/cursor?size=2", "{}")).path("data");
+        assertEquals(List.of("Alice", "Bob"), employeeNames(firstPage.path("content")));
+        assertTrue(absent(firstPage.path("prev")));
+        String next = firstPage.path("next").asText();
+
+        JsonNode secondPage = body(postJson("/payroll-view/filter/cursor?size=2&after=" + encode(next), "{}")).path("data");
+        assertEquals(List.of("Carol", "Diana"), employeeNames(secondPage.path("content")));
+        assertTrue(absent(secondPage.path("next")));
+        String prev = secondPage.path("prev").asText();
+
+        JsonNode previousPage = body(postJson("/payroll-view/filter/cursor?size=2&before=" + encode(prev), "{}")).path("data");
+        assertEquals(List.of("Alice", "Bob"), employeeNames(previousPage.path("content")));
+        assertEquals(next, previousPage.path("next").asText());
+
+        JsonNode scopedFirst = body(postJsonAs("/payroll-view/filter/cursor?size=1", "{}", "hr-resource-user")).path("data");
+        assertEquals(List.of("Alice"), employeeNames(scopedFirst.path("content")));
+        JsonNode scopedSecond = body(postJsonAs(
+                "/payroll-view/filter/cursor?size=1&after=" + encode(scopedFirst.path("next").asText()),
+                "{}",
+                "hr-resource-user"
+        )).path("data");
+        assertEquals(List.of("Carol"), employeeNames(scopedSecond.path("content")));
+
+        ResponseEntity<String> otherSortResponse = postJson(
+                "/payroll-view/filter/cursor?size=2&sort=netAmount,desc&after=" + encode(next),
+                "{}"
+        );
+        assertEquals(400, otherSortResponse.getStatusCode().value());
+    }
+
+    @Test
+    void locateCountsRowsBeforeTheTargetUnderTheSameSortAndAccessScope() throws Exception {
+        Long dianaId = state.payrollIdsByEmployee().get("Diana");
+        JsonNode defaultSort = body(postJson("/payroll-view/locate?id=" + dianaId + "&size=2", "{}"));
+        assertEquals(3L, defaultSort.path("position").asLong());
+        assertEquals(1L, defaultSort.path("page").asLong());
+
+        JsonNode byAmount = body(postJson("/payroll-view/locate?id=" + dianaId + "&size=2&sort=netAmount,desc", "{}"));
+        assertEquals(0L, byAmount.path("position").asLong());
+
+        Long carolId = state.payrollIdsByEmployee().get("Carol");
+        ResponseEntity<String> scoped = postJsonAs("/payroll-view/locate?id=" + carolId + "&size=2", "{}", "hr-resource-user");
+        assertEquals(200, scoped.getStatusCode().value());
+        assertEquals(1L, body(scoped).path("position").asLong());
+
+        Long bobId = state.payrollIdsByEmployee().get("Bob");
+        assertEquals(404, postJsonAs("/payroll-view/locate?id=" + bobId + "&size=2", "{}", "hr-resource-user")
+                .getStatusCode().value());
     }
 
     private List<String> names(JsonNode nodes) {
@@ -180,6 +294,14 @@ class ResourceQuerySurfaceE2ETest extends AbstractE2eH2Test {
                 .toList();
     }
 
+    private boolean absent(JsonNode node) {
+        return node.isMissingNode() || node.isNull();
+    }
+
+    private String encode(String cursor) {
+        return URLEncoder.encode(cursor, StandardCharsets.UTF_8);
+    }
+
     private ResponseEntity<String> postJsonAs(String path, String requestBody, String principalName) {
         HttpHeaders headers = new HttpHeaders();
         headers.set(TEST_PRINCIPAL_HEADER, principalName);
@@ -10,6 +10,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import org.praxisplatform.uischema.annotation.OptionLabel;
 import org.praxisplatform.uischema.repository.base.BaseCrudRepository;
 import org.praxisplatform.uischema.service.base.annotation.DefaultSortColumn;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -32,6 +33,7 @@ class DepartmentEntity {
     private Long id;
 
     @DefaultSortColumn(priority = 1)
+    @OptionLabel
     private String nome;
 
     private String code;
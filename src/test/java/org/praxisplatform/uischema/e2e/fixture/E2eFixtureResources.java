@@ -15,6 +15,12 @@ import org.praxisplatform.uischema.action.ActionRiskLevel;
 import org.praxisplatform.uischema.action.ActionRequirement;
 import org.praxisplatform.uischema.action.ActionResourceVersionTransport;
 import org.praxisplatform.uischema.dto.CursorPage;
+import org.praxisplatform.uischema.exporting.CollectionExportExecutor;
+import org.praxisplatform.uischema.exporting.CollectionExportField;
+import org.praxisplatform.uischema.exporting.CollectionExportProjectedRows;
+import org.praxisplatform.uischema.exporting.CollectionExportRequest;
+import org.praxisplatform.uischema.exporting.CollectionExportResult;
+import org.praxisplatform.uischema.exporting.CollectionExportRowSource;
 import org.praxisplatform.uischema.filter.specification.GenericSpecification;
 import org.praxisplatform.uischema.mapper.base.ResourceMapper;
 import org.praxisplatform.uischema.options.EntityLookupDescriptor;
@@ -640,11 +646,26 @@ class DepartmentService extends AbstractBaseResourceService<
         CreateDepartmentDTO,
         UpdateDepartmentDTO> {
 
+    static final String EXPORT_SOURCE = "source";
+    static final String EXPORT_SOURCE_PROJECTION = "projection";
+
+    private static final List<CollectionExportField> EXPORT_FIELDS = List.of(
+            new CollectionExportField("id", "ID", true, true, "number", null),
+            new CollectionExportField("nome", "Nome", true, true, "string", null),
+            new CollectionExportField("code", "Code", true, true, "string", null)
+    );
+
     private final DepartmentResourceMapper mapper;
+    private final CollectionExportExecutor exportExecutor;
 
-    DepartmentService(DepartmentRepository repository, DepartmentResourceMapper mapper) {
+    DepartmentService(
+            DepartmentRepository repository,
+            DepartmentResourceMapper mapper,
+            CollectionExportExecutor exportExecutor
+    ) {
         super(repository, DepartmentEntity.class);
         this.mapper = mapper;
+        this.exportExecutor = exportExecutor;
     }
 
     @Override
@@ -653,8 +674,27 @@ class DepartmentService extends AbstractBaseResourceService<
     }
 
     @Override
-    public Optional<String> getDatasetVersion() {
-        return Optional.of("e2e");
+    public boolean supportsCollectionExport() {
+        return true;
+    }
+
+    @Override
+    public CollectionExportResult exportCollection(CollectionExportRequest<DepartmentFilterDTO> request) {
+        List<CollectionExportField> fields = exportExecutor.effectiveFields(request, EXPORT_FIELDS);
+        Sort sort = Sort.by("id");
+        if (request.metadata() != null && EXPORT_SOURCE_PROJECTION.equals(request.metadata().get(EXPORT_SOURCE))) {
+            CollectionExportProjectedRows projected = streamExportProjection(request.filters(), sort, fields, request.maxRows());
+            return admitExport(request, fields.size(), request.maxRows(), projected.rows(), rows ->
+                    exportExecutor.stream(request, rows, projected.fields(), projected.valueResolver(), Map.of()));
+        }
+        CollectionExportRowSource<DepartmentResponseDTO> rows = streamExportRows(request.filters(), sort, request.maxRows());
+        return admitExport(request, fields.size(), request.maxRows(), rows, source ->
+                exportExecutor.stream(request, source, fields, (row, field) -> switch (field.key()) {
+                    case "id" -> row.getId();
+                    case "nome" -> row.getNome();
+                    case "code" -> row.getCode();
+                    default -> null;
+                }, Map.of()));
     }
 }
 
@@ -683,6 +723,11 @@ class PayrollViewService extends AbstractReadOnlyResourceService<
         return mapper;
     }
 
+    @Override
+    protected boolean isResponseProjectionEnabled() {
+        return true;
+    }
+
     @Override
     public Optional<String> getDatasetVersion() {
         return Optional.of("e2e");
@@ -923,6 +968,11 @@ class PayrollViewController extends org.praxisplatform.uischema.controller.base.
         this.service = service;
     }
 
+    @Override
+    protected boolean isConditionalPostQueryEnabled() {
+        return true;
+    }
+
     @Override
     protected PayrollViewService getService() {
         return service;
@@ -1,21 +1,47 @@
 package org.praxisplatform.uischema.exporting;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class DefaultCollectionExportExecutorTest {
 
@@ -231,6 +257,62 @@ class DefaultCollectionExportExecutorTest {
         );
     }
 
+    @Test
+    void formatsInstantsInTheRequestOrFieldTimeZone() {
+        CollectionExportRequest<?> request = new CollectionExportRequest<>(
+                "table",
+                "events",
+                "/api/events",
+                CollectionExportFormat.CSV,
+                CollectionExportScope.CURRENT_PAGE,
+                null,
+                List.of(),
+                null,
+                null,
+                null,
+                Map.of(),
+                true,
+                true,
+                null,
+                "events.csv",
+                new CollectionExportFormatOptions(
+                        new CollectionExportCsvOptions(";", "UTF-8", false, "lf", false, false),
+                        null
+                ),
+                new CollectionExportLocalization("pt-BR", "America/Sao_Paulo"),
+                Map.of()
+        );
+        List<CollectionExportField> fields = List.of(
+                new CollectionExportField("at", "Em", true, true, "datetime", "at", "dd/MM/yyyy HH:mm", null),
+                new CollectionExportField(
+                        "tokyo",
+                        "Toquio",
+                        true,
+                        true,
+                        "datetime",
+                        "at",
+                        "dd/MM/yyyy HH:mm",
+                        new CollectionExportFieldPresentation("datetime", null, null, null, "Asia/Tokyo", null, null, null)
+                )
+        );
+        Instant at = Instant.parse("2024-01-15T12:30:00Z");
+
+        CollectionExportResult result = executor.export(
+                request,
+                List.of(at, at.atOffset(ZoneOffset.UTC)),
+                fields,
+                (Object row, CollectionExportField field) -> row,
+                Map.of()
+        );
+
+        assertEquals(
+                "\"Em\";\"Toquio\"\n"
+                        + "\"15/01/2024 09:30\";\"15/01/2024 21:30\"\n"
+                        + "\"15/01/2024 09:30\";\"15/01/2024 21:30\"",
+                new String(result.content(), StandardCharsets.UTF_8)
+        );
+    }
+
     @Test
     void exportsJsonWithGovernedFormattingWhenRequested() {
         CollectionExportRequest<?> request = new CollectionExportRequest<>(
@@ -554,6 +636,40 @@ class DefaultCollectionExportExecutorTest {
         }
     }
 
+    @Test
+    void exportsExcelBeyondTheRowWindowAndEstimatesWidthsFromSampledRows() throws Exception {
+        CollectionExportExecutor windowed = new DefaultCollectionExportExecutor(List.of(
+                new ExcelCollectionExportEngine(2, true, 2)
+        ));
+        CollectionExportRequest<?> request = new CollectionExportRequest<>(
+                "table", "orders", "/api/orders", CollectionExportFormat.EXCEL, CollectionExportScope.ALL,
+                null,
+                List.of(new CollectionExportField("name", "Name", true, true, "string", "name")),
+                null, null, null, Map.of(), true, false, null, "orders.xlsx",
+                new CollectionExportFormatOptions(null, new CollectionExportExcelOptions(null, false, true, false, false)),
+                null,
+                Map.of()
+        );
+        List<Row> rows = List.of(
+                new Row(1, "Ana", BigDecimal.ONE),
+                new Row(2, "Bruno Costa", BigDecimal.ONE),
+                new Row(3, "Carla", BigDecimal.ONE),
+                new Row(4, "A name far longer than every sampled row", BigDecimal.ONE),
+                new Row(5, "Eva", BigDecimal.ONE)
+        );
+
+        CollectionExportResult result = windowed.export(request, rows, defaultFields, this::valueFor, Map.of());
+
+        assertEquals(5L, result.rowCount());
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(result.content()))) {
+            var sheet = workbook.getSheetAt(0);
+            assertEquals(5, sheet.getLastRowNum());
+            assertEquals("Ana", sheet.getRow(1).getCell(0).getStringCellValue());
+            assertEquals("Eva", sheet.getRow(5).getCell(0).getStringCellValue());
+            assertEquals(("Bruno Costa".length() + 2) * 256, sheet.getColumnWidth(0));
+        }
+    }
+
     @Test
     void deserializesGovernedExportRequestShapeFromJson() throws Exception {
         String json = """
@@ -600,6 +716,390 @@ class DefaultCollectionExportExecutorTest {
         assertNull(request.formatOptions().excel());
     }
 
+    @Test
+    void streamsRowsOnlyWhenTheBodyIsWritten() throws Exception {
+        CollectionExportRequest<?> request = new CollectionExportRequest<>(
+                "table", "orders", "/api/orders", CollectionExportFormat.JSON, CollectionExportScope.ALL,
+                null, List.of(), null, null, null, Map.of(), true, false, null, "orders.json", Map.of()
+        );
+        AtomicInteger opened = new AtomicInteger();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        CollectionExportResult result = executor.stream(
+                request,
+                CollectionExportRowSource.of(() -> {
+                    opened.incrementAndGet();
+                    return Stream.of(new Row(1, "Ana", BigDecimal.ONE), new Row(2, "Bruno", BigDecimal.TEN))
+                            .onClose(() -> closed.set(true));
+                }),
+                defaultFields,
+                this::valueFor,
+                Map.of("truncated", false)
+        );
+
+        assertTrue(result.streaming());
+        assertEquals(0, opened.get());
+        assertEquals("orders.json", result.fileName());
+        assertEquals("application/json", result.contentType());
+        assertNull(result.rowCount());
+        assertEquals(Boolean.FALSE, result.metadata().get("truncated"));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        result.writeTo(output);
+
+        assertEquals(1, opened.get());
+        assertTrue(closed.get());
+        assertEquals("[{\"id\":1,\"name\":\"Ana\",\"amount\":\"1\"},{\"id\":2,\"name\":\"Bruno\",\"amount\":\"10\"}]",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void streamedCsvMatchesMaterializedCsv() throws Exception {
+        CollectionExportRequest<?> request = new CollectionExportRequest<>(
+                "table", "orders", "/api/orders", CollectionExportFormat.CSV, CollectionExportScope.ALL,
+                null, List.of(), null, null, null, Map.of(), true, false, null, "orders.csv",
+                new CollectionExportFormatOptions(new CollectionExportCsvOptions(";", "UTF-8", true, "crlf", true, true), null),
+                null,
+                Map.of()
+        );
+        List<Row> rows = List.of(new Row(1, "=Ana", BigDecimal.ONE), new Row(2, "Bruno", BigDecimal.TEN));
+
+        CollectionExportResult materialized = executor.export(request, rows, defaultFields, this::valueFor, Map.of());
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        executor.stream(request, CollectionExportRowSource.of(rows), defaultFields, this::valueFor, Map.of())
+                .writeTo(streamed);
+
+        assertEquals(2L, materialized.rowCount());
+        assertArrayEquals(materialized.content(), streamed.toByteArray());
+    }
+
+    @Test
+    void gzipFormatsStreamTheCompressedOutputOfTheBaseEngine() throws Exception {
+        CsvCollectionExportEngine csv = new CsvCollectionExportEngine();
+        JsonCollectionExportEngine json = new JsonCollectionExportEngine(new ObjectMapper());
+        CollectionExportExecutor compressedExecutor = new DefaultCollectionExportExecutor(List.of(
+                csv,
+                json,
+                new CompressedCollectionExportEngine(CollectionExportFormat.CSV_GZIP, csv, CollectionExportCompression.GZIP),
+                new CompressedCollectionExportEngine(CollectionExportFormat.JSON_GZIP, json, CollectionExportCompression.GZIP)
+        ));
+        List<Row> rows = List.of(new Row(1, "Ana", BigDecimal.ONE), new Row(2, "Bruno", BigDecimal.TEN));
+
+        for (CollectionExportFormat format : List.of(CollectionExportFormat.CSV_GZIP, CollectionExportFormat.JSON_GZIP)) {
+            CollectionExportFormat base = format == CollectionExportFormat.CSV_GZIP
+                    ? CollectionExportFormat.CSV
+                    : CollectionExportFormat.JSON;
+            CollectionExportResult plain = compressedExecutor.export(
+                    request(base, "orders." + base.value()), rows, defaultFields, this::valueFor, Map.of()
+            );
+            CollectionExportResult compressed = compressedExecutor.stream(
+                    request(format, "orders." + base.value()), CollectionExportRowSource.of(rows), defaultFields, this::valueFor, Map.of()
+            );
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            compressed.writeTo(output);
+
+            assertTrue(compressed.streaming());
+            assertEquals(format, compressed.format());
+            assertEquals("application/gzip", compressed.contentType());
+            assertEquals("orders." + base.value() + ".gz", compressed.fileName());
+            try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+                assertArrayEquals(plain.content(), input.readAllBytes());
+            }
+        }
+        assertEquals(
+                List.of(CollectionExportFormat.CSV, CollectionExportFormat.JSON, CollectionExportFormat.CSV_GZIP, CollectionExportFormat.JSON_GZIP),
+                compressedExecutor.supportedFormats()
+        );
+    }
+
+    @Test
+    void streamsNdjsonLinesAndFlushesTheFirstRowImmediately() throws Exception {
+        CollectionExportExecutor ndjsonExecutor = new DefaultCollectionExportExecutor(List.of(
+                new NdjsonCollectionExportEngine(new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT), 2)
+        ));
+        List<Row> rows = IntStream.rangeClosed(1, 5)
+                .mapToObj(index -> new Row(index, index == 3 ? null : "Row " + index, BigDecimal.valueOf(index)))
+                .toList();
+        List<String> flushed = new ArrayList<>();
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushed.add(toString(StandardCharsets.UTF_8));
+            }
+        };
+
+        CollectionExportResult result = ndjsonExecutor.stream(
+                request(CollectionExportFormat.NDJSON, null),
+                CollectionExportRowSource.of(rows),
+                defaultFields,
+                this::valueFor,
+                Map.of()
+        );
+        result.writeTo(output);
+
+        assertEquals(NdjsonCollectionExportEngine.CONTENT_TYPE, result.contentType());
+        assertEquals("collection-export.ndjson", result.fileName());
+        assertEquals(
+                "{\"id\":1,\"name\":\"Row 1\",\"amount\":\"1\"}\n"
+                        + "{\"id\":2,\"name\":\"Row 2\",\"amount\":\"2\"}\n"
+                        + "{\"id\":3,\"name\":null,\"amount\":\"3\"}\n"
+                        + "{\"id\":4,\"name\":\"Row 4\",\"amount\":\"4\"}\n"
+                        + "{\"id\":5,\"name\":\"Row 5\",\"amount\":\"5\"}\n",
+                output.toString(StandardCharsets.UTF_8)
+        );
+        assertEquals("{\"id\":1,\"name\":\"Row 1\",\"amount\":\"1\"}\n", flushed.get(0));
+        assertEquals(4, flushed.size());
+    }
+
+    @Test
+    void streamsProjectedRowsWithTheEffectiveFieldsInColumnOrder() throws Exception {
+        CollectionExportRequest<?> request = new CollectionExportRequest<>(
+                "table", "orders", "/api/orders", CollectionExportFormat.CSV, CollectionExportScope.ALL,
+                null,
+                List.of(
+                        new CollectionExportField("amount", null, true, true, null, "amount"),
+                        new CollectionExportField("name", "Customer", true, true, "string", "name")
+                ),
+                null, null, null, Map.of(), true, false, null, null, Map.of()
+        );
+        List<CollectionExportField> fields = executor.effectiveFields(request, defaultFields);
+        CollectionExportProjectedRows projected = CollectionExportProjectedRows.of(
+                fields,
+                CollectionExportRowSource.of(List.of(
+                        new Object[]{new BigDecimal("10.5"), "Ana"},
+                        new Object[]{BigDecimal.ONE, null}
+                ))
+        );
+
+        CollectionExportResult result = executor.stream(
+                request,
+                projected.rows(),
+                projected.fields(),
+                projected.valueResolver(),
+                Map.of()
+        );
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        result.writeTo(output);
+
+        assertEquals(List.of("amount", "name"), fields.stream().map(CollectionExportField::valuePath).toList());
+        assertEquals(
+                "\"Amount\",\"Customer\"\r\n\"10.5\",\"Ana\"\r\n\"1\",\"\"",
+                output.toString(StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    void sharesMaterializedContentAndTransfersFileContent() throws Exception {
+        CollectionExportResult result = executor.export(
+                request(CollectionExportFormat.CSV, null),
+                List.of(new Row(1, "Ana", BigDecimal.ONE)),
+                defaultFields,
+                this::valueFor,
+                Map.of()
+        );
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        result.writeTo(written);
+
+        assertTrue(result.contentBuffer().isReadOnly());
+        assertEquals(result.contentLength(), result.contentBuffer().remaining());
+        assertArrayEquals(result.content(), written.toByteArray());
+
+        Path file = Files.createTempFile("collection-export", ".csv");
+        try {
+            Files.writeString(file, "id\n1\n2");
+            CollectionExportResult fileResult = CollectionExportResult.file(
+                    CollectionExportFormat.CSV, CollectionExportScope.ALL, file, "rows.csv", "text/csv", 2L, Map.of()
+            );
+            ByteArrayOutputStream transferred = new ByteArrayOutputStream();
+            fileResult.writeTo(transferred);
+
+            assertTrue(fileResult.hasContent());
+            assertEquals(6L, fileResult.contentLength());
+            assertEquals("id\n1\n2", transferred.toString(StandardCharsets.UTF_8));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void exportsParquetWithTypedColumns() throws Exception {
+        CollectionExportExecutor parquetExecutor = new DefaultCollectionExportExecutor(List.of(
+                new ParquetCollectionExportEngine("uncompressed", 0, 0)
+        ));
+        List<CollectionExportField> fields = List.of(
+                new CollectionExportField("id", "ID", true, true, "integer", "id"),
+                new CollectionExportField("name", "Name", true, true, "string", "name"),
+                new CollectionExportField("amount", "Amount", true, true, "number", "amount")
+        );
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        CollectionExportResult result = parquetExecutor.stream(
+                request(CollectionExportFormat.PARQUET, null),
+                CollectionExportRowSource.of(List.of(new Row(1, "Ana", BigDecimal.ONE), new Row(2, null, null))),
+                fields,
+                this::valueFor,
+                Map.of()
+        );
+        result.writeTo(output);
+
+        byte[] bytes = output.toByteArray();
+        assertEquals(ParquetCollectionExportEngine.CONTENT_TYPE, result.contentType());
+        assertEquals("collection-export.parquet", result.fileName());
+        assertEquals("PAR1", new String(bytes, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals("PAR1", new String(bytes, bytes.length - 4, 4, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void exportsParquetDecimalsAsFixedPointColumns() throws Exception {
+        CollectionExportExecutor parquetExecutor = new DefaultCollectionExportExecutor(List.of(
+                new ParquetCollectionExportEngine("uncompressed", 0, 0)
+        ));
+        List<CollectionExportField> fields = List.of(
+                new CollectionExportField("id", "ID", true, true, "integer", "id"),
+                new CollectionExportField("amount", "Amount", true, true, "currency", "amount")
+        );
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        parquetExecutor.stream(
+                request(CollectionExportFormat.PARQUET, null),
+                CollectionExportRowSource.of(List.of(
+                        new Row(1, "Ana", new BigDecimal("12345678901234567.10")),
+                        new Row(2, "Bruno", new BigDecimal("-0.015")),
+                        new Row(3, "Carla", null)
+                )),
+                fields,
+                this::valueFor,
+                Map.of()
+        ).writeTo(output);
+        Path file = Files.createTempFile("collection-export", ".parquet");
+        try {
+            Files.write(file, output.toByteArray());
+            PrimitiveType amount;
+            try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file))) {
+                amount = reader.getFileMetaData().getSchema().getType("amount").asPrimitiveType();
+            }
+            List<BigDecimal> amounts = new ArrayList<>();
+            try (ParquetReader<Group> reader = ParquetReader.builder(
+                    new GroupReadSupport(),
+                    new org.apache.hadoop.fs.Path(file.toUri())
+            ).build()) {
+                for (Group row = reader.read(); row != null; row = reader.read()) {
+                    amounts.add(row.getFieldRepetitionCount("amount") == 0
+                            ? null
+                            : new BigDecimal(new BigInteger(row.getBinary("amount", 0).getBytes()), 2));
+                }
+            }
+
+            assertEquals(PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY, amount.getPrimitiveTypeName());
+            assertEquals(LogicalTypeAnnotation.decimalType(2, 38), amount.getLogicalTypeAnnotation());
+            assertEquals(Arrays.asList(new BigDecimal("12345678901234567.10"), new BigDecimal("-0.02"), null), amounts);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void partitionedCsvAndJsonMatchSequentialOutputWhenPartitionsFinishOutOfOrder() throws Exception {
+        List<Row> rows = List.of(
+                new Row(1, "Ana", BigDecimal.ONE),
+                new Row(2, "=Bruno", BigDecimal.TEN),
+                new Row(3, "Carla", BigDecimal.ONE),
+                new Row(4, "Dora", BigDecimal.TEN),
+                new Row(5, "Eva", BigDecimal.ONE)
+        );
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            for (CollectionExportFormat format : List.of(CollectionExportFormat.CSV, CollectionExportFormat.JSON)) {
+                CollectionExportRequest<?> request = new CollectionExportRequest<>(
+                        "table", "orders", "/api/orders", format, CollectionExportScope.ALL,
+                        null, List.of(), null, null, null, Map.of(), true, false, null, null, Map.of()
+                );
+                ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+                executor.stream(request, CollectionExportRowSource.of(rows), defaultFields, this::valueFor, Map.of())
+                        .writeTo(sequential);
+                ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+                executor.stream(
+                        request,
+                        partitioned(List.of(rows.subList(0, 2), List.of(), rows.subList(2, 4), rows.subList(4, 5)), pool),
+                        defaultFields,
+                        this::valueFor,
+                        Map.of()
+                ).writeTo(parallel);
+
+                assertEquals(sequential.toString(StandardCharsets.UTF_8), parallel.toString(StandardCharsets.UTF_8));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void partitionedCsvSharesCompiledCurrencyFormatterAcrossPartitions() throws Exception {
+        CollectionExportRequest<?> request = new CollectionExportRequest<>(
+                "table", "orders", "/api/orders", CollectionExportFormat.CSV, CollectionExportScope.ALL,
+                null, List.of(), null, null, null, Map.of(), false, true, null, null, null,
+                new CollectionExportLocalization("pt-BR", "America/Sao_Paulo"), Map.of()
+        );
+        List<CollectionExportField> fields = List.of(new CollectionExportField(
+                "amount", "Amount", true, true, "currency", "amount", null,
+                new CollectionExportFieldPresentation("currency", null, "BRL", "pt-BR", null, null, null, null)
+        ));
+        List<Row> rows = IntStream.rangeClosed(1, 40)
+                .mapToObj(index -> new Row(index, "Row " + index, BigDecimal.valueOf(index * 1000L)))
+                .toList();
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            executor.stream(
+                    request,
+                    partitioned(List.of(rows.subList(0, 10), rows.subList(10, 20), rows.subList(20, 30), rows.subList(30, 40)), pool),
+                    fields,
+                    this::valueFor,
+                    Map.of()
+            ).writeTo(output);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(40, lines.length);
+        assertEquals("\"R$\u00A01.000,00\"", lines[0]);
+        assertEquals("\"R$\u00A040.000,00\"", lines[39]);
+    }
+
+    @Test
+    void partitionedExcelWritesRowsInPartitionOrder() throws Exception {
+        CollectionExportRequest<?> request = new CollectionExportRequest<>(
+                "table", "orders", "/api/orders", CollectionExportFormat.EXCEL, CollectionExportScope.ALL,
+                null, List.of(), null, null, null, Map.of(), true, false, null, "orders.xlsx", Map.of()
+        );
+        List<Row> rows = List.of(
+                new Row(1, "Ana", BigDecimal.ONE),
+                new Row(2, "Bruno", BigDecimal.TEN),
+                new Row(3, "Carla", BigDecimal.ONE)
+        );
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            executor.stream(
+                    request,
+                    partitioned(List.of(rows.subList(0, 1), rows.subList(1, 3)), pool),
+                    defaultFields,
+                    this::valueFor,
+                    Map.of()
+            ).writeTo(output);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(output.toByteArray()))) {
+            var sheet = workbook.getSheetAt(0);
+            assertEquals(3, sheet.getLastRowNum());
+            assertEquals("Ana", sheet.getRow(1).getCell(1).getStringCellValue());
+            assertEquals("Bruno", sheet.getRow(2).getCell(1).getStringCellValue());
+            assertEquals("Carla", sheet.getRow(3).getCell(1).getStringCellValue());
+        }
+    }
+
     @Test
     void rejectsFormatsWithoutRegisteredEngine() {
         CollectionExportRequest<?> request = new CollectionExportRequest<>(
@@ -696,6 +1196,34 @@ class DefaultCollectionExportExecutorTest {
         assertEquals("One or more requested export fields are not supported by this resource.", error.getMessage());
     }
 
+    /**
+     * Particoes que terminam em ordem inversa: as primeiras demoram mais.
+     */
+    private CollectionExportPartitionedRowSource<Row> partitioned(List<List<Row>> chunks, ExecutorService pool) {
+        List<Row> all = chunks.stream().flatMap(List::stream).toList();
+        return new CollectionExportPartitionedRowSource<>(
+                CollectionExportRowSource.of(all),
+                () -> IntStream.range(0, chunks.size())
+                        .mapToObj(index -> CollectionExportRowSource.<Row>of(() -> {
+                            try {
+                                Thread.sleep(20L * (chunks.size() - index));
+                            } catch (InterruptedException ex) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return chunks.get(index).stream();
+                        }))
+                        .toList(),
+                new CollectionExportParallelism(pool, 3, 2)
+        );
+    }
+
+    private CollectionExportRequest<?> request(CollectionExportFormat format, String fileName) {
+        return new CollectionExportRequest<>(
+                "table", "orders", "/api/orders", format, CollectionExportScope.ALL,
+                null, List.of(), null, null, null, Map.of(), true, false, null, fileName, Map.of()
+        );
+    }
+
     private Object valueFor(Row row, CollectionExportField field) {
         return switch (field.valuePath()) {
             case "id" -> row.id();
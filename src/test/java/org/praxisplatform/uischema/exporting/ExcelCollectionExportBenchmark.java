@@ -0,0 +1,116 @@
+package org.praxisplatform.uischema.exporting;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exporta 1M de linhas em XLSX com heap fixo.
+ *
+ * <p>Fora da suite padrao; execute com {@code mvn -P export-benchmark test}, que fixa
+ * {@code -Xmx256m}. A cada {@value #CHECKPOINT_ROWS} linhas o heap vivo e medido apos um GC: o
+ * benchmark falha se ele passar de {@value #MAX_RETAINED_MB} MB acima do inicial ou crescer mais
+ * de {@value #MAX_GROWTH_MB} MB entre o primeiro e o ultimo ponto, isto e, se o engine reter
+ * linhas alem da janela do {@code SXSSFWorkbook}.</p>
+ */
+class ExcelCollectionExportBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExcelCollectionExportBenchmark.class);
+
+    private static final long ROWS = 1_000_000L;
+    private static final long CHECKPOINT_ROWS = 100_000L;
+    private static final long MAX_RETAINED_MB = 32;
+    private static final long MAX_GROWTH_MB = 8;
+
+    private final CollectionExportExecutor executor = new DefaultCollectionExportExecutor(List.of(
+            new ExcelCollectionExportEngine()
+    ));
+
+    private final List<CollectionExportField> fields = List.of(
+            new CollectionExportField("id", "ID", true, true, "number", "id"),
+            new CollectionExportField("name", "Name", true, true, "string", "name"),
+            new CollectionExportField("amount", "Amount", true, true, "number", "amount"),
+            new CollectionExportField("date", "Date", true, true, "date", "date")
+    );
+
+    @Test
+    void exportsOneMillionRowsWithinHeapBudget() throws Exception {
+        CollectionExportRequest<?> request = new CollectionExportRequest<>(
+                "table", "benchmark", "/benchmark", CollectionExportFormat.EXCEL, CollectionExportScope.ALL,
+                null, List.of(), null, null, null, Map.of(), true, false, null, "benchmark.xlsx",
+                new CollectionExportFormatOptions(null, new CollectionExportExcelOptions(null, true, true, true, false)),
+                null,
+                Map.of()
+        );
+        CountingOutputStream output = new CountingOutputStream();
+        LocalDate base = LocalDate.of(2024, 1, 1);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = retainedHeap(memory);
+        List<Long> checkpoints = new ArrayList<>();
+        long[] rowsMapped = new long[1];
+
+        long started = System.nanoTime();
+        executor.stream(
+                request,
+                CollectionExportRowSource.of(() -> LongStream.range(0, ROWS).boxed()),
+                fields,
+                (Long row, CollectionExportField field) -> switch (field.key()) {
+                    case "id" -> {
+                        rowsMapped[0]++;
+                        if (row > 0 && row % CHECKPOINT_ROWS == 0) {
+                            checkpoints.add(retainedHeap(memory) - baseline);
+                        }
+                        yield row;
+                    }
+                    case "name" -> "Row " + row;
+                    case "amount" -> BigDecimal.valueOf(row, 2);
+                    case "date" -> base.plusDays(row % 3650);
+                    default -> null;
+                },
+                Map.of()
+        ).writeTo(output);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000L;
+
+        long peakMb = checkpoints.stream().mapToLong(Long::longValue).max().orElse(0L) / (1024 * 1024);
+        long growthMb = (checkpoints.get(checkpoints.size() - 1) - checkpoints.get(0)) / (1024 * 1024);
+        logger.info("XLSX export: {} rows, {} bytes, {} ms, retained heap peak {} MB, growth {} MB",
+                ROWS, output.count, elapsedMillis, peakMb, growthMb);
+        assertEquals(ROWS, rowsMapped[0]);
+        assertTrue(output.count > 0);
+        assertTrue(peakMb <= MAX_RETAINED_MB, "retained heap peaked at " + peakMb + " MB");
+        assertTrue(growthMb <= MAX_GROWTH_MB, "retained heap grew " + growthMb + " MB while streaming");
+    }
+
+    private static long retainedHeap(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
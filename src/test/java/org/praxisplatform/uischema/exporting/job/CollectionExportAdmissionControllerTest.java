@@ -0,0 +1,168 @@
+package org.praxisplatform.uischema.exporting.job;
+
+import org.junit.jupiter.api.Test;
+import org.praxisplatform.uischema.concurrency.ResourceVersionScope;
+import org.praxisplatform.uischema.exporting.CollectionExportFormat;
+import org.praxisplatform.uischema.exporting.CollectionExportResult;
+import org.praxisplatform.uischema.exporting.CollectionExportScope;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CollectionExportAdmissionControllerTest {
+
+    private final AtomicReference<String> tenant = new AtomicReference<>("tenant-a");
+
+    @Test
+    void defersExportsAboveTheCellOrMemoryBudget() {
+        CollectionExportAdmissionController controller = controller(256L * 1_000, 4, 4, 10_000);
+
+        CollectionExportAdmission cells = controller.admit(CollectionExportFormat.CSV, 5_000, 3);
+        CollectionExportAdmission memory = controller.admit(CollectionExportFormat.EXCEL, 500, 3);
+        CollectionExportAdmission admitted = controller.admit(CollectionExportFormat.EXCEL, 500, 2);
+
+        assertEquals(CollectionExportAdmission.Decision.DEFERRED, cells.decision());
+        assertEquals(CollectionExportAdmissionController.REASON_CELLS, cells.reason());
+        assertEquals(CollectionExportAdmission.Decision.DEFERRED, memory.decision());
+        assertEquals(CollectionExportAdmissionController.REASON_MEMORY, memory.reason());
+        assertEquals(384_000L, memory.estimatedBytes());
+        assertTrue(admitted.admitted());
+        assertNull(admitted.reason());
+        assertEquals(256_000L, controller.reservedBytes());
+        assertEquals(CollectionExportAdmissionController.REASON_MEMORY,
+                controller.admit(CollectionExportFormat.CSV, 1, 1).reason());
+
+        admitted.release();
+        admitted.release();
+
+        assertEquals(0L, controller.reservedBytes());
+        assertEquals(0, controller.running());
+    }
+
+    @Test
+    void limitsConcurrentExportsPerPodAndPerTenant() {
+        CollectionExportAdmissionController controller = controller(1_000_000L, 2, 1, 0);
+
+        CollectionExportAdmission first = controller.admit(CollectionExportFormat.CSV, 10, 2);
+        CollectionExportAdmission sameTenant = controller.admit(CollectionExportFormat.CSV, 10, 2);
+        tenant.set("tenant-b");
+        CollectionExportAdmission otherTenant = controller.admit(CollectionExportFormat.CSV, 10, 2);
+        tenant.set("tenant-c");
+        CollectionExportAdmission podFull = controller.admit(CollectionExportFormat.CSV, 10, 2);
+
+        assertTrue(first.admitted());
+        assertEquals(CollectionExportAdmissionController.REASON_TENANT_CONCURRENCY, sameTenant.reason());
+        assertTrue(otherTenant.admitted());
+        assertEquals(CollectionExportAdmissionController.REASON_CONCURRENCY, podFull.reason());
+
+        first.release();
+        tenant.set("tenant-a");
+
+        assertTrue(controller.admit(CollectionExportFormat.CSV, 10, 2).admitted());
+    }
+
+    @Test
+    void releasesStreamingReservationAfterTheBodyIsWritten() throws Exception {
+        CollectionExportAdmissionController controller = controller(1_000_000L, 1, 1, 0);
+        CollectionExportAdmission admission = controller.admit(CollectionExportFormat.CSV, 10, 2);
+
+        CollectionExportResult tracked = admission.track(CollectionExportResult.streamed(
+                CollectionExportFormat.CSV,
+                CollectionExportScope.ALL,
+                "rows.csv",
+                "text/csv",
+                output -> output.write("a,b".getBytes(StandardCharsets.UTF_8)),
+                Map.of("maxRows", 10)
+        ));
+
+        assertEquals(1, controller.running());
+        assertEquals("admitted", tracked.metadata().get("admission"));
+        assertEquals(10L, tracked.metadata().get("estimatedRows"));
+        assertEquals(640L, tracked.metadata().get("estimatedBytes"));
+        assertEquals(10, tracked.metadata().get("maxRows"));
+        assertFalse(tracked.metadata().containsKey("admissionReason"));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        tracked.writeTo(output);
+
+        assertEquals("a,b", output.toString(StandardCharsets.UTF_8));
+        assertEquals(0, controller.running());
+        assertEquals(0L, controller.reservedBytes());
+    }
+
+    @Test
+    void releasesStreamingReservationWhenTheRequestEndsWithoutWritingTheBody() {
+        CollectionExportAdmissionController controller = controller(1_000_000L, 1, 1, 0);
+        ServletRequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(attributes);
+        try {
+            controller.admit(CollectionExportFormat.CSV, 10, 2).track(streamed());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        assertEquals(1, controller.running());
+        attributes.requestCompleted();
+
+        assertEquals(0, controller.running());
+        assertEquals(0L, controller.reservedBytes());
+    }
+
+    @Test
+    void asyncStreamingReservationIsReleasedWhenTheAsyncContextEnds() {
+        CollectionExportAdmissionController controller = controller(1_000_000L, 1, 1, 0);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        ServletRequestAttributes attributes = new ServletRequestAttributes(request);
+        RequestContextHolder.setRequestAttributes(attributes);
+        try {
+            controller.admit(CollectionExportFormat.CSV, 10, 2).track(streamed());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        request.startAsync(request, new MockHttpServletResponse());
+
+        attributes.requestCompleted();
+        assertEquals(1, controller.running());
+
+        request.getAsyncContext().complete();
+        assertEquals(0, controller.running());
+    }
+
+    private static CollectionExportResult streamed() {
+        return CollectionExportResult.streamed(
+                CollectionExportFormat.CSV,
+                CollectionExportScope.ALL,
+                "rows.csv",
+                "text/csv",
+                output -> output.write("a,b".getBytes(StandardCharsets.UTF_8)),
+                Map.of()
+        );
+    }
+
+    private CollectionExportAdmissionController controller(
+            long memoryBudgetBytes,
+            int maxConcurrent,
+            int maxConcurrentPerTenant,
+            long maxSyncCells
+    ) {
+        return new CollectionExportAdmissionController(
+                () -> new ResourceVersionScope(tenant.get()),
+                memoryBudgetBytes,
+                maxConcurrent,
+                maxConcurrentPerTenant,
+                maxSyncCells
+        );
+    }
+}
@@ -0,0 +1,254 @@
+package org.praxisplatform.uischema.exporting.job;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.praxisplatform.uischema.concurrency.ResourceVersionScope;
+import org.praxisplatform.uischema.exporting.CollectionExportFormat;
+import org.praxisplatform.uischema.exporting.CollectionExportRequest;
+import org.praxisplatform.uischema.exporting.CollectionExportResult;
+import org.praxisplatform.uischema.exporting.CollectionExportRowSource;
+import org.praxisplatform.uischema.exporting.CollectionExportScope;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CollectionExportJobSchedulerTest {
+
+    @TempDir
+    Path directory;
+
+    private final ManualExecutor executor = new ManualExecutor();
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final AtomicReference<String> tenant = new AtomicReference<>("tenant-a");
+
+    @Test
+    void runsJobAndPublishesTrackedResult() throws Exception {
+        CollectionExportJobScheduler scheduler = scheduler(10, 2, 1);
+
+        CollectionExportResult deferred = scheduler.submit("/employees", request(), progress -> {
+            progress.expectRows(3);
+            CollectionExportRowSource<String> rows = progress.track(CollectionExportRowSource.of(List.of("a", "b", "c")));
+            return CollectionExportResult.streamed(
+                    CollectionExportFormat.CSV,
+                    CollectionExportScope.ALL,
+                    "employees.csv",
+                    "text/csv",
+                    output -> rows.consume(stream -> output.write(
+                            stream.collect(Collectors.joining("\n")).getBytes(StandardCharsets.UTF_8)
+                    )),
+                    Map.of()
+            );
+        });
+
+        assertTrue(deferred.deferredStatus());
+        String jobId = deferred.jobId();
+        assertEquals(CollectionExportJobStatus.QUEUED, scheduler.find(jobId).orElseThrow().status());
+        assertNull(scheduler.find(jobId).orElseThrow().progress());
+
+        executor.runAll();
+
+        CollectionExportJob job = scheduler.find(jobId).orElseThrow();
+        assertEquals(CollectionExportJobStatus.COMPLETED, job.status());
+        assertEquals("tenant-a", job.tenant());
+        assertEquals(3L, job.rowsWritten());
+        assertEquals(5L, job.bytesWritten());
+        assertEquals(1.0d, job.progress());
+        assertEquals("text/csv", job.contentType());
+        assertEquals(Instant.parse("2024-01-01T01:00:00Z"), job.expiresAt());
+        assertEquals("a\nb\nc", Files.readString(scheduler.resultFile(jobId).orElseThrow()));
+    }
+
+    @Test
+    void recordsFailureAndDiscardsPartialFile() {
+        CollectionExportJobScheduler scheduler = scheduler(10, 2, 1);
+
+        String jobId = scheduler.submit("/employees", request(), progress -> {
+            throw new IllegalStateException("could not read /srv/exports/tenant-b");
+        }).jobId();
+        executor.runAll();
+
+        CollectionExportJob job = scheduler.find(jobId).orElseThrow();
+        assertEquals(CollectionExportJobStatus.FAILED, job.status());
+        assertEquals(CollectionExportJob.ERROR_FAILED, job.error());
+        assertTrue(scheduler.resultFile(jobId).isEmpty());
+    }
+
+    @Test
+    void errorsFailTheJobAndFreeItsSlot() {
+        CollectionExportJobScheduler scheduler = scheduler(10, 1, 1);
+        String failing = scheduler.submit("/employees", request(), progress -> {
+            throw new NoClassDefFoundError("org/apache/parquet/hadoop/ParquetWriter");
+        }).jobId();
+        String next = scheduler.submit("/employees", request(), progress -> text("done")).jobId();
+
+        assertThrows(NoClassDefFoundError.class, executor::runAll);
+        executor.runAll();
+
+        assertEquals(CollectionExportJobStatus.FAILED, scheduler.find(failing).orElseThrow().status());
+        assertEquals(CollectionExportJobStatus.COMPLETED, scheduler.find(next).orElseThrow().status());
+    }
+
+    @Test
+    void rejectsSubmissionsBeyondTheQueueBound() {
+        CollectionExportJobScheduler scheduler = scheduler(1, 1, 1);
+
+        scheduler.submit("/employees", request(), progress -> text("1"));
+        scheduler.submit("/employees", request(), progress -> text("2"));
+
+        assertThrows(
+                CollectionExportJobRejectedException.class,
+                () -> scheduler.submit("/employees", request(), progress -> text("3"))
+        );
+    }
+
+    @Test
+    void limitsConcurrentJobsPerTenantWithoutBlockingOtherTenants() {
+        CollectionExportJobScheduler scheduler = scheduler(10, 3, 1);
+
+        String first = scheduler.submit("/employees", request(), progress -> text("a1")).jobId();
+        String second = scheduler.submit("/employees", request(), progress -> text("a2")).jobId();
+        tenant.set("tenant-b");
+        String other = scheduler.submit("/employees", request(), progress -> text("b1")).jobId();
+
+        assertEquals(2, executor.tasks.size());
+        assertEquals(CollectionExportJobStatus.QUEUED, scheduler.find(second).orElseThrow().status());
+
+        executor.runAll();
+
+        assertEquals(CollectionExportJobStatus.COMPLETED, scheduler.find(first).orElseThrow().status());
+        assertEquals(CollectionExportJobStatus.COMPLETED, scheduler.find(second).orElseThrow().status());
+        assertEquals(CollectionExportJobStatus.COMPLETED, scheduler.find(other).orElseThrow().status());
+    }
+
+    @Test
+    void purgesExpiredJobsAndTheirFiles() {
+        CollectionExportJobScheduler scheduler = scheduler(10, 1, 1);
+        String jobId = scheduler.submit("/employees", request(), progress -> text("done")).jobId();
+        executor.runAll();
+        assertTrue(scheduler.resultFile(jobId).isPresent());
+
+        clock.advance(Duration.ofMinutes(30));
+        assertEquals(0, scheduler.purgeExpired());
+
+        clock.advance(Duration.ofMinutes(31));
+        assertEquals(1, scheduler.purgeExpired());
+        assertTrue(scheduler.find(jobId).isEmpty());
+        assertFalse(Files.exists(directory.resolve(jobId)));
+    }
+
+    @Test
+    void recordsTheSubmittingPrincipal() {
+        CollectionExportJobScheduler scheduler = scheduler(10, 1, 1);
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+        httpRequest.setUserPrincipal(() -> "ana");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpRequest));
+        String jobId;
+        try {
+            jobId = scheduler.submit("/employees", request(), progress -> text("done")).jobId();
+            assertEquals("ana", scheduler.currentPrincipal());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        assertEquals("ana", scheduler.find(jobId).orElseThrow().principal());
+        assertNull(scheduler.currentPrincipal());
+    }
+
+    @Test
+    void fileStoreRejectsIdsOutsideTheUuidFormat() {
+        CollectionExportFileStore store = new CollectionExportFileStore(directory);
+
+        assertTrue(store.find("../secret").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> store.create("../secret"));
+    }
+
+    private CollectionExportJobScheduler scheduler(int maxQueued, int maxConcurrent, int maxPerTenant) {
+        return new CollectionExportJobScheduler(
+                new CollectionExportFileStore(directory),
+                executor,
+                () -> new ResourceVersionScope(tenant.get()),
+                maxQueued,
+                maxConcurrent,
+                maxPerTenant,
+                Duration.ofHours(1),
+                clock
+        );
+    }
+
+    private static CollectionExportRequest<?> request() {
+        return new CollectionExportRequest<>(
+                "table", "employees", "/employees", CollectionExportFormat.CSV, CollectionExportScope.ALL,
+                null, List.of(), null, null, null, Map.of(), true, false, null, "employees.csv",
+                null, null, Map.of()
+        );
+    }
+
+    private static CollectionExportResult text(String content) {
+        return CollectionExportResult.text(content, "employees.csv", "text/csv");
+    }
+
+    private static final class ManualExecutor implements Executor {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        private void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.praxisplatform.uischema.filter.web;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.praxisplatform.uischema.FieldControlType;
+import org.praxisplatform.uischema.NumericFormat;
+import org.praxisplatform.uischema.extension.annotation.UISchema;
+import org.praxisplatform.uischema.filter.annotation.Filterable;
+import org.praxisplatform.uischema.filter.dto.GenericFilterDTO;
+import org.praxisplatform.uischema.filter.range.RangePayloadNormalizer;
+import org.praxisplatform.uischema.filter.relativeperiod.RelativePeriodPayloadNormalizer;
+import org.praxisplatform.uischema.options.OptionSourceFilterRequest;
+import org.praxisplatform.uischema.rest.exceptionhandler.exception.InvalidFilterPayloadException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FilterPayloadJacksonModuleTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new FilterPayloadJacksonModule(List.of(
+                    new RangePayloadNormalizer(),
+                    new RelativePeriodPayloadNormalizer()
+            )));
+
+    @Test
+    void shouldApplyAllPayloadNormalizersWhileDeserializing() throws Exception {
+        CombinedFilterDTO filter = objectMapper.readValue("""
+                {
+                  "valor": { "minPrice": 6500, "maxPrice": 15000 },
+                  "publicadoEmPreset": "last7"
+                }
+                """, CombinedFilterDTO.class);
+
+        assertEquals(List.of(new BigDecimal("6500"), new BigDecimal("15000")), filter.getValorBetween());
+        assertEquals(7, filter.getPublicadoEmLastDays());
+        assertNull(filter.getPublicadoEmPreset());
+    }
+
+    @Test
+    void shouldReadFiltersWithoutNormalizableFieldsAsIs() throws Exception {
+        PlainFilterDTO filter = objectMapper.readValue("{\"nome\":\"ana\"}", PlainFilterDTO.class);
+
+        assertEquals("ana", filter.getNome());
+    }
+
+    @Test
+    void shouldWrapLegacyOptionSourceFilterPayloadIntoCanonicalEnvelope() throws Exception {
+        OptionSourceFilterRequest<CombinedFilterDTO> request = objectMapper.readValue("""
+                {
+                  "valor": { "minPrice": 6500, "maxPrice": 15000 }
+                }
+                """, new TypeReference<OptionSourceFilterRequest<CombinedFilterDTO>>() {});
+
+        assertEquals(List.of(new BigDecimal("6500"), new BigDecimal("15000")), request.filter().getValorBetween());
+    }
+
+    @Test
+    void shouldRegisterTheModuleOnJsonConvertersWhoseMapperMissedIt() throws Exception {
+        FilterPayloadJacksonModule module = new FilterPayloadJacksonModule(List.of(new RangePayloadNormalizer()));
+        MappingJackson2HttpMessageConverter handBuilt = new MappingJackson2HttpMessageConverter(new ObjectMapper());
+        MappingJackson2HttpMessageConverter bootBuilt = new MappingJackson2HttpMessageConverter(objectMapper);
+
+        new FilterPayloadMessageConverterConfigurer(module).extendMessageConverters(List.of(handBuilt, bootBuilt));
+
+        assertTrue(FilterPayloadJacksonModule.isRegistered(handBuilt.getObjectMapper()));
+        assertFalse(module.registerIfMissing(bootBuilt.getObjectMapper()));
+        CombinedFilterDTO filter = handBuilt.getObjectMapper().readValue("""
+                { "valor": { "minPrice": 1, "maxPrice": 2 } }
+                """, CombinedFilterDTO.class);
+        assertEquals(List.of(new BigDecimal("1"), new BigDecimal("2")), filter.getValorBetween());
+    }
+
+    @Test
+    void shouldSurfaceInvalidFilterPayloadsUnwrapped() {
+        assertThrows(InvalidFilterPayloadException.class, () -> objectMapper.readValue("""
+                {
+                  "valor": { "minPrice": 1, "maxPrice": 2 },
+                  "valorBetween": [3, 4]
+                }
+                """, CombinedFilterDTO.class));
+    }
+
+    static class CombinedFilterDTO implements GenericFilterDTO {
+        @UISchema(numericFormat = NumericFormat.CURRENCY)
+        @Filterable(operation = Filterable.FilterOperation.BETWEEN, relation = "valor")
+        private List<BigDecimal> valorBetween;
+
+        @UISchema(controlType = FieldControlType.INLINE_RELATIVE_PERIOD)
+        private String publicadoEmPreset;
+
+        @Filterable(operation = Filterable.FilterOperation.IN_LAST_DAYS, relation = "publicadoEm")
+        private Integer publicadoEmLastDays;
+
+        @Filterable(operation = Filterable.FilterOperation.ON_DATE, relation = "publicadoEm")
+        private LocalDate publicadoEmOn;
+
+        @Filterable(operation = Filterable.FilterOperation.BETWEEN, relation = "publicadoEm")
+        private List<OffsetDateTime> publicadoEmBetween;
+
+        public List<BigDecimal> getValorBetween() {
+            return valorBetween;
+        }
+
+        public void setValorBetween(List<BigDecimal> valorBetween) {
+            this.valorBetween = valorBetween;
+        }
+
+        public String getPublicadoEmPreset() {
+            return publicadoEmPreset;
+        }
+
+        public void setPublicadoEmPreset(String publicadoEmPreset) {
+            this.publicadoEmPreset = publicadoEmPreset;
+        }
+
+        public Integer getPublicadoEmLastDays() {
+            return publicadoEmLastDays;
+        }
+
+        public void setPublicadoEmLastDays(Integer publicadoEmLastDays) {
+            this.publicadoEmLastDays = publicadoEmLastDays;
+        }
+
+        public LocalDate getPublicadoEmOn() {
+            return publicadoEmOn;
+        }
+
+        public void setPublicadoEmOn(LocalDate publicadoEmOn) {
+            this.publicadoEmOn = publicadoEmOn;
+        }
+
+        public List<OffsetDateTime> getPublicadoEmBetween() {
+            return publicadoEmBetween;
+        }
+
+        public void setPublicadoEmBetween(List<OffsetDateTime> publicadoEmBetween) {
+            this.publicadoEmBetween = publicadoEmBetween;
+        }
+    }
+
+    static class PlainFilterDTO implements GenericFilterDTO {
+        @Filterable(operation = Filterable.FilterOperation.LIKE)
+        private String nome;
+
+        public String getNome() {
+            return nome;
+        }
+
+        public void setNome(String nome) {
+            this.nome = nome;
+        }
+    }
+}
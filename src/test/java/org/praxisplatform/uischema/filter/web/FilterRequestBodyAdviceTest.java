@@ -26,6 +26,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+@SuppressWarnings("removal")
 class FilterRequestBodyAdviceTest {
 
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -118,6 +119,21 @@ class FilterRequestBodyAdviceTest {
         assertTrue(supported);
     }
 
+    @Test
+    void shouldStepAsideWhenTheMapperAlreadyNormalizesThroughTheModule() throws Exception {
+        ObjectMapper moduleMapper = new ObjectMapper().registerModule(new FilterPayloadJacksonModule(List.of()));
+        FilterRequestBodyAdvice advice = new FilterRequestBodyAdvice(moduleMapper);
+        Method method = TestController.class.getDeclaredMethod("filter", CombinedFilterDTO.class);
+
+        boolean supported = advice.supports(
+                new MethodParameter(method, 0),
+                CombinedFilterDTO.class,
+                MappingJackson2HttpMessageConverter.class
+        );
+
+        assertFalse(supported);
+    }
+
     @SuppressWarnings("unused")
     static class TestController {
         public void filter(CombinedFilterDTO dto) {
@@ -0,0 +1,82 @@
+package org.praxisplatform.uischema.http;
+
+import org.junit.jupiter.api.Test;
+import org.praxisplatform.uischema.exporting.CollectionExportResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ByteBufferResourceTest {
+
+    private static final byte[] CONTENT = content(20_000);
+
+    @Test
+    void fullTransferOfExportContentWritesTheBackingArrayOnce() throws Exception {
+        CollectionExportResult result = new CollectionExportResult(CONTENT, "export.csv", "text/csv", 1L, Map.of());
+        ByteBufferResource resource = new ByteBufferResource(result.contentBuffer(), "export", result::writeTo);
+        RecordingOutputStream output = new RecordingOutputStream();
+
+        long written = resource.getInputStream().transferTo(output);
+
+        assertEquals(CONTENT.length, written);
+        assertEquals(1, output.arrays.size());
+        assertSame(CONTENT, output.arrays.get(0));
+        assertArrayEquals(CONTENT, output.toByteArray());
+    }
+
+    @Test
+    void readOnlyViewWithoutWriterIsDrainedInChunks() throws Exception {
+        CollectionExportResult result = new CollectionExportResult(CONTENT, "export.csv", "text/csv", 1L, Map.of());
+        RecordingOutputStream output = new RecordingOutputStream();
+
+        new ByteBufferResource(result.contentBuffer(), "export").getInputStream().transferTo(output);
+
+        assertTrue(output.arrays.size() > 1);
+        assertTrue(output.arrays.stream().noneMatch(array -> array == CONTENT));
+        assertArrayEquals(CONTENT, output.toByteArray());
+    }
+
+    @Test
+    void partialReadsStayOnTheBufferView() throws Exception {
+        CollectionExportResult result = new CollectionExportResult(CONTENT, "export.csv", "text/csv", 1L, Map.of());
+        ByteBufferResource resource = new ByteBufferResource(result.contentBuffer(), "export", output -> {
+            throw new AssertionError("Region transfers must not write the whole content.");
+        });
+        RecordingOutputStream output = new RecordingOutputStream();
+
+        try (InputStream input = resource.getInputStream()) {
+            assertEquals(100, input.skip(100));
+            input.transferTo(output);
+        }
+
+        assertArrayEquals(Arrays.copyOfRange(CONTENT, 100, CONTENT.length), output.toByteArray());
+    }
+
+    private static byte[] content(int size) {
+        byte[] content = new byte[size];
+        for (int index = 0; index < size; index++) {
+            content[index] = (byte) ('a' + index % 26);
+        }
+        return content;
+    }
+
+    private static final class RecordingOutputStream extends ByteArrayOutputStream {
+
+        private final List<byte[]> arrays = new ArrayList<>();
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            arrays.add(bytes);
+            super.write(bytes, offset, length);
+        }
+    }
+}
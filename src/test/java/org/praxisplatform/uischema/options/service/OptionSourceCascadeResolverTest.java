@@ -0,0 +1,130 @@
+package org.praxisplatform.uischema.options.service;
+
+import org.junit.jupiter.api.Test;
+import org.praxisplatform.uischema.dto.OptionDTO;
+import org.praxisplatform.uischema.options.OptionSourceCascadeResult;
+import org.praxisplatform.uischema.options.OptionSourceDescriptor;
+import org.praxisplatform.uischema.options.OptionSourcePolicy;
+import org.praxisplatform.uischema.options.OptionSourceType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OptionSourceCascadeResolverTest {
+
+    private final OptionSourceDescriptor country = descriptor("country", "countryId");
+    private final OptionSourceDescriptor state = descriptor("state", "stateId", "countryId");
+    private final OptionSourceDescriptor city = descriptor("city", "cityId", "stateId");
+    private final OptionSourceDescriptor currency = descriptor("currency", "currencyId", "countryId");
+
+    @Test
+    void groupsSourcesIntoDependencyLevels() {
+        List<List<OptionSourceDescriptor>> levels =
+                OptionSourceCascadeResolver.levels(List.of(city, currency, state, country));
+
+        assertEquals(List.of(List.of(country), List.of(currency, state), List.of(city)), levels);
+    }
+
+    @Test
+    void rejectsDependencyCycles() {
+        OptionSourceDescriptor left = descriptor("left", "leftId", "rightId");
+        OptionSourceDescriptor right = descriptor("right", "rightId", "leftId");
+
+        assertThrows(IllegalArgumentException.class, () -> OptionSourceCascadeResolver.levels(List.of(left, right)));
+    }
+
+    @Test
+    void resolvesSourcesWithDependenciesAndBlocksTheRest() {
+        OptionSourceCascadeResolver resolver = new OptionSourceCascadeResolver(null);
+
+        List<OptionSourceCascadeResult> results = resolver.resolve(
+                List.of(city, state, country),
+                Map.of("countryId", 55, "stateId", " "),
+                descriptor -> page(descriptor.key())
+        );
+
+        assertEquals(List.of("country", "state", "city"), results.stream().map(OptionSourceCascadeResult::sourceKey).toList());
+        assertEquals(OptionSourceCascadeResult.Status.RESOLVED, results.get(0).status());
+        assertEquals(OptionSourceCascadeResult.Status.RESOLVED, results.get(1).status());
+        assertEquals("state", results.get(1).options().getContent().get(0).label());
+        assertEquals(OptionSourceCascadeResult.Status.BLOCKED, results.get(2).status());
+        assertEquals(List.of("stateId"), results.get(2).missingDependencies());
+        assertNull(results.get(2).options());
+    }
+
+    @Test
+    void runsIndependentBranchesOnTheExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Set<String> threads = ConcurrentHashMap.newKeySet();
+            OptionSourceCascadeResolver resolver = new OptionSourceCascadeResolver(executor);
+
+            List<OptionSourceCascadeResult> results = resolver.resolve(
+                    List.of(state, currency),
+                    Map.of("countryId", 55),
+                    descriptor -> {
+                        threads.add(Thread.currentThread().getName());
+                        return page(descriptor.key());
+                    }
+            );
+
+            assertEquals(List.of("state", "currency"), results.stream().map(OptionSourceCascadeResult::sourceKey).toList());
+            assertEquals(2, threads.size());
+            assertTrue(threads.contains(Thread.currentThread().getName()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void propagatesBranchFailures() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            OptionSourceCascadeResolver resolver = new OptionSourceCascadeResolver(executor);
+
+            assertThrows(IllegalArgumentException.class, () -> resolver.resolve(
+                    List.of(state, currency),
+                    Map.of("countryId", 55),
+                    descriptor -> {
+                        if ("currency".equals(descriptor.key())) {
+                            throw new IllegalArgumentException("invalid");
+                        }
+                        return page(descriptor.key());
+                    }
+            ));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Page<OptionDTO<Object>> page(String label) {
+        return new PageImpl<>(List.of(new OptionDTO<>(1, label, null)));
+    }
+
+    private static OptionSourceDescriptor descriptor(String key, String filterField, String... dependsOn) {
+        return new OptionSourceDescriptor(
+                key,
+                OptionSourceType.LIGHT_LOOKUP,
+                "/addresses",
+                filterField,
+                key + ".id",
+                key + ".name",
+                key + ".id",
+                List.of(dependsOn),
+                Map.of(),
+                OptionSourcePolicy.defaults(),
+                null
+        );
+    }
+}
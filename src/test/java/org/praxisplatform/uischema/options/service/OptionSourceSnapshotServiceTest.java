@@ -0,0 +1,138 @@
+package org.praxisplatform.uischema.options.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.praxisplatform.uischema.dto.OptionDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OptionSourceSnapshotServiceTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void buildsCompressedSnapshotOnceWhileVersionIsUnchanged() {
+        List<Runnable> scheduled = new ArrayList<>();
+        OptionSourceSnapshotService service = service(scheduled::add, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        OptionSourceSnapshot first = service.resolve("departments|status|global", "v1", () -> {
+            loads.incrementAndGet();
+            return options("Ativo", "Inativo");
+        });
+        OptionSourceSnapshot second = service.resolve("departments|status|global", "v1", () -> {
+            loads.incrementAndGet();
+            return options("Outro");
+        });
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertTrue(scheduled.isEmpty());
+        assertEquals(2, first.rowCount());
+        String json = new String(first.jsonContent(), StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("[{") && json.contains("\"Inativo\""));
+        assertEquals(first.contentLength(), first.jsonContent().length);
+        assertTrue(first.etag().startsWith("\"") && first.etag().endsWith("\""));
+    }
+
+    @Test
+    void servesStaleSnapshotAndRebuildsAsynchronouslyWhenVersionChanges() {
+        List<Runnable> scheduled = new ArrayList<>();
+        OptionSourceSnapshotService service = service(scheduled::add, 10);
+        OptionSourceSnapshot v1 = service.resolve("k", "v1", () -> options("A"));
+
+        OptionSourceSnapshot served = service.resolve("k", "v2", () -> options("A", "B"));
+        service.resolve("k", "v2", () -> options("A", "B"));
+
+        assertSame(v1, served);
+        assertEquals(1, scheduled.size());
+
+        scheduled.get(0).run();
+        OptionSourceSnapshot v2 = service.resolve("k", "v2", () -> options("ignored"));
+
+        assertEquals("v2", v2.datasetVersion());
+        assertEquals(2, v2.rowCount());
+        assertNotEquals(v1.etag(), v2.etag());
+        assertEquals(1, scheduled.size());
+    }
+
+    @Test
+    void rebuildsRequestBoundSnapshotOnTheCallingThread() {
+        List<Runnable> scheduled = new ArrayList<>();
+        OptionSourceSnapshotService service = service(scheduled::add, 10);
+        service.resolve("k|tenant-a", "v1", true, () -> options("A"));
+
+        OptionSourceSnapshot rebuilt = service.resolve("k|tenant-a", "v2", true, () -> options("A", "B"));
+
+        assertTrue(scheduled.isEmpty());
+        assertEquals("v2", rebuilt.datasetVersion());
+        assertEquals(2, rebuilt.rowCount());
+    }
+
+    @Test
+    void derivesStableEtagFromDatasetVersion() {
+        OptionSourceSnapshot left = service(Runnable::run, 10).resolve("k", "v7", () -> options("A"));
+        OptionSourceSnapshot right = service(Runnable::run, 10).resolve("k", "v7", () -> options("A"));
+
+        assertEquals(left.etag(), right.etag());
+        assertTrue(left.matches(left.etag(), false));
+        assertTrue(left.matches("W/" + left.etag() + ", \"other\"", false));
+        assertTrue(left.matches("*", false));
+        assertFalse(left.matches("\"other\"", false));
+        assertFalse(left.matches(null, false));
+    }
+
+    @Test
+    void tagsEachContentEncodingSeparately() {
+        OptionSourceSnapshot snapshot = service(Runnable::run, 10).resolve("k", "v7", () -> options("A"));
+        String identity = snapshot.etag(false);
+        String gzip = snapshot.etag(true);
+
+        assertEquals(snapshot.etag(), identity);
+        assertEquals(identity.substring(0, identity.length() - 1) + "-gzip\"", gzip);
+        assertTrue(snapshot.matches(gzip, true));
+        assertFalse(snapshot.matches(gzip, false));
+        assertFalse(snapshot.matches(identity, true));
+    }
+
+    @Test
+    void rejectsSourcesAboveRowLimit() {
+        OptionSourceSnapshotService service = service(Runnable::run, 1);
+
+        assertThrows(OptionSourceSnapshotTooLargeException.class, () -> service.resolve("k", null, () -> options("A", "B")));
+        assertEquals(1, service.resolve("k", null, () -> options("A")).rowCount());
+    }
+
+    private OptionSourceSnapshotService service(java.util.concurrent.Executor executor, int maxRows) {
+        return new OptionSourceSnapshotService(
+                new ObjectMapper(),
+                executor,
+                maxRows,
+                Duration.ofHours(1),
+                Duration.ofMinutes(5),
+                clock
+        );
+    }
+
+    private static List<OptionDTO<Object>> options(String... labels) {
+        List<OptionDTO<Object>> options = new ArrayList<>();
+        for (int i = 0; i < labels.length; i++) {
+            options.add(new OptionDTO<>(i + 1, labels[i], null));
+        }
+        return options;
+    }
+}
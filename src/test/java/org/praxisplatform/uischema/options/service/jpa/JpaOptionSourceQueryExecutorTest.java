@@ -0,0 +1,96 @@
+package org.praxisplatform.uischema.options.service.jpa;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.praxisplatform.uischema.dto.OptionDTO;
+import org.praxisplatform.uischema.options.OptionSourceDescriptor;
+import org.praxisplatform.uischema.options.OptionSourcePolicy;
+import org.praxisplatform.uischema.options.OptionSourceType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JpaOptionSourceQueryExecutorTest {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void seed() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Category.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:jpa-option-source-executor;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setStatementInspector(sql -> {
+                    statements.add(sql);
+                    return sql;
+                })
+                .buildSessionFactory();
+        sessionFactory.inTransaction(session -> LongStream.rangeClosed(1, 15).forEach(id -> {
+            Category category = new Category();
+            category.id = id;
+            category.nome = "Category " + id;
+            session.persist(category);
+        }));
+    }
+
+    @AfterAll
+    static void close() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void byIdsSplitsLookupsIntoPaddedBatchesAndKeepsTheRequestedOrder() {
+        List<Object> ids = new ArrayList<>();
+        LongStream.rangeClosed(1, 12).map(id -> 13 - id).forEach(ids::add);
+        ids.add(99L);
+        ids.add("4");
+        statements.clear();
+
+        List<OptionDTO<Object>> options = new JpaOptionSourceQueryExecutor(10)
+                .byIdsOptions(sessionFactory.createEntityManager(), Category.class, descriptor(), ids);
+
+        assertEquals(
+                LongStream.rangeClosed(1, 12).map(id -> 13 - id).boxed().toList(),
+                options.stream().map(OptionDTO::id).toList().subList(0, 12)
+        );
+        // Unknown ids are omitted; "4" is coerced to the id type and resolves again.
+        assertEquals(13, options.size());
+        assertEquals("Category 4", options.get(12).label());
+        // Thirteen distinct ids after coercion: a full batch of ten, then three padded to the smallest bucket.
+        assertEquals(List.of(10, 8), statements.stream()
+                .map(sql -> (int) sql.chars().filter(character -> character == '?').count())
+                .toList());
+    }
+
+    private static OptionSourceDescriptor descriptor() {
+        return new OptionSourceDescriptor(
+                "category",
+                OptionSourceType.LIGHT_LOOKUP,
+                "/categories",
+                "category",
+                "id",
+                "nome",
+                "id",
+                List.of(),
+                OptionSourcePolicy.defaults()
+        );
+    }
+
+    @Entity(name = "OptionSourceCategory")
+    static class Category {
+        @Id
+        Long id;
+        String nome;
+    }
+}
@@ -0,0 +1,51 @@
+package org.praxisplatform.uischema.rest.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.praxisplatform.uischema.exporting.CollectionExportRowSource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StreamedListTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void serializesRowsStraightFromTheSourceInsideTheEnvelope() throws Exception {
+        AtomicInteger opened = new AtomicInteger();
+        StreamedList<String> rows = StreamedList.of(
+                CollectionExportRowSource.of(() -> {
+                    opened.incrementAndGet();
+                    return Stream.of(1, 2, 3);
+                }),
+                value -> "row-" + value
+        );
+
+        String json = objectMapper.writeValueAsString(RestApiResponse.success(rows, null));
+
+        assertEquals(1, opened.get());
+        assertEquals("[\"row-1\",\"row-2\",\"row-3\"]", objectMapper.readTree(json).path("data").toString());
+        assertThrows(IllegalStateException.class, rows::size);
+    }
+
+    @Test
+    void materializesOnceWhenReadAsAList() throws Exception {
+        AtomicInteger opened = new AtomicInteger();
+        StreamedList<Integer> rows = StreamedList.of(
+                CollectionExportRowSource.of(() -> {
+                    opened.incrementAndGet();
+                    return Stream.of(1, 2);
+                }),
+                value -> value * 10
+        );
+
+        assertEquals(List.of(10, 20), List.copyOf(rows));
+        assertEquals("[10,20]", objectMapper.writeValueAsString(rows));
+        assertEquals(1, opened.get());
+    }
+}
@@ -2,8 +2,13 @@ package org.praxisplatform.uischema.service.base;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Id;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.praxisplatform.uischema.annotation.OptionLabel;
+import org.praxisplatform.uischema.concurrency.DatasetVersionTracker;
+import org.praxisplatform.uischema.dto.CollectionSlice;
+import org.praxisplatform.uischema.dto.CountMode;
 import org.praxisplatform.uischema.dto.OptionDTO;
 import org.praxisplatform.uischema.filter.dto.GenericFilterDTO;
 import org.praxisplatform.uischema.filter.specification.GenericSpecificationsBuilder;
@@ -18,10 +23,13 @@ import org.springframework.beans.factory.support.StaticListableBeanFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -29,9 +37,13 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.AdditionalAnswers.delegatesTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -84,17 +96,19 @@ class AbstractBaseResourceServiceTest {
 
         when(repository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Pageable.class)))
                 .thenReturn(new PageImpl<>(
-                        List.of(entity(2L, "Second"), entity(3L, "Third")),
+                        List.of(entity(2L, "Second")),
                         PageRequest.of(0, 2),
-                        2
+                        1
                 ));
-        when(repository.findAll(any(Specification.class))).thenReturn(List.of(entity(1L, "First")));
+        when(repository.findAll(any(Specification.class))).thenReturn(List.of(entity(3L, "Third"), entity(1L, "First")));
 
         Page<TestResponseDTO> page = service.filter(new TestFilterDTO(), PageRequest.of(0, 2), List.of(1L, 3L));
 
         assertEquals(List.of(1L, 3L, 2L), page.getContent().stream().map(TestResponseDTO::id).toList());
         assertEquals(List.of("First", "Third", "Second"), page.getContent().stream().map(TestResponseDTO::name).toList());
-        assertEquals(2, page.getTotalElements());
+        // The includeIds are served on top of the page; the total counts the paged rows only.
+        assertEquals(1, page.getTotalElements());
+        assertEquals(1, page.getTotalPages());
     }
 
     @Test
@@ -304,6 +318,131 @@ class AbstractBaseResourceServiceTest {
         assertEquals("departmentLookup", service.resolveOptionSource("departmentLookup").key());
     }
 
+    @Test
+    void datasetVersionMovesWithEntitiesReadByTheResponseDto() {
+        EmployeeReadService service = new EmployeeReadService(mockRepository());
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.getMetamodel()).thenReturn(EntityFetchPlanTest.metamodel());
+        DatasetVersionTracker tracker = new DatasetVersionTracker();
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        ReflectionTestUtils.setField(service, "datasetVersionTracker", tracker);
+
+        assertEquals(List.of(EntityFetchPlanTest.Employee.class, EntityFetchPlanTest.Department.class), service.getDatasetVersionSources());
+        String before = service.getDatasetVersion().orElseThrow();
+        tracker.increment(EntityFetchPlanTest.Department.class);
+
+        assertNotEquals(before, service.getDatasetVersion().orElseThrow());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exactCountWithFetchPlanReadsThePageThroughTheLoadGraph() {
+        BaseCrudRepository<EntityFetchPlanTest.Employee, Long> repository = mockRepository();
+        EmployeeReadService service = new EmployeeReadService(repository);
+        ReflectionTestUtils.setField(service, "entityManager", EntityFetchPlanTest.seededEntityManager());
+
+        Page<EntityFetchPlanTest.FlatEmployeeDto> page = service.filter(
+                new TestFilterDTO(),
+                PageRequest.of(0, 2, Sort.by("id")),
+                null,
+                CountMode.EXACT
+        );
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of("Employee 1", "Employee 2"), page.map(EntityFetchPlanTest.FlatEmployeeDto::nome).getContent());
+        // Field access on a lazy proxy reads null; the name is only there when the graph joined it.
+        assertEquals(List.of("Research", "Research"), page.map(EntityFetchPlanTest.FlatEmployeeDto::departmentNome).getContent());
+        verify(repository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void countModesReadThePageThroughTheRepositoryWithoutAFetchPlan() {
+        EntityManager entityManager = EntityFetchPlanTest.seededEntityManager();
+        EmployeeRepository repository = mock(EmployeeRepository.class,
+                delegatesTo(new JpaRepositoryFactory(entityManager).getRepository(EmployeeRepository.class)));
+        ScalarEmployeeReadService service = new ScalarEmployeeReadService(repository);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+
+        Page<EntityFetchPlanTest.ScalarEmployeeDto> exact = service.filter(
+                new TestFilterDTO(), PageRequest.of(0, 2, Sort.by("id")), null, CountMode.EXACT);
+        Page<EntityFetchPlanTest.ScalarEmployeeDto> skipped = service.filter(
+                new TestFilterDTO(), PageRequest.of(1, 2, Sort.by("id")), null, CountMode.SKIP);
+
+        assertEquals(List.of(1L, 2L), exact.map(EntityFetchPlanTest.ScalarEmployeeDto::id).getContent());
+        assertEquals(3, exact.getTotalElements());
+        assertEquals(List.of(3L), skipped.map(EntityFetchPlanTest.ScalarEmployeeDto::id).getContent());
+        assertEquals(3, skipped.getTotalElements());
+        verify(repository).findAll(any(Specification.class), any(Pageable.class));
+        verify(repository).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    void overriddenIncludeIdsHookKeepsAuthorityOverTheFilterRead() {
+        BaseCrudRepository<TestEntity, Long> repository = mockRepository();
+        List<Collection<Long>> hookCalls = new ArrayList<>();
+        TestReadOnlyService service = new TestReadOnlyService(repository) {
+            @Override
+            protected Page<TestEntity> filterEntitiesWithIncludeIds(
+                    TestFilterDTO filter,
+                    Pageable pageable,
+                    Collection<Long> includeIds
+            ) {
+                hookCalls.add(includeIds);
+                return new PageImpl<>(List.of(entity(9L, "Custom")), pageable, 1);
+            }
+        };
+
+        Page<TestResponseDTO> page = service.filter(new TestFilterDTO(), PageRequest.of(0, 5), List.of(9L), CountMode.SKIP);
+
+        assertEquals(List.of(List.of(9L)), hookCalls);
+        assertEquals(List.of("Custom"), page.map(TestResponseDTO::name).getContent());
+        verify(repository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void allSlicesContinueFromTheKeysetCursorOfTheLastRow() throws Exception {
+        ScalarEmployeeReadService service = new ScalarEmployeeReadService(mockRepository());
+        ReflectionTestUtils.setField(service, "entityManager", EntityFetchPlanTest.seededEntityManager());
+
+        CollectionSlice<EntityFetchPlanTest.ScalarEmployeeDto> first = service.findAllSlice(null, 2);
+        CollectionSlice<EntityFetchPlanTest.ScalarEmployeeDto> second = service.findAllSlice(first.next(), 2);
+
+        assertEquals(List.of(1L, 2L), ids(first));
+        assertEquals(List.of(3L), ids(second));
+        assertNull(second.next());
+        assertThrows(IllegalArgumentException.class, () -> service.findAllSlice("2", 2));
+    }
+
+    private static List<Long> ids(CollectionSlice<EntityFetchPlanTest.ScalarEmployeeDto> slice) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        slice.rows().consume(rows -> rows.map(EntityFetchPlanTest.ScalarEmployeeDto::id).forEach(ids::add));
+        return ids;
+    }
+
+    @Test
+    void cappedCountStopsAtTheLimitInsideTheDatabase() {
+        EmployeeReadService service = new EmployeeReadService(mockRepository());
+        EntityManager entityManager = EntityFetchPlanTest.seededEntityManager();
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        service.cappedCountLimit = 2;
+        Page<EntityFetchPlanTest.FlatEmployeeDto> capped = service.filter(
+                new TestFilterDTO(), PageRequest.of(0, 1, Sort.by("id")), null, CountMode.CAPPED);
+        long cappedQueries = statistics.getQueryExecutionCount();
+        service.cappedCountLimit = 5;
+        Page<EntityFetchPlanTest.FlatEmployeeDto> counted = service.filter(
+                new TestFilterDTO(), PageRequest.of(0, 1, Sort.by("id")), null, CountMode.CAPPED);
+        statistics.setStatisticsEnabled(false);
+
+        assertEquals(2, capped.getTotalElements());
+        assertEquals(3, counted.getTotalElements());
+        // The page query and a single COUNT over the limited derived table.
+        assertEquals(2, cappedQueries);
+    }
+
     @SuppressWarnings("unchecked")
     private <E> BaseCrudRepository<E, Long> mockRepository() {
         return mock(BaseCrudRepository.class);
@@ -460,7 +599,7 @@ class AbstractBaseResourceServiceTest {
         }
     }
 
-    private static final class TestReadOnlyService extends AbstractReadOnlyResourceService<
+    private static class TestReadOnlyService extends AbstractReadOnlyResourceService<
             TestEntity,
             TestResponseDTO,
             Long,
@@ -499,6 +638,99 @@ class AbstractBaseResourceServiceTest {
         }
     }
 
+    private static final class EmployeeReadService extends AbstractReadOnlyResourceService<
+            EntityFetchPlanTest.Employee,
+            EntityFetchPlanTest.FlatEmployeeDto,
+            Long,
+            TestFilterDTO
+            > {
+
+        private static final ResourceMapper<EntityFetchPlanTest.Employee, EntityFetchPlanTest.FlatEmployeeDto, Void, Void, Long> RESOURCE_MAPPER =
+                new ResourceMapper<>() {
+                    @Override
+                    public EntityFetchPlanTest.FlatEmployeeDto toResponse(EntityFetchPlanTest.Employee entity) {
+                        return new EntityFetchPlanTest.FlatEmployeeDto(
+                                entity.id,
+                                entity.nome,
+                                null,
+                                entity.department == null ? null : entity.department.nome
+                        );
+                    }
+
+                    @Override
+                    public EntityFetchPlanTest.Employee newEntity(Void dto) {
+                        return new EntityFetchPlanTest.Employee();
+                    }
+
+                    @Override
+                    public void applyUpdate(EntityFetchPlanTest.Employee entity, Void dto) {
+                    }
+
+                    @Override
+                    public Long extractId(EntityFetchPlanTest.Employee entity) {
+                        return entity.id;
+                    }
+                };
+
+        private long cappedCountLimit = 10_000;
+
+        private EmployeeReadService(BaseCrudRepository<EntityFetchPlanTest.Employee, Long> repository) {
+            super(repository, new GenericSpecificationsBuilder<>(), EntityFetchPlanTest.Employee.class);
+        }
+
+        @Override
+        protected long getCappedCountLimit() {
+            return cappedCountLimit;
+        }
+
+        @Override
+        protected ResourceMapper<EntityFetchPlanTest.Employee, EntityFetchPlanTest.FlatEmployeeDto, Void, Void, Long> getResourceMapper() {
+            return RESOURCE_MAPPER;
+        }
+    }
+
+    interface EmployeeRepository extends BaseCrudRepository<EntityFetchPlanTest.Employee, Long> {
+    }
+
+    private static final class ScalarEmployeeReadService extends AbstractReadOnlyResourceService<
+            EntityFetchPlanTest.Employee,
+            EntityFetchPlanTest.ScalarEmployeeDto,
+            Long,
+            TestFilterDTO
+            > {
+
+        private static final ResourceMapper<EntityFetchPlanTest.Employee, EntityFetchPlanTest.ScalarEmployeeDto, Void, Void, Long> RESOURCE_MAPPER =
+                new ResourceMapper<>() {
+                    @Override
+                    public EntityFetchPlanTest.ScalarEmployeeDto toResponse(EntityFetchPlanTest.Employee entity) {
+                        return new EntityFetchPlanTest.ScalarEmployeeDto(entity.id, entity.nome, null);
+                    }
+
+                    @Override
+                    public EntityFetchPlanTest.Employee newEntity(Void dto) {
+                        return new EntityFetchPlanTest.Employee();
+                    }
+
+                    @Override
+                    public void applyUpdate(EntityFetchPlanTest.Employee entity, Void dto) {
+                    }
+
+                    @Override
+                    public Long extractId(EntityFetchPlanTest.Employee entity) {
+                        return entity.id;
+                    }
+                };
+
+        private ScalarEmployeeReadService(BaseCrudRepository<EntityFetchPlanTest.Employee, Long> repository) {
+            super(repository, new GenericSpecificationsBuilder<>(), EntityFetchPlanTest.Employee.class);
+        }
+
+        @Override
+        protected ResourceMapper<EntityFetchPlanTest.Employee, EntityFetchPlanTest.ScalarEmployeeDto, Void, Void, Long> getResourceMapper() {
+            return RESOURCE_MAPPER;
+        }
+    }
+
     private static final class GetterLabeledService extends AbstractReadOnlyResourceService<
             GetterLabeledEntity,
             TestResponseDTO,
@@ -13,9 +13,12 @@ import org.springframework.data.domain.Pageable;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class BaseResourceQueryServiceOptionMapperTest {
 
@@ -259,4 +262,45 @@ class BaseResourceQueryServiceOptionMapperTest {
         assertEquals(List.of(2L, 1L, 3L), options.stream().map(OptionDTO::id).toList());
         assertEquals(List.of("N2", "N1", "N3"), options.stream().map(OptionDTO::label).toList());
     }
+
+    @Test
+    void infersLabelPropertyPathOnlyFromAnnotatedFields() {
+        SimpleService<AnnFieldEntity> fieldService = new SimpleService<>(AnnFieldEntity.class) {};
+        SimpleService<AnnGetterEntity> getterService = new SimpleService<>(AnnGetterEntity.class) {};
+        SimpleService<ChildEntity> inheritedService = new SimpleService<>(ChildEntity.class) {};
+
+        assertEquals(Optional.of("nome"), fieldService.getOptionLabelPropertyPath());
+        // A getter may reshape the persistent value, so it keeps the entity-based label.
+        assertTrue(getterService.getOptionLabelPropertyPath().isEmpty());
+        assertTrue(inheritedService.getOptionLabelPropertyPath().isEmpty());
+    }
+
+    @Test
+    void doesNotInferLabelPropertyPathFromHeuristicsOrDerivedGetters() {
+        class DerivedLabel {
+            private final Long id;
+
+            DerivedLabel(Long id) { this.id = id; }
+
+            public Long getId() { return id; }
+
+            @org.praxisplatform.uischema.annotation.OptionLabel
+            public String getDisplayName() { return "#" + id; }
+        }
+
+        SimpleService<HeuristicEntity> heuristicService = new SimpleService<>(HeuristicEntity.class) {};
+        SimpleService<DerivedLabel> derivedService = new SimpleService<>(DerivedLabel.class) {};
+
+        assertTrue(heuristicService.getOptionLabelPropertyPath().isEmpty());
+        assertTrue(derivedService.getOptionLabelPropertyPath().isEmpty());
+        assertEquals("#7", derivedService.getOptionMapper().toOption(new DerivedLabel(7L)).label());
+    }
+
+    @Test
+    void reusesCompiledAccessorChainPerEntityClass() {
+        assertSame(
+                OptionLabelAccessor.forClass(AnnGetterEntity.class),
+                OptionLabelAccessor.forClass(AnnGetterEntity.class)
+        );
+    }
 }
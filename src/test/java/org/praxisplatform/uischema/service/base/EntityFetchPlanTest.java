@@ -0,0 +1,250 @@
+package org.praxisplatform.uischema.service.base;
+
+import jakarta.persistence.AttributeNode;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.Subgraph;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.Metamodel;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.praxisplatform.uischema.service.base.annotation.FetchPlan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class EntityFetchPlanTest {
+
+    private static SessionFactory sessionFactory;
+
+    /**
+     * Hibernate metamodel over the fixture entities below, shared by the service tests of this package.
+     */
+    static Metamodel metamodel() {
+        return sessionFactory().getMetamodel();
+    }
+
+    /**
+     * Entity manager over an H2 schema seeded with one department and three employees.
+     */
+    static EntityManager seededEntityManager() {
+        return sessionFactory().createEntityManager();
+    }
+
+    private static synchronized SessionFactory sessionFactory() {
+        if (sessionFactory == null) {
+            sessionFactory = new Configuration()
+                    .addAnnotatedClass(Continent.class)
+                    .addAnnotatedClass(Country.class)
+                    .addAnnotatedClass(Region.class)
+                    .addAnnotatedClass(Department.class)
+                    .addAnnotatedClass(Certification.class)
+                    .addAnnotatedClass(Employee.class)
+                    .setProperty("hibernate.connection.url", "jdbc:h2:mem:entity-fetch-plan;DB_CLOSE_DELAY=-1")
+                    .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                    .buildSessionFactory();
+            sessionFactory.inTransaction(session -> {
+                Department department = new Department();
+                department.id = 1L;
+                department.nome = "Research";
+                session.persist(department);
+                for (long id = 1; id <= 3; id++) {
+                    Employee employee = new Employee();
+                    employee.id = id;
+                    employee.nome = "Employee " + id;
+                    employee.department = department;
+                    session.persist(employee);
+                }
+            });
+        }
+        return sessionFactory;
+    }
+
+    @Test
+    void associatedEntityTypesFollowTheResponseDto() {
+        EntityFetchPlan<Employee> flattened = EntityFetchPlan.resolve(metamodel(), Employee.class, FlatEmployeeDto.class, null);
+        EntityFetchPlan<Employee> nested = EntityFetchPlan.resolve(metamodel(), Employee.class, NestedEmployeeDto.class, null);
+        EntityFetchPlan<Employee> scalar = EntityFetchPlan.resolve(metamodel(), Employee.class, ScalarEmployeeDto.class, null);
+
+        assertEquals(Set.of(Department.class), flattened.associatedEntityTypes());
+        assertEquals(Set.of(Department.class, Region.class, Country.class), nested.associatedEntityTypes());
+        assertEquals(Set.of(), scalar.associatedEntityTypes());
+    }
+
+    @Test
+    void flattenedPrefixJoinsThePlanAndAssociationIdsDoNot() {
+        EntityFetchPlan<Employee> flattened = EntityFetchPlan.resolve(metamodel(), Employee.class, FlatEmployeeDto.class, null);
+        EntityFetchPlan<Employee> scalar = EntityFetchPlan.resolve(metamodel(), Employee.class, ScalarEmployeeDto.class, null);
+        TypedQuery<Employee> untouched = query();
+
+        assertEquals(Set.of("department"), pagedGraph(flattened));
+        assertTrue(scalar.isEmpty());
+        scalar.applyPaged(seededEntityManager(), untouched);
+        verifyNoInteractions(untouched);
+    }
+
+    @Test
+    void nestedDtosAreFollowedUpToThreeLevels() {
+        EntityFetchPlan<Employee> nested = EntityFetchPlan.resolve(metamodel(), Employee.class, NestedEmployeeDto.class, null);
+
+        assertEquals(Set.of("department", "department.region", "department.region.country"), pagedGraph(nested));
+    }
+
+    @Test
+    void declaredCollectionsAreOnlyFetchedOnUnpagedReads() {
+        FetchPlan declared = WithCertifications.class.getAnnotation(FetchPlan.class);
+        EntityFetchPlan<Employee> plan = EntityFetchPlan.resolve(metamodel(), Employee.class, FlatEmployeeDto.class, declared);
+        EntityManager entityManager = seededEntityManager();
+        TypedQuery<Employee> unpaged = query();
+        plan.applyUnpaged(entityManager, unpaged);
+        ArgumentCaptor<Object> graph = ArgumentCaptor.forClass(Object.class);
+        verify(unpaged).setHint(eq(EntityFetchPlan.HINT_LOAD_GRAPH), graph.capture());
+
+        assertEquals(Set.of("department"), pagedGraph(plan));
+        assertEquals(Set.of("certifications", "department"), paths((EntityGraph<?>) graph.getValue()));
+        assertEquals(Set.of("certifications", "department"), paths((EntityGraph<?>) plan.findHints(entityManager).get(EntityFetchPlan.HINT_LOAD_GRAPH)));
+    }
+
+    @Test
+    void declaredPathsAreValidatedAgainstTheMetamodel() {
+        FetchPlan declared = WithUnknownPath.class.getAnnotation(FetchPlan.class);
+
+        assertThrows(IllegalStateException.class, () -> EntityFetchPlan.resolve(metamodel(), Employee.class, null, declared));
+        assertEquals(Map.of(), EntityFetchPlan.resolve(null, Employee.class, FlatEmployeeDto.class, null).findHints(null));
+    }
+
+    private static Set<String> pagedGraph(EntityFetchPlan<Employee> plan) {
+        TypedQuery<Employee> query = query();
+        plan.applyPaged(seededEntityManager(), query);
+        ArgumentCaptor<Object> graph = ArgumentCaptor.forClass(Object.class);
+        verify(query).setHint(eq(EntityFetchPlan.HINT_LOAD_GRAPH), graph.capture());
+        return paths((EntityGraph<?>) graph.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TypedQuery<Employee> query() {
+        TypedQuery<Employee> query = mock(TypedQuery.class);
+        when(query.setHint(anyString(), any())).thenReturn(query);
+        return query;
+    }
+
+    private static Set<String> paths(EntityGraph<?> graph) {
+        Set<String> paths = new TreeSet<>();
+        collect(graph.getAttributeNodes(), "", paths);
+        return paths;
+    }
+
+    private static void collect(List<? extends AttributeNode<?>> nodes, String prefix, Set<String> paths) {
+        for (AttributeNode<?> node : nodes) {
+            String path = prefix + node.getAttributeName();
+            paths.add(path);
+            for (Subgraph<?> subgraph : node.getSubgraphs().values()) {
+                collect(subgraph.getAttributeNodes(), path + ".", paths);
+            }
+        }
+    }
+
+    @FetchPlan("certifications")
+    private static final class WithCertifications {
+    }
+
+    @FetchPlan("department.manager")
+    private static final class WithUnknownPath {
+    }
+
+    @Entity(name = "FetchPlanContinent")
+    static class Continent {
+        @Id
+        Long id;
+        String nome;
+    }
+
+    @Entity(name = "FetchPlanCountry")
+    static class Country {
+        @Id
+        Long id;
+        String nome;
+        @ManyToOne(fetch = FetchType.LAZY)
+        Continent continent;
+    }
+
+    @Entity(name = "FetchPlanRegion")
+    static class Region {
+        @Id
+        Long id;
+        String nome;
+        @ManyToOne(fetch = FetchType.LAZY)
+        Country country;
+    }
+
+    @Entity(name = "FetchPlanDepartment")
+    static class Department {
+        @Id
+        Long id;
+        String nome;
+        @ManyToOne(fetch = FetchType.LAZY)
+        Region region;
+    }
+
+    @Entity(name = "FetchPlanCertification")
+    static class Certification {
+        @Id
+        Long id;
+        String nome;
+        @ManyToOne(fetch = FetchType.LAZY)
+        Employee employee;
+    }
+
+    @Entity(name = "FetchPlanEmployee")
+    static class Employee {
+        @Id
+        Long id;
+        String nome;
+        @ManyToOne(fetch = FetchType.LAZY)
+        Department department;
+        @OneToMany(mappedBy = "employee")
+        List<Certification> certifications = new ArrayList<>();
+    }
+
+    record FlatEmployeeDto(Long id, String nome, Long departmentId, String departmentNome) {
+    }
+
+    record ScalarEmployeeDto(Long id, String nome, Long departmentId) {
+    }
+
+    record NestedEmployeeDto(Long id, DepartmentDto department) {
+    }
+
+    record DepartmentDto(String nome, RegionDto region) {
+    }
+
+    record RegionDto(String nome, CountryDto country) {
+    }
+
+    record CountryDto(String nome, ContinentDto continent) {
+    }
+
+    record ContinentDto(String nome) {
+    }
+}
@@ -0,0 +1,137 @@
+package org.praxisplatform.uischema.service.base;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EntityIdLookupTest {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void seed() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Item.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:entity-id-lookup;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setStatementInspector(sql -> {
+                    statements.add(sql);
+                    return sql;
+                })
+                .buildSessionFactory();
+        sessionFactory.inTransaction(session -> LongStream.rangeClosed(1, 20).forEach(id -> {
+            Item item = new Item();
+            item.id = id;
+            item.tenant = id % 2 == 0 ? "even" : "odd";
+            session.persist(item);
+        }));
+    }
+
+    @AfterAll
+    static void close() {
+        sessionFactory.close();
+    }
+
+    @BeforeEach
+    void clearStatements() {
+        statements.clear();
+    }
+
+    @Test
+    void splitsLookupsAboveTheLimitIntoPaddedBatches() {
+        List<Long> ids = LongStream.rangeClosed(1, 12).boxed().toList();
+
+        List<Item> found = lookup(sessionFactory.createEntityManager(), 10).find(null, ids);
+
+        assertEquals(ids, found.stream().map(item -> item.id).sorted().toList());
+        // Ten ids fill the first batch; the remaining two are padded to the smallest bucket.
+        assertEquals(List.of(10, 8), statements.stream().map(EntityIdLookupTest::parameterCount).toList());
+    }
+
+    @Test
+    void resolvesCachedIdsWithoutSql() {
+        EntityManager entityManager = cachedEntityManager(sessionFactory.createEntityManager());
+
+        List<Item> found = lookup(entityManager, 10).find(null, List.of(1L, 2L, 3L));
+
+        assertEquals(List.of(1L, 2L, 3L), found.stream().map(item -> item.id).sorted().toList());
+        verify(entityManager).find(eq(Item.class), eq(1L), anyMap());
+        // Only the uncached ids reach the database, padded to the smallest bucket.
+        assertEquals(List.of(8), statements.stream()
+                .filter(sql -> sql.contains(" in ("))
+                .map(EntityIdLookupTest::parameterCount)
+                .toList());
+    }
+
+    @Test
+    void enabledSessionFilterBypassesTheCache() {
+        EntityManager delegate = sessionFactory.createEntityManager();
+        delegate.unwrap(Session.class).enableFilter("tenant").setParameter("tenant", "odd");
+        EntityManager entityManager = cachedEntityManager(delegate);
+
+        List<Item> found = lookup(entityManager, 10).find(null, List.of(1L, 2L, 3L));
+
+        assertEquals(List.of(1L, 3L), found.stream().map(item -> item.id).sorted().toList());
+        verify(entityManager, never()).find(eq(Item.class), any(), anyMap());
+    }
+
+    /**
+     * Entity manager whose second-level cache reports id 1 as cached; everything else goes to H2.
+     */
+    private static EntityManager cachedEntityManager(EntityManager delegate) {
+        EntityManager entityManager = mock(EntityManager.class, delegatesTo(delegate));
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        Cache cache = mock(Cache.class);
+        when(cache.contains(Item.class, 1L)).thenReturn(true);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        doReturn(entityManagerFactory).when(entityManager).getEntityManagerFactory();
+        return entityManager;
+    }
+
+    private static EntityIdLookup<Item, Long> lookup(EntityManager entityManager, int maxParameters) {
+        return new EntityIdLookup<>(entityManager, Item.class, "id", maxParameters, EntityFetchPlan.empty(Item.class));
+    }
+
+    private static int parameterCount(String sql) {
+        return (int) sql.chars().filter(character -> character == '?').count();
+    }
+
+    @Entity(name = "IdLookupItem")
+    @FilterDef(name = "tenant", parameters = @ParamDef(name = "tenant", type = String.class))
+    @Filter(name = "tenant", condition = "tenant = :tenant")
+    static class Item {
+        @Id
+        Long id;
+        String tenant;
+    }
+}
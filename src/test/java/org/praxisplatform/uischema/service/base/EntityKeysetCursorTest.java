@@ -0,0 +1,137 @@
+package org.praxisplatform.uischema.service.base;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Id;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.praxisplatform.uischema.dto.CursorPage;
+import org.praxisplatform.uischema.filter.specification.GenericSpecificationsBuilder;
+import org.praxisplatform.uischema.util.CursorEncoder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class EntityKeysetCursorTest {
+
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void seed() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Item.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:entity-keyset-cursor;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .buildSessionFactory();
+        sessionFactory.inTransaction(session -> {
+            String[] labels = {"b", null, "a", null, "c"};
+            for (int index = 0; index < labels.length; index++) {
+                Item item = new Item();
+                item.id = index + 1L;
+                item.label = labels[index];
+                session.persist(item);
+            }
+        });
+    }
+
+    @AfterAll
+    static void close() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void nullPlacementFollowsTheDialect() {
+        // H2 sorts NULL below every value.
+        assertFalse(EntityKeysetCursor.nullsSortedHigh(sessionFactory.createEntityManager()));
+    }
+
+    @Test
+    void pagesOverNullableKeysWhicheverPlacementIsConfigured() {
+        assertEquals(List.of(3L, 1L, 5L, 2L, 4L), forward(true, Sort.by("label")));
+        assertEquals(List.of(2L, 4L, 3L, 1L, 5L), forward(false, Sort.by("label")));
+        assertEquals(List.of(2L, 4L, 5L, 1L, 3L), forward(true, Sort.by(Sort.Order.desc("label"), Sort.Order.asc("id"))));
+        assertEquals(List.of(5L, 1L, 3L, 2L, 4L), forward(false, Sort.by(Sort.Order.desc("label"), Sort.Order.asc("id"))));
+    }
+
+    @Test
+    void readsBackwardsAcrossNullKeys() {
+        EntityKeysetCursor<Item> cursor = cursor(true);
+        Sort sort = Sort.by("label");
+        CursorPage<Item> first = cursor.page(null, sort, "id", null, null, 2);
+        CursorPage<Item> second = cursor.page(null, sort, "id", first.next(), null, 2);
+        CursorPage<Item> third = cursor.page(null, sort, "id", second.next(), null, 2);
+
+        CursorPage<Item> back = cursor.page(null, sort, "id", null, third.prev(), 2);
+
+        assertEquals(List.of(4L), ids(third));
+        assertEquals(List.of(5L, 2L), ids(back));
+        assertEquals(4L, cursor.position(null, sort, "id", 4L).orElseThrow());
+    }
+
+    @Test
+    void continuesAStreamedScanOrderedByTheDialect() {
+        Sort sort = Sort.by(Sort.Order.desc("label"));
+        EntityManager entityManager = sessionFactory.createEntityManager();
+        EntityKeysetCursor<Item> cursor = cursor(EntityKeysetCursor.nullsSortedHigh(entityManager));
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        int scans = 0;
+        do {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Item> query = cb.createQuery(Item.class);
+            Root<Item> root = query.from(Item.class);
+            Specification<Item> range = cursor.after(sort, "id", after);
+            if (range != null) {
+                query.where(range.toPredicate(root, query, cb));
+            }
+            query.orderBy(QueryUtils.toOrders(EntityKeysetCursor.keySort(sort, "id"), root, cb));
+            String next = cursor.next(null, sort, "id", after, 2);
+            entityManager.createQuery(query).setMaxResults(2).getResultList().forEach(item -> ids.add(item.id));
+            after = next;
+            scans++;
+        } while (after != null);
+
+        assertEquals(List.of(5L, 1L, 3L, 2L, 4L), ids);
+        assertEquals(3, scans);
+    }
+
+    private static List<Long> forward(boolean nullsHigh, Sort sort) {
+        EntityKeysetCursor<Item> cursor = cursor(nullsHigh);
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPage<Item> page = cursor.page(null, sort, "id", after, null, 2);
+            ids.addAll(ids(page));
+            after = page.next();
+        } while (after != null);
+        return ids;
+    }
+
+    private static EntityKeysetCursor<Item> cursor(boolean nullsHigh) {
+        EntityManager entityManager = sessionFactory.createEntityManager();
+        return new EntityKeysetCursor<>(entityManager, Item.class, new GenericSpecificationsBuilder<>(), CursorEncoder.BASE64_URL, nullsHigh);
+    }
+
+    private static List<Long> ids(CursorPage<Item> page) {
+        return page.content().stream().map(item -> item.id).toList();
+    }
+
+    @Entity(name = "KeysetCursorItem")
+    static class Item {
+        @Id
+        Long id;
+        String label;
+    }
+}
@@ -0,0 +1,256 @@
+package org.praxisplatform.uischema.service.base;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.praxisplatform.uischema.annotation.OptionLabel;
+import org.praxisplatform.uischema.dto.OptionDTO;
+import org.praxisplatform.uischema.filter.dto.GenericFilterDTO;
+import org.praxisplatform.uischema.filter.specification.GenericSpecificationsBuilder;
+import org.praxisplatform.uischema.mapper.base.OptionMapper;
+import org.praxisplatform.uischema.mapper.base.ResourceMapper;
+import org.praxisplatform.uischema.repository.base.BaseCrudRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityOptionProjectionTest {
+
+    private static SessionFactory sessionFactory;
+
+    private EntityManager entityManager;
+    private Statistics statistics;
+
+    @BeforeAll
+    static void seed() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Tag.class)
+                .addAnnotatedClass(Ticket.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:entity-option-projection;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.generate_statistics", "true")
+                .buildSessionFactory();
+        sessionFactory.inTransaction(session -> {
+            session.persist(tag(1L, "  Alpha  ", null));
+            session.persist(tag(2L, "Beta", null));
+            session.persist(tag(3L, "   ", "Gamma desc"));
+            session.persist(tag(4L, null, null));
+            Ticket ticket = new Ticket();
+            ticket.id = 10L;
+            ticket.tag = session.getReference(Tag.class, 2L);
+            session.persist(ticket);
+        });
+    }
+
+    @AfterAll
+    static void close() {
+        sessionFactory.close();
+    }
+
+    @BeforeEach
+    void openEntityManager() {
+        entityManager = sessionFactory.createEntityManager();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void projectsTrimmedLabelsWithoutLoadingEntitiesWhenEligible() {
+        TagService service = wire(new TagService(tagRepository()));
+
+        Page<OptionDTO<Long>> page = service.filterOptions(new Filter(), PageRequest.of(0, 2, Sort.by("id")));
+        List<OptionDTO<Long>> byIds = service.byIdsOptions(List.of(2L, 1L));
+
+        assertEquals(List.of("Alpha", "Beta"), labels(page.getContent()));
+        assertEquals(4, page.getTotalElements());
+        assertEquals(List.of("Beta", "Alpha"), labels(byIds));
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void blankProjectedLabelsFallBackToTheEntityChainForThoseRowsOnly() {
+        TagService service = wire(new TagService(tagRepository()));
+
+        List<OptionDTO<Long>> options = service.byIdsOptions(List.of(3L, 4L, 1L));
+
+        // Row 3 falls back to the getDescricao heuristic, row 4 to its id.
+        assertEquals(List.of("Gamma desc", "4", "Alpha"), labels(options));
+        assertEquals(2, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void overriddenOptionMappingKeepsAuthority() {
+        TagService mapped = wire(new TagService(tagRepository()) {
+            @Override
+            protected OptionMapper<Tag, Long> getOptionMapper() {
+                return tag -> new OptionDTO<>(tag.id, "mapped-" + tag.id, null);
+            }
+        });
+        TagService computed = wire(new TagService(tagRepository()) {
+            @Override
+            protected String computeOptionLabel(Tag tag) {
+                return "computed-" + tag.id;
+            }
+        });
+
+        assertEquals(List.of("mapped-1"), labels(mapped.filterOptions(new Filter(), PageRequest.of(0, 1, Sort.by("id"))).getContent()));
+        assertEquals(List.of("computed-2"), labels(computed.byIdsOptions(List.of(2L))));
+        assertTrue(statistics.getEntityLoadCount() >= 2);
+    }
+
+    @Test
+    void overriddenEntityLoadingKeepsAuthority() {
+        List<String> calls = new ArrayList<>();
+        TagService service = wire(new TagService(tagRepository()) {
+            @Override
+            protected Page<Tag> filterEntities(Filter filter, Pageable pageable) {
+                calls.add("filterEntities");
+                return super.filterEntities(filter, pageable);
+            }
+
+            @Override
+            protected List<Tag> findEntitiesById(Collection<Long> ids) {
+                calls.add("findEntitiesById");
+                return super.findEntitiesById(ids);
+            }
+        });
+
+        assertEquals(List.of("Alpha"), labels(service.filterOptions(new Filter(), PageRequest.of(0, 1, Sort.by("id"))).getContent()));
+        assertEquals(List.of("Beta"), labels(service.byIdsOptions(List.of(2L))));
+        assertEquals(List.of("filterEntities", "findEntitiesById"), calls);
+    }
+
+    @Test
+    void annotatedAssociationsAreNotProjected() {
+        TicketService service = wire(new TicketService(ticketRepository()));
+
+        List<OptionDTO<Long>> options = service.byIdsOptions(List.of(10L));
+
+        assertEquals(List.of(10L), options.stream().map(OptionDTO::id).toList());
+        assertTrue(statistics.getEntityLoadCount() > 0, "a @OptionLabel association must load the entity");
+    }
+
+    private <S extends AbstractBaseQueryResourceService<?, ?, ?, ?>> S wire(S service) {
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        return service;
+    }
+
+    private TagRepository tagRepository() {
+        return new JpaRepositoryFactory(entityManager).getRepository(TagRepository.class);
+    }
+
+    private TicketRepository ticketRepository() {
+        return new JpaRepositoryFactory(entityManager).getRepository(TicketRepository.class);
+    }
+
+    private static List<String> labels(List<OptionDTO<Long>> options) {
+        return options.stream().map(OptionDTO::label).toList();
+    }
+
+    private static Tag tag(Long id, String name, String descricao) {
+        Tag tag = new Tag();
+        tag.id = id;
+        tag.name = name;
+        tag.descricao = descricao;
+        return tag;
+    }
+
+    @Entity(name = "OptionProjectionTag")
+    static class Tag {
+        @Id
+        Long id;
+
+        @OptionLabel
+        String name;
+
+        String descricao;
+
+        public String getDescricao() {
+            return descricao;
+        }
+    }
+
+    @Entity(name = "OptionProjectionTicket")
+    static class Ticket {
+        @Id
+        Long id;
+
+        @OptionLabel
+        @ManyToOne
+        Tag tag;
+    }
+
+    interface TagRepository extends BaseCrudRepository<Tag, Long> {
+    }
+
+    interface TicketRepository extends BaseCrudRepository<Ticket, Long> {
+    }
+
+    static final class Filter implements GenericFilterDTO {
+    }
+
+    static class TagService extends LabelService<Tag> {
+        TagService(BaseCrudRepository<Tag, Long> repository) {
+            super(repository, Tag.class, tag -> tag.id);
+        }
+    }
+
+    static final class TicketService extends LabelService<Ticket> {
+        TicketService(BaseCrudRepository<Ticket, Long> repository) {
+            super(repository, Ticket.class, ticket -> ticket.id);
+        }
+    }
+
+    abstract static class LabelService<E> extends AbstractReadOnlyResourceService<E, Long, Long, Filter> {
+
+        private final ResourceMapper<E, Long, Void, Void, Long> mapper;
+
+        LabelService(BaseCrudRepository<E, Long> repository, Class<E> entityClass, Function<E, Long> id) {
+            super(repository, new GenericSpecificationsBuilder<>(), entityClass);
+            this.mapper = new ResourceMapper<>() {
+                @Override
+                public Long toResponse(E entity) {
+                    return id.apply(entity);
+                }
+
+                @Override
+                public E newEntity(Void dto) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void applyUpdate(E entity, Void dto) {
+                }
+
+                @Override
+                public Long extractId(E entity) {
+                    return id.apply(entity);
+                }
+            };
+        }
+
+        @Override
+        protected ResourceMapper<E, Long, Void, Void, Long> getResourceMapper() {
+            return mapper;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.praxisplatform.uischema.service.base;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.Test;
+import org.praxisplatform.uischema.service.base.EntityFetchPlanTest.Employee;
+import org.praxisplatform.uischema.service.base.EntityFetchPlanTest.FlatEmployeeDto;
+import org.praxisplatform.uischema.service.base.EntityFetchPlanTest.NestedEmployeeDto;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityResponseProjectionTest {
+
+    @Test
+    void resolvesNamedAndFlattenedFieldsAndReadsTuplesWithoutManagedEntities() {
+        EntityResponseProjection<Employee, FlatEmployeeDto> projection =
+                EntityResponseProjection.resolve(EntityFetchPlanTest.metamodel(), Employee.class, FlatEmployeeDto.class);
+        assertNotNull(projection);
+        EntityManager entityManager = EntityFetchPlanTest.seededEntityManager();
+
+        List<FlatEmployeeDto> rows = projection.query(entityManager, null, Sort.by("id")).getResultList().stream()
+                .map(projection::toResponse)
+                .toList();
+
+        assertEquals(new FlatEmployeeDto(1L, "Employee 1", 1L, "Research"), rows.get(0));
+        assertEquals(3, rows.size());
+        assertTrue(entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getEntitiesByKey().isEmpty());
+    }
+
+    @Test
+    void buildsMutableDtosThroughTheNoArgConstructor() {
+        EntityResponseProjection<Employee, MutableEmployeeDto> projection =
+                EntityResponseProjection.resolve(EntityFetchPlanTest.metamodel(), Employee.class, MutableEmployeeDto.class);
+        assertNotNull(projection);
+
+        MutableEmployeeDto row = projection.toResponse(projection.query(EntityFetchPlanTest.seededEntityManager(), null, Sort.by("id"))
+                .setMaxResults(1)
+                .getSingleResult());
+
+        assertEquals("Employee 1", row.nome);
+        assertEquals("Research", row.departmentNome);
+    }
+
+    @Test
+    void fallsBackWhenAnyFieldHasNoBasicAttributePath() {
+        assertNull(EntityResponseProjection.resolve(EntityFetchPlanTest.metamodel(), Employee.class, NestedEmployeeDto.class));
+        assertNull(EntityResponseProjection.resolve(EntityFetchPlanTest.metamodel(), Employee.class, DerivedEmployeeDto.class));
+        assertNull(EntityResponseProjection.resolve(EntityFetchPlanTest.metamodel(), Employee.class, MismatchedEmployeeDto.class));
+        assertNull(EntityResponseProjection.resolve(EntityFetchPlanTest.metamodel(), Employee.class, CollectionEmployeeDto.class));
+        assertNull(EntityResponseProjection.resolve(null, Employee.class, FlatEmployeeDto.class));
+    }
+
+    static final class MutableEmployeeDto {
+        private String nome;
+        private String departmentNome;
+    }
+
+    record DerivedEmployeeDto(Long id, String displayName) {
+    }
+
+    record MismatchedEmployeeDto(Long id, Integer nome) {
+    }
+
+    record CollectionEmployeeDto(Long id, List<String> certifications) {
+    }
+}
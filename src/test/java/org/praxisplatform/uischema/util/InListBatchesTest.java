@@ -0,0 +1,37 @@
+package org.praxisplatform.uischema.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InListBatchesTest {
+
+    @Test
+    void padsDistinctValuesToTheNextBucket() {
+        List<List<Long>> batches = InListBatches.partition(Arrays.asList(3L, 1L, null, 3L, 2L), 1000);
+
+        assertEquals(List.of(List.of(3L, 1L, 2L, 2L, 2L, 2L, 2L, 2L)), batches);
+        assertEquals(16, InListBatches.bucketSize(9, 1000));
+        assertEquals(1000, InListBatches.bucketSize(600, 1000));
+    }
+
+    @Test
+    void splitsAboveTheParameterLimit() {
+        List<Integer> ids = IntStream.range(0, 2500).boxed().toList();
+
+        List<List<Integer>> batches = InListBatches.partition(ids, 1000);
+
+        assertEquals(List.of(1000, 1000, 512), batches.stream().map(List::size).toList());
+        assertEquals(ids, batches.stream().flatMap(List::stream).distinct().toList());
+    }
+
+    @Test
+    void returnsNoBatchesForEmptyInput() {
+        assertTrue(InListBatches.partition(List.of(), 1000).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> InListBatches.partition(List.of(1), 0));
+    }
+}
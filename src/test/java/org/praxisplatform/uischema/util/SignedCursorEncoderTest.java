@@ -0,0 +1,32 @@
+package org.praxisplatform.uischema.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SignedCursorEncoderTest {
+
+    private final SignedCursorEncoder encoder = new SignedCursorEncoder("test-secret");
+
+    @Test
+    void roundTripsUrlSafeTokens() {
+        String token = encoder.encode("[\"1a2b\",\"Ana Maria\",\"42\"]");
+
+        assertFalse(token.contains("+") || token.contains("/") || token.contains("="));
+        assertEquals("[\"1a2b\",\"Ana Maria\",\"42\"]", encoder.decode(token));
+    }
+
+    @Test
+    void rejectsTamperedForeignAndMalformedTokens() {
+        String token = encoder.encode("[\"1a2b\",\"42\"]");
+        String forged = CursorEncoder.BASE64_URL.encode("[\"1a2b\",\"43\"]") + token.substring(token.lastIndexOf('.'));
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.decode(forged));
+        assertThrows(IllegalArgumentException.class, () -> new SignedCursorEncoder("other-secret").decode(token));
+        assertThrows(IllegalArgumentException.class, () -> encoder.decode(CursorEncoder.BASE64_URL.encode("[\"1a2b\",\"42\"]")));
+        assertThrows(IllegalArgumentException.class, () -> encoder.decode("%%%.%%%"));
+        assertThrows(IllegalArgumentException.class, () -> new SignedCursorEncoder(" "));
+    }
+}